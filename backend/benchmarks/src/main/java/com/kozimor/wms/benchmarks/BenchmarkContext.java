@@ -0,0 +1,63 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.WmsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Uruchamia pełny kontekst aplikacji na pustej bazie benchmarkowej.
+ *
+ * h2       - baza w pamięci, osobna dla każdego triala
+ * postgres - lokalny PostgreSQL (domyślnie jdbc:postgresql://localhost:5432/wms_bench),
+ *            adres i dane logowania z -Dwms.bench.pg.url / .user / .password.
+ *            Schemat jest tworzony i usuwany przez Hibernate (create-drop) - nie używać bazy produkcyjnej.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String database) {
+        return start(database, List.of());
+    }
+
+    /**
+     * @param extraArgs dodatkowe właściwości w formie --klucz=wartość, np. --spring.threads.virtual.enabled=true;
+     *                  zastępują domyślne argumenty o tym samym kluczu
+     */
+    public static ConfigurableApplicationContext start(String database, List<String> extraArgs) {
+        List<String> args = new ArrayList<>();
+        switch (database) {
+            case "h2" -> {
+                args.add("--spring.datasource.url=jdbc:h2:mem:wms-bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+                args.add("--spring.datasource.username=sa");
+                args.add("--spring.datasource.password=");
+            }
+            case "postgres" -> {
+                args.add("--spring.datasource.url=" + System.getProperty("wms.bench.pg.url",
+                        "jdbc:postgresql://localhost:5432/wms_bench"));
+                args.add("--spring.datasource.username=" + System.getProperty("wms.bench.pg.user", "postgres"));
+                args.add("--spring.datasource.password=" + System.getProperty("wms.bench.pg.password", "postgres"));
+            }
+            default -> throw new IllegalArgumentException("Unknown benchmark database: " + database);
+        }
+        args.add("--spring.jpa.hibernate.ddl-auto=create-drop");
+        args.add("--spring.jpa.show-sql=false");
+        args.add("--spring.jpa.open-in-view=false");
+        args.add("--server.port=0");
+        args.add("--spring.main.banner-mode=off");
+        args.add("--logging.level.root=WARN");
+        // Powtórzony klucz w linii poleceń dałby wartość "a,b" - domyślna wartość musi zniknąć
+        for (String extra : extraArgs) {
+            String key = extra.substring(0, extra.indexOf('=') + 1);
+            args.removeIf(arg -> arg.startsWith(key));
+            args.add(extra);
+        }
+
+        return new SpringApplicationBuilder(WmsApplication.class).run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,221 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.LocationThreshold;
+import com.kozimor.wms.Database.Model.Role;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Repository.LocationRepository;
+import com.kozimor.wms.Database.Repository.LocationThresholdRepository;
+import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dane testowe dla benchmarków. Encje słownikowe przez repozytoria,
+ * masowe dane (itemy, powiązania z lokacjami, transakcje) przez JDBC batch - inaczej seed 100k itemów trwa minutami.
+ */
+public class BenchmarkData {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final long TRANSACTION_CHUNK = 500_000;
+    private static final String[] KEYWORDS = {"steel", "bolt", "screw", "paint", "cable", "pipe", "valve", "gear"};
+
+    private final ApplicationContext context;
+    private final JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Category category;
+    private final List<Location> locations = new ArrayList<>();
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<Long> keywordIds = new ArrayList<>();
+
+    public BenchmarkData(ApplicationContext context) {
+        this.context = context;
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    /**
+     * Rola, użytkownik "bench", kategoria, słowa kluczowe i siatka lokacji A1-S1-R1 ... z progami
+     */
+    public BenchmarkData seedBase(int locationCount) {
+        Role role = context.getBean(RoleRepository.class)
+                .save(Role.builder().roleName("ROLE_ADMIN").build());
+        user = context.getBean(UserRepository.class).save(User.builder()
+                .username("bench")
+                .password("{noop}bench")
+                .email("bench@wms.local")
+                .firstName("Bench")
+                .lastName("User")
+                .role(role)
+                .build());
+        category = context.getBean(CategoryRepository.class)
+                .save(Category.builder().name("Benchmark").description("Benchmark items").build());
+
+        for (String keyword : KEYWORDS) {
+            jdbcTemplate.update("INSERT INTO keywords (keyword_value) VALUES (?)", keyword);
+        }
+        keywordIds.addAll(jdbcTemplate.queryForList("SELECT keyword_id FROM keywords ORDER BY keyword_id", Long.class));
+
+        LocationRepository locationRepository = context.getBean(LocationRepository.class);
+        LocationThresholdRepository thresholdRepository = context.getBean(LocationThresholdRepository.class);
+        for (int i = 0; i < locationCount; i++) {
+            Location location = new Location();
+            location.setCode(String.format("A%d-S%d-R%d", i / 100 + 1, (i / 10) % 10 + 1, i % 10 + 1));
+            location.setName("Bench location " + i);
+            location.setType("BIN");
+            location = locationRepository.save(location);
+            locations.add(location);
+
+            LocationThreshold threshold = new LocationThreshold();
+            threshold.setLocation(location);
+            threshold.setMinThreshold(10);
+            threshold.setMaxThreshold(100_000);
+            thresholdRepository.save(threshold);
+        }
+        return this;
+    }
+
+    /**
+     * Dodaje itemy rozłożone równo po lokacjach, każdy z jednym słowem kluczowym
+     * i (opcjonalnie) jedną transakcją przyjęcia - tak jak po normalnym przyjęciu towaru.
+     */
+    public List<Long> seedItems(int count, boolean withReceipts) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int offset = itemIds.size();
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            int n = offset + i;
+            // co 20-ty item na wyczerpaniu, co 10-ty z niskim stanem - żeby snapshot liczył wszystkie statusy
+            double quantity = n % 20 == 0 ? 0 : n % 10 == 0 ? 5 : 50 + n % 500;
+            rows.add(new Object[]{"Item " + n, "Benchmark item " + n, category.getId(), "PCS", quantity,
+                    "bench-" + n, now, now, n % 2 == 0 ? "PRODUCT" : "COMPONENT"});
+            if (rows.size() == BATCH_SIZE) {
+                insertItems(rows);
+            }
+        }
+        insertItems(rows);
+
+        List<Long> created = jdbcTemplate.queryForList(
+                "SELECT item_id FROM items WHERE item_id > ? ORDER BY item_id", Long.class,
+                itemIds.isEmpty() ? 0L : itemIds.get(itemIds.size() - 1));
+        itemIds.addAll(created);
+
+        List<Object[]> links = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> keywordLinks = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> receipts = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < created.size(); i++) {
+            Long itemId = created.get(i);
+            Long locationId = locations.get(i % locations.size()).getId();
+            links.add(new Object[]{itemId, locationId, now, now});
+            keywordLinks.add(new Object[]{itemId, keywordIds.get(i % keywordIds.size())});
+            if (withReceipts) {
+                receipts.add(new Object[]{OffsetDateTime.now().minusDays(i % 30), "RECEIPT", itemId, locationId,
+                        50.0, user.getId(), "COMPLETED", "Benchmark receipt"});
+            }
+            if (links.size() == BATCH_SIZE) {
+                flushLinks(links, keywordLinks, receipts);
+            }
+        }
+        flushLinks(links, keywordLinks, receipts);
+        return created;
+    }
+
+    /**
+     * Historia transakcji generowana w bazie (INSERT ... SELECT po zakresie liczb, paczkami) - 10M wierszy przez
+     * JDBC batch trwałoby zbyt długo. Daty rosną równomiernie od start przez days dni, item i lokacja rozłożone
+     * po wszystkich zasiewanych; co 4. transakcja to wydanie, co 50. anulowana.
+     */
+    public void seedTransactionHistory(long count, OffsetDateTime start, int days) {
+        boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres"));
+        long stepMillis = Math.max(1, days * 86_400_000L / count);
+        long firstItem = itemIds.get(0);
+        long firstLocation = locations.get(0).getId();
+        String date = postgres
+                ? "CAST(? AS timestamptz) + x * ? * INTERVAL '1 millisecond'"
+                : "DATEADD('MILLISECOND', X * ?, CAST(? AS TIMESTAMP WITH TIME ZONE))";
+        String range = postgres ? "generate_series(?, ?) AS g(x)" : "SYSTEM_RANGE(?, ?)";
+        String sql = "INSERT INTO transactions (transaction_date, transaction_type, item_id, location_id, quantity, "
+                + "user_id, transaction_status, description) SELECT " + date + ", "
+                + "CASE WHEN MOD(x, 4) = 0 THEN 'ISSUE_TO_SALES' ELSE 'RECEIPT' END, "
+                + "? + MOD(x * 31, ?), ? + MOD(x, ?), 1 + MOD(x, 10), ?, "
+                + "CASE WHEN MOD(x, 50) = 0 THEN 'CANCELLED' ELSE 'COMPLETED' END, NULL FROM " + range;
+        // Identyfikatory itemów i lokacji w świeżej bazie są ciągłe
+        for (long from = 0; from < count; from += TRANSACTION_CHUNK) {
+            long to = Math.min(from + TRANSACTION_CHUNK, count) - 1;
+            Object first = postgres ? start : stepMillis;
+            Object second = postgres ? stepMillis : start;
+            jdbcTemplate.update(sql, first, second, firstItem, itemIds.size(), firstLocation, locations.size(),
+                    user.getId(), from, to);
+        }
+    }
+
+    /**
+     * Ustawia duży stan wszystkich itemów - benchmarki wydań nie mogą wyczerpać magazynu w trakcie pomiaru
+     */
+    public void restock(double quantity) {
+        jdbcTemplate.update("UPDATE items SET current_quantity = ?", quantity);
+    }
+
+    /**
+     * Przyjęcie quantity na każde przypisanie item-lokacja - alokacja zamówień rozdziela linie według sald lokacji,
+     * bez nich linie byłyby w całości zaległe (bez transakcji)
+     */
+    public void restockLocations(double quantity) {
+        jdbcTemplate.update("INSERT INTO transactions (transaction_date, transaction_type, item_id, location_id, quantity, "
+                + "user_id, transaction_status, description) SELECT CURRENT_TIMESTAMP, 'RECEIPT', item_id, location_id, ?, ?, "
+                + "'COMPLETED', 'Benchmark restock' FROM inventory_locations", quantity, user.getId());
+    }
+
+    private void insertItems(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, category_id, unit, current_quantity, qr_code, "
+                + "created_at, updated_at, type) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    private void flushLinks(List<Object[]> links, List<Object[]> keywordLinks, List<Object[]> receipts) {
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO inventory_locations (item_id, location_id, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?)", links);
+            links.clear();
+        }
+        if (!keywordLinks.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO item_keywords (item_id, keyword_id) VALUES (?, ?)", keywordLinks);
+            keywordLinks.clear();
+        }
+        if (!receipts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO transactions (transaction_date, transaction_type, item_id, location_id, "
+                    + "quantity, user_id, transaction_status, description) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", receipts);
+            receipts.clear();
+        }
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public List<Location> getLocations() {
+        return locations;
+    }
+
+    public List<Long> getItemIds() {
+        return itemIds;
+    }
+}
@@ -0,0 +1,57 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Database.Model.DTO.ItemDTO;
+import com.kozimor.wms.Database.Model.DTO.TransactionDTO;
+import com.kozimor.wms.Database.Service.ItemService;
+import com.kozimor.wms.Database.Service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strony list z frontendu: zapytanie + mapowanie encji na DTO (łącznie z doładowaniem relacji)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DtoMappingBenchmark extends WmsBenchmarkState {
+
+    @Param({"50"})
+    public int pageSize;
+
+    private ItemService itemService;
+    private TransactionService transactionService;
+
+    @Override
+    protected void seed(BenchmarkData data) {
+        data.seedBase(100);
+        data.seedItems(5_000, true);
+        itemService = bean(ItemService.class);
+        transactionService = bean(TransactionService.class);
+    }
+
+    @Benchmark
+    public Page<ItemDTO> itemsWithLocation() {
+        return itemService.getProductsAndComponentsPaginated(0, pageSize);
+    }
+
+    @Benchmark
+    public Page<ItemDTO> itemsByName() {
+        return itemService.searchItemsByName("Item 1", 0, pageSize);
+    }
+
+    @Benchmark
+    public Page<TransactionDTO> transactions() {
+        return transactionService.getTransactionsPaginated(0, pageSize);
+    }
+}
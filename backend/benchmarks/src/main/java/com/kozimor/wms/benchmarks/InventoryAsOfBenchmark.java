@@ -0,0 +1,75 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Database.Model.DTO.InventoryAsOfDTO;
+import com.kozimor.wms.Database.Service.InventoryAsOfService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stan lokacji na losową datę z rocznej historii transactionCount transakcji (domyślnie 10M, cel < 1 s).
+ * Punkty kontrolne co checkpointIntervalDays dni; 0 - bez punktów, sumowana cała historia lokacji do daty.
+ *
+ * 10M transakcji z indeksami nie mieści się w H2 w pamięci - pełny rozmiar na PostgreSQL (-p database=postgres),
+ * na H2 mniejsza historia, np. -p transactionCount=3000000 (koszt zapytania zależy od odstępu między punktami).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InventoryAsOfBenchmark extends WmsBenchmarkState {
+
+    private static final OffsetDateTime HISTORY_START = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final int HISTORY_DAYS = 365;
+    private static final int QUERIES = 1024;
+
+    @Param({"10000000"})
+    public long transactionCount;
+
+    @Param({"1", "7"})
+    public int checkpointIntervalDays;
+
+    private InventoryAsOfService inventoryAsOfService;
+    private long[] locationIds;
+    private OffsetDateTime[] dates;
+    private int next;
+
+    @Override
+    protected void seed(BenchmarkData data) {
+        data.seedBase(50);
+        data.seedItems(2_000, false);
+        data.seedTransactionHistory(transactionCount, HISTORY_START, HISTORY_DAYS);
+
+        inventoryAsOfService = bean(InventoryAsOfService.class);
+        if (checkpointIntervalDays > 0) {
+            for (int day = checkpointIntervalDays; day <= HISTORY_DAYS; day += checkpointIntervalDays) {
+                inventoryAsOfService.createCheckpoint(HISTORY_START.plusDays(day));
+            }
+        }
+
+        Random random = new Random(5);
+        locationIds = new long[QUERIES];
+        dates = new OffsetDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            locationIds[i] = data.getLocations().get(random.nextInt(data.getLocations().size())).getId();
+            dates[i] = HISTORY_START.plusSeconds(random.nextInt(HISTORY_DAYS * 86_400));
+        }
+    }
+
+    @Benchmark
+    public InventoryAsOfDTO stockAsOf() {
+        int i = next++ & (QUERIES - 1);
+        return inventoryAsOfService.getStockAsOf(dates[i], locationIds[i]);
+    }
+}
@@ -0,0 +1,58 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.ItemType;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wyszukiwanie wielokryterialne (ItemRepository.searchItems) - sama warstwa zapytań, bez mapowania na DTO
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ItemSearchBenchmark extends WmsBenchmarkState {
+
+    @Param({"10000"})
+    public int itemCount;
+
+    private ItemRepository itemRepository;
+    private Long categoryId;
+    private final PageRequest firstPage = PageRequest.of(0, 20);
+
+    @Override
+    protected void seed(BenchmarkData data) {
+        data.seedBase(100);
+        data.seedItems(itemCount, false);
+        categoryId = data.getCategory().getId();
+        itemRepository = bean(ItemRepository.class);
+    }
+
+    @Benchmark
+    public Page<Item> unfiltered() {
+        return itemRepository.searchItems(null, null, null, null, null, null, firstPage);
+    }
+
+    @Benchmark
+    public Page<Item> byTypeAndQuantityRange() {
+        return itemRepository.searchItems(ItemType.PRODUCT, categoryId, null, 100, 300, null, firstPage);
+    }
+
+    @Benchmark
+    public Page<Item> byKeyword() {
+        return itemRepository.searchItems(null, null, null, null, null, "%bol%", firstPage);
+    }
+}
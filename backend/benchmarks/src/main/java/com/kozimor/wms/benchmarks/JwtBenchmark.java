@@ -0,0 +1,122 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Security.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wystawianie tokenu (z danymi użytkownika z UserPrincipalCache) oraz weryfikacja HS256 wykonywana przy każdym żądaniu /api/**.
+ *
+ * decodeAccessToken* idzie przez dekoder aplikacji (z cache), decodeUncached* przez sam NimbusJwtDecoder
+ * (stan sprzed cache). Wariant *Pool rotuje 1000 różnych tokenów - tyle aktywnych sesji mieści się w cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JwtBenchmark extends WmsBenchmarkState {
+
+    private static final int TOKEN_POOL_SIZE = 1000;
+
+    private JwtService jwtService;
+    private JwtDecoder jwtDecoder;
+    private Authentication authentication;
+    private String accessToken;
+    private String refreshToken;
+    private JwtDecoder uncachedDecoder;
+    private String[] tokenPool;
+    private int next;
+
+    @Override
+    protected void seed(BenchmarkData data) {
+        data.seedBase(1);
+        jwtService = bean(JwtService.class);
+        jwtDecoder = bean(JwtDecoder.class);
+        authentication = new UsernamePasswordAuthenticationToken("bench", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        accessToken = jwtService.generateToken(authentication);
+        refreshToken = jwtService.generateRefreshToken(authentication);
+
+        byte[] keyBytes = Base64.getDecoder().decode(context.getEnvironment().getRequiredProperty("jwt.secret"));
+        uncachedDecoder = NimbusJwtDecoder.withSecretKey(new SecretKeySpec(keyBytes, "HmacSHA256"))
+                .macAlgorithm(MacAlgorithm.HS256).build();
+
+        // Tokeny wystawione w tej samej sekundzie byłyby identyczne - jti je rozróżnia
+        JwtEncoder jwtEncoder = bean(JwtEncoder.class);
+        Instant now = Instant.now();
+        tokenPool = new String[TOKEN_POOL_SIZE];
+        for (int i = 0; i < TOKEN_POOL_SIZE; i++) {
+            JwtClaimsSet claims = JwtClaimsSet.builder()
+                    .issuer("wms")
+                    .issuedAt(now)
+                    .expiresAt(now.plusSeconds(3600))
+                    .subject("bench")
+                    .id("bench-" + i)
+                    .claim("userId", 1L)
+                    .claim("tokenType", "access")
+                    .claim("roles", List.of("ADMIN"))
+                    .build();
+            tokenPool[i] = jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(() -> "HS256").build(), claims))
+                    .getTokenValue();
+        }
+    }
+
+    private String nextPooledToken() {
+        String token = tokenPool[next];
+        next = (next + 1) % TOKEN_POOL_SIZE;
+        return token;
+    }
+
+    @Benchmark
+    public String encodeAccessToken() {
+        return jwtService.generateToken(authentication);
+    }
+
+    @Benchmark
+    public Jwt decodeAccessToken() {
+        return jwtDecoder.decode(accessToken);
+    }
+
+    @Benchmark
+    public Jwt decodeUncachedAccessToken() {
+        return uncachedDecoder.decode(accessToken);
+    }
+
+    @Benchmark
+    public Jwt decodeAccessTokenPool() {
+        return jwtDecoder.decode(nextPooledToken());
+    }
+
+    @Benchmark
+    public Jwt decodeUncachedAccessTokenPool() {
+        return uncachedDecoder.decode(nextPooledToken());
+    }
+
+    @Benchmark
+    public boolean validateRefreshToken() {
+        return jwtService.validateRefreshToken(refreshToken);
+    }
+}
@@ -0,0 +1,44 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Database.Model.DTO.LocationOccupancyDTO;
+import com.kozimor.wms.Database.Service.LocationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Obłożenie lokacji w zależności od liczby itemów przypisanych do jednej lokacji
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LocationOccupancyBenchmark extends WmsBenchmarkState {
+
+    @Param({"10", "1000"})
+    public int itemsPerLocation;
+
+    private LocationService locationService;
+    private Long locationId;
+
+    @Override
+    protected void seed(BenchmarkData data) {
+        data.seedBase(10);
+        data.seedItems(itemsPerLocation * 10, false);
+        locationId = data.getLocations().get(0).getId();
+        locationService = bean(LocationService.class);
+    }
+
+    @Benchmark
+    public LocationOccupancyDTO occupancy() {
+        return locationService.getLocationOccupancy(locationId);
+    }
+}
@@ -0,0 +1,66 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Database.Model.DTO.OrderDTO;
+import com.kozimor.wms.Database.Model.DTO.OrderLineDTO;
+import com.kozimor.wms.Database.Service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tworzenie zamówienia - wynik w liniach zamówienia na sekundę.
+ * Zamówienie ma LINES linii, część linii powtarza ten sam item (agregacja ilości per item).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@OperationsPerInvocation(OrderCreationBenchmark.LINES)
+public class OrderCreationBenchmark extends WmsBenchmarkState {
+
+    static final int LINES = 300;
+
+    @Param({"300", "60"})
+    public int distinctItems;
+
+    private OrderService orderService;
+    private List<Long> itemIds;
+    private Long userId;
+    private int orderNumber;
+
+    @Override
+    protected void seed(BenchmarkData data) {
+        data.seedBase(100);
+        itemIds = data.seedItems(1_000, false);
+        data.restock(1_000_000_000);
+        data.restockLocations(1_000_000_000);
+        userId = data.getUser().getId();
+        orderService = bean(OrderService.class);
+    }
+
+    @Benchmark
+    public OrderDTO createOrder() {
+        int n = orderNumber++;
+        List<OrderLineDTO> lines = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            Long itemId = itemIds.get((n * LINES + i % distinctItems) % itemIds.size());
+            lines.add(new OrderLineDTO(null, itemId, null, null, 1.0, null, null, null, null));
+        }
+        OrderDTO order = new OrderDTO();
+        order.setOrderNumber("BENCH-" + n);
+        order.setDescription("Benchmark order");
+        order.setOrderLines(lines);
+        return orderService.createOrder(order, userId);
+    }
+}
@@ -0,0 +1,59 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Database.Model.PickPathStrategy;
+import com.kozimor.wms.Database.Service.PickPathOptimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optymalizacja trasy dla listy STOPS lokacji - bez kontekstu Springa i bez cache (liczone za każdym razem)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PickPathBenchmark {
+
+    static final int STOPS = 1_000;
+
+    @Param({"S_SHAPE", "LARGEST_GAP", "TWO_OPT"})
+    public PickPathStrategy strategy;
+
+    private PickPathOptimizer optimizer;
+    private List<String> codes;
+
+    @Setup
+    public void setUp() {
+        optimizer = new PickPathOptimizer(0, 20);
+        Random random = new Random(7);
+        codes = new ArrayList<>(STOPS);
+        while (codes.size() < STOPS) {
+            String code = String.format("%c%d-S%d-R%d", 'A' + random.nextInt(5), 1 + random.nextInt(4),
+                    1 + random.nextInt(60), 1 + random.nextInt(6));
+            if (!codes.contains(code)) {
+                codes.add(code);
+            }
+        }
+    }
+
+    @Benchmark
+    public PickPathOptimizer.PickPath optimize() {
+        return optimizer.optimize(codes, strategy);
+    }
+}
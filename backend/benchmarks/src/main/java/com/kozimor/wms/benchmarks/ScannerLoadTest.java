@@ -0,0 +1,201 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Security.JwtService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test obciążeniowy: N równoległych skanerów (zamknięta pętla z czasem namysłu) na prawdziwym serwerze HTTP,
+ * raz z pulą wątków Tomcata, raz z wątkami wirtualnymi. Nie jest benchmarkiem JMH - mierzy przepustowość
+ * i percentyle opóźnień całego stosu (filtr JWT, kontroler, Hibernate, pula Hikari).
+ *
+ * Mieszanka żądań skanera: 80% odczyt itemu po kodzie QR, 20% przyjęcie 1 szt. (POST /api/transactions).
+ *
+ * Argumenty (wszystkie opcjonalne): baza (h2|postgres), liczba skanerów, czas pomiaru [s], czas namysłu [ms], tryby.
+ * <pre>
+ * ../mvnw compile exec:exec -Dbench.command="com.kozimor.wms.benchmarks.ScannerLoadTest h2 2000 30 50 platform,virtual"
+ * </pre>
+ */
+public final class ScannerLoadTest {
+
+    private static final int ITEMS = 1000;
+    private static final int WARMUP_SECONDS = 10;
+
+    private ScannerLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String database = args.length > 0 ? args[0] : "h2";
+        int scanners = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int thinkMs = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+        String[] modes = (args.length > 4 ? args[4] : "platform,virtual").split(",");
+
+        List<String> report = new ArrayList<>();
+        for (String mode : modes) {
+            report.add(run(database, mode.trim(), scanners, seconds, thinkMs));
+        }
+        System.out.printf("%n%-9s %8s %10s %8s %8s %8s %8s%n", "mode", "requests", "req/s", "errors", "p50 ms", "p99 ms", "max ms");
+        report.forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private static String run(String database, String mode, int scanners, int seconds, int thinkMs) throws Exception {
+        boolean virtual = switch (mode) {
+            case "platform" -> false;
+            case "virtual" -> true;
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+        try (ConfigurableApplicationContext context = BenchmarkContext.start(database,
+                // open-in-view jak w aplikacji - POST /api/transactions serializuje encję z leniwymi relacjami
+                List.of("--spring.threads.virtual.enabled=" + virtual, "--spring.jpa.open-in-view=true"))) {
+            BenchmarkData data = new BenchmarkData(context).seedBase(100);
+            List<Long> itemIds = data.seedItems(ITEMS, false);
+            Long locationId = data.getLocations().get(0).getId();
+            Long userId = data.getUser().getId();
+            String token = context.getBean(JwtService.class).generateToken(new UsernamePasswordAuthenticationToken(
+                    "bench", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            Scanner[] clients = new Scanner[scanners];
+            for (int i = 0; i < scanners; i++) {
+                clients[i] = new Scanner(baseUrl, token, itemIds, locationId, userId, thinkMs);
+            }
+            // Klient HTTP ma własną pulę - executor skanerów jest zamykany przed końcem pomiaru
+            try (HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+                 ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+                long measureEnd = warmupEnd + TimeUnit.SECONDS.toNanos(seconds);
+                for (Scanner client : clients) {
+                    clientThreads.submit(() -> client.loop(http, warmupEnd, measureEnd));
+                }
+                clientThreads.shutdown();
+                clientThreads.awaitTermination(WARMUP_SECONDS + seconds + 60L, TimeUnit.SECONDS);
+            }
+            return summary(mode, clients, seconds);
+        }
+    }
+
+    private static String summary(String mode, Scanner[] clients, int seconds) {
+        int total = 0;
+        long errors = 0;
+        for (Scanner client : clients) {
+            total += client.count;
+            errors += client.errors.get();
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Scanner client : clients) {
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            offset += client.count;
+        }
+        Arrays.sort(latencies);
+        return String.format("%-9s %8d %10.0f %8d %8.1f %8.1f %8.1f", mode, total, (double) total / seconds, errors,
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                total == 0 ? 0 : latencies[total - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    /**
+     * Jeden skaner: żądanie, czas namysłu, kolejne żądanie. Opóźnienia tylko z okna pomiaru.
+     */
+    private static final class Scanner {
+
+        private final String baseUrl;
+        private final String token;
+        private final List<Long> itemIds;
+        private final Long locationId;
+        private final Long userId;
+        private final int thinkMs;
+        private final AtomicLong errors = new AtomicLong();
+        private long[] latencies = new long[256];
+        private int count;
+
+        private Scanner(String baseUrl, String token, List<Long> itemIds, Long locationId, Long userId, int thinkMs) {
+            this.baseUrl = baseUrl;
+            this.token = token;
+            this.itemIds = itemIds;
+            this.locationId = locationId;
+            this.userId = userId;
+            this.thinkMs = thinkMs;
+        }
+
+        private void loop(HttpClient http, long warmupEnd, long measureEnd) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try {
+                // Rozłożenie startu, żeby 2000 połączeń nie otwierało się w tej samej milisekundzie
+                Thread.sleep(random.nextInt(1000));
+                while (System.nanoTime() < measureEnd) {
+                    int index = random.nextInt(itemIds.size());
+                    HttpRequest request = random.nextInt(5) == 0 ? receipt(itemIds.get(index)) : scan(index);
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        ok = response.statusCode() < 300;
+                    } catch (java.io.IOException e) {
+                        ok = false;
+                    }
+                    long end = System.nanoTime();
+                    if (start >= warmupEnd && end <= measureEnd) {
+                        record(end - start);
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    Thread.sleep(thinkMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private HttpRequest scan(int index) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/items/qr/bench-" + index))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+        }
+
+        private HttpRequest receipt(Long itemId) {
+            String body = "{\"transactionType\":\"RECEIPT\",\"transactionStatus\":\"COMPLETED\",\"quantity\":1,"
+                    + "\"item\":{\"id\":" + itemId + "},\"location\":{\"id\":" + locationId + "},"
+                    + "\"user\":{\"id\":" + userId + "},\"description\":\"Load test\"}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+}
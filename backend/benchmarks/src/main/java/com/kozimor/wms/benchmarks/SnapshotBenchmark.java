@@ -0,0 +1,60 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Database.Model.Report;
+import com.kozimor.wms.Database.Service.ReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pełny snapshot stanów magazynu. Każde wywołanie tworzy nowy raport,
+ * więc od drugiej iteracji mierzony jest też koszt porównania z poprzednim raportem.
+ * parallelWorkers > 1 - tryb równoległy (partycje id itemów na osobnych połączeniach).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SnapshotBenchmark extends WmsBenchmarkState {
+
+    @Param({"1000", "10000", "100000"})
+    public int itemCount;
+
+    @Param({"0", "8"})
+    public int parallelWorkers;
+
+    private ReportService reportService;
+
+    @Override
+    protected List<String> extraArgs() {
+        // Połączenia robocze partycji + połączenie wywołującego
+        return List.of("--wms.reports.parallel-workers=" + parallelWorkers,
+                "--spring.datasource.hikari.maximum-pool-size=" + Math.max(10, parallelWorkers + 4));
+    }
+
+    @Override
+    protected void seed(BenchmarkData data) {
+        data.seedBase(100);
+        data.seedItems(itemCount, true);
+        reportService = bean(ReportService.class);
+    }
+
+    @Benchmark
+    public Report createSnapshot() {
+        // createSnapshot bierze autora raportu z kontekstu bezpieczeństwa (ThreadLocal wątku benchmarku)
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bench", null, List.of()));
+        return reportService.createSnapshot();
+    }
+}
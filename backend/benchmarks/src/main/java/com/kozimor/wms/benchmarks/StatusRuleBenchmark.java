@@ -0,0 +1,90 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Database.Model.StatusRule;
+import com.kozimor.wms.Database.Model.StockStatus;
+import com.kozimor.wms.Database.Service.StatusRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ocena statusu skompilowanymi regułami - bez kontekstu Springa. Cel: co najmniej 1M ocen/s na wątek.
+ *
+ * 1 000 reguł kategorii (tablica gęsta), 100 000 nadpisań itemów rozrzuconych po id do 10M (mapa rzadka);
+ * oceniane są losowe itemy, z czego ~1% ma własną regułę.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatusRuleBenchmark {
+
+    static final int EVALUATIONS = 4096;
+    static final int CATEGORIES = 1_000;
+    static final int ITEM_OVERRIDES = 100_000;
+    static final long MAX_ITEM_ID = 10_000_000L;
+
+    private StatusRules rules;
+    private long[] itemIds;
+    private long[] categoryIds;
+    private double[] quantities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(11);
+        List<StatusRule> statusRules = new ArrayList<>();
+        for (long id = 1; id <= CATEGORIES; id++) {
+            statusRules.add(rule(StatusRule.Scope.CATEGORY, id, random.nextInt(5), 5 + random.nextInt(50)));
+        }
+        List<Long> overridden = new ArrayList<>();
+        for (int i = 0; i < ITEM_OVERRIDES; i++) {
+            long id = 1 + (long) (random.nextDouble() * MAX_ITEM_ID);
+            overridden.add(id);
+            statusRules.add(rule(StatusRule.Scope.ITEM, id, random.nextInt(5), 5 + random.nextInt(50)));
+        }
+        // Duplikaty id itemu nadpisują się nawzajem - jak przy unikalnym (scope, target_id)
+        rules = StatusRules.compile(statusRules, 0, 10);
+
+        itemIds = new long[EVALUATIONS];
+        categoryIds = new long[EVALUATIONS];
+        quantities = new double[EVALUATIONS];
+        for (int i = 0; i < EVALUATIONS; i++) {
+            itemIds[i] = random.nextInt(100) == 0
+                    ? overridden.get(random.nextInt(overridden.size()))
+                    : 1 + (long) (random.nextDouble() * MAX_ITEM_ID);
+            categoryIds[i] = 1 + random.nextInt(CATEGORIES + 100);
+            quantities[i] = random.nextInt(100);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVALUATIONS)
+    public int evaluate() {
+        int low = 0;
+        for (int i = 0; i < EVALUATIONS; i++) {
+            if (rules.evaluate(itemIds[i], categoryIds[i], quantities[i]) != StockStatus.OK) {
+                low++;
+            }
+        }
+        return low;
+    }
+
+    private static StatusRule rule(StatusRule.Scope scope, long targetId, double critical, double low) {
+        return StatusRule.builder().scope(scope).targetId(targetId).criticalThreshold(critical).lowThreshold(low).build();
+    }
+}
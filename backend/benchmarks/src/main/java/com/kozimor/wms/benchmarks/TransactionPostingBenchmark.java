@@ -0,0 +1,62 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Księgowanie pojedynczej transakcji: insert + odczyt i aktualizacja stanu itemu w jednej transakcji DB
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionPostingBenchmark extends WmsBenchmarkState {
+
+    private TransactionService transactionService;
+    private List<Long> itemIds;
+    private List<Location> locations;
+    private User user;
+    private int next;
+
+    @Override
+    protected void seed(BenchmarkData data) {
+        data.seedBase(50);
+        itemIds = data.seedItems(1_000, false);
+        locations = data.getLocations();
+        user = data.getUser();
+        transactionService = bean(TransactionService.class);
+    }
+
+    @Benchmark
+    public Transaction postReceipt() {
+        int n = next++;
+        Item item = new Item();
+        item.setId(itemIds.get(n % itemIds.size()));
+        Location location = locations.get(n % locations.size());
+
+        return transactionService.createTransaction(Transaction.builder()
+                .transactionType(TransactionType.RECEIPT)
+                .transactionStatus(TransactionStatus.COMPLETED)
+                .item(item)
+                .location(location)
+                .user(user)
+                .quantity(1.0)
+                .build());
+    }
+}
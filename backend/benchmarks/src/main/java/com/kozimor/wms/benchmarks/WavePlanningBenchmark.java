@@ -0,0 +1,61 @@
+package com.kozimor.wms.benchmarks;
+
+import com.kozimor.wms.Database.Model.DTO.OrderDTO;
+import com.kozimor.wms.Database.Model.DTO.OrderLineDTO;
+import com.kozimor.wms.Database.Model.DTO.WavePlanDTO;
+import com.kozimor.wms.Database.Service.OrderService;
+import com.kozimor.wms.Database.Service.WavePlanningService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plan fali kompletacji dla ORDERS zamówień PENDING po LINES linii (cel: poniżej sekundy dla 5k zamówień)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WavePlanningBenchmark extends WmsBenchmarkState {
+
+    static final int ORDERS = 5_000;
+    static final int LINES = 5;
+
+    private WavePlanningService wavePlanningService;
+
+    @Override
+    protected void seed(BenchmarkData data) {
+        data.seedBase(500);
+        List<Long> itemIds = data.seedItems(2_000, false);
+        data.restock(1_000_000_000);
+        data.restockLocations(1_000_000_000);
+        OrderService orderService = bean(OrderService.class);
+        Long userId = data.getUser().getId();
+        for (int n = 0; n < ORDERS; n++) {
+            List<OrderLineDTO> lines = new ArrayList<>(LINES);
+            for (int i = 0; i < LINES; i++) {
+                Long itemId = itemIds.get((n * 7 + i * 131) % itemIds.size());
+                lines.add(new OrderLineDTO(null, itemId, null, null, 1.0, null, null, null, null));
+            }
+            OrderDTO order = new OrderDTO();
+            order.setOrderNumber("WAVE-" + n);
+            order.setOrderLines(lines);
+            orderService.createOrder(order, userId);
+        }
+        wavePlanningService = bean(WavePlanningService.class);
+    }
+
+    @Benchmark
+    public WavePlanDTO planWave() {
+        return wavePlanningService.planWave(ORDERS, null);
+    }
+}
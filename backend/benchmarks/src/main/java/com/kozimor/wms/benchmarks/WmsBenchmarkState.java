@@ -0,0 +1,52 @@
+package com.kozimor.wms.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+/**
+ * Wspólny stan benchmarków: kontekst Springa na świeżej bazie na każdy trial.
+ * Baza wybierana parametrem JMH: -p database=postgres
+ */
+@State(Scope.Benchmark)
+public abstract class WmsBenchmarkState {
+
+    @Param({"h2"})
+    public String database;
+
+    protected ConfigurableApplicationContext context;
+    protected BenchmarkData data;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkContext.start(database, extraArgs());
+        data = new BenchmarkData(context);
+        seed(data);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    protected abstract void seed(BenchmarkData data);
+
+    /**
+     * Dodatkowe właściwości kontekstu dla suity, np. z parametrów JMH
+     */
+    protected List<String> extraArgs() {
+        return List.of();
+    }
+
+    protected <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
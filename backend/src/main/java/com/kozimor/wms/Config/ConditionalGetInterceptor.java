@@ -0,0 +1,59 @@
+package com.kozimor.wms.Config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Obsługa If-None-Match dla endpointów odczytu.
+ * ETag (słaby) składa się z wersji encji, od których zależy odpowiedź, oraz URI z parametrami.
+ * Przy zgodności zwracamy 304 zanim kontroler wykona zapytania i serializację.
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final ResourceVersionRegistry versionRegistry;
+    private final List<Class<?>> dependsOn;
+
+    public ConditionalGetInterceptor(ResourceVersionRegistry versionRegistry, Class<?>... dependsOn) {
+        this.versionRegistry = versionRegistry;
+        this.dependsOn = List.of(dependsOn);
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return true;
+        }
+
+        // Bez no-store, inaczej przeglądarka nie zapamięta odpowiedzi i nie wyśle If-None-Match
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        return !webRequest.checkNotModified(buildEtag(request));
+    }
+
+    String buildEtag(HttpServletRequest request) {
+        StringBuilder etag = new StringBuilder("W/\"");
+        for (long version : versionRegistry.getVersions(dependsOn)) {
+            etag.append(version).append('-');
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+        if (request.getQueryString() != null) {
+            crc.update('?');
+            crc.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+        }
+        return etag.append(Long.toHexString(crc.getValue())).append('"').toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.kozimor.wms.Config;
+
+import com.kozimor.wms.Database.Service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Obsługa nagłówka Idempotency-Key dla tworzenia transakcji i zamówień.
+ *
+ * Pierwsze żądanie z danym kluczem rezerwuje go i wykonuje się normalnie; odpowiedź 2xx jest zapamiętywana.
+ * Ponowienie z tym samym kluczem dostaje kopię tej odpowiedzi bez ponownego wywołania kontrolera,
+ * więc zerwane połączenie skanera nie zdejmuje towaru ze stanu drugi raz.
+ * Klucz jest zakresowany użytkownikiem i ścieżką - ten sam klucz od innego użytkownika to osobne żądanie.
+ *
+ * Żądanie wykonuje się w transakcji bazy otwartej przez filtr, razem z zapisem odpowiedzi (IdempotencyService#executeOnce),
+ * więc trzyma połączenie z puli do końca - filtr działa dopiero za RequestConcurrencyFilter.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final Set<String> PATHS = Set.of("/api/transactions", "/api/orders");
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(HEADER).trim();
+        if (header.isEmpty() || header.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), HEADER + " must have 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        Principal principal = request.getUserPrincipal();
+        String key = (principal != null ? principal.getName() : "") + "|POST " + request.getRequestURI() + "|" + header;
+
+        Optional<IdempotencyService.StoredResponse> stored = idempotencyService.findCompleted(key);
+        if (stored.isPresent()) {
+            replay(stored.get(), response);
+            return;
+        }
+        Optional<IdempotencyService.Reservation> reservation = idempotencyService.tryReserve(key);
+        if (reservation.isEmpty()) {
+            // Wyścig z zakończonym właśnie żądaniem albo oryginał wciąż się wykonuje
+            stored = idempotencyService.findCompleted(key);
+            if (stored.isPresent()) {
+                replay(stored.get(), response);
+            } else {
+                response.sendError(HttpStatus.CONFLICT.value(), "Request with this " + HEADER + " is still in progress");
+            }
+            return;
+        }
+
+        // Odpowiedź buforowana do commitu - klient nie dostaje 2xx ze zmian, które zostały cofnięte
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            completed = idempotencyService.executeOnce(reservation.get(), () -> {
+                try {
+                    filterChain.doFilter(request, wrapper);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                int status = wrapper.getStatus();
+                return status >= 200 && status < 300
+                        ? new IdempotencyService.Response(status, wrapper.getContentType(),
+                                new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8))
+                        : null;
+            }).isPresent();
+        } catch (IdempotencyService.ReservationLostException e) {
+            // Żądanie trwało dłużej niż rezerwacja i wykonuje je już ponowienie
+            wrapper.resetBuffer();
+            response.sendError(HttpStatus.CONFLICT.value(), "Request with this " + HEADER + " was taken over by a retry");
+            return;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (!completed) {
+                idempotencyService.release(reservation.get());
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static void replay(IdempotencyService.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null) {
+            byte[] body = stored.body().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
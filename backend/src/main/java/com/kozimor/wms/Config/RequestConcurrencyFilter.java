@@ -0,0 +1,78 @@
+package com.kozimor.wms.Config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limit równocześnie obsługiwanych żądań API w trybie wątków wirtualnych.
+ *
+ * Z pulą wątków Tomcata (domyślnie 200) liczba żądań w toku była ograniczona sama z siebie. Wątków wirtualnych
+ * jest tyle, ile połączeń - 2000 skanerów to 2000 wątków czekających na kilkanaście połączeń Hikari,
+ * a każde oczekiwanie dłuższe niż connection-timeout kończy się błędem 500 w środku transakcji.
+ * Filtr wpuszcza wms.virtual.max-concurrent-requests żądań (domyślnie 4 x rozmiar puli połączeń),
+ * reszta czeka w kolejce semafora najwyżej wms.virtual.queue-timeout-ms i dostaje 503 zanim dotknie bazy.
+ * Przed IdempotencyFilter, który otwiera transakcję - żądanie w kolejce nie trzyma połączenia.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class RequestConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long queueTimeoutMs;
+
+    public RequestConcurrencyFilter(@Value("${wms.virtual.max-concurrent-requests:0}") int maxConcurrentRequests,
+                                    @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+                                    @Value("${wms.virtual.queue-timeout-ms:3000}") long queueTimeoutMs) {
+        this.permits = new Semaphore(maxConcurrentRequests > 0 ? maxConcurrentRequests : 4 * connectionPoolSize, true);
+        this.queueTimeoutMs = queueTimeoutMs;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // Strumienie SSE trzymają połączenie bez bazy, a ich wątek i tak wraca od razu
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || uri.startsWith("/api/events") || uri.equals("/api/alerts/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is busy, try again");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+}
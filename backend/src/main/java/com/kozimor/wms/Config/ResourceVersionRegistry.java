@@ -0,0 +1,233 @@
+package com.kozimor.wms.Config;
+
+import com.kozimor.wms.Database.Model.EntityChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wersje danych per typ encji w tabeli resource_versions - na ich podstawie liczone są ETagi,
+ * więc niezmieniona strona może dostać 304 bez serializacji.
+ *
+ * Wersje są w bazie, a nie w pamięci instancji: zapis na innej instancji i masowe UPDATE
+ * (publikujące EntityChangedEvent ręcznie) też unieważniają ETagi.
+ *
+ * Podbicie idzie po commicie zmiany, osobnym krótkim UPDATE - wersja rośnie dopiero, gdy zmiana jest już widoczna,
+ * więc kto odczytał nową wersję, odczyta też nowe dane (ETag liczony jest przed odczytem danych). Transakcje zmian
+ * nie trzymają wiersza wersji do swojego commitu i nie czekają na siebie nawzajem. Podbicia wykonuje jeden wątek
+ * (wms-versions): typy zgłoszone w trakcie trwającego UPDATE są sklejane w następny, a wątek commitujący czeka
+ * na swoje podbicie przed zwróceniem odpowiedzi - klient tej instancji od razu widzi nowy ETag.
+ *
+ * Koszt: każdy commit zmieniający wersjonowany typ czeka na dodatkowe zapytanie z commitem (wspólne dla commitów
+ * zgłoszonych w tym samym czasie); instancje nadal kolejkują się na wierszu wersji, ale tylko na czas tego UPDATE.
+ * Awaria między commitem zmiany a podbiciem zostawia starą wersję do następnej zmiany tego typu.
+ *
+ * Odczyty wersji są zapamiętywane w instancji na wms.versions.cache-ms - warunkowy GET nie pyta bazy za każdym razem.
+ * Lokalne podbicie czyści zapamiętaną wersję; zmiana z innej instancji jest widoczna najpóźniej po tym czasie.
+ */
+@Component
+public class ResourceVersionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceVersionRegistry.class);
+    private static final long BUMP_TIMEOUT_SECONDS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final long cacheNanos;
+    private final ExecutorService writer;
+    private final Map<String, CachedVersion> cache = new ConcurrentHashMap<>();
+    // Licznik wyczyszczeń cache - odczyt z bazy sprzed podbicia nie może zostać w cache
+    private final AtomicLong invalidations = new AtomicLong();
+    // Typy czekające na podbicie i wspólny wynik ich UPDATE - pod monitorem this
+    private Set<String> queued = new TreeSet<>();
+    private CompletableFuture<Void> batch;
+
+    public ResourceVersionRegistry(JdbcTemplate jdbcTemplate,
+                                   EntityManagerFactory entityManagerFactory,
+                                   @Value("${wms.versions.cache-ms:1000}") long cacheMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheNanos = Duration.ofMillis(cacheMs).toNanos();
+        this.writer = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("wms-versions").daemon(true).factory());
+    }
+
+    /**
+     * Wiersz dla każdego typu encji - podbicie jest zwykłym UPDATE, bez wstawiania
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void seed() {
+        List<String> existing = jdbcTemplate.queryForList("SELECT resource_type FROM resource_versions", String.class);
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            String name = key(entity.getJavaType());
+            if (existing.contains(name)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.update("INSERT INTO resource_versions (resource_type, version) VALUES (?, 0)", name);
+            } catch (DuplicateKeyException e) {
+                // Wiersz dodała równolegle startująca inna instancja
+            }
+        }
+    }
+
+    /**
+     * Zwykły @EventListener - zdarzenie przychodzi w transakcji zmiany (także w trakcie flush Hibernate)
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        bump(event.entityType());
+    }
+
+    /**
+     * Podbicie wersji po commicie bieżącej transakcji, poza transakcją - od razu
+     */
+    public void bump(Class<?> entityType) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            await(publish(List.of(key(entityType))));
+            return;
+        }
+        // Synchronizacje są per transakcja (REQUIRES_NEW zawiesza synchronizacje zewnętrznej); rejestracja działa
+        // także w trakcie flush przy commicie - afterCommit wywoływane jest dla aktualnej listy synchronizacji
+        PendingBumps pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingBumps.class::isInstance)
+                .map(PendingBumps.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    PendingBumps created = new PendingBumps();
+                    TransactionSynchronizationManager.registerSynchronization(created);
+                    return created;
+                });
+        pending.types.add(key(entityType));
+    }
+
+    /**
+     * Wersje podanych typów w tej samej kolejności - z cache instancji, brakujące jednym zapytaniem po kluczu głównym
+     */
+    public long[] getVersions(List<Class<?>> entityTypes) {
+        long now = System.nanoTime();
+        long seen = invalidations.get();
+        Map<String, Long> versions = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (Class<?> type : entityTypes) {
+            CachedVersion cached = cache.get(key(type));
+            if (cached != null && now - cached.loadedAt() < cacheNanos) {
+                versions.put(key(type), cached.version());
+            } else {
+                missing.add(key(type));
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, Long> loaded = load(missing);
+            versions.putAll(loaded);
+            if (cacheNanos > 0) {
+                loaded.forEach((type, version) -> cache.put(type, new CachedVersion(version, now)));
+                // Podbicie w trakcie odczytu - odczytana wartość mogła być sprzed niego
+                if (invalidations.get() != seen) {
+                    cache.keySet().removeAll(loaded.keySet());
+                }
+            }
+        }
+        return entityTypes.stream().mapToLong(type -> versions.getOrDefault(key(type), 0L)).toArray();
+    }
+
+    private Map<String, Long> load(List<String> types) {
+        Map<String, Long> versions = new HashMap<>();
+        String placeholders = String.join(",", Collections.nCopies(types.size(), "?"));
+        jdbcTemplate.query("SELECT resource_type, version FROM resource_versions WHERE resource_type IN (" + placeholders + ")",
+                (RowCallbackHandler) rs -> versions.put(rs.getString("resource_type"), rs.getLong("version")),
+                types.toArray());
+        return versions;
+    }
+
+    private synchronized CompletableFuture<Void> publish(Collection<String> types) {
+        queued.addAll(types);
+        if (batch == null) {
+            batch = new CompletableFuture<>();
+            writer.execute(this::drain);
+        }
+        return batch;
+    }
+
+    /**
+     * Wątek wms-versions - bez transakcji Springa, więc UPDATE zatwierdza się od razu
+     */
+    private void drain() {
+        Set<String> types;
+        CompletableFuture<Void> done;
+        synchronized (this) {
+            types = queued;
+            done = batch;
+            queued = new TreeSet<>();
+            batch = null;
+        }
+        try {
+            String placeholders = String.join(",", Collections.nCopies(types.size(), "?"));
+            jdbcTemplate.update("UPDATE resource_versions SET version = version + 1 WHERE resource_type IN (" + placeholders + ")",
+                    types.toArray());
+            invalidations.incrementAndGet();
+            cache.keySet().removeAll(types);
+            done.complete(null);
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+        }
+    }
+
+    private void await(CompletableFuture<Void> bumped) {
+        try {
+            bumped.get(BUMP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Zmiana jest już zatwierdzona - ETagi nieaktualne do następnego podbicia tego typu
+            logger.warn("Resource version bump failed: {}", e.getMessage());
+        }
+    }
+
+    private static String key(Class<?> entityType) {
+        return entityType.getSimpleName();
+    }
+
+    private record CachedVersion(long version, long loadedAt) {
+    }
+
+    /**
+     * Typy zmienione w jednej transakcji - podbijane po jej commicie, nie po wycofaniu
+     */
+    private class PendingBumps implements TransactionSynchronization {
+
+        private final Set<String> types = new TreeSet<>();
+
+        @Override
+        public void afterCommit() {
+            await(publish(types));
+        }
+    }
+}
@@ -1,16 +1,30 @@
 package com.kozimor.wms.Config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
 public class SchedulerConfig {
 
+    /**
+     * W trybie wątków wirtualnych (spring.threads.virtual.enabled) każde uruchomienie zadania dostaje własny
+     * wątek wirtualny - zadania czekające na bazę nie blokują się nawzajem. Inaczej stała pula wątków platformowych.
+     */
     @Bean
-    public ThreadPoolTaskScheduler taskScheduler() {
+    public TaskScheduler taskScheduler(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                       @Value("${wms.scheduler.pool-size:5}") int poolSize) {
+        if (virtualThreads) {
+            SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+            scheduler.setVirtualThreads(true);
+            scheduler.setThreadNamePrefix("wms-scheduler-");
+            return scheduler;
+        }
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(5);
+        scheduler.setPoolSize(poolSize);
         scheduler.setThreadNamePrefix("wms-scheduler-");
         scheduler.initialize();
         return scheduler;
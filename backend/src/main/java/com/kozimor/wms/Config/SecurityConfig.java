@@ -12,6 +12,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.kozimor.wms.Security.CachingJwtDecoder;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -42,6 +43,12 @@ public class SecurityConfig {
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    @Value("${wms.security.jwt-cache-size:10000}")
+    private int jwtCacheSize;
+
+    @Value("${wms.security.bcrypt-strength:10}")
+    private int bcryptStrength;
+
    @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -54,6 +61,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/register").hasAnyAuthority("ROLE_ADMIN")
                 .requestMatchers("/api/settings/**").hasAnyAuthority("ROLE_ADMIN")
                 .requestMatchers("/api/**").authenticated()
+                // Metryki zdradzają ruch i stan puli - otwarty tylko health dla load balancera
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasAnyAuthority("ROLE_ADMIN")
                 .anyRequest().permitAll()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
@@ -82,7 +92,8 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // Koszt 2^strength; istniejące hashe z innym kosztem nadal są poprawnie weryfikowane
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
@@ -93,7 +104,9 @@ public class SecurityConfig {
     public JwtDecoder jwtDecoder() {
         byte[] keyBytes = Base64.getDecoder().decode(jwtSecret);
         SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        // Weryfikacja podpisu raz na token, kolejne żądania z tym samym tokenem biorą wynik z cache
+        return new CachingJwtDecoder(NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build(),
+                jwtCacheSize);
     }
 
     @Bean
@@ -0,0 +1,88 @@
+package com.kozimor.wms.Config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Wykrywanie przypięć wątków wirtualnych (zdarzenie JFR jdk.VirtualThreadPinned).
+ *
+ * Wątek wirtualny blokujący się wewnątrz synchronized albo wywołania natywnego trzyma wątek nośnika,
+ * więc przy kilku takich miejscach na gorącej ścieżce cały tryb wirtualny degraduje do puli o rozmiarze
+ * liczby rdzeni. Każde przypięcie dłuższe niż wms.virtual.pinned-threshold-ms trafia do logu
+ * z ramkami aplikacji (com.kozimor) i do metryki wms.virtual_threads.pinned.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_FRAMES = 8;
+
+    private final WmsMetrics metrics;
+    private final Duration threshold;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(WmsMetrics metrics,
+                                       @Value("${wms.virtual.pinned-threshold-ms:20}") long thresholdMs) {
+        this.metrics = metrics;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("Virtual thread pinning monitor started (threshold {} ms)", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        metrics.recordVirtualThreadPinned(event.getDuration().toNanos());
+        logger.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), applicationFrames(event));
+    }
+
+    private static String applicationFrames(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return "(no stack trace)";
+        }
+        String frames = stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .filter(frame -> frame.getMethod().getType().getName().startsWith("com.kozimor."))
+                .limit(MAX_LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+        if (!frames.isEmpty()) {
+            return frames;
+        }
+        // Przypięcie w całości w kodzie bibliotek - pierwsza ramka wystarczy do zlokalizowania
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .findFirst()
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .orElse("(unknown)");
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
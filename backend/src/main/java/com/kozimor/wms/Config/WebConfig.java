@@ -1,13 +1,30 @@
 package com.kozimor.wms.Config;
 
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.InventoryLocation;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.Keyword;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.Order;
+import com.kozimor.wms.Database.Model.OrderLine;
+import com.kozimor.wms.Database.Model.Report;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.User;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.lang.NonNull;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ResourceVersionRegistry resourceVersionRegistry;
+
+    public WebConfig(ResourceVersionRegistry resourceVersionRegistry) {
+        this.resourceVersionRegistry = resourceVersionRegistry;
+    }
+
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -16,4 +33,29 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        // Każda grupa endpointów deklaruje encje, z których składa się jej odpowiedź
+        registry.addInterceptor(new ConditionalGetInterceptor(resourceVersionRegistry,
+                        Item.class, Category.class, Keyword.class, Location.class, InventoryLocation.class))
+                .addPathPatterns("/api/items/getAllPaginated",
+                        "/api/items/getProductsAndComponentsPaginated",
+                        "/api/items/search",
+                        "/api/items/search/byname");
+
+        registry.addInterceptor(new ConditionalGetInterceptor(resourceVersionRegistry,
+                        Transaction.class, Item.class, Category.class, User.class, Location.class))
+                .addPathPatterns("/api/transactions/paginated",
+                        "/api/transactions/receipts/paginated",
+                        "/api/transactions/issues/paginated");
+
+        registry.addInterceptor(new ConditionalGetInterceptor(resourceVersionRegistry,
+                        Report.class, User.class))
+                .addPathPatterns("/api/reports", "/api/reports/latest", "/api/reports/critical");
+
+        registry.addInterceptor(new ConditionalGetInterceptor(resourceVersionRegistry,
+                        Order.class, OrderLine.class, Item.class, Category.class, User.class))
+                .addPathPatterns("/api/orders", "/api/orders/status/*", "/api/orders/user/*");
+    }
+}
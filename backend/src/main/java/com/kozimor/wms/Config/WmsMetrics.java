@@ -0,0 +1,157 @@
+package com.kozimor.wms.Config;
+
+import com.kozimor.wms.Database.Model.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metryki biznesowe gorących ścieżek (eksport przez /actuator/prometheus).
+ *
+ * Wszystkie metody przyjmują zmierzony czas w nanosekundach i nic nie zwracają,
+ * więc serwisy mierzą czas same (System.nanoTime()), a w testach jednostkowych wystarczy zwykły mock.
+ */
+@Component
+public class WmsMetrics {
+
+    private final MeterRegistry registry;
+
+    public WmsMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordTransactionPosted(TransactionType type, double quantity, long elapsedNanos) {
+        Timer.builder("wms.transactions.post")
+                .description("Czas księgowania transakcji magazynowej")
+                .tag("type", type.name())
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("wms.transactions.quantity")
+                .description("Ilość w zaksięgowanych transakcjach")
+                .tag("type", type.name())
+                .register(registry)
+                .record(quantity);
+    }
+
+    public void recordInsufficientStock(TransactionType type) {
+        Counter.builder("wms.transactions.rejected")
+                .description("Transakcje odrzucone z powodu niewystarczającego stanu")
+                .tag("type", type.name())
+                .tag("reason", "insufficient_stock")
+                .register(registry)
+                .increment();
+    }
+
+    public void recordSnapshot(int rowsWritten, long elapsedNanos) {
+        Timer.builder("wms.snapshot.duration")
+                .description("Czas tworzenia snapshotu stanów magazynu")
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("wms.snapshot.rows")
+                .description("Liczba pozycji zapisanych w snapshocie")
+                .baseUnit("rows")
+                .register(registry)
+                .record(rowsWritten);
+    }
+
+    public void recordOrderCreated(int lineCount, long elapsedNanos) {
+        Timer.builder("wms.orders.create")
+                .description("Czas tworzenia zamówienia")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (lineCount > 0) {
+            Timer.builder("wms.orders.create.per_line")
+                    .description("Czas tworzenia zamówienia w przeliczeniu na jedną linię")
+                    .register(registry)
+                    .record(elapsedNanos / lineCount, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @param filters kombinacja użytych filtrów, np. "type+category" albo "none" - ograniczona liczba wartości
+     */
+    public void recordSearch(String filters, long elapsedNanos) {
+        Timer.builder("wms.items.search")
+                .description("Czas wyszukiwania itemów wg kombinacji filtrów")
+                .tag("filters", filters)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOccupancy(int itemCount, long elapsedNanos) {
+        Timer.builder("wms.locations.occupancy")
+                .description("Czas obliczania obłożenia lokacji")
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("wms.locations.occupancy.items")
+                .description("Liczba itemów w lokacji przy obliczaniu obłożenia")
+                .register(registry)
+                .record(itemCount);
+    }
+
+    public void recordStockAsOf(int balanceCount, long elapsedNanos) {
+        Timer.builder("wms.inventory.as_of")
+                .description("Czas wyliczenia stanu magazynu na podaną datę")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("wms.inventory.as_of.balances")
+                .description("Liczba sald (item, lokacja) w odpowiedzi stanu na datę")
+                .register(registry)
+                .record(balanceCount);
+    }
+
+    public void recordVirtualThreadPinned(long durationNanos) {
+        Timer.builder("wms.virtual_threads.pinned")
+                .description("Czas przypięcia wątku wirtualnego do nośnika (synchronized, natywne wywołania)")
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordJobExecution(String job, String status, long rowsProcessed, long elapsedNanos) {
+        Timer.builder("wms.jobs.execution")
+                .description("Czas wykonania zadania harmonogramu")
+                .tag("job", job)
+                .tag("status", status)
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("wms.jobs.rows")
+                .description("Liczba wierszy przetworzonych przez zadanie")
+                .tag("job", job)
+                .baseUnit("rows")
+                .register(registry)
+                .record(rowsProcessed);
+    }
+
+    public void recordAlertEvaluation(long elapsedNanos) {
+        Timer.builder("wms.alerts.evaluation")
+                .description("Czas sprawdzenia progów lokacji po zaksięgowaniu transakcji")
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAlert(String type, String action) {
+        Counter.builder("wms.alerts")
+                .description("Podniesione i wyczyszczone alerty progów lokacji")
+                .tag("type", type)
+                .tag("action", action)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Pula z metrykami executor.* (aktywne wątki, kolejka, czas oczekiwania i wykonania zadań)
+     */
+    public ExecutorService monitorExecutor(ExecutorService executor, String name) {
+        return ExecutorServiceMetrics.monitor(registry, executor, name);
+    }
+}
@@ -0,0 +1,52 @@
+package com.kozimor.wms.Database.Controller;
+
+import com.kozimor.wms.Database.Model.DTO.StockAlertDTO;
+import com.kozimor.wms.Database.Service.StockAlertService;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/alerts")
+@AllArgsConstructor
+public class AlertController {
+
+    private final StockAlertService stockAlertService;
+
+    /**
+     * Alerty progów lokacji, najnowsze pierwsze. status: ACTIVE (domyślnie), CLEARED albo ALL.
+     */
+    @GetMapping
+    public ResponseEntity<Page<StockAlertDTO>> getAlerts(@RequestParam(required = false) String status,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(stockAlertService.getAlerts(status, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Strumień SSE podniesionych (ALERT_RAISED) i wyczyszczonych (ALERT_CLEARED) alertów.
+     * Zdarzenie "resync" oznacza, że klient powinien raz pobrać aktywne alerty przez REST.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAlerts() {
+        try {
+            return ResponseEntity.ok()
+                    .header("Cache-Control", "no-cache")
+                    .header("X-Accel-Buffering", "no")
+                    .body(stockAlertService.subscribe());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
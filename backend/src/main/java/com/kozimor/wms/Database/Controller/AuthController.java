@@ -1,6 +1,9 @@
 package com.kozimor.wms.Database.Controller;
 
 import com.kozimor.wms.Security.JwtService;
+import com.kozimor.wms.Security.LoginAttemptThrottle;
+import com.kozimor.wms.Security.PasswordHashingExecutor;
+import com.kozimor.wms.Security.UserPrincipalCache;
 import com.kozimor.wms.Database.Model.User;
 import com.kozimor.wms.Database.Model.Role;
 import com.kozimor.wms.Database.Repository.UserRepository;
@@ -11,9 +14,12 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Pattern;
 import java.util.List;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -45,6 +51,9 @@ public class AuthController {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserIDGenerator userIDGenerator;
+    private final UserPrincipalCache userPrincipalCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginAttemptThrottle loginAttemptThrottle;
 
     public AuthController(AuthenticationManager authenticationManager,
             JwtService jwtService,
@@ -53,7 +62,10 @@ public class AuthController {
             UserRepository userRepository,
             RoleRepository roleRepository,
             PasswordEncoder passwordEncoder,
-            UserIDGenerator userIDGenerator) {
+            UserIDGenerator userIDGenerator,
+            UserPrincipalCache userPrincipalCache,
+            PasswordHashingExecutor passwordHashingExecutor,
+            LoginAttemptThrottle loginAttemptThrottle) {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.expirationMs = expirationMs;
@@ -62,12 +74,32 @@ public class AuthController {
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.userIDGenerator = userIDGenerator;
+        this.userPrincipalCache = userPrincipalCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.loginAttemptThrottle = loginAttemptThrottle;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username(), request.password()));
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // Adres klienta, a nie load balancera - X-Forwarded-For od zaufanych proxy rozwiązuje Tomcat
+        // (server.forward-headers-strategy, server.tomcat.remoteip.internal-proxies)
+        String ip = httpRequest.getRemoteAddr();
+        long retryAfter = loginAttemptThrottle.tryAcquire(request.username(), ip);
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter, "Too many failed login attempts");
+        }
+
+        // BCrypt w osobnej puli - burza logowań nie zajmuje wątków Tomcata obsługujących resztę API
+        Authentication authentication;
+        try {
+            authentication = passwordHashingExecutor.execute(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.username(), request.password())));
+        } catch (RejectedExecutionException e) {
+            loginAttemptThrottle.cancel(request.username(), ip);
+            return tooManyRequests(1, "Login service is busy, try again");
+        }
+        loginAttemptThrottle.recordSuccess(request.username(), ip);
+
         String token = jwtService.generateToken(authentication);
         String refreshToken = jwtService.generateRefreshToken(authentication);
         return ResponseEntity.status(HttpStatus.OK)
@@ -89,15 +121,15 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token");
         }
 
-        var userOpt = userRepository.findByUsername(username);
+        var userOpt = userPrincipalCache.findByUsername(username);
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
         }
 
         // Stwórz nowy authentication object dla użytkownika
-        User user = userOpt.get();
-        List<SimpleGrantedAuthority> authorities = user.getRole() != null
-            ? List.of(new SimpleGrantedAuthority(user.getRole().getRoleName()))
+        UserPrincipalCache.CachedUser user = userOpt.get();
+        List<SimpleGrantedAuthority> authorities = user.roleName() != null
+            ? List.of(new SimpleGrantedAuthority(user.roleName()))
             : List.of();
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(
@@ -140,9 +172,16 @@ public class AuthController {
         }
         Role role = roleOpt.get();
 
+        String passwordHash;
+        try {
+            passwordHash = passwordHashingExecutor.execute(() -> passwordEncoder.encode(req.password()));
+        } catch (RejectedExecutionException e) {
+            return tooManyRequests(1, "Service is busy, try again");
+        }
+
         User user = User.builder()
                 .username(req.username())
-                .password(passwordEncoder.encode(req.password()))
+                .password(passwordHash)
                 .email(req.email())
                 .firstName(req.firstName())
                 .lastName(req.lastName())
@@ -153,4 +192,10 @@ public class AuthController {
         userRepository.save(user);
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<String> tooManyRequests(long retryAfterSeconds, String message) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(message);
+    }
+}
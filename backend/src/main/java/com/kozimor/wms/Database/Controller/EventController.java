@@ -0,0 +1,35 @@
+package com.kozimor.wms.Database.Controller;
+
+import com.kozimor.wms.Database.Service.StockEventService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@AllArgsConstructor
+public class EventController {
+
+    private final StockEventService stockEventService;
+
+    /**
+     * Strumień SSE zmian stanu magazynu (transakcje, statusy zamówień, CRUD itemów).
+     * Zdarzenie "resync" oznacza, że klient nie nadążał i powinien raz odświeżyć dane przez REST.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents() {
+        try {
+            return ResponseEntity.ok()
+                    .header("Cache-Control", "no-cache")
+                    .header("X-Accel-Buffering", "no")
+                    .body(stockEventService.subscribe());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
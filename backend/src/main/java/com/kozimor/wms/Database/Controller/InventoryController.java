@@ -0,0 +1,58 @@
+package com.kozimor.wms.Database.Controller;
+
+import com.kozimor.wms.Database.Model.DTO.InventoryAsOfDTO;
+import com.kozimor.wms.Database.Service.InventoryAsOfService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+@RestController
+@RequestMapping("/api/inventory")
+@AllArgsConstructor
+public class InventoryController {
+
+    private final InventoryAsOfService inventoryAsOfService;
+
+    /**
+     * Stan magazynu na datę. date: 2025-03-31 (koniec dnia), 2025-03-31T12:00:00 (czas serwera)
+     * albo 2025-03-31T12:00:00+02:00. Bez locationId - wszystkie lokacje.
+     */
+    @GetMapping("/as-of")
+    public ResponseEntity<InventoryAsOfDTO> getStockAsOf(@RequestParam String date,
+                                                         @RequestParam(required = false) Long locationId) {
+        OffsetDateTime asOf;
+        try {
+            asOf = parseDate(date);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(inventoryAsOfService.getStockAsOf(asOf, locationId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private static OffsetDateTime parseDate(String date) {
+        ZoneId zone = ZoneId.systemDefault();
+        if (date.length() == 10) {
+            // Cały dzień - do ostatniej mikrosekundy przed północą (precyzja kolumn timestamp)
+            return LocalDate.parse(date).plusDays(1).atStartOfDay(zone).toOffsetDateTime().minusNanos(1_000);
+        }
+        try {
+            return OffsetDateTime.parse(date);
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.parse(date).atZone(zone).toOffsetDateTime();
+        }
+    }
+}
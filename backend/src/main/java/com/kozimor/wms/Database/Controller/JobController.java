@@ -0,0 +1,80 @@
+package com.kozimor.wms.Database.Controller;
+
+import com.kozimor.wms.Database.Model.DTO.JobConfigRequest;
+import com.kozimor.wms.Database.Model.DTO.JobDTO;
+import com.kozimor.wms.Database.Model.DTO.JobExecutionDTO;
+import com.kozimor.wms.Database.Service.SchedulerService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Zadania w tle - konfiguracja, ręczne uruchomienie i historia uruchomień
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+public class JobController {
+
+    private final SchedulerService schedulerService;
+
+    public JobController(SchedulerService schedulerService) {
+        this.schedulerService = schedulerService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<JobDTO>> getJobs() {
+        return ResponseEntity.ok(schedulerService.getJobs());
+    }
+
+    @GetMapping("/{name}")
+    public ResponseEntity<JobDTO> getJob(@PathVariable String name) {
+        try {
+            return ResponseEntity.ok(schedulerService.getJob(name));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping("/{name}")
+    public ResponseEntity<JobDTO> updateJob(@PathVariable String name, @Valid @RequestBody JobConfigRequest request) {
+        try {
+            return ResponseEntity.ok(schedulerService.updateJob(name, request));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/{name}/trigger")
+    public ResponseEntity<Void> triggerJob(@PathVariable String name) {
+        try {
+            schedulerService.trigger(name);
+            return ResponseEntity.accepted().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/{name}/executions")
+    public ResponseEntity<Page<JobExecutionDTO>> getExecutions(@PathVariable String name,
+                                                               @RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(schedulerService.getExecutions(name, page, size));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
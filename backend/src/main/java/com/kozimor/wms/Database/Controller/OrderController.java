@@ -1,8 +1,15 @@
 package com.kozimor.wms.Database.Controller;
 
+import com.kozimor.wms.Database.Model.AllocationPolicy;
+import com.kozimor.wms.Database.Model.DTO.BulkOrderStatusRequest;
+import com.kozimor.wms.Database.Model.DTO.BulkOrderStatusResultDTO;
 import com.kozimor.wms.Database.Model.DTO.OrderDTO;
 import com.kozimor.wms.Database.Model.DTO.OrderStatusHistoryDTO;
+import com.kozimor.wms.Database.Model.DTO.WavePlanDTO;
+import com.kozimor.wms.Database.Model.PickPathStrategy;
 import com.kozimor.wms.Database.Service.OrderService;
+import com.kozimor.wms.Database.Service.WavePlanningService;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
@@ -19,9 +26,11 @@ import java.util.Optional;
 public class OrderController {
 
     private final OrderService orderService;
+    private final WavePlanningService wavePlanningService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, WavePlanningService wavePlanningService) {
         this.orderService = orderService;
+        this.wavePlanningService = wavePlanningService;
     }
     private Long getUserIdFromJwt() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -35,11 +44,38 @@ public class OrderController {
         throw new IllegalArgumentException("Cannot extract userId from JWT token");
     }
 
+    /**
+     * allowBackorder=true przyjmuje zamówienie mimo braku w saldach lokacji - brak zostaje zaległością linii
+     */
     @PostMapping
-    public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody OrderDTO orderDTO) {
-        Long userId = getUserIdFromJwt();
-        OrderDTO created = orderService.createOrder(orderDTO, userId);
-        return new ResponseEntity<>(created, HttpStatus.CREATED);
+    public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody OrderDTO orderDTO,
+                                                @RequestParam(required = false) AllocationPolicy allocationPolicy,
+                                                @RequestParam(defaultValue = "false") boolean allowBackorder) {
+        try {
+            Long userId = getUserIdFromJwt();
+            OrderDTO created = orderService.createOrder(orderDTO, userId, allocationPolicy, allowBackorder);
+            return new ResponseEntity<>(created, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Realizacja zaległości zamówienia po dostawie - wydaje tyle, ile pokrywają salda lokacji
+     */
+    @PostMapping("/{id}/backorders/fulfil")
+    public ResponseEntity<OrderDTO> fulfilBackorders(@PathVariable Long id,
+                                                     @RequestParam(required = false) AllocationPolicy allocationPolicy) {
+        try {
+            Long userId = getUserIdFromJwt();
+            return ResponseEntity.ok(orderService.fulfilBackorders(id, userId, allocationPolicy));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -100,6 +136,34 @@ public class OrderController {
         }
     }
 
+    /**
+     * Zbiorcza zmiana statusu (np. wysyłka na koniec zmiany). idsOnly=true pomija mapowanie zamówień na DTO.
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<BulkOrderStatusResultDTO> updateOrderStatuses(
+            @Valid @RequestBody BulkOrderStatusRequest request,
+            @RequestParam(defaultValue = "false") boolean idsOnly) {
+        try {
+            Long userId = getUserIdFromJwt();
+            return ResponseEntity.ok(orderService.updateOrderStatuses(
+                    request.getOrderIds(), request.getStatus(), request.getReason(), userId, idsOnly));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/pick-list")
+    public ResponseEntity<WavePlanDTO> getPickList(@PathVariable Long id,
+                                                   @RequestParam(required = false) PickPathStrategy strategy) {
+        try {
+            return ResponseEntity.ok(wavePlanningService.planOrder(id, strategy));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/{id}/history")
     public ResponseEntity<List<OrderStatusHistoryDTO>> getOrderStatusHistory(@PathVariable Long id) {
         List<OrderStatusHistoryDTO> history = orderService.getOrderStatusHistory(id);
@@ -0,0 +1,31 @@
+package com.kozimor.wms.Database.Controller;
+
+import com.kozimor.wms.Database.Model.PickPathStrategy;
+import com.kozimor.wms.Database.Model.DTO.WavePlanDTO;
+import com.kozimor.wms.Database.Service.WavePlanningService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/picking")
+public class PickingController {
+
+    private final WavePlanningService wavePlanningService;
+
+    public PickingController(WavePlanningService wavePlanningService) {
+        this.wavePlanningService = wavePlanningService;
+    }
+
+    /**
+     * Fala kompletacji dla najstarszych zamówień PENDING - listy pobrań per lokacja w kolejności przejścia
+     */
+    @GetMapping("/wave")
+    public ResponseEntity<WavePlanDTO> planWave(@RequestParam(defaultValue = "500") int maxOrders,
+                                                @RequestParam(required = false) PickPathStrategy strategy) {
+        try {
+            return ResponseEntity.ok(wavePlanningService.planWave(maxOrders, strategy));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
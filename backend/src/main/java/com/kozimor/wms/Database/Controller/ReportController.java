@@ -1,10 +1,15 @@
 package com.kozimor.wms.Database.Controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kozimor.wms.Database.Model.Report;
+import com.kozimor.wms.Database.Model.ReportItem;
 import com.kozimor.wms.Database.Model.DTO.ReportDTO;
 import com.kozimor.wms.Database.Model.DTO.ReportItemDTO;
+import com.kozimor.wms.Database.Model.DTO.ReportItemPageDTO;
 import com.kozimor.wms.Database.Model.DTO.PageResponse;
 import com.kozimor.wms.Database.Model.DTO.UserDTO;
+import com.kozimor.wms.Database.Service.ReportDiffService;
 import com.kozimor.wms.Database.Service.ReportService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
@@ -13,21 +18,32 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/reports")
 public class ReportController {
 
+    private static final int MAX_ITEMS_PAGE = 1000;
+
     private final ReportService reportService;
+    private final ReportDiffService reportDiffService;
+    private final ObjectMapper objectMapper;
 
-    public ReportController(ReportService reportService) {
+    public ReportController(ReportService reportService, ReportDiffService reportDiffService, ObjectMapper objectMapper) {
         this.reportService = reportService;
+        this.reportDiffService = reportDiffService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -60,43 +76,27 @@ public class ReportController {
             @RequestParam(defaultValue = "DESC") Sort.Direction direction) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
         Page<Report> reports = reportService.getAllReports(pageable);
-        
-        // Convert to DTO
-        PageResponse<ReportDTO> response = PageResponse.<ReportDTO>builder()
-                .content(reports.getContent().stream()
-                        .map(this::convertToDTO)
-                        .collect(Collectors.toList()))
-                .pageNumber(reports.getNumber())
-                .pageSize(reports.getSize())
-                .totalElements(reports.getTotalElements())
-                .totalPages(reports.getTotalPages())
-                .isFirst(reports.isFirst())
-                .isLast(reports.isLast())
-                .hasNext(reports.hasNext())
-                .hasPrevious(reports.hasPrevious())
-                .build();
-        
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(toPageResponse(reports));
     }
 
     /**
      * Get reports created by a specific user
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Page<Report>> getReportsByUserId(
+    public ResponseEntity<PageResponse<ReportDTO>> getReportsByUserId(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<Report> reports = reportService.getReportsByUserId(userId, pageable);
-        return ResponseEntity.ok(reports);
+        return ResponseEntity.ok(toPageResponse(reports));
     }
 
     /**
      * Get reports created between two dates
      */
     @GetMapping("/daterange")
-    public ResponseEntity<Page<Report>> getReportsByDateRange(
+    public ResponseEntity<PageResponse<ReportDTO>> getReportsByDateRange(
             @RequestParam String startDate,
             @RequestParam String endDate,
             @RequestParam(defaultValue = "0") int page,
@@ -108,7 +108,7 @@ public class ReportController {
 
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
             Page<Report> reports = reportService.getReportsByDateRange(start, end, pageable);
-            return ResponseEntity.ok(reports);
+            return ResponseEntity.ok(toPageResponse(reports));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -118,12 +118,41 @@ public class ReportController {
      * Get reports with critical stock items
      */
     @GetMapping("/critical")
-    public ResponseEntity<Page<Report>> getReportsWithCriticalItems(
+    public ResponseEntity<PageResponse<ReportDTO>> getReportsWithCriticalItems(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<Report> reports = reportService.getReportsWithCriticalItems(pageable);
-        return ResponseEntity.ok(reports);
+        return ResponseEntity.ok(toPageResponse(reports));
+    }
+
+    /**
+     * Get report items in pages keyed by item id: pass nextAfterItemId of the previous page as afterItemId
+     */
+    @GetMapping("/{id}/items")
+    public ResponseEntity<ReportItemPageDTO> getReportItems(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") Long afterItemId,
+            @RequestParam(defaultValue = "100") int size) {
+        if (size < 1 || size > MAX_ITEMS_PAGE) {
+            return ResponseEntity.badRequest().build();
+        }
+        Report report = reportService.getReportById(id).orElse(null);
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // Jeden wiersz więcej - czy jest następna strona, bez COUNT
+        List<ReportItem> items = reportService.getReportItemsAfter(report, afterItemId, size + 1);
+        boolean hasMore = items.size() > size;
+        List<ReportItemDTO> page = items.stream()
+                .limit(size)
+                .map(this::convertReportItemToDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ReportItemPageDTO.builder()
+                .items(page)
+                .nextAfterItemId(page.isEmpty() ? afterItemId : page.get(page.size() - 1).getItemId())
+                .hasMore(hasMore)
+                .build());
     }
 
     /**
@@ -175,12 +204,62 @@ public class ReportController {
         return ResponseEntity.ok(count);
     }
 
+    /**
+     * Compare two reports: per-item deltas (b - a), new and removed items and status transitions.
+     * The JSON array is streamed while the database cursor is read.
+     */
+    @GetMapping("/{a}/diff/{b}")
+    public ResponseEntity<StreamingResponseBody> diffReports(
+            @PathVariable Long a,
+            @PathVariable Long b,
+            @RequestParam(defaultValue = "absDelta") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(defaultValue = "false") boolean includeUnchanged) {
+        try {
+            reportDiffService.validate(a, b, sortBy);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.writeStartArray();
+                reportDiffService.diff(a, b, sortBy, direction, includeUnchanged, row -> {
+                    try {
+                        generator.writeObject(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @PostMapping("/snapshot")
     public ResponseEntity<Report> createSnapshot() {
         Report snapshot = reportService.createSnapshot();
         return ResponseEntity.status(HttpStatus.CREATED).body(snapshot);
     }
 
+    private PageResponse<ReportDTO> toPageResponse(Page<Report> reports) {
+        return PageResponse.<ReportDTO>builder()
+                .content(reports.getContent().stream()
+                        .map(this::convertToDTO)
+                        .collect(Collectors.toList()))
+                .pageNumber(reports.getNumber())
+                .pageSize(reports.getSize())
+                .totalElements(reports.getTotalElements())
+                .totalPages(reports.getTotalPages())
+                .isFirst(reports.isFirst())
+                .isLast(reports.isLast())
+                .hasNext(reports.hasNext())
+                .hasPrevious(reports.hasPrevious())
+                .build();
+    }
+
     /**
      * Convert Report entity to ReportDTO
      */
@@ -192,9 +271,7 @@ public class ReportController {
                 .criticalStockCount(report.getCriticalStockCount())
                 .okCount(report.getOkCount())
                 .createdBy(convertUserToDTO(report.getCreatedBy()))
-                .reportItems(report.getReportItems().stream()
-                        .map(this::convertReportItemToDTO)
-                        .collect(Collectors.toSet()))
+                .snapshotType(report.getSnapshotType() != null ? report.getSnapshotType().name() : Report.SnapshotType.FULL.name())
                 .createdAt(report.getCreatedAt())
                 .updatedAt(report.getUpdatedAt())
                 .build();
@@ -203,9 +280,10 @@ public class ReportController {
     /**
      * Convert ReportItem entity to ReportItemDTO
      */
-    private ReportItemDTO convertReportItemToDTO(com.kozimor.wms.Database.Model.ReportItem reportItem) {
+    private ReportItemDTO convertReportItemToDTO(ReportItem reportItem) {
         return ReportItemDTO.builder()
                 .id(reportItem.getId())
+                .itemId(reportItem.getItem().getId())
                 .itemName(reportItem.getItemName())
                 .status(reportItem.getStatus())
                 .currentQuantity(reportItem.getWarehouseValue() != null ? reportItem.getWarehouseValue() : 0.0)
@@ -0,0 +1,75 @@
+package com.kozimor.wms.Database.Controller;
+
+import com.kozimor.wms.Database.Model.DTO.StatusRuleDTO;
+import com.kozimor.wms.Database.Service.StatusRuleService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Reguły statusów LOW / CRITICAL per item i kategoria. Zakres spoza StatusRule.Scope (np. LOCATION) kończy się 400.
+ */
+@RestController
+@RequestMapping("/api/status-rules")
+@AllArgsConstructor
+public class StatusRuleController {
+
+    private final StatusRuleService statusRuleService;
+
+    @GetMapping
+    public ResponseEntity<List<StatusRuleDTO>> getRules() {
+        return ResponseEntity.ok(statusRuleService.getAll());
+    }
+
+    /**
+     * Status na żywo: stan całkowity itemu albo saldo w podanej lokacji
+     */
+    @GetMapping("/evaluate")
+    public ResponseEntity<StatusRuleService.StatusEvaluation> evaluate(@RequestParam Long itemId,
+                                                                       @RequestParam(required = false) Long locationId) {
+        try {
+            return ResponseEntity.ok(statusRuleService.evaluate(itemId, locationId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<StatusRuleDTO> createRule(@Valid @RequestBody StatusRuleDTO request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(statusRuleService.create(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<StatusRuleDTO> updateRule(@PathVariable Long id, @RequestBody StatusRuleDTO request) {
+        try {
+            return ResponseEntity.ok(statusRuleService.update(id, request));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long id) {
+        try {
+            statusRuleService.delete(id);
+            return ResponseEntity.noContent().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.kozimor.wms.Database.Controller;
+
+import com.kozimor.wms.Database.Model.DTO.SyncDeltaDTO;
+import com.kozimor.wms.Database.Model.DTO.SyncUploadRequest;
+import com.kozimor.wms.Database.Model.DTO.SyncUploadResultDTO;
+import com.kozimor.wms.Database.Service.SyncService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Synchronizacja skanerów offline - pobranie zmian katalogu i wysłanie kolejki transakcji
+ */
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    private Long getUserIdFromJwt() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt) {
+            Jwt jwt = (Jwt) authentication.getPrincipal();
+            Object userIdObj = jwt.getClaim("userId");
+            if (userIdObj instanceof Number) {
+                return ((Number) userIdObj).longValue();
+            }
+        }
+        throw new IllegalArgumentException("Cannot extract userId from JWT token");
+    }
+
+    @GetMapping
+    public ResponseEntity<SyncDeltaDTO> getChanges(@RequestParam(required = false) Long since,
+                                                   @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(syncService.getChanges(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/transactions")
+    public ResponseEntity<SyncUploadResultDTO> uploadTransactions(@Valid @RequestBody SyncUploadRequest request) {
+        try {
+            return ResponseEntity.ok(syncService.uploadTransactions(request, getUserIdFromJwt()));
+        } catch (IllegalArgumentException | EntityNotFoundException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.kozimor.wms.Database.Model;
+
+/**
+ * Kolejność, w jakiej alokator wybiera lokacje do wydania linii zamówienia
+ */
+public enum AllocationPolicy {
+    FIFO,                   // najstarsze przypisanie itemu do lokacji (InventoryLocation.createdAt) najpierw
+    NEAREST,                // najbliżej punktu startowego (wms.allocation.origin)
+    EMPTY_NEAR_EMPTY_FIRST  // najmniejsze salda najpierw - zwalnia prawie puste lokacje
+}
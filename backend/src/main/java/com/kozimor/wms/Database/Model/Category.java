@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "categories",
        uniqueConstraints = @UniqueConstraint(columnNames = "category_name"),
        indexes = @Index(name = "idx_categories_name", columnList = "category_name"))
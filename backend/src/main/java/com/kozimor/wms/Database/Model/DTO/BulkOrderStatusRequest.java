@@ -0,0 +1,26 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderStatusRequest {
+    @NotEmpty(message = "Order IDs are required")
+    @Size(max = 5000, message = "At most 5000 orders per request")
+    private List<Long> orderIds;
+
+    @NotBlank(message = "Status is required")
+    private String status;
+
+    private String reason;
+}
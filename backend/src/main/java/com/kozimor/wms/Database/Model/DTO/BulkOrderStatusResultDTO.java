@@ -0,0 +1,16 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import lombok.*;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class BulkOrderStatusResultDTO {
+    private String status;
+    private Integer updatedCount;
+    private List<Long> updatedIds;
+    private List<Long> notFoundIds;
+    private List<OrderDTO> orders; // null przy idsOnly=true
+}
@@ -0,0 +1,34 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Salda (item, lokacja) na podaną chwilę. checkpointAsOf - punkt kontrolny, od którego doliczono transakcje
+ * (null, gdy wcześniejszego punktu nie ma i sumowana jest cała historia).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAsOfDTO {
+    private OffsetDateTime asOf;
+    private Long locationId;
+    private OffsetDateTime checkpointAsOf;
+    private List<Balance> balances;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Balance {
+        private Long itemId;
+        private String itemName;
+        private Long locationId;
+        private Double quantity;
+    }
+}
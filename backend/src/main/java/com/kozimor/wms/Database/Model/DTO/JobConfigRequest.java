@@ -0,0 +1,28 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import com.kozimor.wms.Database.Model.MisfirePolicy;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Zmiana konfiguracji zadania - pola null pozostają bez zmian
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobConfigRequest {
+    private String cronExpression;
+
+    private Boolean enabled;
+
+    @Min(value = 1, message = "At least one concurrent execution is required")
+    @Max(value = 16, message = "At most 16 concurrent executions")
+    private Integer maxConcurrent;
+
+    private MisfirePolicy misfirePolicy;
+}
@@ -0,0 +1,21 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class JobDTO {
+    private String name;
+    private String description;
+    private String cronExpression;
+    private Boolean enabled;
+    private Integer maxConcurrent;
+    private String misfirePolicy;
+    // true - na jednej instancji w klastrze (dzierżawa), false - na każdej instancji
+    private boolean clusterExclusive;
+    private int running;
+    private String nextFireTime;
+    private JobExecutionDTO lastExecution;
+}
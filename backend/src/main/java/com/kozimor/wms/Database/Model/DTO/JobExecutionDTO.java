@@ -0,0 +1,21 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class JobExecutionDTO {
+    private Long id;
+    private String jobName;
+    private String trigger;
+    private String fireTime;
+    private String startedAt;
+    private String finishedAt;
+    private Long durationMs;
+    private Long rowsProcessed;
+    private String status;
+    private String node;
+    private String errorMessage;
+}
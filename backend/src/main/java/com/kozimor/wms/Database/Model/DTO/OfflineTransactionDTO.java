@@ -0,0 +1,43 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import com.kozimor.wms.Database.Model.TransactionType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Transakcja zarejestrowana na skanerze bez połączenia
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OfflineTransactionDTO {
+    @NotBlank(message = "Client ID is required")
+    @Size(max = 64, message = "Client ID must have at most 64 characters")
+    private String clientId; // generowany na urządzeniu, ponowna wysyłka z tym samym id nie księguje drugi raz
+
+    @NotNull(message = "Item ID is required")
+    private Long itemId;
+
+    @NotNull(message = "Location ID is required")
+    private Long locationId;
+
+    @NotNull(message = "Transaction type is required")
+    private TransactionType transactionType;
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be greater than 0")
+    private Double quantity;
+
+    private OffsetDateTime occurredAt;
+
+    private String description;
+}
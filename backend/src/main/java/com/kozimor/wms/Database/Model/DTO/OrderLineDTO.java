@@ -2,6 +2,8 @@ package com.kozimor.wms.Database.Model.DTO;
 
 import lombok.*;
 
+import java.util.List;
+
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -15,4 +17,7 @@ public class OrderLineDTO {
     private Double quantity;
     private String unit;
     private Long transactionId;
+    // Transakcje ORDER wszystkich lokacji linii (transactionId to pierwsza z nich)
+    private List<Long> transactionIds;
+    private Double backorderedQuantity;
 }
@@ -0,0 +1,17 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class PickLineDTO {
+    private Long orderId;
+    private String orderNumber;
+    private Long orderLineId;
+    private Long itemId;
+    private String itemName;
+    private Double quantity;
+    private String unit;
+}
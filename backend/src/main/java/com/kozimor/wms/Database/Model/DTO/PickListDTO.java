@@ -0,0 +1,19 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * Wszystko, co w ramach fali trzeba pobrać z jednej lokacji
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class PickListDTO {
+    private Integer sequence; // kolejność odwiedzania lokacji w fali, od 1
+    private Long locationId;
+    private String locationCode;
+    private Double totalQuantity;
+    private List<PickLineDTO> lines;
+}
@@ -2,8 +2,10 @@ package com.kozimor.wms.Database.Model.DTO;
 
 import lombok.*;
 import java.time.LocalDateTime;
-import java.util.Set;
 
+/**
+ * Podsumowanie raportu do list - bez pozycji (GET /api/reports/{id}/items)
+ */
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,8 +17,8 @@ public class ReportDTO {
     private Integer lowStockCount;
     private Integer criticalStockCount;
     private Integer okCount;
+    private String snapshotType;
     private UserDTO createdBy;
-    private Set<ReportItemDTO> reportItems;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
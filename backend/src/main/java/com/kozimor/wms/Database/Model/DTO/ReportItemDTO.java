@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 @Builder
 public class ReportItemDTO {
     private Long id;
+    private Long itemId;
     private String itemName;
     private String status;
     private Double currentQuantity;
@@ -0,0 +1,23 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import lombok.*;
+
+/**
+ * Różnica jednej pozycji między dwoma raportami. Strona "a" to raport bazowy porównania, "b" - porównywany.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportItemDiffDTO {
+    private Long itemId;
+    private String itemName;
+    private String change; // ADDED, REMOVED, CHANGED, UNCHANGED
+    private Double quantityA;
+    private Double quantityB;
+    private Double delta;
+    private String statusA;
+    private String statusB;
+    private boolean statusChanged;
+}
@@ -0,0 +1,19 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Strona pozycji raportu stronicowana kluczem (item id) - kolejna strona: afterItemId = nextAfterItemId
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportItemPageDTO {
+    private List<ReportItemDTO> items;
+    private Long nextAfterItemId;
+    private boolean hasMore;
+}
@@ -0,0 +1,25 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import com.kozimor.wms.Database.Model.StatusRule;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class StatusRuleDTO {
+    private Long id;
+
+    @NotNull(message = "Scope is required")
+    private StatusRule.Scope scope;
+
+    @NotNull(message = "Target id is required")
+    private Long targetId;
+
+    @NotNull(message = "Critical threshold is required")
+    private Double criticalThreshold;
+
+    @NotNull(message = "Low threshold is required")
+    private Double lowThreshold;
+}
@@ -0,0 +1,23 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import lombok.*;
+
+/**
+ * Alert progu lokacji - w odpowiedziach /api/alerts i w zdarzeniach strumienia SSE
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class StockAlertDTO {
+    private Long id;
+    private Long locationId;
+    private String locationCode;
+    private String type;
+    private String status;
+    private Double threshold;
+    private Double quantity;
+    private String raisedAt;
+    private Double clearedQuantity;
+    private String clearedAt;
+}
@@ -0,0 +1,36 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Zdarzenie zmiany stanu magazynu - publikowane przez serwisy i rozsyłane po commicie do klientów SSE
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockEventDTO {
+
+    public enum EventType {
+        TRANSACTION_POSTED,
+        ORDER_STATUS_CHANGED,
+        ITEM_CREATED,
+        ITEM_UPDATED,
+        ITEM_DELETED
+    }
+
+    private EventType type;
+    private Long entityId;          // id transakcji / zamówienia / itemu
+    private Long itemId;
+    private Long locationId;
+    private Double quantity;        // ilość w transakcji
+    private Double currentQuantity; // stan itemu po zmianie
+    private String transactionType;
+    private String status;
+    private OffsetDateTime occurredAt;
+}
@@ -0,0 +1,71 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Odpowiedź GET /api/sync - zmienione wiersze katalogu po tokenie urządzenia.
+ * Puste listy są pomijane w JSON, więc brak zmian to kilkadziesiąt bajtów.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class SyncDeltaDTO {
+    private Long token;          // następny "since"
+    private boolean hasMore;     // kolejna porcja dostępna od razu
+    private boolean snapshot;    // pełny stan - urządzenie zastępuje lokalny katalog zamiast go łatać
+    private List<ItemRow> items;
+    private List<LocationRow> locations;
+    private List<InventoryLocationRow> inventoryLocations;
+    private List<KeywordRow> keywords;
+    private Map<String, List<Long>> deleted; // typ encji -> id
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    public static class ItemRow {
+        private Long id;
+        private String name;
+        private Long categoryId;
+        private String unit;
+        private String type;
+        private Double currentQuantity;
+        private String qrCode;
+        private String updatedAt;
+        private List<Long> keywordIds;
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    public static class LocationRow {
+        private Long id;
+        private String code;
+        private String name;
+        private String type;
+        private String unitType;
+        private boolean active;
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    public static class InventoryLocationRow {
+        private Long id;
+        private Long itemId;
+        private Long locationId;
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    public static class KeywordRow {
+        private Long id;
+        private String value;
+    }
+}
@@ -0,0 +1,23 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncUploadRequest {
+    private String deviceId;
+
+    @NotEmpty(message = "Transactions are required")
+    @Size(max = 1000, message = "At most 1000 transactions per request")
+    private List<@Valid OfflineTransactionDTO> transactions;
+}
@@ -0,0 +1,35 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import lombok.*;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class SyncUploadResultDTO {
+    private Integer appliedCount;
+    private Integer duplicateCount;
+    private Integer conflictCount;
+    private Integer rejectedCount;
+    private List<Entry> results; // w kolejności z żądania
+
+    public enum Status {
+        APPLIED,    // zaksięgowana teraz
+        DUPLICATE,  // ten clientId był już zaksięgowany (albo jest właśnie księgowany)
+        CONFLICT,   // stan na serwerze nie pozwala zaksięgować - np. brak ilości po zmianach z innych urządzeń
+        REJECTED    // błędne dane - nieistniejący item, nieaktywna lokacja
+    }
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    @Data
+    public static class Entry {
+        private String clientId;
+        private Status status;
+        private Long transactionId;
+        private Double currentQuantity; // stan itemu po zaksięgowaniu albo w chwili konfliktu
+        private String message;
+    }
+}
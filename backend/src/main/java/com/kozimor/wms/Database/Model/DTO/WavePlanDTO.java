@@ -0,0 +1,19 @@
+package com.kozimor.wms.Database.Model.DTO;
+
+import lombok.*;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class WavePlanDTO {
+    private Integer orderCount;
+    private Integer lineCount;
+    private Integer locationCount;
+    private List<Long> unassignedOrderLineIds; // linie bez lokacji wydania - do obsłużenia ręcznie
+    private List<PickListDTO> pickLists;
+    private String pathStrategy;
+    private Integer pathDistance; // długość trasy w modelu alejek; null dla WALK_ORDER
+    private String generatedAt;
+}
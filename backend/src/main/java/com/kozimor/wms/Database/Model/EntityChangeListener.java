@@ -0,0 +1,39 @@
+package com.kozimor.wms.Database.Model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener podpinany przez @EntityListeners. Instancję tworzy Spring (SpringBeanContainer Hibernate),
+ * dlatego może korzystać z wstrzykiwania przez konstruktor.
+ */
+public class EntityChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EntityChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onCreated(Object entity) {
+        publish(entity, EntityChangedEvent.ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void onUpdated(Object entity) {
+        publish(entity, EntityChangedEvent.ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void onDeleted(Object entity) {
+        publish(entity, EntityChangedEvent.ChangeType.DELETED);
+    }
+
+    private void publish(Object entity, EntityChangedEvent.ChangeType changeType) {
+        eventPublisher.publishEvent(new EntityChangedEvent(Hibernate.getClass(entity), entity, changeType));
+    }
+}
@@ -0,0 +1,14 @@
+package com.kozimor.wms.Database.Model;
+
+/**
+ * Zdarzenie publikowane przez {@link EntityChangeListener} po każdym zapisie encji.
+ * Konsumenci nasłuchują go przez @TransactionalEventListener, więc widzą tylko zatwierdzone zmiany.
+ */
+public record EntityChangedEvent(Class<?> entityType, Object entity, ChangeType changeType) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,58 @@
+package com.kozimor.wms.Database.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Klucz idempotencji żądania POST razem z zapamiętaną odpowiedzią.
+ * id = użytkownik | metoda i ścieżka | klucz z nagłówka Idempotency-Key
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+
+    public enum Status {
+        IN_PROGRESS,  // żądanie w trakcie wykonywania
+        COMPLETED     // odpowiedź zapisana, kolejne żądania dostają jej kopię
+    }
+
+    @Id
+    @Column(name = "id", length = 255)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    // Identyfikator rezerwacji - odpowiedź zapisuje tylko jej aktualny właściciel
+    @Column(name = "owner", length = 36)
+    private String owner;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "response_body", columnDefinition = "text")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Rezerwacja IN_PROGRESS starsza niż ta chwila należy do żądania, które nie dokończyło pracy (np. restart)
+    @Column(name = "in_progress_until")
+    private LocalDateTime inProgressUntil;
+}
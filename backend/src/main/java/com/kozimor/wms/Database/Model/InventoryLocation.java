@@ -7,6 +7,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "inventory_locations",
        indexes = {
            @Index(name = "idx_inventory_locations_item", columnList = "item_id"),
@@ -11,6 +11,7 @@ import java.util.Set;
 
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "items", indexes = {
         @Index(name = "idx_items_category", columnList = "category_id"),
         @Index(name = "idx_items_qr", columnList = "qr_code")
@@ -0,0 +1,71 @@
+package com.kozimor.wms.Database.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Historia uruchomień zadań harmonogramu
+ */
+@Entity
+@Table(name = "job_executions", indexes = {
+        @Index(name = "idx_job_executions_job_started", columnList = "job_name, started_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobExecution {
+
+    public enum Status {
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+        SKIPPED     // limit równoległości wyczerpany, polityka SKIP
+    }
+
+    public enum Trigger {
+        SCHEDULED,
+        MISFIRE,    // nadrobione pominięte uruchomienie
+        MANUAL
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "trigger_type", nullable = false, length = 20)
+    private Trigger trigger;
+
+    // Zaplanowany czas uruchomienia (dla MANUAL - czas zlecenia)
+    @Column(name = "fire_time", nullable = false)
+    private LocalDateTime fireTime;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "rows_processed")
+    private Long rowsProcessed;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "node", length = 100)
+    private String node;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+}
@@ -0,0 +1,44 @@
+package com.kozimor.wms.Database.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dzierżawa zadania harmonogramu - jeden wiersz na zadanie, wspólny dla wszystkich instancji aplikacji.
+ *
+ * Instancja, która przejmie wiersz (wygasła dzierżawa i niewykonane jeszcze uruchomienie), wykonuje zadanie
+ * i przedłuża dzierżawę w trakcie pracy. fencingToken rośnie przy każdym przejęciu - zapis wyniku
+ * z nieaktualnym tokenem (instancja, która straciła dzierżawę, np. po długiej pauzie GC) jest odrzucany.
+ */
+@Entity
+@Table(name = "job_leases")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLease {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "owner", length = 100)
+    private String owner;
+
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    // Zaplanowany czas uruchomienia (z crona), które właściciel dzierżawy wykonuje
+    @Column(name = "claimed_fire_time")
+    private LocalDateTime claimedFireTime;
+
+    // Ostatnie zaplanowane uruchomienie, które zostało zakończone
+    @Column(name = "completed_fire_time")
+    private LocalDateTime completedFireTime;
+}
@@ -8,6 +8,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "keywords",
        uniqueConstraints = @UniqueConstraint(columnNames = "keyword_value"),
        indexes = @Index(name = "idx_keywords_value", columnList = "keyword_value"))
@@ -0,0 +1,25 @@
+package com.kozimor.wms.Database.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Bieżące saldo lokacji (suma po itemach, bez anulowanych transakcji) - utrzymywane przyrostowo
+ * w transakcji księgowania przez LocationBalanceService. Samo id lokacji zamiast relacji, jak w saldach punktów.
+ */
+@Entity
+@Table(name = "location_balances")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LocationBalance {
+
+    @Id
+    @Column(name = "location_id")
+    private Long locationId;
+
+    @Column(name = "quantity", nullable = false)
+    private double quantity;
+}
@@ -0,0 +1,67 @@
+package com.kozimor.wms.Database.Model;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rozparsowany kod lokacji w formacie sektor-półka-rząd, np. "A1-S1-R3".
+ *
+ * Sektor "A1" zamieniany jest na liczbę (litera * 100 + numer), więc sektory B* leżą "dalej" niż A*.
+ * Półka i rząd to same numery - prefiksy literowe (S, R) są ignorowane.
+ */
+public record LocationCode(String code, int sector, int shelf, int row) implements Comparable<LocationCode> {
+
+    private static final Pattern SEGMENT = Pattern.compile("([A-Za-z]*)(\\d+)");
+    private static final Comparator<LocationCode> WALK_ORDER = Comparator
+            .comparingInt(LocationCode::sector)
+            .thenComparingInt(LocationCode::shelf)
+            .thenComparingInt(LocationCode::row);
+
+    // Przejście między sektorami kosztuje więcej niż między półkami, a to więcej niż zmiana rzędu
+    private static final int SECTOR_WEIGHT = 100;
+    private static final int SHELF_WEIGHT = 10;
+
+    /**
+     * @return pusty Optional dla kodów spoza formatu (np. "MAGAZYN-GŁÓWNY")
+     */
+    public static Optional<LocationCode> parse(String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        String[] parts = code.trim().split("-");
+        if (parts.length != 3) {
+            return Optional.empty();
+        }
+        int[] values = new int[3];
+        for (int i = 0; i < 3; i++) {
+            Matcher matcher = SEGMENT.matcher(parts[i]);
+            if (!matcher.matches()) {
+                return Optional.empty();
+            }
+            if (matcher.group(2).length() > 6) {
+                return Optional.empty();
+            }
+            int number = Integer.parseInt(matcher.group(2));
+            String letters = matcher.group(1).toUpperCase();
+            if (i == 0) {
+                int letterIndex = letters.isEmpty() ? 0 : letters.charAt(0) - 'A' + 1;
+                number = letterIndex * 100 + number;
+            }
+            values[i] = number;
+        }
+        return Optional.of(new LocationCode(code, values[0], values[1], values[2]));
+    }
+
+    public int distanceTo(LocationCode other) {
+        return Math.abs(sector - other.sector) * SECTOR_WEIGHT
+                + Math.abs(shelf - other.shelf) * SHELF_WEIGHT
+                + Math.abs(row - other.row);
+    }
+
+    @Override
+    public int compareTo(LocationCode other) {
+        return WALK_ORDER.compare(this, other);
+    }
+}
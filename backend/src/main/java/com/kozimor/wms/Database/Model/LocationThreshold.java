@@ -8,6 +8,7 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "location_thresholds", 
        indexes = @Index(name = "idx_location_thresholds_location", columnList = "location_id"))
 @Getter
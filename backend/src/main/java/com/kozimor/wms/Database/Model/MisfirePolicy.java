@@ -0,0 +1,10 @@
+package com.kozimor.wms.Database.Model;
+
+/**
+ * Co zrobić z uruchomieniem, które się nie odbyło o czasie (aplikacja nie działała albo poprzednie
+ * uruchomienie wciąż trwa i limit równoległości jest wyczerpany).
+ */
+public enum MisfirePolicy {
+    SKIP,      // pominąć, kolejne uruchomienie zgodnie z cronem
+    RUN_ONCE   // wykonać raz (przy starcie albo po zakończeniu bieżącego), niezależnie od liczby pominiętych
+}
@@ -5,8 +5,11 @@ import jakarta.validation.constraints.Min;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "order_lines", indexes = {
         @Index(name = "idx_order_lines_order", columnList = "order_id"),
         @Index(name = "idx_order_lines_item", columnList = "item_id")
@@ -35,10 +38,22 @@ public class OrderLine {
     @Column(name = "quantity", nullable = false)
     private Double quantity;
 
+    // Część ilości niepokryta saldami lokacji w chwili utworzenia - bez transakcji, czeka na dostawę
+    @Column(name = "backordered_quantity")
+    private Double backorderedQuantity;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "transaction_id")
     private Transaction transaction;
 
+    // Wszystkie transakcje ORDER linii - po jednej na lokację, z której linia jest wydawana (pierwsza = transaction)
+    @OneToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "order_line_allocations",
+            joinColumns = @JoinColumn(name = "order_line_id"),
+            inverseJoinColumns = @JoinColumn(name = "transaction_id"))
+    @Builder.Default
+    private List<Transaction> allocations = new ArrayList<>();
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
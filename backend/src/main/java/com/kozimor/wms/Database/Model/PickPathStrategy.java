@@ -0,0 +1,11 @@
+package com.kozimor.wms.Database.Model;
+
+/**
+ * Sposób ustalania kolejności odwiedzania lokacji na liście pobrań
+ */
+public enum PickPathStrategy {
+    WALK_ORDER,   // kolejność kodów: sektor, półka, rząd
+    S_SHAPE,      // każda alejka z pobraniami przechodzona w całości, naprzemiennie w górę i w dół
+    LARGEST_GAP,  // skrajne alejki w całości, pozostałe od przodu i od tyłu do największej przerwy
+    TWO_OPT       // najbliższy sąsiad + poprawa 2-opt na macierzy odległości
+}
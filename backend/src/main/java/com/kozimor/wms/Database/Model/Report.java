@@ -10,8 +10,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "reports", indexes = {
-        @Index(name = "idx_reports_user", columnList = "created_by")
+        @Index(name = "idx_reports_user", columnList = "created_by"),
+        @Index(name = "idx_reports_base", columnList = "base_report_id")
 })
 @Getter
 @Setter
@@ -37,6 +39,14 @@ public class Report {
     @Column(name = "ok_count", nullable = false)
     private Integer okCount; // LICZBA POZYCJI OK
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "snapshot_type", length = 10)
+    @Builder.Default
+    private SnapshotType snapshotType = SnapshotType.FULL; // FULL - WSZYSTKIE ITEMY, DELTA - TYLKO ZMIENIONE
+
+    @Column(name = "base_report_id")
+    private Long baseReportId; // PEŁNY SNAPSHOT, NA KTÓRY NAKŁADANA JEST DELTA
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy; // CREATED_BY
@@ -52,4 +62,18 @@ public class Report {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    public boolean isDelta() {
+        return snapshotType == SnapshotType.DELTA;
+    }
+
+    /**
+     * FULL - pozycje wszystkich itemów; DELTA - tylko itemy, których ilość lub status zmieniły się
+     * od poprzedniego raportu. Pełny stan delty to baza + kolejne delty tej bazy do niej włącznie.
+     * Stare wiersze bez typu traktowane są jak FULL.
+     */
+    public enum SnapshotType {
+        FULL,
+        DELTA
+    }
 }
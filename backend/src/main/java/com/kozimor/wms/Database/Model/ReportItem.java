@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "report_items", indexes = {
         @Index(name = "idx_report_items_report", columnList = "report_id"),
-        @Index(name = "idx_report_items_item", columnList = "item_id")
+        @Index(name = "idx_report_items_item", columnList = "item_id"),
+        // Stronicowanie pozycji raportu po item_id (ReportItemRepository.findPageAfter)
+        @Index(name = "idx_report_items_report_item", columnList = "report_id, item_id")
 })
 @Getter
 @Setter
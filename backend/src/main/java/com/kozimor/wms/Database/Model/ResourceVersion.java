@@ -0,0 +1,25 @@
+package com.kozimor.wms.Database.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Wersja danych jednego typu encji - podstawa ETagów odczytów.
+ * Wspólna dla wszystkich instancji aplikacji; podbijana w tej samej transakcji co zmiana encji.
+ */
+@Entity
+@Table(name = "resource_versions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResourceVersion {
+
+    @Id
+    @Column(name = "resource_type", length = 100)
+    private String resourceType;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "roles", uniqueConstraints = @UniqueConstraint(columnNames = "role_name"))
 @Getter
 @Setter
@@ -3,6 +3,10 @@ package com.kozimor.wms.Database.Model;
 import jakarta.persistence.*;
 import lombok.*;
 
+/**
+ * Konfiguracja zadania harmonogramu; config_key to nazwa zadania (ScheduledJob.name()).
+ * Nowe kolumny mogą być puste w wierszach sprzed rejestru zadań - wtedy obowiązują wartości domyślne zadania.
+ */
 @Entity
 @Table(name = "schedule_config")
 @Getter
@@ -28,4 +32,12 @@ public class ScheduleConfig {
     @Column(name = "enabled", nullable = false)
     @Builder.Default
     private Boolean enabled = true;
+
+    // Maksymalna liczba równoległych uruchomień na jednej instancji
+    @Column(name = "max_concurrent")
+    private Integer maxConcurrent;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "misfire_policy", length = 20)
+    private MisfirePolicy misfirePolicy;
 }
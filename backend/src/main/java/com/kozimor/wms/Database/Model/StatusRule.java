@@ -0,0 +1,57 @@
+package com.kozimor.wms.Database.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progi statusu LOW / CRITICAL dla jednego itemu albo kategorii.
+ * Pierwszeństwo: item, kategoria, progi domyślne (wms.status.default-*).
+ *
+ * Bez reguł per lokacja - snapshoty oceniają stan całkowity itemu, więc próg lokacji nie miałby tam zastosowania.
+ */
+@Entity
+@EntityListeners(EntityChangeListener.class)
+@Table(name = "status_rules",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"scope", "target_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatusRule {
+
+    public enum Scope {
+        ITEM,
+        CATEGORY
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 20)
+    private Scope scope;
+
+    // Id itemu albo kategorii - zależnie od scope
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Column(name = "critical_threshold", nullable = false)
+    private double criticalThreshold;
+
+    @Column(name = "low_threshold", nullable = false)
+    private double lowThreshold;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
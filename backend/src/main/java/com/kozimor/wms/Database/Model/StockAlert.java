@@ -0,0 +1,76 @@
+package com.kozimor.wms.Database.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alert przekroczenia progu lokacji (LocationThreshold). Aktywny od podniesienia do wyczyszczenia.
+ */
+@Entity
+@Table(name = "stock_alerts", indexes = {
+        @Index(name = "idx_stock_alerts_status_raised", columnList = "status, raised_at"),
+        @Index(name = "idx_stock_alerts_location_status", columnList = "location_id, status")
+}, uniqueConstraints = @UniqueConstraint(name = "uk_stock_alerts_active_key", columnNames = "active_key"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockAlert {
+
+    public enum Type {
+        LOW_STOCK,  // saldo poniżej minThreshold
+        OVERSTOCK   // saldo powyżej maxThreshold
+    }
+
+    public enum Status {
+        ACTIVE,
+        CLEARED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Bez relacji - alert przeżywa usunięcie lokacji, a kod jest zapisany na moment podniesienia
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+
+    @Column(name = "location_code", length = 50)
+    private String locationCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_type", nullable = false, length = 20)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    // Przekroczony próg i saldo lokacji w chwili podniesienia
+    @Column(name = "threshold", nullable = false)
+    private double threshold;
+
+    @Column(name = "quantity", nullable = false)
+    private double quantity;
+
+    @Column(name = "raised_at", nullable = false)
+    private LocalDateTime raisedAt;
+
+    @Column(name = "cleared_quantity")
+    private Double clearedQuantity;
+
+    @Column(name = "cleared_at")
+    private LocalDateTime clearedAt;
+
+    // "lokacja:typ" dla aktywnego alertu, null po wyczyszczeniu. Unikalność dopuszcza jeden aktywny alert
+    // danego typu w lokacji - przenośny odpowiednik indeksu unikalnego WHERE status = 'ACTIVE' (H2 go nie ma)
+    @Column(name = "active_key", length = 50)
+    private String activeKey;
+
+    public static String activeKey(Long locationId, Type type) {
+        return locationId + ":" + type.name();
+    }
+}
@@ -0,0 +1,45 @@
+package com.kozimor.wms.Database.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+
+/**
+ * Punkt kontrolny sald (item, lokacja) - suma transakcji z datą wcześniejszą niż asOf.
+ * Stan na dowolną datę to najbliższy wcześniejszy punkt + transakcje od niego (InventoryAsOfService).
+ *
+ * Raporty (snapshoty) trzymają tylko stan całkowity itemu, bez podziału na lokacje - dlatego osobna tabela.
+ */
+@Entity
+@Table(name = "stock_checkpoints", indexes = {
+        @Index(name = "idx_stock_checkpoints_as_of", columnList = "as_of")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "checkpoint_id")
+    private Long id;
+
+    @Column(name = "as_of", nullable = false, unique = true)
+    private OffsetDateTime asOf; // TRANSAKCJE Z DATĄ < AS_OF
+
+    @Column(name = "balance_count", nullable = false)
+    private Integer balanceCount; // LICZBA NIEZEROWYCH PAR (ITEM, LOKACJA)
+
+    @Column(name = "stale", nullable = false)
+    @Builder.Default
+    private boolean stale = false; // ZMIENIONO TRANSAKCJĘ SPRZED AS_OF - DO PRZELICZENIA, POMIJANY W ZAPYTANIACH
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package com.kozimor.wms.Database.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Saldo jednej pary (item, lokacja) w punkcie kontrolnym. Wiersze zapisywane i czytane zbiorczo przez SQL,
+ * dlatego same id zamiast relacji.
+ */
+@Entity
+@Table(name = "stock_checkpoint_balances", indexes = {
+        @Index(name = "idx_checkpoint_balances_location", columnList = "checkpoint_id,location_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockCheckpointBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "checkpoint_id", nullable = false)
+    private Long checkpointId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+
+    @Column(name = "quantity", nullable = false)
+    private Double quantity;
+}
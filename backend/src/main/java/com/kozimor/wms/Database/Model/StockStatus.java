@@ -0,0 +1,10 @@
+package com.kozimor.wms.Database.Model;
+
+/**
+ * Status stanu itemu w snapshotach i ocenie na żywo - wyznaczany przez reguły statusów (StatusRule)
+ */
+public enum StockStatus {
+    OK,
+    LOW,        // ilość <= lowThreshold
+    CRITICAL    // ilość <= criticalThreshold
+}
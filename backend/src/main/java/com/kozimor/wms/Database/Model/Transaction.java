@@ -9,12 +9,15 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "transactions",
        indexes = {
            @Index(name = "idx_transactions_item", columnList = "item_id"),
            @Index(name = "idx_transactions_user", columnList = "user_id"),
            @Index(name = "idx_transactions_location", columnList = "location_id"),
-           @Index(name = "idx_transactions_item_location", columnList = "item_id,location_id")
+           @Index(name = "idx_transactions_item_location", columnList = "item_id,location_id"),
+           @Index(name = "idx_transactions_location_date", columnList = "location_id,transaction_date"),
+           @Index(name = "idx_transactions_date", columnList = "transaction_date")
        })
 @Getter
 @Setter
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "users",
        uniqueConstraints = {
          @UniqueConstraint(columnNames = "username"),
@@ -0,0 +1,78 @@
+package com.kozimor.wms.Database.Repository;
+
+import com.kozimor.wms.Database.Model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Rezerwacja klucza - zwykły INSERT, więc równoległe żądanie z tym samym kluczem dostaje naruszenie klucza głównego
+     * (save() dla encji z przypisanym id robi merge, czyli SELECT + INSERT/UPDATE).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (id, status, owner, created_at, expires_at, in_progress_until) " +
+                   "VALUES (:id, 'IN_PROGRESS', :owner, :createdAt, :expiresAt, :inProgressUntil)", nativeQuery = true)
+    int reserve(@Param("id") String id,
+                @Param("owner") String owner,
+                @Param("createdAt") LocalDateTime createdAt,
+                @Param("expiresAt") LocalDateTime expiresAt,
+                @Param("inProgressUntil") LocalDateTime inProgressUntil);
+
+    /**
+     * Przejęcie klucza wygasłego (jeszcze nieusuniętego) albo porzuconej rezerwacji IN_PROGRESS.
+     * Warunek sprawdzany w UPDATE pod blokadą wiersza - z równoległych przejęć wygrywa jedno,
+     * a nowy właściciel unieważnia zapis odpowiedzi poprzedniego.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET status = 'IN_PROGRESS', owner = :owner, response_status = NULL, content_type = NULL, " +
+                   "response_body = NULL, created_at = :createdAt, expires_at = :expiresAt, " +
+                   "in_progress_until = :inProgressUntil " +
+                   "WHERE id = :id AND (expires_at < :createdAt " +
+                   "OR (status = 'IN_PROGRESS' AND COALESCE(in_progress_until, created_at) < :createdAt))",
+           nativeQuery = true)
+    int takeOver(@Param("id") String id,
+                 @Param("owner") String owner,
+                 @Param("createdAt") LocalDateTime createdAt,
+                 @Param("expiresAt") LocalDateTime expiresAt,
+                 @Param("inProgressUntil") LocalDateTime inProgressUntil);
+
+    /**
+     * Zapis odpowiedzi w transakcji żądania - tylko dla wciąż trzymanej rezerwacji (0 = przejęta)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.status = com.kozimor.wms.Database.Model.IdempotencyKey.Status.COMPLETED, " +
+           "k.responseStatus = :responseStatus, k.contentType = :contentType, k.responseBody = :responseBody, " +
+           "k.expiresAt = :expiresAt WHERE k.id = :id AND k.owner = :owner " +
+           "AND k.status = com.kozimor.wms.Database.Model.IdempotencyKey.Status.IN_PROGRESS")
+    int complete(@Param("id") String id,
+                 @Param("owner") String owner,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("contentType") String contentType,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Zwolnienie tylko własnej rezerwacji - zapisana odpowiedź i klucz przejęty przez ponowienie zostają
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.id = :id AND k.owner = :owner " +
+           "AND k.status = com.kozimor.wms.Database.Model.IdempotencyKey.Status.IN_PROGRESS")
+    int deleteInProgress(@Param("id") String id, @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
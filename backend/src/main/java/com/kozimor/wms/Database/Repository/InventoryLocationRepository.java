@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +29,13 @@ public interface InventoryLocationRepository extends JpaRepository<InventoryLoca
      * Pobierz wszystkie lokacje dla danego itemu
      */
     List<InventoryLocation> findAllByItem(Item item);
+
+    /**
+     * Pobierz lokacje wielu itemów jednym zapytaniem (kolejność powiązań jak przy findAllByItem)
+     */
+    @Query("SELECT il FROM InventoryLocation il JOIN FETCH il.location " +
+           "WHERE il.item.id IN :itemIds ORDER BY il.id")
+    List<InventoryLocation> findAllByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
     
     /**
      * Policz ile itemów jest w danej lokacji
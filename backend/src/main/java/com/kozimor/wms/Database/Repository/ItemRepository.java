@@ -3,6 +3,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -14,11 +15,20 @@ import java.util.Optional;
 import com.kozimor.wms.Database.Model.Item;
 import com.kozimor.wms.Database.Model.ItemType;
 import com.kozimor.wms.Database.Model.UnitType;
+import jakarta.persistence.LockModeType;
 
 public interface ItemRepository extends JpaRepository<Item, Long> 
 {
     Optional<Item> findByQrCode(String qrCode);
 
+    /**
+     * Itemy zablokowane do końca transakcji, w kolejności id (bez zakleszczeń między zamówieniami) -
+     * alokacja liczy salda lokacji dopiero po uzyskaniu blokad
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
     @EntityGraph(attributePaths = {"category", "keywords"})
     @Query("select i from Item i")
     Page<Item> findAllWithCategory(Pageable pageable);
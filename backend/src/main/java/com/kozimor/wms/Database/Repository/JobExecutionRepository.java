@@ -0,0 +1,40 @@
+package com.kozimor.wms.Database.Repository;
+
+import com.kozimor.wms.Database.Model.JobExecution;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface JobExecutionRepository extends JpaRepository<JobExecution, Long> {
+
+    Page<JobExecution> findByJobNameOrderByStartedAtDesc(String jobName, Pageable pageable);
+
+    Optional<JobExecution> findFirstByJobNameOrderByStartedAtDesc(String jobName);
+
+    /**
+     * Ostatni zaplanowany czas, który został wykonany - punkt odniesienia przy wykrywaniu pominiętych uruchomień
+     */
+    @Query("SELECT MAX(e.fireTime) FROM JobExecution e WHERE e.jobName = :jobName AND e.trigger IN :triggers")
+    LocalDateTime findLastFireTime(@Param("jobName") String jobName,
+                                   @Param("triggers") Collection<JobExecution.Trigger> triggers);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM JobExecution e WHERE e.startedAt < :before AND e.status <> :excluded")
+    int deleteOlderThan(@Param("before") LocalDateTime before,
+                        @Param("excluded") JobExecution.Status excluded);
+
+    default int deleteFinishedBefore(LocalDateTime before) {
+        return deleteOlderThan(before, JobExecution.Status.RUNNING);
+    }
+}
@@ -0,0 +1,84 @@
+package com.kozimor.wms.Database.Repository;
+
+import com.kozimor.wms.Database.Model.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Wszystkie zmiany dzierżawy to warunkowe UPDATE - wynik 1 oznacza, że ta instancja wygrała,
+ * 0 że warunek nie był spełniony (dzierżawa zajęta albo token nieaktualny).
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO job_leases (job_name, fencing_token) VALUES (:jobName, 0)", nativeQuery = true)
+    int insert(@Param("jobName") String jobName);
+
+    /**
+     * Przejęcie: dzierżawa wolna lub wygasła, a uruchomienie fireTime nie zostało jeszcze zakończone
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.fencingToken = l.fencingToken + 1, " +
+           "l.leaseUntil = :until, l.claimedFireTime = :fireTime " +
+           "WHERE l.jobName = :jobName AND (l.leaseUntil IS NULL OR l.leaseUntil < :now) " +
+           "AND (l.completedFireTime IS NULL OR l.completedFireTime < :fireTime)")
+    int claim(@Param("jobName") String jobName,
+              @Param("owner") String owner,
+              @Param("fireTime") LocalDateTime fireTime,
+              @Param("now") LocalDateTime now,
+              @Param("until") LocalDateTime until);
+
+    /**
+     * Przejęcie dla ręcznego uruchomienia: tylko wolna lub wygasła dzierżawa, bez zaplanowanego czasu
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.fencingToken = l.fencingToken + 1, l.leaseUntil = :until " +
+           "WHERE l.jobName = :jobName AND (l.leaseUntil IS NULL OR l.leaseUntil < :now)")
+    int claimManual(@Param("jobName") String jobName,
+                    @Param("owner") String owner,
+                    @Param("now") LocalDateTime now,
+                    @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leaseUntil = :until " +
+           "WHERE l.jobName = :jobName AND l.owner = :owner AND l.fencingToken = :token")
+    int renew(@Param("jobName") String jobName,
+              @Param("owner") String owner,
+              @Param("token") long token,
+              @Param("until") LocalDateTime until);
+
+    /**
+     * Zakończenie uruchomienia i zwolnienie dzierżawy. Wykonywane w transakcji wołającego,
+     * więc blokada wiersza trzyma się do commitu wyniku zadania.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLease l SET l.completedFireTime = :fireTime, l.leaseUntil = :now " +
+           "WHERE l.jobName = :jobName AND l.owner = :owner AND l.fencingToken = :token")
+    int complete(@Param("jobName") String jobName,
+                 @Param("owner") String owner,
+                 @Param("token") long token,
+                 @Param("fireTime") LocalDateTime fireTime,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Zwolnienie dzierżawy ręcznego uruchomienia - completedFireTime zostaje, zaplanowane uruchomienia nadal się wykonają
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leaseUntil = :now " +
+           "WHERE l.jobName = :jobName AND l.owner = :owner AND l.fencingToken = :token")
+    int release(@Param("jobName") String jobName,
+                @Param("owner") String owner,
+                @Param("token") long token,
+                @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.kozimor.wms.Database.Repository;
+
+import com.kozimor.wms.Database.Model.LocationBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LocationBalanceRepository extends JpaRepository<LocationBalance, Long> {
+}
@@ -3,8 +3,11 @@ package com.kozimor.wms.Database.Repository;
 import com.kozimor.wms.Database.Model.Location;
 import com.kozimor.wms.Database.Model.LocationThreshold;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +17,13 @@ public interface LocationThresholdRepository extends JpaRepository<LocationThres
      * Pobierz threshold dla danej lokacji
      */
     Optional<LocationThreshold> findByLocation(Location location);
+
+    /**
+     * Wszystkie progi razem z lokacjami (kod lokacji bez dodatkowych zapytań)
+     */
+    @Query("SELECT t FROM LocationThreshold t JOIN FETCH t.location")
+    List<LocationThreshold> findAllWithLocation();
+
+    @Query("SELECT t FROM LocationThreshold t JOIN FETCH t.location WHERE t.location.id = :locationId")
+    Optional<LocationThreshold> findByLocationIdWithLocation(@Param("locationId") Long locationId);
 }
@@ -2,7 +2,10 @@ package com.kozimor.wms.Database.Repository;
 
 import com.kozimor.wms.Database.Model.OrderLine;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -10,4 +13,52 @@ public interface OrderLineRepository extends JpaRepository<OrderLine, Long> {
     List<OrderLine> findByOrderId(Long orderId);
     
     List<OrderLine> findByItemId(Long itemId);
+
+    /**
+     * Linie zamówienia z zaległością, z itemem (alokacja potrzebuje id i nazwy)
+     */
+    @Query("SELECT ol FROM OrderLine ol JOIN FETCH ol.item WHERE ol.order.id = :orderId " +
+           "AND ol.backorderedQuantity > 0 ORDER BY ol.id")
+    List<OrderLine> findBackorderedByOrderId(@Param("orderId") Long orderId);
+
+    /**
+     * Linie wielu zamówień do mapowania na DTO jednym zapytaniem, bez encji:
+     * [orderId, orderLineId, itemId, itemName, categoryName, quantity, unit, transactionId, allocationId,
+     *  backorderedQuantity]. Linia rozdzielona na kilka lokacji daje wiersz na każdą transakcję alokacji.
+     */
+    @Query("SELECT ol.order.id, ol.id, i.id, i.name, c.name, ol.quantity, i.unit, t.id, a.id, ol.backorderedQuantity " +
+           "FROM OrderLine ol " +
+           "JOIN ol.item i " +
+           "LEFT JOIN i.category c " +
+           "LEFT JOIN ol.transaction t " +
+           "LEFT JOIN ol.allocations a " +
+           "WHERE ol.order.id IN :orderIds " +
+           "ORDER BY ol.id, a.id")
+    List<Object[]> findDtoRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Liczba linii i suma ilości per zamówienie: [orderId, lineCount, totalQuantity]
+     */
+    @Query("SELECT ol.order.id, COUNT(ol), SUM(ol.quantity) FROM OrderLine ol " +
+           "WHERE ol.order.id IN :orderIds GROUP BY ol.order.id")
+    List<Object[]> sumByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Pozycje do kompletacji dla podanych zamówień jako wiersze skalarne (bez encji - fala obejmuje tysiące linii):
+     * [orderLineId, orderId, orderNumber, itemId, itemName, unit, lineQuantity,
+     *  allocationQuantity, allocationLocationId, allocationLocationCode, transactionLocationId, transactionLocationCode].
+     * Linia rozdzielona na kilka lokacji daje kilka wierszy; starsze linie nie mają alokacji, tylko transaction.
+     */
+    @Query("SELECT ol.id, o.id, o.orderNumber, i.id, i.name, i.unit, ol.quantity, " +
+           "a.quantity, al.id, al.code, tl.id, tl.code " +
+           "FROM OrderLine ol " +
+           "JOIN ol.order o " +
+           "JOIN ol.item i " +
+           "LEFT JOIN ol.allocations a " +
+           "LEFT JOIN a.location al " +
+           "LEFT JOIN ol.transaction t " +
+           "LEFT JOIN t.location tl " +
+           "WHERE o.id IN :orderIds " +
+           "ORDER BY o.id, ol.id")
+    List<Object[]> findPickRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -4,15 +4,46 @@ import com.kozimor.wms.Database.Model.Order;
 import com.kozimor.wms.Database.Model.TransactionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Optional<Order> findByOrderNumber(String orderNumber);
     
+    // createdBy dociągany od razu - DTO zawsze potrzebuje nazwy użytkownika
+    @EntityGraph(attributePaths = "createdBy")
+    Page<Order> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "createdBy")
     Page<Order> findByOrderStatus(TransactionStatus status, Pageable pageable);
     
+    @EntityGraph(attributePaths = "createdBy")
     Page<Order> findByCreatedById(Long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "createdBy")
+    List<Order> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Aktualne statusy zamówień jako wiersze [orderId, status] - bez ładowania encji
+     */
+    @Query("SELECT o.id, o.orderStatus FROM Order o WHERE o.id IN :ids")
+    List<Object[]> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Zmiana statusu wielu zamówień jednym UPDATE. Omija listenery JPA - wywołujący publikuje zdarzenia sam.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.orderStatus = :status, o.updatedAt = :updatedAt WHERE o.id IN :ids")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("status") TransactionStatus status,
+                           @Param("updatedAt") LocalDateTime updatedAt);
 }
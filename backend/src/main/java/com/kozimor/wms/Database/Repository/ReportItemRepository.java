@@ -1,13 +1,17 @@
 package com.kozimor.wms.Database.Repository;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.kozimor.wms.Database.Model.Report;
 import com.kozimor.wms.Database.Model.ReportItem;
+import java.util.Collection;
 import java.util.List;
 
 public interface ReportItemRepository extends JpaRepository<ReportItem, Long> {
@@ -55,4 +59,30 @@ public interface ReportItemRepository extends JpaRepository<ReportItem, Long> {
      */
     @Query("SELECT COUNT(ri) FROM ReportItem ri WHERE ri.report.id = :reportId AND ri.status = :status")
     Integer countByReportIdAndStatus(@Param("reportId") Long reportId, @Param("status") String status);
+
+    /**
+     * Find all items of several reports, oldest report first
+     */
+    @Query("SELECT ri FROM ReportItem ri WHERE ri.report.id IN :reportIds ORDER BY ri.report.id")
+    List<ReportItem> findAllByReportIds(@Param("reportIds") Collection<Long> reportIds);
+
+    /**
+     * Move items of one report to another, skipping items the target report already has
+     */
+    @Modifying
+    @Query("UPDATE ReportItem ri SET ri.report = :target WHERE ri.report.id = :sourceId "
+            + "AND ri.item.id NOT IN (SELECT t.item.id FROM ReportItem t WHERE t.report = :target)")
+    int moveMissingItems(@Param("sourceId") Long sourceId, @Param("target") Report target);
+
+    /**
+     * Keyset page of a report's items ordered by item id. reportIds is the report itself, or for an incremental
+     * snapshot its base and deltas - then only the newest row of each item is returned.
+     */
+    @Query("SELECT ri FROM ReportItem ri WHERE ri.report.id IN :reportIds AND ri.item.id > :afterItemId "
+            + "AND NOT EXISTS (SELECT 1 FROM ReportItem n WHERE n.item.id = ri.item.id "
+            + "AND n.report.id IN :reportIds AND n.report.id > ri.report.id) "
+            + "ORDER BY ri.item.id")
+    List<ReportItem> findPageAfter(@Param("reportIds") Collection<Long> reportIds,
+                                   @Param("afterItemId") Long afterItemId,
+                                   Limit limit);
 }
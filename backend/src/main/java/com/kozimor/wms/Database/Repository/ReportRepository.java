@@ -4,24 +4,27 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.kozimor.wms.Database.Model.Report;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface ReportRepository extends JpaRepository<Report, Long> {
 
     /**
-     * Find all reports created by a specific user
+     * Find all reports created by a specific user (summary only, without report items)
      */
-    @EntityGraph(attributePaths = {"createdBy", "reportItems"})
+    @EntityGraph(attributePaths = {"createdBy", "createdBy.role"})
     Page<Report> findAllByCreatedBy_Id(Long userId, Pageable pageable);
 
     /**
-     * Find reports created between two dates
+     * Find reports created between two dates (summary only, without report items)
      */
-    @EntityGraph(attributePaths = {"createdBy", "reportItems"})
+    @EntityGraph(attributePaths = {"createdBy", "createdBy.role"})
     @Query("SELECT r FROM Report r WHERE r.createdAt BETWEEN :startDate AND :endDate ORDER BY r.createdAt DESC")
     Page<Report> findReportsByDateRange(
             @Param("startDate") LocalDateTime startDate,
@@ -30,16 +33,16 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
     );
 
     /**
-     * Find all reports with pagination and eager loading
+     * Find all reports with pagination (summary only, without report items - see ReportItemRepository.findPageAfter)
      */
-    @EntityGraph(attributePaths = {"createdBy", "reportItems"})
+    @EntityGraph(attributePaths = {"createdBy", "createdBy.role"})
     @Query("SELECT r FROM Report r ORDER BY r.createdAt DESC")
     Page<Report> findAllWithDetails(Pageable pageable);
 
     /**
-     * Find reports with critical stock items
+     * Find reports with critical stock items (summary only, without report items)
      */
-    @EntityGraph(attributePaths = {"createdBy", "reportItems"})
+    @EntityGraph(attributePaths = {"createdBy", "createdBy.role"})
     @Query("SELECT r FROM Report r WHERE r.criticalStockCount > 0 ORDER BY r.createdAt DESC")
     Page<Report> findReportsWithCriticalItems(Pageable pageable);
 
@@ -49,4 +52,32 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
     @EntityGraph(attributePaths = {"createdBy", "reportItems"})
     @Query("SELECT r FROM Report r ORDER BY r.createdAt DESC LIMIT 1")
     Report findMostRecentReport();
+
+    /**
+     * Find the report created directly before the given one
+     */
+    Optional<Report> findFirstByIdLessThanOrderByIdDesc(Long id);
+
+    /**
+     * Ids of incremental snapshots layered over a base, up to and including the given report
+     */
+    @Query("SELECT r.id FROM Report r WHERE r.baseReportId = :baseId AND r.id <= :reportId ORDER BY r.id")
+    List<Long> findDeltaIds(@Param("baseId") Long baseId, @Param("reportId") Long reportId);
+
+    /**
+     * Count incremental snapshots layered over a base
+     */
+    long countByBaseReportId(Long baseId);
+
+    /**
+     * Find the first incremental snapshot of a base created after the given report
+     */
+    Optional<Report> findFirstByBaseReportIdAndIdGreaterThanOrderByIdAsc(Long baseId, Long id);
+
+    /**
+     * Move incremental snapshots to a new base
+     */
+    @Modifying
+    @Query("UPDATE Report r SET r.baseReportId = :newBaseId WHERE r.baseReportId = :oldBaseId")
+    int rebase(@Param("oldBaseId") Long oldBaseId, @Param("newBaseId") Long newBaseId);
 }
@@ -0,0 +1,16 @@
+package com.kozimor.wms.Database.Repository;
+
+import com.kozimor.wms.Database.Model.StatusRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StatusRuleRepository extends JpaRepository<StatusRule, Long> {
+
+    List<StatusRule> findAllByOrderByScopeAscTargetIdAsc();
+
+    Optional<StatusRule> findByScopeAndTargetId(StatusRule.Scope scope, Long targetId);
+}
@@ -0,0 +1,43 @@
+package com.kozimor.wms.Database.Repository;
+
+import com.kozimor.wms.Database.Model.StockAlert;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockAlertRepository extends JpaRepository<StockAlert, Long> {
+
+    Page<StockAlert> findByStatusOrderByRaisedAtDesc(StockAlert.Status status, Pageable pageable);
+
+    Page<StockAlert> findAllByOrderByRaisedAtDesc(Pageable pageable);
+
+    List<StockAlert> findByStatus(StockAlert.Status status);
+
+    Optional<StockAlert> findFirstByLocationIdAndTypeAndStatus(Long locationId, StockAlert.Type type,
+                                                               StockAlert.Status status);
+
+    /**
+     * Czyści aktywne alerty danego typu w lokacji. 0 oznacza, że wyczyściła je już inna instancja.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE StockAlert a SET a.status = :cleared, a.clearedQuantity = :quantity, a.clearedAt = :now, " +
+           "a.activeKey = NULL " +
+           "WHERE a.locationId = :locationId AND a.type = :type AND a.status = :active")
+    int clear(@Param("locationId") Long locationId,
+              @Param("type") StockAlert.Type type,
+              @Param("quantity") double quantity,
+              @Param("now") LocalDateTime now,
+              @Param("active") StockAlert.Status active,
+              @Param("cleared") StockAlert.Status cleared);
+}
@@ -0,0 +1,22 @@
+package com.kozimor.wms.Database.Repository;
+
+import com.kozimor.wms.Database.Model.StockCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockCheckpointRepository extends JpaRepository<StockCheckpoint, Long> {
+
+    /**
+     * Najbliższy aktualny punkt kontrolny nie późniejszy niż podana data
+     */
+    Optional<StockCheckpoint> findFirstByStaleFalseAndAsOfLessThanEqualOrderByAsOfDesc(OffsetDateTime asOf);
+
+    Optional<StockCheckpoint> findFirstByOrderByAsOfDesc();
+
+    List<StockCheckpoint> findByStaleTrueOrderByAsOfAsc();
+}
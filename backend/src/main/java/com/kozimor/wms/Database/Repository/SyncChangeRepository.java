@@ -0,0 +1,87 @@
+package com.kozimor.wms.Database.Repository;
+
+import com.kozimor.wms.Database.Model.SyncChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Dziennik zmian oraz zwarte projekcje wierszy wysyłanych do skanerów (bez encji i leniwych relacji).
+ */
+@Repository
+public interface SyncChangeRepository extends JpaRepository<SyncChange, Long> {
+
+    List<SyncChange> findByIdGreaterThanAndIdLessThanOrderByIdAsc(Long since, Long before, Pageable pageable);
+
+    /**
+     * Pierwszy wpis po tokenie zapisany nie wcześniej niż horizon - od niego zaczynają się wpisy jeszcze niewydawane
+     */
+    @Query("SELECT MIN(c.id) FROM SyncChange c WHERE c.id > :since AND c.changedAt >= :horizon")
+    Long findFirstIdChangedSince(@Param("since") Long since, @Param("horizon") LocalDateTime horizon);
+
+    @Query("SELECT MAX(c.id) FROM SyncChange c")
+    Long findMaxId();
+
+    @Query("SELECT MIN(c.id) FROM SyncChange c")
+    Long findMinId();
+
+    /**
+     * Najnowszy wpis zostaje zawsze - po nim rozpoznajemy token sprzed czyszczenia
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SyncChange c WHERE c.changedAt < :before " +
+           "AND c.id < (SELECT MAX(m.id) FROM SyncChange m)")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+
+    /**
+     * Wiersze: [id, name, categoryId, unit, type, currentQuantity, qrCode, updatedAt]
+     */
+    @Query("SELECT i.id, i.name, c.id, i.unit, i.type, i.currentQuantity, i.qrCode, i.updatedAt " +
+           "FROM Item i LEFT JOIN i.category c WHERE i.id IN :ids")
+    List<Object[]> findItemRows(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Wiersze: [itemId, keywordId]
+     */
+    @Query("SELECT i.id, k.id FROM Item i JOIN i.keywords k WHERE i.id IN :ids")
+    List<Object[]> findItemKeywordRows(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Wiersze: [id, code, name, type, unitType, active]
+     */
+    @Query("SELECT l.id, l.code, l.name, l.type, l.unitType, l.active FROM Location l WHERE l.id IN :ids")
+    List<Object[]> findLocationRows(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Wiersze: [id, itemId, locationId]
+     */
+    @Query("SELECT il.id, il.item.id, il.location.id FROM InventoryLocation il WHERE il.id IN :ids")
+    List<Object[]> findInventoryLocationRows(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Wiersze: [id, value]
+     */
+    @Query("SELECT k.id, k.value FROM Keyword k WHERE k.id IN :ids")
+    List<Object[]> findKeywordRows(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT i.id FROM Item i ORDER BY i.id")
+    List<Long> findAllItemIds();
+
+    @Query("SELECT l.id FROM Location l ORDER BY l.id")
+    List<Long> findAllLocationIds();
+
+    @Query("SELECT il.id FROM InventoryLocation il ORDER BY il.id")
+    List<Long> findAllInventoryLocationIds();
+
+    @Query("SELECT k.id FROM Keyword k ORDER BY k.id")
+    List<Long> findAllKeywordIds();
+}
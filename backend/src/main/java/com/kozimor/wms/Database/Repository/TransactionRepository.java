@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import com.kozimor.wms.Database.Model.Transaction;
@@ -48,4 +49,16 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
            "WHERE t.location.id = :locationId " +
            "AND t.transactionStatus = 'COMPLETED'")
     int sumQuantityByLocation(@Param("locationId") Long locationId);
+
+    /**
+     * Saldo każdej pary (item, lokacja) dla podanych itemów jednym zapytaniem - wiersze [itemId, locationId, saldo].
+     * RECEIPT i RETURN dodają, wydania i ORDER odejmują; liczone są też PENDING (zamówienie zdejmuje stan od razu), bez CANCELLED.
+     */
+    @Query("SELECT t.item.id, t.location.id, " +
+           "COALESCE(SUM(CASE WHEN t.transactionType IN ('RECEIPT', 'RETURN') THEN t.quantity ELSE -t.quantity END), 0) " +
+           "FROM Transaction t " +
+           "WHERE t.item.id IN :itemIds AND t.location IS NOT NULL " +
+           "AND (t.transactionStatus IS NULL OR t.transactionStatus <> 'CANCELLED') " +
+           "GROUP BY t.item.id, t.location.id")
+    List<Object[]> sumBalancesByItemAndLocation(@Param("itemIds") Collection<Long> itemIds);
 }
@@ -0,0 +1,176 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.EntityChangedEvent;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.Keyword;
+import com.kozimor.wms.Database.Model.Order;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.User;
+import jakarta.persistence.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Liczniki encji dla dashboardu - odczyt nie dotyka bazy.
+ *
+ * Wartości są inicjalizowane przy starcie, korygowane o utworzenia/usunięcia po commicie
+ * i okresowo synchronizowane z bazą (co koryguje np. masowe DELETE z pominięciem JPA).
+ * Na PostgreSQL dla bardzo dużych tabel zamiast COUNT(*) używany jest szacunek pg_class.reltuples.
+ */
+@Service
+public class EntityCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCounterService.class);
+
+    private static final List<Class<?>> TRACKED_TYPES = List.of(
+            Item.class, Transaction.class, Category.class, User.class, Order.class, Keyword.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean useEstimates;
+    private final long estimateThreshold;
+    private final Map<Class<?>, LongAdder> counters = new ConcurrentHashMap<>();
+    private volatile Boolean postgres;
+
+    public EntityCounterService(JdbcTemplate jdbcTemplate,
+                                @Value("${wms.counters.use-estimates:true}") boolean useEstimates,
+                                @Value("${wms.counters.estimate-threshold:1000000}") long estimateThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.useEstimates = useEstimates;
+        this.estimateThreshold = estimateThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        resync();
+    }
+
+    /**
+     * Wywoływane przy starcie i cyklicznie przez zadanie counter_reconciliation
+     *
+     * @return liczba przeliczonych typów encji
+     */
+    public int resync() {
+        int resynced = 0;
+        for (Class<?> type : TRACKED_TYPES) {
+            try {
+                LongAdder counter = counters.computeIfAbsent(type, t -> new LongAdder());
+                long value = countInDatabase(type);
+                // Zmiany zatwierdzone w trakcie COUNT mogą dać chwilowy błąd o kilka sztuk - poprawi go następny resync
+                counter.add(value - counter.sum());
+                resynced++;
+            } catch (Exception e) {
+                logger.warn("Counter resync failed for {}: {}", type.getSimpleName(), e.getMessage());
+            }
+        }
+        return resynced;
+    }
+
+    /**
+     * Aktualna liczba encji danego typu. Wewnątrz transakcji uwzględnia jej niezatwierdzone zmiany.
+     */
+    public long count(Class<?> type) {
+        LongAdder counter = counters.get(type);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(type, t -> {
+                LongAdder adder = new LongAdder();
+                adder.add(countInDatabase(t));
+                return adder;
+            });
+        }
+        return counter.sum() + pendingDelta(type);
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        long delta = switch (event.changeType()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            case UPDATED -> 0;
+        };
+        if (delta == 0 || !TRACKED_TYPES.contains(event.entityType())) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingDeltas().merge(event.entityType(), delta, Long::sum);
+        } else {
+            counters.computeIfAbsent(event.entityType(), t -> new LongAdder()).add(delta);
+        }
+    }
+
+    private long pendingDelta(Class<?> type) {
+        @SuppressWarnings("unchecked")
+        Map<Class<?>, Long> pending = (Map<Class<?>, Long>) TransactionSynchronizationManager.getResource(this);
+        return pending != null ? pending.getOrDefault(type, 0L) : 0L;
+    }
+
+    /**
+     * Zmiany bieżącej transakcji - trafiają do liczników dopiero po commicie, rollback je porzuca
+     */
+    private Map<Class<?>, Long> pendingDeltas() {
+        @SuppressWarnings("unchecked")
+        Map<Class<?>, Long> pending = (Map<Class<?>, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        Map<Class<?>, Long> created = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(EntityCounterService.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(EntityCounterService.this, created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(EntityCounterService.this);
+                if (status == STATUS_COMMITTED) {
+                    created.forEach((type, delta) -> counters.computeIfAbsent(type, t -> new LongAdder()).add(delta));
+                }
+            }
+        });
+        return created;
+    }
+
+    private long countInDatabase(Class<?> type) {
+        String table = type.getAnnotation(Table.class).name();
+        if (useEstimates && isPostgres()) {
+            Long estimate = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(reltuples, -1)::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, table);
+            // reltuples = -1 oznacza tabelę jeszcze nieanalizowaną
+            if (estimate != null && estimate >= estimateThreshold) {
+                return estimate;
+            }
+        }
+        Long exact = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return exact != null ? exact : 0L;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = product != null && product.toLowerCase().contains("postgres");
+        }
+        return postgres;
+    }
+}
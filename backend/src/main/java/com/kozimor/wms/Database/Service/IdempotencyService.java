@@ -0,0 +1,192 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.IdempotencyKey;
+import com.kozimor.wms.Database.Repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Klucze idempotencji dla POST-ów, które zmieniają stan magazynu (transakcje, zamówienia, kolejka skanerów).
+ *
+ * Odpowiedzi zapisywane są w tabeli idempotency_keys; ostatnio użyte klucze trzymane są dodatkowo
+ * w ograniczonym cache LRU, więc typowe ponowienie skanera (kilka sekund po timeoucie) nie dotyka bazy.
+ * Klucze wygasają po wms.idempotency.ttl-hours i są usuwane okresowo; wygasły, a jeszcze nieusunięty klucz
+ * traktowany jest jak nieistniejący.
+ *
+ * Żądanie wykonuje się w jednej transakcji bazy z zapisem odpowiedzi ({@link #executeOnce}) - zmiana stanu magazynu
+ * i klucz COMPLETED zatwierdzają się razem albo wcale. Klucz IN_PROGRESS oznacza więc, że nic jeszcze nie zostało
+ * zatwierdzone. Rezerwacja, która nie skończyła się w wms.idempotency.in-progress-timeout-seconds (np. restart
+ * instancji w trakcie), może zostać przejęta przez ponowienie. Zapis odpowiedzi sprawdza właściciela rezerwacji,
+ * więc jeśli oryginał jednak jeszcze działał, jego commit się nie uda i zmiany są cofane - wykona się jedno z nich.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyKeyRepository repository;
+    private final PlatformTransactionManager transactionManager;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final Map<String, StoredResponse> recent;
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${wms.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${wms.idempotency.cache-size:10000}") int cacheSize,
+                              @Value("${wms.idempotency.in-progress-timeout-seconds:300}") long inProgressTimeoutSeconds) {
+        this.repository = repository;
+        this.transactionManager = transactionManager;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.inProgressTimeout = Duration.ofSeconds(inProgressTimeoutSeconds);
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Zapisana odpowiedź dla klucza - najpierw cache, potem baza. Pusty wynik także dla klucza w trakcie wykonywania.
+     */
+    public Optional<StoredResponse> findCompleted(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        StoredResponse cached = recent.get(key);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(now)) {
+                return Optional.of(cached);
+            }
+            recent.remove(key);
+        }
+        return repository.findById(key)
+                .filter(stored -> stored.getStatus() == IdempotencyKey.Status.COMPLETED && stored.getExpiresAt().isAfter(now))
+                .map(stored -> {
+                    StoredResponse response = new StoredResponse(stored.getResponseStatus(), stored.getContentType(),
+                            stored.getResponseBody(), stored.getExpiresAt());
+                    recent.put(key, response);
+                    return response;
+                });
+    }
+
+    /**
+     * @return pusty wynik, gdy klucz jest już zajęty (żądanie w trakcie albo zakończone i jeszcze nie wygasłe)
+     */
+    public Optional<Reservation> tryReserve(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        String owner = UUID.randomUUID().toString();
+        try {
+            repository.reserve(key, owner, now, now.plus(ttl), now.plus(inProgressTimeout));
+            return Optional.of(new Reservation(key, owner));
+        } catch (DataIntegrityViolationException e) {
+            // Wiersz istnieje - do przejęcia, jeśli wygasł albo jego rezerwacja jest porzucona
+            if (repository.takeOver(key, owner, now, now.plus(ttl), now.plus(inProgressTimeout)) == 1) {
+                recent.remove(key);
+                return Optional.of(new Reservation(key, owner));
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Wykonuje żądanie i zapisuje jego odpowiedź w jednej transakcji bazy. Transakcje serwisów wywołanych
+     * przez handler dołączają do niej, więc nie ma chwili, w której zmiana jest zatwierdzona, a klucz nie.
+     *
+     * @param handler zwraca odpowiedź do zapamiętania; null (np. odpowiedź błędu) albo wyjątek cofają całość
+     * @return zapisana odpowiedź; pusty wynik, gdy handler zwrócił null
+     * @throws ReservationLostException rezerwację przejęło ponowienie - zmiany tego wykonania są cofnięte
+     */
+    public <E extends Exception> Optional<StoredResponse> executeOnce(Reservation reservation, Handler<E> handler) throws E {
+        TransactionStatus transaction = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        StoredResponse stored;
+        try {
+            Response response = handler.handle();
+            if (response == null) {
+                transactionManager.rollback(transaction);
+                return Optional.empty();
+            }
+            stored = complete(reservation, response);
+        } catch (Throwable e) {
+            if (!transaction.isCompleted()) {
+                transactionManager.rollback(transaction);
+            }
+            throw e;
+        }
+        transactionManager.commit(transaction);
+        recent.put(reservation.key(), stored);
+        return Optional.of(stored);
+    }
+
+    private StoredResponse complete(Reservation reservation, Response response) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        int updated = repository.complete(reservation.key(), reservation.owner(), response.status(),
+                response.contentType(), response.body(), expiresAt);
+        if (updated == 0) {
+            throw new ReservationLostException(reservation);
+        }
+        return new StoredResponse(response.status(), response.contentType(), response.body(), expiresAt);
+    }
+
+    /**
+     * Zwolnienie klucza po nieudanym żądaniu - klient może ponowić je z tym samym kluczem.
+     * Klucz przejęty w międzyczasie przez ponowienie zostaje.
+     */
+    public void release(Reservation reservation) {
+        recent.remove(reservation.key());
+        repository.deleteInProgress(reservation.key(), reservation.owner());
+    }
+
+    /**
+     * Wywoływane przez zadanie idempotency_cleanup
+     *
+     * @return liczba usuniętych kluczy
+     */
+    public int cleanupExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int removed = repository.deleteExpired(now);
+        synchronized (recent) {
+            recent.values().removeIf(response -> !response.expiresAt().isAfter(now));
+        }
+        if (removed > 0) {
+            logger.info("Removed {} expired idempotency keys", removed);
+        }
+        return removed;
+    }
+
+    @FunctionalInterface
+    public interface Handler<E extends Exception> {
+        Response handle() throws E;
+    }
+
+    /**
+     * @param owner losowy identyfikator rezerwacji - po przejęciu klucza należy do nowego żądania
+     */
+    public record Reservation(String key, String owner) {
+    }
+
+    public record Response(int status, String contentType, String body) {
+    }
+
+    public record StoredResponse(int status, String contentType, String body, LocalDateTime expiresAt) {
+    }
+
+    public static class ReservationLostException extends IllegalStateException {
+        public ReservationLostException(Reservation reservation) {
+            super("Idempotency key " + reservation.key() + " was taken over by another request");
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Config.WmsMetrics;
+import com.kozimor.wms.Database.Model.DTO.InventoryAsOfDTO;
+import com.kozimor.wms.Database.Model.EntityChangedEvent;
+import com.kozimor.wms.Database.Model.StockCheckpoint;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Repository.LocationRepository;
+import com.kozimor.wms.Database.Repository.StockCheckpointRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stan magazynu na dowolną chwilę: najbliższy wcześniejszy punkt kontrolny (StockCheckpoint) + transakcje
+ * z zakresu [punkt, asOf]. Dla jednej lokacji to skan zakresu idx_transactions_location_date
+ * i wierszy punktu z idx_checkpoint_balances_location - koszt zależy od odstępu między punktami, nie od historii.
+ *
+ * Zasady salda jak przy alokacji: RECEIPT i RETURN dodają, reszta odejmuje, bez CANCELLED i bez transakcji bez lokacji.
+ *
+ * Punkt z asOf = T obejmuje transakcje z datą < T. Tworzy go zadanie inventory_checkpoint z opóźnieniem
+ * wms.inventory.checkpoint-lag-seconds, żeby zwykłe księgowania nie trafiały w świeżo zbudowany punkt.
+ *
+ * Zmiana lub usunięcie transakcji sprzed punktu oznacza punkt jako nieaktualny (stale) - zapytania go pomijają,
+ * a zadanie przelicza go od poprzedniego punktu. Data transakcji pochodzi z chwili zapisu, nie commitu, więc
+ * długa transakcja może też zatwierdzić nowy wiersz sprzed gotowego już punktu.
+ *
+ * Kolejność commitów wyznacza generacja punktów - wersja StockCheckpoint w resource_versions (typ bez ETagów).
+ * Zmiana, usunięcie i zapis z datą starszą niż połowa checkpoint-lag (zapis "późny") podbijają ją przy commicie
+ * i dopiero wtedy oznaczają punkty. Budowa nie blokuje zapisów: czyta generację na początku, a przed commitem
+ * blokuje jej wiersz i porównuje - inna wartość znaczy, że w trakcie budowy zatwierdził się późny zapis,
+ * więc zbudowane punkty zostają oznaczone do przeliczenia. Późny zapis zatwierdzany po tym porównaniu czeka
+ * na commit budowy i widzi jej punkty. Zwykłe księgowania (data sprzed mniej niż połowy checkpoint-lag)
+ * generacji nie dotykają - punkt z asOf = teraz minus checkpoint-lag nie może ich objąć, chyba że sam commit
+ * trwałby dłużej niż połowa checkpoint-lag.
+ */
+@Service
+public class InventoryAsOfService {
+
+    static final String SIGNED_QUANTITY =
+            "CASE WHEN transaction_type IN ('RECEIPT', 'RETURN') THEN quantity ELSE -quantity END";
+    static final String NOT_CANCELLED = "(transaction_status IS NULL OR transaction_status <> 'CANCELLED')";
+    private static final String GENERATION_TYPE = StockCheckpoint.class.getSimpleName();
+
+    private final StockCheckpointRepository checkpointRepository;
+    private final LocationRepository locationRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final WmsMetrics metrics;
+    private final Duration checkpointLag;
+
+    public InventoryAsOfService(StockCheckpointRepository checkpointRepository,
+                                LocationRepository locationRepository,
+                                EntityManager entityManager,
+                                JdbcTemplate jdbcTemplate,
+                                WmsMetrics metrics,
+                                @Value("${wms.inventory.checkpoint-lag-seconds:60}") long checkpointLagSeconds) {
+        this.checkpointRepository = checkpointRepository;
+        this.locationRepository = locationRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+        this.checkpointLag = Duration.ofSeconds(checkpointLagSeconds);
+    }
+
+    /**
+     * @param locationId lokacja albo null - wszystkie lokacje
+     */
+    @Transactional(readOnly = true)
+    public InventoryAsOfDTO getStockAsOf(OffsetDateTime asOf, Long locationId) {
+        long start = System.nanoTime();
+        if (locationId != null && !locationRepository.existsById(locationId)) {
+            throw new EntityNotFoundException("Location not found with id: " + locationId);
+        }
+        Optional<StockCheckpoint> checkpoint = checkpointRepository.findFirstByStaleFalseAndAsOfLessThanEqualOrderByAsOfDesc(asOf);
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder union = new StringBuilder();
+        if (checkpoint.isPresent()) {
+            union.append("SELECT item_id, location_id, quantity FROM stock_checkpoint_balances WHERE checkpoint_id = ?");
+            params.add(checkpoint.get().getId());
+            if (locationId != null) {
+                union.append(" AND location_id = ?");
+                params.add(locationId);
+            }
+            union.append(" UNION ALL ");
+        }
+        union.append("SELECT item_id, location_id, ").append(SIGNED_QUANTITY).append(" AS quantity FROM transactions WHERE ");
+        if (locationId != null) {
+            union.append("location_id = ?");
+            params.add(locationId);
+        } else {
+            union.append("location_id IS NOT NULL");
+        }
+        if (checkpoint.isPresent()) {
+            union.append(" AND transaction_date >= ?");
+            params.add(checkpoint.get().getAsOf());
+        }
+        union.append(" AND transaction_date <= ? AND ").append(NOT_CANCELLED);
+        params.add(asOf);
+
+        String sql = "SELECT b.item_id, i.name AS item_name, b.location_id, b.quantity FROM ("
+                + "SELECT item_id, location_id, SUM(quantity) AS quantity FROM (" + union + ") u "
+                + "GROUP BY item_id, location_id HAVING SUM(quantity) <> 0) b "
+                + "LEFT JOIN items i ON i.item_id = b.item_id ORDER BY b.location_id, b.item_id";
+        List<InventoryAsOfDTO.Balance> balances = jdbcTemplate.query(sql, (rs, rowNum) -> InventoryAsOfDTO.Balance.builder()
+                .itemId(rs.getLong("item_id"))
+                .itemName(rs.getString("item_name"))
+                .locationId(rs.getLong("location_id"))
+                .quantity(rs.getDouble("quantity"))
+                .build(), params.toArray());
+
+        metrics.recordStockAsOf(balances.size(), System.nanoTime() - start);
+        return InventoryAsOfDTO.builder()
+                .asOf(asOf)
+                .locationId(locationId)
+                .checkpointAsOf(checkpoint.map(StockCheckpoint::getAsOf).orElse(null))
+                .balances(balances)
+                .build();
+    }
+
+    /**
+     * Przelicza nieaktualne punkty (od najstarszego) i dodaje punkt na teraz minus checkpoint-lag
+     *
+     * @return liczba zapisanych sald
+     */
+    @Transactional
+    public long refreshCheckpoints() {
+        long generation = readGeneration();
+        List<StockCheckpoint> built = new ArrayList<>();
+        long rows = 0;
+        for (StockCheckpoint stale : checkpointRepository.findByStaleTrueOrderByAsOfAsc()) {
+            jdbcTemplate.update("DELETE FROM stock_checkpoint_balances WHERE checkpoint_id = ?", stale.getId());
+            rows += build(stale);
+            built.add(stale);
+        }
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(checkpointLag);
+        Optional<StockCheckpoint> latest = checkpointRepository.findFirstByOrderByAsOfDesc();
+        if (latest.isEmpty() || latest.get().getAsOf().isBefore(cutoff)) {
+            StockCheckpoint checkpoint = insert(cutoff);
+            rows += build(checkpoint);
+            built.add(checkpoint);
+        }
+        confirm(generation, built);
+        return rows;
+    }
+
+    /**
+     * Nowy punkt kontrolny - przyrostowo od ostatniego wcześniejszego punktu
+     *
+     * @param asOf co najmniej checkpoint-lag wstecz - nowsze zapisy nie podbijają generacji
+     */
+    @Transactional
+    public StockCheckpoint createCheckpoint(OffsetDateTime asOf) {
+        if (asOf.isAfter(OffsetDateTime.now().minus(checkpointLag))) {
+            throw new IllegalArgumentException("Checkpoint must be at least " + checkpointLag.toSeconds() + " s in the past");
+        }
+        long generation = readGeneration();
+        StockCheckpoint checkpoint = insert(asOf);
+        build(checkpoint);
+        confirm(generation, List.of(checkpoint));
+        return checkpoint;
+    }
+
+    /**
+     * Zmiana lub usunięcie transakcji unieważnia punkty późniejsze niż jej data (data nie jest aktualizowana,
+     * więc wystarcza do wskazania punktów - także gdy zmieniła się lokacja albo item).
+     * Zwykły @EventListener - zdarzenie przychodzi w transakcji zmiany (także w trakcie flush Hibernate).
+     * Zmiana i usunięcie oznaczają punkty od razu, żeby kolejne odczyty w tej samej transakcji je pomijały,
+     * a późne zmiany całej transakcji jeszcze raz przy commicie, po podbiciu generacji.
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!(event.entity() instanceof Transaction transaction)) {
+            return;
+        }
+        OffsetDateTime date = transaction.getTransactionDate();
+        boolean modified = event.changeType() != EntityChangedEvent.ChangeType.CREATED;
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            if (modified || isLate(date)) {
+                bumpGeneration();
+                markStale(date);
+            }
+            return;
+        }
+        if (modified) {
+            markStale(date);
+        }
+        // Synchronizacje są per transakcja - jak w ResourceVersionRegistry
+        LateChanges changes = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(LateChanges.class::isInstance)
+                .map(LateChanges.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    LateChanges created = new LateChanges();
+                    TransactionSynchronizationManager.registerSynchronization(created);
+                    entityManager.unwrap(SessionImplementor.class).getActionQueue().registerProcess(created);
+                    return created;
+                });
+        changes.add(date, modified);
+    }
+
+    private StockCheckpoint insert(OffsetDateTime asOf) {
+        return checkpointRepository.save(StockCheckpoint.builder()
+                // Precyzja kolumny - granica punktu musi być dokładnie tą zapisaną w bazie
+                .asOf(asOf.truncatedTo(ChronoUnit.MICROS))
+                .balanceCount(0)
+                .build());
+    }
+
+    private boolean isLate(OffsetDateTime date) {
+        return date == null || date.isBefore(OffsetDateTime.now().minus(checkpointLag.dividedBy(2)));
+    }
+
+    private long readGeneration() {
+        return jdbcTemplate.queryForObject("SELECT version FROM resource_versions WHERE resource_type = ?",
+                Long.class, GENERATION_TYPE);
+    }
+
+    private void bumpGeneration() {
+        jdbcTemplate.update("UPDATE resource_versions SET version = version + 1 WHERE resource_type = ?", GENERATION_TYPE);
+    }
+
+    /**
+     * Blokuje wiersz generacji do commitu budowy. Inna wartość niż na początku - w trakcie budowy zatwierdził się
+     * późny zapis, którego budowa mogła nie widzieć, więc zbudowane punkty idą do przeliczenia.
+     */
+    private void confirm(long generation, List<StockCheckpoint> built) {
+        if (built.isEmpty()) {
+            return;
+        }
+        Long current = jdbcTemplate.queryForObject(
+                "SELECT version FROM resource_versions WHERE resource_type = ? FOR UPDATE", Long.class, GENERATION_TYPE);
+        if (current == null || current != generation) {
+            for (StockCheckpoint checkpoint : built) {
+                jdbcTemplate.update("UPDATE stock_checkpoints SET stale = TRUE WHERE checkpoint_id = ?", checkpoint.getId());
+                checkpoint.setStale(true);
+            }
+        }
+    }
+
+    private void markStale(OffsetDateTime earliest) {
+        // JDBC zamiast repozytorium - zdarzenie przychodzi w trakcie flush Hibernate
+        if (earliest == null) {
+            jdbcTemplate.update("UPDATE stock_checkpoints SET stale = TRUE WHERE stale = FALSE");
+        } else {
+            jdbcTemplate.update("UPDATE stock_checkpoints SET stale = TRUE WHERE as_of > ? AND stale = FALSE", earliest);
+        }
+    }
+
+    private int build(StockCheckpoint checkpoint) {
+        Optional<StockCheckpoint> previous = jdbcTemplate.query(
+                "SELECT checkpoint_id, as_of FROM stock_checkpoints WHERE as_of < ? AND stale = FALSE "
+                        + "ORDER BY as_of DESC FETCH FIRST 1 ROWS ONLY",
+                (rs, rowNum) -> StockCheckpoint.builder()
+                        .id(rs.getLong("checkpoint_id"))
+                        .asOf(rs.getObject("as_of", OffsetDateTime.class))
+                        .build(),
+                checkpoint.getAsOf()).stream().findFirst();
+
+        List<Object> params = new ArrayList<>();
+        params.add(checkpoint.getId());
+        StringBuilder union = new StringBuilder();
+        if (previous.isPresent()) {
+            union.append("SELECT item_id, location_id, quantity FROM stock_checkpoint_balances WHERE checkpoint_id = ? UNION ALL ");
+            params.add(previous.get().getId());
+        }
+        union.append("SELECT item_id, location_id, ").append(SIGNED_QUANTITY).append(" AS quantity FROM transactions ")
+                .append("WHERE location_id IS NOT NULL AND ").append(NOT_CANCELLED);
+        if (previous.isPresent()) {
+            union.append(" AND transaction_date >= ?");
+            params.add(previous.get().getAsOf());
+        }
+        union.append(" AND transaction_date < ?");
+        params.add(checkpoint.getAsOf());
+
+        int rows = jdbcTemplate.update("INSERT INTO stock_checkpoint_balances (checkpoint_id, item_id, location_id, quantity) "
+                + "SELECT ?, item_id, location_id, SUM(quantity) FROM (" + union + ") u "
+                + "GROUP BY item_id, location_id HAVING SUM(quantity) <> 0", params.toArray());
+        jdbcTemplate.update("UPDATE stock_checkpoints SET balance_count = ?, stale = FALSE WHERE checkpoint_id = ?",
+                rows, checkpoint.getId());
+        checkpoint.setBalanceCount(rows);
+        checkpoint.setStale(false);
+        return rows;
+    }
+
+    /**
+     * Zmiany transakcji w jednej transakcji bazy - synchronizacja Springa służy tylko do ich odnalezienia, generację
+     * podbija Hibernate po ostatnim flush przy commicie
+     */
+    private final class LateChanges implements TransactionSynchronization, BeforeTransactionCompletionProcess {
+
+        private boolean modified;
+        private boolean all;
+        private OffsetDateTime earliest;
+
+        private void add(OffsetDateTime date, boolean modified) {
+            this.modified |= modified;
+            if (date == null) {
+                all = true;
+            } else if (earliest == null || date.isBefore(earliest)) {
+                earliest = date;
+            }
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            // Zapis jest późny względem chwili commitu, nie flush - długa transakcja mogła się zestarzeć
+            if (modified || all || isLate(earliest)) {
+                bumpGeneration();
+                markStale(all ? null : earliest);
+            }
+        }
+    }
+}
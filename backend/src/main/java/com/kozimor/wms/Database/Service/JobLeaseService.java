@@ -0,0 +1,214 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.JobLease;
+import com.kozimor.wms.Database.Repository.JobLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+/**
+ * Wykonanie zaplanowanego zadania na dokładnie jednej instancji aplikacji (dzierżawa w tabeli job_leases).
+ *
+ * Każda instancja odpala cron u siebie i próbuje przejąć dzierżawę dla tego samego zaplanowanego czasu.
+ * Wygrywa jedna; w trakcie pracy przedłuża dzierżawę co 1/3 jej długości. Pozostałe sprawdzają ponownie
+ * po wygaśnięciu dzierżawy - jeśli właściciel padł w trakcie, uruchomienie przejmuje kolejna instancja.
+ * Uruchomienie zakończone błędem liczy się jako zakończone (tak jak wcześniej: błąd w logu, bez ponawiania).
+ *
+ * Czasy dzierżawy pochodzą z zegarów instancji - zakładamy synchronizację NTP, a długość dzierżawy
+ * (wms.scheduler.lease-seconds) musi być dużo większa od możliwej rozbieżności zegarów.
+ */
+@Service
+public class JobLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobLeaseService.class);
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate newTransaction;
+    private final String nodeId;
+    private final Duration leaseDuration;
+
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository,
+                           PlatformTransactionManager transactionManager,
+                           TaskScheduler taskScheduler,
+                           @Value("${wms.scheduler.node-id:}") String nodeId,
+                           @Value("${wms.scheduler.lease-seconds:120}") long leaseSeconds) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.taskScheduler = taskScheduler;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+    }
+
+    /**
+     * Wykonuje zadanie, jeśli ta instancja przejmie uruchomienie fireTime. Jeśli dzierżawę trzyma inna
+     * instancja, planuje ponowne sprawdzenie po jej wygaśnięciu.
+     *
+     * @param fireTime zaplanowany czas uruchomienia z crona - ten sam na wszystkich instancjach
+     * @param task     dostaje dzierżawę; zapis wyniku może ją potwierdzić przez {@link #complete(Lease)}
+     *                 w swojej transakcji, wtedy wynik instancji, która straciła dzierżawę, jest wycofywany
+     */
+    public void runExclusive(String jobName, LocalDateTime fireTime, Consumer<Lease> task) {
+        Optional<Lease> acquired = tryAcquire(jobName, fireTime);
+        if (acquired.isEmpty()) {
+            scheduleTakeoverCheck(jobName, fireTime, task);
+            return;
+        }
+        run(acquired.get(), task);
+    }
+
+    /**
+     * Wykonuje zadanie na przejętej dzierżawie, przedłużając ją w trakcie, i zwalnia ją po zakończeniu
+     */
+    public void run(Lease lease, Consumer<Lease> task) {
+        String jobName = lease.jobName();
+        LocalDateTime fireTime = lease.fireTime();
+        logger.info("Job {} ({}) started on {} with fencing token {}", jobName, fireTime, nodeId, lease.fencingToken());
+        Duration heartbeatPeriod = leaseDuration.dividedBy(3);
+        ScheduledFuture<?> heartbeat = taskScheduler.scheduleAtFixedRate(() -> renew(lease),
+                Instant.now().plus(heartbeatPeriod), heartbeatPeriod);
+        try {
+            task.accept(lease);
+        } catch (LeaseLostException e) {
+            logger.warn("Job {} ({}) lost its lease on {}, result discarded", jobName, fireTime, nodeId);
+            return;
+        } catch (RuntimeException e) {
+            logger.error("Job {} ({}) failed on {}", jobName, fireTime, nodeId, e);
+        } finally {
+            heartbeat.cancel(false);
+        }
+        // Zadanie mogło już potwierdzić zakończenie w swojej transakcji - ponowny UPDATE niczego nie zmienia
+        newTransaction.executeWithoutResult(status -> {
+            if (markCompleted(lease) == 0) {
+                logger.warn("Job {} ({}) finished on {} after losing its lease", jobName, fireTime, nodeId);
+            }
+        });
+    }
+
+    public Optional<Lease> tryAcquire(String jobName, LocalDateTime fireTime) {
+        ensureRow(jobName);
+        return newTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (jobLeaseRepository.claim(jobName, nodeId, fireTime, now, now.plus(leaseDuration)) == 0) {
+                return Optional.empty();
+            }
+            long token = jobLeaseRepository.findById(jobName).map(JobLease::getFencingToken).orElseThrow();
+            return Optional.of(new Lease(jobName, nodeId, token, fireTime));
+        });
+    }
+
+    /**
+     * Dzierżawa dla ręcznego uruchomienia (fireTime null). Nie jest związana z czasem z crona, więc jej
+     * zwolnienie nie oznacza żadnego zaplanowanego uruchomienia jako wykonanego.
+     *
+     * @return pusty, gdy dzierżawę trzyma inna instancja (albo ta sama dla innego uruchomienia)
+     */
+    public Optional<Lease> tryAcquireManual(String jobName) {
+        ensureRow(jobName);
+        return newTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (jobLeaseRepository.claimManual(jobName, nodeId, now, now.plus(leaseDuration)) == 0) {
+                return Optional.empty();
+            }
+            long token = jobLeaseRepository.findById(jobName).map(JobLease::getFencingToken).orElseThrow();
+            return Optional.of(new Lease(jobName, nodeId, token, null));
+        });
+    }
+
+    /**
+     * Potwierdza zakończenie uruchomienia w bieżącej transakcji. Jeśli dzierżawę przejęła inna instancja,
+     * rzuca LeaseLostException - transakcja z wynikiem zadania zostaje wycofana.
+     */
+    public void complete(Lease lease) {
+        if (markCompleted(lease) == 0) {
+            throw new LeaseLostException(lease);
+        }
+    }
+
+    private void ensureRow(String jobName) {
+        if (!jobLeaseRepository.existsById(jobName)) {
+            try {
+                jobLeaseRepository.insert(jobName);
+            } catch (DataIntegrityViolationException e) {
+                // Inna instancja utworzyła wiersz w tym samym momencie
+            }
+        }
+    }
+
+    private int markCompleted(Lease lease) {
+        if (lease.fireTime() == null) {
+            return jobLeaseRepository.release(lease.jobName(), lease.owner(), lease.fencingToken(), LocalDateTime.now());
+        }
+        return jobLeaseRepository.complete(lease.jobName(), lease.owner(), lease.fencingToken(), lease.fireTime(),
+                LocalDateTime.now());
+    }
+
+    private void renew(Lease lease) {
+        try {
+            if (jobLeaseRepository.renew(lease.jobName(), lease.owner(), lease.fencingToken(),
+                    LocalDateTime.now().plus(leaseDuration)) == 0) {
+                logger.warn("Lease for job {} (token {}) was taken over by another node", lease.jobName(),
+                        lease.fencingToken());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to renew lease for job {}", lease.jobName(), e);
+        }
+    }
+
+    private void scheduleTakeoverCheck(String jobName, LocalDateTime fireTime, Consumer<Lease> task) {
+        Optional<JobLease> current = jobLeaseRepository.findById(jobName);
+        if (current.isEmpty() || isCompleted(current.get(), fireTime) || current.get().getLeaseUntil() == null) {
+            return;
+        }
+        Instant check = current.get().getLeaseUntil().atZone(ZoneId.systemDefault()).toInstant().plusSeconds(1);
+        logger.debug("Job {} ({}) is running on {}, next check at {}", jobName, fireTime, current.get().getOwner(), check);
+        taskScheduler.schedule(() -> runExclusive(jobName, fireTime, task), check);
+    }
+
+    private static boolean isCompleted(JobLease lease, LocalDateTime fireTime) {
+        return lease.getCompletedFireTime() != null && !lease.getCompletedFireTime().isBefore(fireTime);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @param fireTime zaplanowany czas z crona; null dla ręcznego uruchomienia
+     */
+    public record Lease(String jobName, String owner, long fencingToken, LocalDateTime fireTime) {
+    }
+
+    public static class LeaseLostException extends IllegalStateException {
+        public LeaseLostException(Lease lease) {
+            super("Lease for job " + lease.jobName() + " with token " + lease.fencingToken() + " is no longer held");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.kozimor.wms.Database.Service.Jobs;
+
+import com.kozimor.wms.Database.Service.ScheduledJob;
+import com.kozimor.wms.Database.Service.StockAlertService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Przeliczenie sald lokacji z progami i stanu alertów z bazy - salda są per instancja, więc zadanie działa na każdej
+ */
+@Component
+public class AlertReconciliationJob implements ScheduledJob {
+
+    private final StockAlertService stockAlertService;
+
+    public AlertReconciliationJob(StockAlertService stockAlertService) {
+        this.stockAlertService = stockAlertService;
+    }
+
+    @Override
+    public String name() {
+        return "alert_reconciliation";
+    }
+
+    @Override
+    public String description() {
+        return "Location balances and threshold alerts resync every 5 minutes";
+    }
+
+    @Override
+    public String defaultCron() {
+        return "0 */5 * * * *";
+    }
+
+    @Override
+    public boolean clusterExclusive() {
+        return false;
+    }
+
+    @Override
+    public long run(Context context) {
+        return stockAlertService.reconcile();
+    }
+}
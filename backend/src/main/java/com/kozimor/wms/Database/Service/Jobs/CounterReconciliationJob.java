@@ -0,0 +1,43 @@
+package com.kozimor.wms.Database.Service.Jobs;
+
+import com.kozimor.wms.Database.Service.EntityCounterService;
+import com.kozimor.wms.Database.Service.ScheduledJob;
+import org.springframework.stereotype.Component;
+
+/**
+ * Korekta liczników encji w pamięci o COUNT z bazy - liczniki są per instancja, więc zadanie działa na każdej
+ */
+@Component
+public class CounterReconciliationJob implements ScheduledJob {
+
+    private final EntityCounterService entityCounterService;
+
+    public CounterReconciliationJob(EntityCounterService entityCounterService) {
+        this.entityCounterService = entityCounterService;
+    }
+
+    @Override
+    public String name() {
+        return "counter_reconciliation";
+    }
+
+    @Override
+    public String description() {
+        return "Entity counters resync every 5 minutes";
+    }
+
+    @Override
+    public String defaultCron() {
+        return "0 */5 * * * *";
+    }
+
+    @Override
+    public boolean clusterExclusive() {
+        return false;
+    }
+
+    @Override
+    public long run(Context context) {
+        return entityCounterService.resync();
+    }
+}
@@ -0,0 +1,35 @@
+package com.kozimor.wms.Database.Service.Jobs;
+
+import com.kozimor.wms.Database.Service.IdempotencyService;
+import com.kozimor.wms.Database.Service.ScheduledJob;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IdempotencyCleanupJob implements ScheduledJob {
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyCleanupJob(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Override
+    public String name() {
+        return "idempotency_cleanup";
+    }
+
+    @Override
+    public String description() {
+        return "Expired idempotency keys removal every hour";
+    }
+
+    @Override
+    public String defaultCron() {
+        return "0 0 * * * *";
+    }
+
+    @Override
+    public long run(Context context) {
+        return idempotencyService.cleanupExpired();
+    }
+}
@@ -0,0 +1,53 @@
+package com.kozimor.wms.Database.Service.Jobs;
+
+import com.kozimor.wms.Database.Service.InventoryAsOfService;
+import com.kozimor.wms.Database.Service.JobLeaseService;
+import com.kozimor.wms.Database.Service.ScheduledJob;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Dzienny punkt kontrolny sald (item, lokacja) dla zapytań o stan na datę oraz przeliczenie punktów
+ * unieważnionych zmianą starszych transakcji. Punkt i potwierdzenie dzierżawy są w jednej transakcji.
+ */
+@Component
+public class InventoryCheckpointJob implements ScheduledJob {
+
+    private final InventoryAsOfService inventoryAsOfService;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    public InventoryCheckpointJob(InventoryAsOfService inventoryAsOfService,
+                                  JobLeaseService jobLeaseService,
+                                  PlatformTransactionManager transactionManager) {
+        this.inventoryAsOfService = inventoryAsOfService;
+        this.jobLeaseService = jobLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String name() {
+        return "inventory_checkpoint";
+    }
+
+    @Override
+    public String description() {
+        return "Location balance checkpoint for stock-as-of queries every day at 00:05";
+    }
+
+    @Override
+    public String defaultCron() {
+        return "0 5 0 * * *";
+    }
+
+    @Override
+    public long run(Context context) {
+        Long rows = transactionTemplate.execute(status -> {
+            long written = inventoryAsOfService.refreshCheckpoints();
+            jobLeaseService.complete(context.lease());
+            return written;
+        });
+        return rows != null ? rows : 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.kozimor.wms.Database.Service.Jobs;
+
+import com.kozimor.wms.Database.Repository.JobExecutionRepository;
+import com.kozimor.wms.Database.Service.ScheduledJob;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+public class JobHistoryCleanupJob implements ScheduledJob {
+
+    private final JobExecutionRepository jobExecutionRepository;
+    private final long retentionDays;
+
+    public JobHistoryCleanupJob(JobExecutionRepository jobExecutionRepository,
+                                @Value("${wms.jobs.history-retention-days:90}") long retentionDays) {
+        this.jobExecutionRepository = jobExecutionRepository;
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    public String name() {
+        return "job_history_cleanup";
+    }
+
+    @Override
+    public String description() {
+        return "Job execution history retention every day at 03:30";
+    }
+
+    @Override
+    public String defaultCron() {
+        return "0 30 3 * * *";
+    }
+
+    @Override
+    public long run(Context context) {
+        return jobExecutionRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+}
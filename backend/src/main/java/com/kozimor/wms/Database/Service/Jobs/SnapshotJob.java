@@ -0,0 +1,95 @@
+package com.kozimor.wms.Database.Service.Jobs;
+
+import com.kozimor.wms.Database.Model.MisfirePolicy;
+import com.kozimor.wms.Database.Model.Report;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.JobLeaseService;
+import com.kozimor.wms.Database.Service.ReportService;
+import com.kozimor.wms.Database.Service.ScheduledJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Cotygodniowy snapshot stanów jako użytkownik "system". Snapshot i potwierdzenie dzierżawy są w jednej
+ * transakcji - instancja, która straciła dzierżawę, nie zapisze duplikatu.
+ */
+@Component
+public class SnapshotJob implements ScheduledJob {
+
+    public static final String NAME = "snapshot_schedule";
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotJob.class);
+
+    private final ReportService reportService;
+    private final UserRepository userRepository;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    public SnapshotJob(ReportService reportService,
+                       UserRepository userRepository,
+                       JobLeaseService jobLeaseService,
+                       PlatformTransactionManager transactionManager) {
+        this.reportService = reportService;
+        this.userRepository = userRepository;
+        this.jobLeaseService = jobLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String description() {
+        return "Weekly snapshot every Monday at 15:00";
+    }
+
+    @Override
+    public String defaultCron() {
+        return "0 0 15 ? * MON";
+    }
+
+    @Override
+    public MisfirePolicy defaultMisfirePolicy() {
+        return MisfirePolicy.RUN_ONCE;
+    }
+
+    @Override
+    public long run(Context context) {
+        setSystemUser();
+        try {
+            Report snapshot = transactionTemplate.execute(status -> {
+                Report report = reportService.createSnapshot();
+                jobLeaseService.complete(context.lease());
+                return report;
+            });
+            logger.info("Weekly snapshot created successfully. Report ID: {}", snapshot.getId());
+            return snapshot.getTotalItemsCount() != null ? snapshot.getTotalItemsCount() : 0;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void setSystemUser() {
+        User systemUser = userRepository.findByUsername("system")
+                .orElseGet(() -> {
+                    User newSystemUser = new User();
+                    newSystemUser.setUsername("system");
+                    newSystemUser.setEmail("system@wms.local");
+                    newSystemUser.setPassword("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcg7b3XeKeUxWdeS86E36P4/tzO");
+                    newSystemUser.setFirstName("System");
+                    newSystemUser.setLastName("Service");
+                    return userRepository.save(newSystemUser);
+                });
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(systemUser.getUsername(), null, null));
+    }
+}
@@ -0,0 +1,35 @@
+package com.kozimor.wms.Database.Service.Jobs;
+
+import com.kozimor.wms.Database.Service.ScheduledJob;
+import com.kozimor.wms.Database.Service.SyncChangeLog;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SyncLogCleanupJob implements ScheduledJob {
+
+    private final SyncChangeLog syncChangeLog;
+
+    public SyncLogCleanupJob(SyncChangeLog syncChangeLog) {
+        this.syncChangeLog = syncChangeLog;
+    }
+
+    @Override
+    public String name() {
+        return "sync_log_cleanup";
+    }
+
+    @Override
+    public String description() {
+        return "Scanner sync change log retention every hour";
+    }
+
+    @Override
+    public String defaultCron() {
+        return "0 15 * * * *";
+    }
+
+    @Override
+    public long run(Context context) {
+        return syncChangeLog.cleanup();
+    }
+}
@@ -0,0 +1,212 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.EntityChangedEvent;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.LocationBalance;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Repository.LocationBalanceRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static com.kozimor.wms.Database.Service.InventoryAsOfService.NOT_CANCELLED;
+import static com.kozimor.wms.Database.Service.InventoryAsOfService.SIGNED_QUANTITY;
+
+/**
+ * Bieżące salda lokacji w tabeli location_balances - odczyt po kluczu głównym zamiast sumowania transakcji.
+ *
+ * Saldo zmienia się w transakcji księgowania: nowa transakcja dodaje swoją ilość, zmiana lub usunięcie istniejącej
+ * przelicza saldo jej lokacji od zera (poprzedniej ilości nie znamy). Wiersze sald są aktualizowane po ostatnim flush
+ * przy commicie, w kolejności id lokacji - blokada wiersza trwa tylko na czas commitu, a dwie transakcje nie
+ * zakleszczą się na saldach. Księgowania do tej samej lokacji zatwierdzają się więc po kolei.
+ *
+ * Zmiany omijające JPA i zmiana lokacji istniejącej transakcji (stara lokacja nie jest znana) koryguje
+ * {@link #reconcile}: blokuje wiersze sald i dopiero wtedy sumuje transakcje, więc księgowanie zatwierdzane
+ * równolegle nie zostanie nadpisane.
+ */
+@Service
+public class LocationBalanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationBalanceService.class);
+    private static final int RECONCILE_BATCH = 500;
+    private static final String LOCATION_SUM = "COALESCE((SELECT SUM(" + SIGNED_QUANTITY + ") FROM transactions t " +
+            "WHERE t.location_id = %s AND " + NOT_CANCELLED + "), 0)";
+
+    private final LocationBalanceRepository locationBalanceRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public LocationBalanceService(LocationBalanceRepository locationBalanceRepository,
+                                  EntityManager entityManager,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager) {
+        this.locationBalanceRepository = locationBalanceRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Wiersz salda dla każdej lokacji - księgowanie robi tylko UPDATE
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void seed() {
+        try {
+            int created = jdbcTemplate.update("INSERT INTO location_balances (location_id, quantity) " +
+                    "SELECT l.id, " + LOCATION_SUM.formatted("l.id") + " FROM locations l " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM location_balances b WHERE b.location_id = l.id)");
+            if (created > 0) {
+                logger.info("Created {} location balances", created);
+            }
+        } catch (DuplicateKeyException e) {
+            // Wiersze dodała równolegle startująca inna instancja
+        }
+    }
+
+    public Map<Long, Double> getBalances(Collection<Long> locationIds) {
+        Map<Long, Double> balances = new HashMap<>();
+        for (LocationBalance balance : locationBalanceRepository.findAllById(locationIds)) {
+            balances.put(balance.getLocationId(), balance.getQuantity());
+        }
+        return balances;
+    }
+
+    /**
+     * Przelicza salda podanych lokacji od zera, porcjami w osobnych transakcjach
+     *
+     * @return liczba przeliczonych sald
+     */
+    public int reconcile(Collection<Long> locationIds) {
+        List<Long> sorted = new ArrayList<>(new TreeSet<>(locationIds));
+        int reconciled = 0;
+        for (int from = 0; from < sorted.size(); from += RECONCILE_BATCH) {
+            List<Long> batch = sorted.subList(from, Math.min(from + RECONCILE_BATCH, sorted.size()));
+            Integer updated = transactionTemplate.execute(status -> reconcileBatch(batch));
+            reconciled += updated != null ? updated : 0;
+        }
+        return reconciled;
+    }
+
+    private int reconcileBatch(List<Long> locationIds) {
+        String placeholders = String.join(",", Collections.nCopies(locationIds.size(), "?"));
+        Object[] params = locationIds.toArray();
+        jdbcTemplate.update("INSERT INTO location_balances (location_id, quantity) SELECT l.id, 0 FROM locations l " +
+                "WHERE l.id IN (" + placeholders + ") " +
+                "AND NOT EXISTS (SELECT 1 FROM location_balances b WHERE b.location_id = l.id)", params);
+        // Najpierw blokady, potem suma - osobne zapytanie widzi wszystko zatwierdzone przed ich uzyskaniem,
+        // a księgowania w toku dodadzą swoją ilość dopiero po naszym commicie
+        jdbcTemplate.queryForList("SELECT location_id FROM location_balances WHERE location_id IN (" + placeholders + ") " +
+                "ORDER BY location_id FOR UPDATE", Long.class, params);
+        return jdbcTemplate.update("UPDATE location_balances SET quantity = " + LOCATION_SUM.formatted("location_balances.location_id") +
+                " WHERE location_id IN (" + placeholders + ")", params);
+    }
+
+    /**
+     * Zwykły @EventListener - zdarzenie przychodzi w transakcji zmiany (także w trakcie flush Hibernate)
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.entity() instanceof Location location) {
+            onLocationChanged(location, event.changeType());
+            return;
+        }
+        if (!(event.entity() instanceof Transaction transaction) || transaction.getLocation() == null) {
+            return;
+        }
+        Long locationId = transaction.getLocation().getId();
+        boolean created = event.changeType() == EntityChangedEvent.ChangeType.CREATED;
+        if (created && (transaction.getTransactionStatus() == TransactionStatus.CANCELLED || transaction.getQuantity() == null)) {
+            return;
+        }
+        double delta = created ? signed(transaction) : 0.0;
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            apply(locationId, created, delta);
+            return;
+        }
+        // Synchronizacje są per transakcja - jak w ResourceVersionRegistry
+        PendingBalances pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingBalances.class::isInstance)
+                .map(PendingBalances.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    PendingBalances registered = new PendingBalances();
+                    TransactionSynchronizationManager.registerSynchronization(registered);
+                    entityManager.unwrap(SessionImplementor.class).getActionQueue().registerProcess(registered);
+                    return registered;
+                });
+        if (created) {
+            pending.deltas.merge(locationId, delta, Double::sum);
+        } else {
+            pending.recompute.add(locationId);
+        }
+    }
+
+    private void onLocationChanged(Location location, EntityChangedEvent.ChangeType changeType) {
+        if (changeType == EntityChangedEvent.ChangeType.CREATED) {
+            jdbcTemplate.update("INSERT INTO location_balances (location_id, quantity) VALUES (?, 0)", location.getId());
+        } else if (changeType == EntityChangedEvent.ChangeType.DELETED) {
+            jdbcTemplate.update("DELETE FROM location_balances WHERE location_id = ?", location.getId());
+        }
+    }
+
+    private void apply(Long locationId, boolean increment, double delta) {
+        int updated = increment
+                ? jdbcTemplate.update("UPDATE location_balances SET quantity = quantity + ? WHERE location_id = ?", delta, locationId)
+                : jdbcTemplate.update("UPDATE location_balances SET quantity = " + LOCATION_SUM.formatted("?") +
+                        " WHERE location_id = ?", locationId, locationId);
+        if (updated == 0) {
+            // Lokacja dodana z pominięciem JPA - wiersz założy przeliczenie
+            logger.warn("No balance row for location {}, waiting for reconciliation", locationId);
+        }
+    }
+
+    private static double signed(Transaction transaction) {
+        TransactionType type = transaction.getTransactionType();
+        return type == TransactionType.RECEIPT || type == TransactionType.RETURN
+                ? transaction.getQuantity() : -transaction.getQuantity();
+    }
+
+    /**
+     * Zmiany sald jednej transakcji - synchronizacja Springa służy tylko do ich odnalezienia, zapisuje je
+     * Hibernate po ostatnim flush przy commicie
+     */
+    private class PendingBalances implements TransactionSynchronization, BeforeTransactionCompletionProcess {
+
+        private final Map<Long, Double> deltas = new TreeMap<>();
+        private final Set<Long> recompute = new TreeSet<>();
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            Set<Long> locationIds = new TreeSet<>(deltas.keySet());
+            locationIds.addAll(recompute);
+            for (Long locationId : locationIds) {
+                boolean increment = !recompute.contains(locationId);
+                apply(locationId, increment, deltas.getOrDefault(locationId, 0.0));
+            }
+        }
+    }
+}
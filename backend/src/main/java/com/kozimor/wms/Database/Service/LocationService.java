@@ -1,5 +1,6 @@
 package com.kozimor.wms.Database.Service;
 
+import com.kozimor.wms.Config.WmsMetrics;
 import com.kozimor.wms.Database.Model.InventoryLocation;
 import com.kozimor.wms.Database.Model.Item;
 import com.kozimor.wms.Database.Model.Location;
@@ -25,6 +26,7 @@ public class LocationService {
     private final InventoryLocationRepository inventoryLocationRepository;
     private final TransactionRepository transactionRepository;
     private final ItemRepository itemRepository;
+    private final WmsMetrics wmsMetrics;
     
     /**
      * Pobierz wszystkie lokacje
@@ -163,6 +165,7 @@ public class LocationService {
      */
     @Transactional(readOnly = true)
     public LocationOccupancyDTO getLocationOccupancy(Long locationId) {
+        long start = System.nanoTime();
         Location location = locationRepository.findById(locationId)
                 .orElseThrow(() -> new IllegalArgumentException("Lokacja nie znaleziona"));
         
@@ -182,6 +185,7 @@ public class LocationService {
         
         boolean isAboveThreshold = totalQuantity >= minThreshold;
         
+        wmsMetrics.recordOccupancy(itemsInLocation.size(), System.nanoTime() - start);
         return LocationOccupancyDTO.builder()
                 .locationId(location.getId())
                 .locationCode(location.getCode())
@@ -1,5 +1,7 @@
 package com.kozimor.wms.Database.Service;
 
+import com.kozimor.wms.Database.Model.AllocationPolicy;
+import com.kozimor.wms.Database.Model.DTO.BulkOrderStatusResultDTO;
 import com.kozimor.wms.Database.Model.DTO.OrderDTO;
 import com.kozimor.wms.Database.Model.DTO.OrderStatusHistoryDTO;
 import org.springframework.data.domain.Page;
@@ -8,12 +10,17 @@ import java.util.Optional;
 
 public interface OrderService {
     OrderDTO createOrder(OrderDTO orderDTO, Long userId);
+    OrderDTO createOrder(OrderDTO orderDTO, Long userId, AllocationPolicy allocationPolicy);
+    OrderDTO createOrder(OrderDTO orderDTO, Long userId, AllocationPolicy allocationPolicy, boolean allowBackorder);
+    OrderDTO fulfilBackorders(Long orderId, Long userId, AllocationPolicy allocationPolicy);
     Optional<OrderDTO> getOrderById(Long id);
     OrderDTO getOrderByNumber(String orderNumber);
     Page<OrderDTO> getOrdersPaginated(int page, int size);
     Page<OrderDTO> getOrdersByStatus(String status, int page, int size);
     Page<OrderDTO> getOrdersByUser(Long userId, int page, int size);
     OrderDTO updateOrderStatus(Long id, String newStatus, String changeReason, Long userId);
+    BulkOrderStatusResultDTO updateOrderStatuses(List<Long> orderIds, String newStatus, String changeReason,
+                                                 Long userId, boolean idsOnly);
     void deleteOrder(Long id);
     long getOrderCount();
     List<OrderStatusHistoryDTO> getOrderStatusHistory(Long orderId);
@@ -0,0 +1,290 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Config.WmsMetrics;
+import com.kozimor.wms.Database.Model.ReportItem;
+import com.kozimor.wms.Database.Model.StockStatus;
+import com.kozimor.wms.Database.Model.TransactionType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Równoległe wyliczanie pozycji snapshotu (wms.reports.parallel-workers > 1).
+ *
+ * Przestrzeń id itemów dzielona jest na zakresy; każdy zakres czyta osobny wątek we własnej transakcji
+ * tylko do odczytu (status, daty ostatniego przyjęcia / wydania - jednym GROUP BY zamiast zapytania na item,
+ * różnica do poprzedniego raportu). Na PostgreSQL transakcja wywołującego eksportuje snapshot
+ * (pg_export_snapshot), a robocze transakcje REPEATABLE READ go importują - wszystkie partycje widzą
+ * ten sam stan bazy. Na innych bazach każda partycja ma własny snapshot REPEATABLE READ.
+ * Ścieżka PostgreSQL (eksport i import snapshotu) nie jest pokryta testami - testy działają na H2.
+ *
+ * Każdy wątek trzyma połączenie przez czas partycji, a wywołujący swoje przez cały snapshot - liczba wątków
+ * jest przycinana do rozmiaru puli Hikari minus dwa (wywołujący i zapas dla reszty aplikacji),
+ * poniżej dwóch wątków snapshot liczy się sekwencyjnie.
+ *
+ * Zapis pozycji idzie wsadowo przez połączenie wywołującego, w kolejności partycji - raport i jego pozycje
+ * (oraz np. potwierdzenie dzierżawy zadania) commitują się razem. Osobne połączenia zapisujące nie mogłyby
+ * wstawić pozycji wskazujących niezatwierdzony jeszcze nagłówek raportu.
+ */
+@Service
+public class ParallelSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelSnapshotService.class);
+
+    private static final int PARTITIONS_PER_WORKER = 4;
+    // Połączenie wywołującego + jedno wolne dla żądań i zadań
+    private static final int RESERVED_CONNECTIONS = 2;
+    private static final int BATCH_SIZE = 1000;
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("[0-9A-Fa-f-]+");
+
+    private static final String ITEMS_SQL = "SELECT item_id, name, category_id, unit, current_quantity, qr_code "
+            + "FROM items WHERE item_id >= ? AND item_id < ? ORDER BY item_id";
+    private static final String LAST_DATES_SQL = "SELECT item_id, "
+            + "MAX(CASE WHEN transaction_type = ? THEN transaction_date END) AS last_receipt, "
+            + "MAX(CASE WHEN transaction_type IN (?, ?, ?) THEN transaction_date END) AS last_issue "
+            + "FROM transactions WHERE item_id >= ? AND item_id < ? GROUP BY item_id";
+    private static final String INSERT_SQL = "INSERT INTO report_items (report_id, item_id, item_name, status, "
+            + "last_receipt_date, last_issue_date, warehouse_value, difference_from_previous, unit, qr_code, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTemplate;
+    private final int workers;
+    private final ExecutorService executor;
+    private volatile Boolean postgres;
+
+    public ParallelSnapshotService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   WmsMetrics metrics,
+                                   @Value("${wms.reports.parallel-workers:0}") int workers,
+                                   @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.readTemplate.setReadOnly(true);
+        int maxWorkers = connectionPoolSize - RESERVED_CONNECTIONS;
+        if (workers > 1 && workers > maxWorkers) {
+            logger.warn("wms.reports.parallel-workers={} exceeds connection pool size {} minus {} reserved, using {}",
+                    workers, connectionPoolSize, RESERVED_CONNECTIONS, Math.max(maxWorkers, 1));
+            workers = maxWorkers;
+        }
+        this.workers = workers;
+        this.executor = workers > 1
+                ? metrics.monitorExecutor(Executors.newFixedThreadPool(workers,
+                        Thread.ofPlatform().name("wms-snapshot-", 1).daemon(true).factory()), "wms.snapshot")
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    public int getWorkers() {
+        return isEnabled() ? workers : 1;
+    }
+
+    /**
+     * Wylicza i zapisuje pozycje raportu. Musi być wywołane w transakcji, w której zapisano nagłówek raportu.
+     *
+     * @param previousItems pełny stan poprzedniego raportu (itemId -> pozycja)
+     * @param changedOnly   zapisuj tylko itemy ze zmienioną ilością lub statusem (snapshot przyrostowy)
+     */
+    public Result populate(Long reportId, StatusRules statusRules, Map<Long, ReportItem> previousItems, boolean changedOnly) {
+        String snapshotId = exportSnapshot();
+        // Kopia potrzebnych pól - encje nie są przekazywane do innych wątków
+        Map<Long, Previous> previous = new HashMap<>(previousItems.size() * 2);
+        previousItems.forEach((itemId, item) -> previous.put(itemId, new Previous(item.getStatus(), item.getWarehouseValue())));
+
+        List<Future<Partition>> futures = new ArrayList<>();
+        for (long[] range : ranges()) {
+            futures.add(executor.submit(() -> readTemplate.execute(status ->
+                    read(range[0], range[1], snapshotId, statusRules, previous, changedOnly))));
+        }
+
+        int total = 0;
+        int ok = 0;
+        int low = 0;
+        int critical = 0;
+        int rows = 0;
+        LocalDateTime createdAt = LocalDateTime.now();
+        try {
+            for (Future<Partition> future : futures) {
+                Partition partition = future.get();
+                total += partition.total;
+                ok += partition.ok;
+                low += partition.low;
+                critical += partition.critical;
+                rows += write(reportId, partition.rows, createdAt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Snapshot interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Snapshot partition failed", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return new Result(total, ok, low, critical, rows);
+    }
+
+    private String exportSnapshot() {
+        if (!isPostgres()) {
+            return null;
+        }
+        return jdbcTemplate.queryForObject("SELECT pg_export_snapshot()", String.class);
+    }
+
+    /**
+     * Zakresy [od, do) równej szerokości między najmniejszym a największym id; ostatni otwarty od góry.
+     * Min/max czytane po eksporcie snapshotu - zakresy obejmują wszystko, co widzi snapshot.
+     */
+    private List<long[]> ranges() {
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(item_id) AS min_id, MAX(item_id) AS max_id FROM items");
+        List<long[]> ranges = new ArrayList<>();
+        if (bounds.get("min_id") == null) {
+            ranges.add(new long[]{Long.MIN_VALUE, Long.MAX_VALUE});
+            return ranges;
+        }
+        long min = ((Number) bounds.get("min_id")).longValue();
+        long max = ((Number) bounds.get("max_id")).longValue();
+        int partitions = workers * PARTITIONS_PER_WORKER;
+        long width = Math.max(1, (max - min + partitions) / partitions);
+        for (long from = min; from <= max; from += width) {
+            ranges.add(new long[]{from, from + width});
+        }
+        ranges.get(ranges.size() - 1)[1] = Long.MAX_VALUE;
+        return ranges;
+    }
+
+    private Partition read(long from, long to, String snapshotId, StatusRules statusRules,
+                           Map<Long, Previous> previous, boolean changedOnly) {
+        if (snapshotId != null) {
+            if (!SNAPSHOT_ID.matcher(snapshotId).matches()) {
+                throw new IllegalStateException("Unexpected snapshot id: " + snapshotId);
+            }
+            jdbcTemplate.execute("SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+        }
+        Map<Long, LocalDateTime[]> lastDates = new HashMap<>();
+        jdbcTemplate.query(LAST_DATES_SQL, rs -> {
+            lastDates.put(rs.getLong("item_id"), new LocalDateTime[]{
+                    localDateTime(rs, "last_receipt"), localDateTime(rs, "last_issue")});
+        }, TransactionType.RECEIPT.name(), TransactionType.ISSUE_TO_PRODUCTION.name(),
+                TransactionType.ISSUE_TO_SALES.name(), TransactionType.ORDER.name(), from, to);
+
+        Partition partition = new Partition();
+        jdbcTemplate.query(ITEMS_SQL, rs -> {
+            long itemId = rs.getLong("item_id");
+            long categoryId = rs.getLong("category_id");
+            Object quantityValue = rs.getObject("current_quantity");
+            Double quantity = quantityValue != null ? ((Number) quantityValue).doubleValue() : null;
+            // Brak ilości oznacza OK - jak StatusRules.evaluate(Item)
+            StockStatus status = quantity != null
+                    ? statusRules.evaluate(itemId, categoryId, quantity)
+                    : StockStatus.OK;
+            partition.count(status);
+
+            double warehouseValue = quantity != null ? quantity : 0.0;
+            Previous previousItem = previous.get(itemId);
+            if (changedOnly && previousItem != null && status.name().equals(previousItem.status)
+                    && previousItem.warehouseValue != null && previousItem.warehouseValue == warehouseValue) {
+                return;
+            }
+            int difference = previousItem == null || quantity == null || previousItem.warehouseValue == null
+                    ? 0 : (int) (quantity - previousItem.warehouseValue);
+            LocalDateTime[] dates = lastDates.getOrDefault(itemId, new LocalDateTime[2]);
+            partition.rows.add(new Row(itemId, rs.getString("name"), status.name(), dates[0], dates[1],
+                    warehouseValue, difference, rs.getString("unit"), rs.getString("qr_code")));
+        }, from, to);
+        return partition;
+    }
+
+    private int write(Long reportId, List<Row> rows, LocalDateTime createdAt) {
+        Timestamp created = Timestamp.valueOf(createdAt);
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>();
+            for (Row row : rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()))) {
+                batch.add(new Object[]{reportId, row.itemId, row.itemName, row.status,
+                        timestamp(row.lastReceiptDate), timestamp(row.lastIssueDate), row.warehouseValue,
+                        row.differenceFromPrevious, row.unit, row.qrCode, created});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+        return rows.size();
+    }
+
+    private static LocalDateTime localDateTime(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value != null ? value.toLocalDateTime() : null;
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = product != null && product.toLowerCase().contains("postgres");
+        }
+        return postgres;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public record Result(int total, int ok, int low, int critical, int rows) {
+    }
+
+    private record Previous(String status, Double warehouseValue) {
+    }
+
+    private record Row(long itemId, String itemName, String status, LocalDateTime lastReceiptDate,
+                       LocalDateTime lastIssueDate, double warehouseValue, int differenceFromPrevious,
+                       String unit, String qrCode) {
+    }
+
+    private static final class Partition {
+        private final List<Row> rows = new ArrayList<>();
+        private int total;
+        private int ok;
+        private int low;
+        private int critical;
+
+        private void count(StockStatus status) {
+            total++;
+            switch (status) {
+                case OK -> ok++;
+                case LOW -> low++;
+                case CRITICAL -> critical++;
+            }
+        }
+    }
+}
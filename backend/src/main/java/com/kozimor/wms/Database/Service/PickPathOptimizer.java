@@ -0,0 +1,255 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.LocationCode;
+import com.kozimor.wms.Database.Model.PickPathStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Kolejność odwiedzania lokacji na liście pobrań.
+ *
+ * Model magazynu: sektory kodu lokacji to równoległe alejki (kolejne sektory obok siebie),
+ * półka to pozycja w głąb alejki, rząd to poziom (nie wpływa na drogę). Alejki łączą dwa korytarze
+ * poprzeczne - z przodu (pozycja 0, tam jest też punkt startu) i z tyłu (za najdalszą półką).
+ * Odległość liczona jest po korytarzach, nie w linii prostej.
+ *
+ * Wyniki są zapamiętywane per zbiór lokacji i strategia - ta sama fala lub zamówienie liczone są raz.
+ */
+@Service
+public class PickPathOptimizer {
+
+    // Szerokość alejki wyrażona w "półkach"
+    private static final int AISLE_SPACING = 3;
+
+    private final int twoOptMaxPasses;
+    private final Map<String, PickPath> cache;
+
+    public PickPathOptimizer(@Value("${wms.picking.path-cache-size:500}") int cacheSize,
+                             @Value("${wms.picking.two-opt-max-passes:20}") int twoOptMaxPasses) {
+        this.twoOptMaxPasses = twoOptMaxPasses;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PickPath> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * @param codes kody lokacji (duplikaty są pomijane); kody spoza formatu A1-S1-R1 trafiają na koniec alfabetycznie
+     */
+    public PickPath optimize(Collection<String> codes, PickPathStrategy strategy) {
+        TreeSet<String> unique = new TreeSet<>(codes);
+        String key = strategy.name() + '|' + String.join(",", unique);
+        PickPath cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        PickPath path = compute(unique, strategy);
+        cache.put(key, path);
+        return path;
+    }
+
+    private PickPath compute(TreeSet<String> codes, PickPathStrategy strategy) {
+        List<LocationCode> parsed = new ArrayList<>();
+        List<String> unparsed = new ArrayList<>();
+        for (String code : codes) {
+            LocationCode.parse(code).ifPresentOrElse(parsed::add, () -> unparsed.add(code));
+        }
+        Layout layout = new Layout(parsed);
+
+        List<Stop> route = switch (strategy) {
+            case WALK_ORDER -> layout.stops.stream().sorted(Comparator.comparing(Stop::code)).toList();
+            case S_SHAPE -> sShape(layout);
+            case LARGEST_GAP -> largestGap(layout);
+            case TWO_OPT -> twoOpt(layout);
+        };
+
+        List<String> ordered = new ArrayList<>(codes.size());
+        route.forEach(stop -> ordered.add(stop.code.code()));
+        ordered.addAll(unparsed);
+        return new PickPath(strategy, List.copyOf(ordered), layout.tourLength(route));
+    }
+
+    private List<Stop> sShape(Layout layout) {
+        List<Stop> route = new ArrayList<>();
+        int visited = 0;
+        for (List<Stop> aisle : layout.aisles.values()) {
+            route.addAll(visited++ % 2 == 0 ? aisle : aisle.reversed());
+        }
+        return route;
+    }
+
+    /**
+     * Pierwsza i ostatnia alejka w całości; w pozostałych część przed największą przerwą zbierana
+     * od przodu, część za nią - od tyłu (w drodze tylnym korytarzem).
+     */
+    private List<Stop> largestGap(Layout layout) {
+        List<List<Stop>> aisles = new ArrayList<>(layout.aisles.values());
+        if (aisles.size() <= 1) {
+            return aisles.isEmpty() ? List.of() : aisles.get(0);
+        }
+        List<Stop> route = new ArrayList<>(aisles.get(0));
+        List<List<Stop>> frontParts = new ArrayList<>();
+        for (List<Stop> aisle : aisles.subList(1, aisles.size() - 1)) {
+            int split = largestGapSplit(aisle, layout.depth);
+            route.addAll(aisle.subList(split, aisle.size()).reversed());
+            frontParts.add(aisle.subList(0, split));
+        }
+        route.addAll(aisles.get(aisles.size() - 1).reversed());
+        for (List<Stop> front : frontParts.reversed()) {
+            route.addAll(front);
+        }
+        return route;
+    }
+
+    // Indeks pierwszego przystanku za największą przerwą (przód alejki = 0, tył = depth)
+    private static int largestGapSplit(List<Stop> aisle, int depth) {
+        int split = 0;
+        int largest = aisle.get(0).position;
+        for (int i = 1; i < aisle.size(); i++) {
+            int gap = aisle.get(i).position - aisle.get(i - 1).position;
+            if (gap > largest) {
+                largest = gap;
+                split = i;
+            }
+        }
+        if (depth - aisle.get(aisle.size() - 1).position > largest) {
+            split = aisle.size();
+        }
+        return split;
+    }
+
+    /**
+     * Najbliższy sąsiad od punktu startu, potem 2-opt na zamkniętej trasie (start = indeks 0)
+     */
+    private List<Stop> twoOpt(Layout layout) {
+        int n = layout.stops.size();
+        if (n < 3) {
+            return sShape(layout);
+        }
+        Stop[] nodes = new Stop[n + 1];
+        nodes[0] = layout.depot;
+        for (int i = 0; i < n; i++) {
+            nodes[i + 1] = layout.stops.get(i);
+        }
+        int[][] distance = new int[n + 1][n + 1];
+        for (int i = 0; i <= n; i++) {
+            for (int j = i + 1; j <= n; j++) {
+                distance[i][j] = distance[j][i] = layout.distance(nodes[i], nodes[j]);
+            }
+        }
+
+        int[] tour = new int[n + 1];
+        boolean[] used = new boolean[n + 1];
+        used[0] = true;
+        for (int i = 1; i <= n; i++) {
+            int previous = tour[i - 1];
+            int best = -1;
+            for (int candidate = 1; candidate <= n; candidate++) {
+                if (!used[candidate] && (best < 0 || distance[previous][candidate] < distance[previous][best])) {
+                    best = candidate;
+                }
+            }
+            tour[i] = best;
+            used[best] = true;
+        }
+
+        boolean improved = true;
+        for (int pass = 0; improved && pass < twoOptMaxPasses; pass++) {
+            improved = false;
+            for (int i = 1; i < n; i++) {
+                for (int k = i + 1; k <= n; k++) {
+                    int a = tour[i - 1];
+                    int b = tour[i];
+                    int c = tour[k];
+                    int d = tour[(k + 1) % (n + 1)];
+                    if (distance[a][c] + distance[b][d] < distance[a][b] + distance[c][d]) {
+                        reverse(tour, i, k);
+                        improved = true;
+                    }
+                }
+            }
+        }
+
+        List<Stop> route = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            route.add(nodes[tour[i]]);
+        }
+        return route;
+    }
+
+    private static void reverse(int[] tour, int from, int to) {
+        while (from < to) {
+            int tmp = tour[from];
+            tour[from++] = tour[to];
+            tour[to--] = tmp;
+        }
+    }
+
+    private record Stop(LocationCode code, int aisle, int position) {
+    }
+
+    /**
+     * Przystanki pogrupowane w alejki. Numer alejki to pozycja sektora wśród sektorów z pobraniami,
+     * więc przerwy w numeracji sektorów nie wydłużają trasy.
+     */
+    private static final class Layout {
+
+        private final Map<Integer, List<Stop>> aisles = new TreeMap<>();
+        private final List<Stop> stops = new ArrayList<>();
+        private final Stop depot = new Stop(null, -1, 0);
+        private final int depth;
+
+        private Layout(List<LocationCode> codes) {
+            List<Integer> sectors = codes.stream().map(LocationCode::sector).distinct().sorted().toList();
+            int maxShelf = 0;
+            for (LocationCode code : codes) {
+                Stop stop = new Stop(code, Collections.binarySearch(sectors, code.sector()), code.shelf());
+                aisles.computeIfAbsent(stop.aisle, a -> new ArrayList<>()).add(stop);
+                stops.add(stop);
+                maxShelf = Math.max(maxShelf, code.shelf());
+            }
+            depth = maxShelf + 1;
+            aisles.values().forEach(aisle -> aisle.sort(Comparator.comparing(Stop::code)));
+        }
+
+        private int distance(Stop from, Stop to) {
+            if (from.aisle == to.aisle) {
+                return Math.abs(from.position - to.position);
+            }
+            int across = Math.abs(x(from) - x(to));
+            int viaFront = from.position + to.position;
+            int viaBack = 2 * depth - from.position - to.position;
+            return across + Math.min(viaFront, viaBack);
+        }
+
+        private static int x(Stop stop) {
+            return (stop.aisle + 1) * AISLE_SPACING;
+        }
+
+        // Od punktu startu przez wszystkie przystanki i z powrotem
+        private int tourLength(List<Stop> route) {
+            int length = 0;
+            Stop previous = depot;
+            for (Stop stop : route) {
+                length += distance(previous, stop);
+                previous = stop;
+            }
+            return length + distance(previous, depot);
+        }
+    }
+
+    public record PickPath(PickPathStrategy strategy, List<String> codes, int distance) {
+    }
+}
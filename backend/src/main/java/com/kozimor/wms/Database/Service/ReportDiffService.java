@@ -0,0 +1,174 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.DTO.ReportItemDiffDTO;
+import com.kozimor.wms.Database.Model.Report;
+import com.kozimor.wms.Database.Repository.ReportRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Porównanie dwóch raportów w jednym zapytaniu (FULL OUTER JOIN po item_id) - bez ładowania pozycji
+ * do pamięci. Wiersze są przekazywane do konsumenta w trakcie czytania kursora.
+ *
+ * Snapshoty przyrostowe są odtwarzane w SQL: z bazy i delt do raportu włącznie brana jest najnowsza
+ * pozycja każdego itemu (ROW_NUMBER po report_id malejąco).
+ */
+@Service
+public class ReportDiffService {
+
+    private static final int FETCH_SIZE = 500;
+
+    // Dozwolone sortowania -> wyrażenie ORDER BY; item_id zawsze jako drugi klucz dla stabilnej kolejności
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "absDelta", "ABS(delta)",
+            "delta", "delta",
+            "itemName", "item_name",
+            "itemId", "item_id");
+
+    private final ReportRepository reportRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private volatile Boolean postgres;
+
+    public ReportDiffService(ReportRepository reportRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager) {
+        this.reportRepository = reportRepository;
+        // Własna instancja z fetch size - na PostgreSQL kursor zamiast całego wyniku w pamięci
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Sprawdza oba raporty przed rozpoczęciem strumienia - błąd ma trafić do klienta jako 404/400,
+     * a nie przerwać rozpoczętą odpowiedź.
+     */
+    public void validate(Long reportA, Long reportB, String sortBy) {
+        findReport(reportA);
+        findReport(reportB);
+        if (!SORT_COLUMNS.containsKey(sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort: " + sortBy + ", expected one of " + SORT_COLUMNS.keySet());
+        }
+    }
+
+    /**
+     * @return liczba przekazanych wierszy
+     */
+    public int diff(Long reportA, Long reportB, String sortBy, Sort.Direction direction, boolean includeUnchanged,
+                    Consumer<ReportItemDiffDTO> consumer) {
+        validate(reportA, reportB, sortBy);
+        Integer rows = transactionTemplate.execute(status -> {
+            List<Long> chainA = chain(findReport(reportA));
+            List<Long> chainB = chain(findReport(reportB));
+            List<Object> params = new ArrayList<>(chainA);
+            params.addAll(chainB);
+            int[] count = {0};
+            jdbcTemplate.query(sql(chainA.size(), chainB.size(), sortBy, direction, includeUnchanged),
+                    rs -> {
+                        consumer.accept(map(rs));
+                        count[0]++;
+                    },
+                    params.toArray());
+            return count[0];
+        });
+        return rows != null ? rows : 0;
+    }
+
+    private Report findReport(Long id) {
+        return reportRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Report not found with id: " + id));
+    }
+
+    /**
+     * Raporty, z których składa się pełny stan raportu - od najstarszego
+     */
+    private List<Long> chain(Report report) {
+        if (!report.isDelta()) {
+            return List.of(report.getId());
+        }
+        List<Long> ids = new ArrayList<>();
+        ids.add(report.getBaseReportId());
+        ids.addAll(reportRepository.findDeltaIds(report.getBaseReportId(), report.getId()));
+        return ids;
+    }
+
+    private String sql(int sizeA, int sizeB, String sortBy, Sort.Direction direction, boolean includeUnchanged) {
+        String columns = "SELECT COALESCE(a.item_id, b.item_id) AS item_id, COALESCE(b.item_name, a.item_name) AS item_name, "
+                + "a.item_id AS a_item, b.item_id AS b_item, "
+                + "a.warehouse_value AS quantity_a, b.warehouse_value AS quantity_b, "
+                + "a.status AS status_a, b.status AS status_b, "
+                + "COALESCE(b.warehouse_value, 0) - COALESCE(a.warehouse_value, 0) AS delta ";
+        // H2 (testy) nie obsługuje FULL OUTER JOIN - odpowiednik: LEFT JOIN + itemy tylko z b
+        String joined = isPostgres()
+                ? columns + "FROM a FULL OUTER JOIN b ON a.item_id = b.item_id"
+                : columns + "FROM a LEFT JOIN b ON a.item_id = b.item_id UNION ALL "
+                        + columns + "FROM b LEFT JOIN a ON a.item_id = b.item_id WHERE a.item_id IS NULL";
+        String order = SORT_COLUMNS.get(sortBy) + (direction == Sort.Direction.ASC ? " ASC" : " DESC");
+        return "WITH a AS (" + effectiveItems(sizeA) + "), b AS (" + effectiveItems(sizeB) + ") "
+                + "SELECT * FROM (" + joined + ") d"
+                + (includeUnchanged ? "" : " WHERE a_item IS NULL OR b_item IS NULL "
+                        + "OR quantity_a <> quantity_b OR status_a <> status_b")
+                + " ORDER BY " + order + ", item_id ASC";
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = product != null && product.toLowerCase().contains("postgres");
+        }
+        return postgres;
+    }
+
+    private static String effectiveItems(int reports) {
+        String placeholders = String.join(", ", Collections.nCopies(reports, "?"));
+        return "SELECT item_id, item_name, status, warehouse_value FROM ("
+                + "SELECT ri.item_id, ri.item_name, ri.status, ri.warehouse_value, "
+                + "ROW_NUMBER() OVER (PARTITION BY ri.item_id ORDER BY ri.report_id DESC) AS rn "
+                + "FROM report_items ri WHERE ri.report_id IN (" + placeholders + ")) x WHERE rn = 1";
+    }
+
+    private static ReportItemDiffDTO map(ResultSet rs) throws SQLException {
+        boolean inA = rs.getObject("a_item") != null;
+        boolean inB = rs.getObject("b_item") != null;
+        Double quantityA = inA ? rs.getDouble("quantity_a") : null;
+        Double quantityB = inB ? rs.getDouble("quantity_b") : null;
+        String statusA = rs.getString("status_a");
+        String statusB = rs.getString("status_b");
+        boolean statusChanged = inA && inB && !statusA.equals(statusB);
+        String change;
+        if (!inA) {
+            change = "ADDED";
+        } else if (!inB) {
+            change = "REMOVED";
+        } else {
+            change = statusChanged || quantityA.doubleValue() != quantityB.doubleValue() ? "CHANGED" : "UNCHANGED";
+        }
+        return ReportItemDiffDTO.builder()
+                .itemId(rs.getLong("item_id"))
+                .itemName(rs.getString("item_name"))
+                .change(change)
+                .quantityA(quantityA)
+                .quantityB(quantityB)
+                .delta(rs.getDouble("delta"))
+                .statusA(statusA)
+                .statusB(statusB)
+                .statusChanged(statusChanged)
+                .build();
+    }
+}
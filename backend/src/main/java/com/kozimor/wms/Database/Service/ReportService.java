@@ -1,10 +1,12 @@
 package com.kozimor.wms.Database.Service;
 
 import com.kozimor.wms.Database.Model.Report;
+import com.kozimor.wms.Database.Model.ReportItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface ReportService {
@@ -60,6 +62,16 @@ public interface ReportService {
     long getReportCount();
 
 
+    /**
+     * Get all items of a report; incremental snapshots are reconstructed over their base
+     */
+    List<ReportItem> getReportItems(Report report);
+
+    /**
+     * Get a keyset page of report items with item id greater than afterItemId, ordered by item id
+     */
+    List<ReportItem> getReportItemsAfter(Report report, Long afterItemId, int size);
+
     /**
      * Create a snapshot report of the current inventory state
      */
@@ -1,7 +1,9 @@
 package com.kozimor.wms.Database.Service;
 
+import com.kozimor.wms.Database.Model.DTO.JobConfigRequest;
 import com.kozimor.wms.Database.Model.ScheduleConfig;
 import com.kozimor.wms.Database.Repository.ScheduleConfigRepository;
+import org.springframework.scheduling.support.CronExpression;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +34,39 @@ public class ScheduleConfigService {
         return scheduleConfigRepository.save(config);
     }
 
+    /**
+     * Konfiguracja zadania z rejestru; przy pierwszym odczycie zapisywana z wartościami domyślnymi zadania
+     */
+    public ScheduleConfig getJobConfig(ScheduledJob job) {
+        return scheduleConfigRepository.findByConfigKey(job.name())
+                .orElseGet(() -> scheduleConfigRepository.save(ScheduleConfig.builder()
+                        .configKey(job.name())
+                        .cronExpression(job.defaultCron())
+                        .description(job.description())
+                        .enabled(true)
+                        .build()));
+    }
+
+    public ScheduleConfig updateJobConfig(ScheduledJob job, JobConfigRequest request) {
+        if (request.getCronExpression() != null && !CronExpression.isValidExpression(request.getCronExpression())) {
+            throw new IllegalArgumentException("Invalid cron expression: " + request.getCronExpression());
+        }
+        ScheduleConfig config = getJobConfig(job);
+        if (request.getCronExpression() != null) {
+            config.setCronExpression(request.getCronExpression());
+        }
+        if (request.getEnabled() != null) {
+            config.setEnabled(request.getEnabled());
+        }
+        if (request.getMaxConcurrent() != null) {
+            config.setMaxConcurrent(request.getMaxConcurrent());
+        }
+        if (request.getMisfirePolicy() != null) {
+            config.setMisfirePolicy(request.getMisfirePolicy());
+        }
+        return scheduleConfigRepository.save(config);
+    }
+
     private ScheduleConfig createDefaultConfig() {
         ScheduleConfig config = ScheduleConfig.builder()
                 .configKey("snapshot_schedule")
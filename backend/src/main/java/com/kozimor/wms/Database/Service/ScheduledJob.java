@@ -0,0 +1,46 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.JobExecution;
+import com.kozimor.wms.Database.Model.MisfirePolicy;
+
+import java.time.LocalDateTime;
+
+/**
+ * Zadanie w tle uruchamiane przez SchedulerService. Każdy bean implementujący ten interfejs trafia do rejestru;
+ * cron, włączenie, limit równoległości i polityka pominięć są w schedule_config (wartości domyślne stąd).
+ */
+public interface ScheduledJob {
+
+    /**
+     * Nazwa zadania - klucz w schedule_config, job_leases i job_executions
+     */
+    String name();
+
+    String description();
+
+    String defaultCron();
+
+    default MisfirePolicy defaultMisfirePolicy() {
+        return MisfirePolicy.SKIP;
+    }
+
+    /**
+     * true - zadanie na danych wspólnych (baza), wykonuje je jedna instancja w klastrze;
+     * false - zadanie na stanie lokalnym instancji (cache, liczniki w pamięci), wykonuje je każda
+     */
+    default boolean clusterExclusive() {
+        return true;
+    }
+
+    /**
+     * @return liczba przetworzonych wierszy (do historii i metryk)
+     */
+    long run(Context context);
+
+    /**
+     * @param lease dzierżawa dla zadań clusterExclusive, inaczej null. Zadanie może potwierdzić nią swój zapis
+     *              (JobLeaseService.complete w tej samej transakcji), żeby wynik instancji, która ją straciła, był odrzucony.
+     */
+    record Context(String jobName, LocalDateTime fireTime, JobExecution.Trigger trigger, JobLeaseService.Lease lease) {
+    }
+}
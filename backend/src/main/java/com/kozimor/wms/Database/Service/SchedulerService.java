@@ -1,84 +1,455 @@
 package com.kozimor.wms.Database.Service;
 
-import com.kozimor.wms.Database.Model.Report;
-import com.kozimor.wms.Database.Model.User;
-import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Config.WmsMetrics;
+import com.kozimor.wms.Database.Model.DTO.JobConfigRequest;
+import com.kozimor.wms.Database.Model.DTO.JobDTO;
+import com.kozimor.wms.Database.Model.DTO.JobExecutionDTO;
+import com.kozimor.wms.Database.Model.JobExecution;
+import com.kozimor.wms.Database.Model.MisfirePolicy;
+import com.kozimor.wms.Database.Model.ScheduleConfig;
+import com.kozimor.wms.Database.Repository.JobExecutionRepository;
+import com.kozimor.wms.Database.Service.Jobs.SnapshotJob;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.TaskScheduler;
-import org.springframework.scheduling.support.CronTrigger;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.scheduling.support.CronExpression;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Rejestr i harmonogram zadań w tle - wszystkie beany {@link ScheduledJob}.
+ *
+ * Cron odpala się na wspólnym TaskSchedulerze, a samo zadanie wykonuje się na osobnej puli z metrykami
+ * (executor.* z nazwą wms.jobs), więc długi snapshot nie blokuje wątków harmonogramu. Na jednej instancji
+ * działa najwyżej maxConcurrent uruchomień zadania; zadania clusterExclusive dodatkowo przechodzą przez
+ * dzierżawę (JobLeaseService) - jedno uruchomienie w klastrze. Każde uruchomienie trafia do job_executions.
+ *
+ * Pominięte uruchomienie (limit wyczerpany albo aplikacja nie działała w zaplanowanym czasie) obsługuje
+ * polityka zadania: SKIP zapisuje je jako SKIPPED, RUN_ONCE wykonuje je raz - po zakończeniu bieżącego
+ * uruchomienia albo przy starcie aplikacji.
+ */
 @Service
 public class SchedulerService {
 
     private static final Logger logger = LoggerFactory.getLogger(SchedulerService.class);
-    private final ReportService reportService;
-    private final UserRepository userRepository;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final List<JobExecution.Trigger> CRON_TRIGGERS =
+            List.of(JobExecution.Trigger.SCHEDULED, JobExecution.Trigger.MISFIRE);
+    // Ograniczenie przeszukiwania crona przy starcie (cron co sekundę i długi przestój)
+    private static final int MAX_MISFIRE_SCAN = 100_000;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final Map<String, ScheduledJob> jobs = new LinkedHashMap<>();
+    private final Map<String, JobState> states = new ConcurrentHashMap<>();
+    private final ReentrantLock scheduleLock = new ReentrantLock();
     private final ScheduleConfigService scheduleConfigService;
     private final TaskScheduler taskScheduler;
-    private ScheduledFuture<?> scheduledTask;
-
-    public SchedulerService(ReportService reportService, 
-                          UserRepository userRepository,
-                          ScheduleConfigService scheduleConfigService,
-                          TaskScheduler taskScheduler) {
-        this.reportService = reportService;
-        this.userRepository = userRepository;
+    private final JobLeaseService jobLeaseService;
+    private final JobExecutionRepository jobExecutionRepository;
+    private final WmsMetrics metrics;
+    private final ExecutorService executor;
+
+    public SchedulerService(List<ScheduledJob> jobs,
+                            ScheduleConfigService scheduleConfigService,
+                            TaskScheduler taskScheduler,
+                            JobLeaseService jobLeaseService,
+                            JobExecutionRepository jobExecutionRepository,
+                            WmsMetrics metrics,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                            @Value("${wms.jobs.pool-size:4}") int poolSize) {
+        jobs.stream().sorted(Comparator.comparing(ScheduledJob::name)).forEach(job -> this.jobs.put(job.name(), job));
         this.scheduleConfigService = scheduleConfigService;
         this.taskScheduler = taskScheduler;
+        this.jobLeaseService = jobLeaseService;
+        this.jobExecutionRepository = jobExecutionRepository;
+        this.metrics = metrics;
+        ExecutorService pool = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("wms-job-", 0).factory())
+                : Executors.newFixedThreadPool(poolSize, Thread.ofPlatform().name("wms-job-", 0).daemon(true).factory());
+        this.executor = metrics.monitorExecutor(pool, "wms.jobs");
     }
 
     @EventListener(ApplicationReadyEvent.class)
-    public void scheduleSnapshot() {
-        rescheduleSnapshot();
+    public void scheduleAll() {
+        for (ScheduledJob job : jobs.values()) {
+            try {
+                reschedule(job.name());
+                runMissedExecution(job);
+            } catch (Exception e) {
+                logger.error("Failed to schedule job {}", job.name(), e);
+            }
+        }
     }
 
     public void rescheduleSnapshot() {
-        if (scheduledTask != null) {
-            scheduledTask.cancel(false);
+        reschedule(SnapshotJob.NAME);
+    }
+
+    public void reschedule(String name) {
+        ScheduledJob job = getRegisteredJob(name);
+        ScheduleConfig config = scheduleConfigService.getJobConfig(job);
+        CronExpression cron = CronExpression.parse(config.getCronExpression());
+
+        scheduleLock.lock();
+        try {
+            JobState state = states.computeIfAbsent(name, n -> new JobState());
+            if (state.future != null) {
+                state.future.cancel(false);
+            }
+            state.permits.resize(maxConcurrent(config));
+            state.cron = cron;
+            scheduleNext(job, state, cron, ZonedDateTime.now());
+        } finally {
+            scheduleLock.unlock();
+        }
+        logger.info("Job {} scheduled with cron: {}", name, config.getCronExpression());
+    }
+
+    /**
+     * Planuje jedno uruchomienie; kolejne jest planowane dopiero w chwili jego odpalenia.
+     * Zaplanowany czas z crona (ten sam na każdej instancji, identyfikuje uruchomienie w dzierżawie) jest
+     * w domknięciu zadania - harmonogram z wątkami wirtualnymi wylicza następny czas, zanim zadanie
+     * zdąży odczytać wspólną zmienną, więc czas nie może być przekazywany przez Trigger.
+     */
+    private void scheduleNext(ScheduledJob job, JobState state, CronExpression cron, ZonedDateTime after) {
+        ZonedDateTime fireTime = cron.next(after);
+        if (fireTime == null) {
+            state.future = null;
+            return;
+        }
+        state.future = taskScheduler.schedule(() -> {
+            scheduleLock.lock();
+            try {
+                // Przeplanowane w międzyczasie - to uruchomienie należy do poprzedniego crona
+                if (state.cron != cron) {
+                    return;
+                }
+                ZonedDateTime now = ZonedDateTime.now();
+                scheduleNext(job, state, cron, now.isAfter(fireTime) ? now : fireTime);
+            } finally {
+                scheduleLock.unlock();
+            }
+            fire(job, fireTime.toLocalDateTime(), JobExecution.Trigger.SCHEDULED);
+        }, fireTime.toInstant());
+    }
+
+    /**
+     * Ręczne uruchomienie (niezależnie od flagi enabled). Wykonuje się w tle.
+     * Zadanie clusterExclusive przejmuje dzierżawę od razu, bez czasu z crona - zaplanowane uruchomienia
+     * nie są przez nie oznaczane jako wykonane.
+     *
+     * @throws IllegalStateException gdy limit równoległych uruchomień na tej instancji jest wyczerpany
+     *                               albo zadanie wykonuje się na innej instancji
+     */
+    public void trigger(String name) {
+        ScheduledJob job = getRegisteredJob(name);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        JobState state = states.computeIfAbsent(name, n -> new JobState());
+        if (!state.permits.tryAcquire()) {
+            throw new IllegalStateException("Job " + name + " is already running");
+        }
+        JobLeaseService.Lease lease = null;
+        if (job.clusterExclusive()) {
+            try {
+                lease = jobLeaseService.tryAcquireManual(name).orElse(null);
+            } catch (RuntimeException e) {
+                state.permits.release();
+                throw e;
+            }
+            if (lease == null) {
+                state.permits.release();
+                throw new IllegalStateException("Job " + name + " is running on another node");
+            }
         }
+        submit(job, state, now, JobExecution.Trigger.MANUAL, lease);
+    }
+
+    public JobDTO updateJob(String name, JobConfigRequest request) {
+        scheduleConfigService.updateJobConfig(getRegisteredJob(name), request);
+        reschedule(name);
+        return getJob(name);
+    }
+
+    public List<JobDTO> getJobs() {
+        return jobs.keySet().stream().map(this::getJob).toList();
+    }
 
-        String cronExpression = scheduleConfigService.getSnapshotConfig().getCronExpression();
-        scheduledTask = taskScheduler.schedule(
-                this::weeklySnapshot,
-                new CronTrigger(cronExpression)
-        );
-        logger.info("Snapshot scheduled with cron: {}", cronExpression);
+    public JobDTO getJob(String name) {
+        ScheduledJob job = getRegisteredJob(name);
+        ScheduleConfig config = scheduleConfigService.getJobConfig(job);
+        JobState state = states.get(name);
+        LocalDateTime next = Boolean.TRUE.equals(config.getEnabled())
+                ? CronExpression.parse(config.getCronExpression()).next(LocalDateTime.now())
+                : null;
+        return JobDTO.builder()
+                .name(name)
+                .description(config.getDescription() != null ? config.getDescription() : job.description())
+                .cronExpression(config.getCronExpression())
+                .enabled(config.getEnabled())
+                .maxConcurrent(maxConcurrent(config))
+                .misfirePolicy(misfirePolicy(job, config).name())
+                .clusterExclusive(job.clusterExclusive())
+                .running(state != null ? state.permits.running() : 0)
+                .nextFireTime(format(next))
+                .lastExecution(jobExecutionRepository.findFirstByJobNameOrderByStartedAtDesc(name)
+                        .map(SchedulerService::toDTO)
+                        .orElse(null))
+                .build();
     }
 
-    private void weeklySnapshot() {
+    public Page<JobExecutionDTO> getExecutions(String name, int page, int size) {
+        getRegisteredJob(name);
+        if (page < 0 || size < 1 || size > 500) {
+            throw new IllegalArgumentException("Invalid page or size");
+        }
+        return jobExecutionRepository.findByJobNameOrderByStartedAtDesc(name, PageRequest.of(page, size))
+                .map(SchedulerService::toDTO);
+    }
+
+    private void fire(ScheduledJob job, LocalDateTime fireTime, JobExecution.Trigger trigger) {
         try {
-            if (scheduleConfigService.getSnapshotConfig().getEnabled()) {
-                setSystemUser();
-                Report snapshot = reportService.createSnapshot();
-                logger.info("Weekly snapshot created successfully. Report ID: {}", snapshot.getId());
+            ScheduleConfig config = scheduleConfigService.getJobConfig(job);
+            if (!Boolean.TRUE.equals(config.getEnabled()) || start(job, fireTime, trigger)) {
+                return;
+            }
+            if (misfirePolicy(job, config) == MisfirePolicy.RUN_ONCE) {
+                // Kolejne pominięcia w trakcie tego samego uruchomienia skleja się w jedno
+                states.get(job.name()).pending.set(fireTime);
+                logger.info("Job {} ({}) is still running, will run once after it finishes", job.name(), fireTime);
+            } else {
+                recordSkipped(job, fireTime, trigger);
             }
         } catch (Exception e) {
-            logger.error("Error creating weekly snapshot", e);
+            logger.error("Failed to start job {} ({})", job.name(), fireTime, e);
         }
     }
 
-    private void setSystemUser() {
-        User systemUser = userRepository.findByUsername("system")
-                .orElseGet(() -> {
-                    User newSystemUser = new User();
-                    newSystemUser.setUsername("system");
-                    newSystemUser.setEmail("system@wms.local");
-                    newSystemUser.setPassword("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcg7b3XeKeUxWdeS86E36P4/tzO");
-                    newSystemUser.setFirstName("System");
-                    newSystemUser.setLastName("Service");
-                    return userRepository.save(newSystemUser);
-                });
+    /**
+     * @return false, gdy limit równoległych uruchomień na tej instancji jest wyczerpany
+     */
+    private boolean start(ScheduledJob job, LocalDateTime fireTime, JobExecution.Trigger trigger) {
+        JobState state = states.computeIfAbsent(job.name(), n -> new JobState());
+        if (!state.permits.tryAcquire()) {
+            return false;
+        }
+        submit(job, state, fireTime, trigger, null);
+        return true;
+    }
 
-        Authentication auth = new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
-                systemUser.getUsername(), null, null);
-        SecurityContextHolder.getContext().setAuthentication(auth);
+    /**
+     * Wykonanie w tle uruchomienia, które ma już pozwolenie z state.permits
+     */
+    private void submit(ScheduledJob job, JobState state, LocalDateTime fireTime, JobExecution.Trigger trigger,
+                        JobLeaseService.Lease lease) {
+        executor.execute(() -> {
+            try {
+                execute(job, fireTime, trigger, lease);
+            } finally {
+                state.permits.release();
+                LocalDateTime pending = state.pending.getAndSet(null);
+                if (pending != null) {
+                    fire(job, pending, JobExecution.Trigger.MISFIRE);
+                }
+            }
+        });
+    }
+
+    private void execute(ScheduledJob job, LocalDateTime fireTime, JobExecution.Trigger trigger,
+                         JobLeaseService.Lease lease) {
+        if (lease != null) {
+            jobLeaseService.run(lease,
+                    held -> runAndRecord(job, new ScheduledJob.Context(job.name(), fireTime, trigger, held)));
+        } else if (job.clusterExclusive()) {
+            jobLeaseService.runExclusive(job.name(), fireTime,
+                    held -> runAndRecord(job, new ScheduledJob.Context(job.name(), fireTime, trigger, held)));
+        } else {
+            runAndRecord(job, new ScheduledJob.Context(job.name(), fireTime, trigger, null));
+        }
+    }
+
+    private void runAndRecord(ScheduledJob job, ScheduledJob.Context context) {
+        JobExecution execution = jobExecutionRepository.save(JobExecution.builder()
+                .jobName(job.name())
+                .trigger(context.trigger())
+                .fireTime(context.fireTime())
+                .startedAt(LocalDateTime.now())
+                .status(JobExecution.Status.RUNNING)
+                .node(jobLeaseService.getNodeId())
+                .build());
+        long start = System.nanoTime();
+        JobExecution.Status status = JobExecution.Status.SUCCEEDED;
+        long rows = 0;
+        try {
+            rows = job.run(context);
+        } catch (JobLeaseService.LeaseLostException e) {
+            status = JobExecution.Status.FAILED;
+            execution.setErrorMessage(truncate(e.getMessage()));
+            // Dzierżawa należy do innej instancji - nie oznaczamy uruchomienia jako zakończonego
+            throw e;
+        } catch (RuntimeException e) {
+            status = JobExecution.Status.FAILED;
+            execution.setErrorMessage(truncate(e.getMessage()));
+            logger.error("Job {} ({}) failed", job.name(), context.fireTime(), e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            execution.setFinishedAt(LocalDateTime.now());
+            execution.setDurationMs(elapsed / 1_000_000);
+            execution.setRowsProcessed(rows);
+            execution.setStatus(status);
+            jobExecutionRepository.save(execution);
+            metrics.recordJobExecution(job.name(), status.name(), rows, elapsed);
+        }
+    }
+
+    private void recordSkipped(ScheduledJob job, LocalDateTime fireTime, JobExecution.Trigger trigger) {
+        LocalDateTime now = LocalDateTime.now();
+        jobExecutionRepository.save(JobExecution.builder()
+                .jobName(job.name())
+                .trigger(trigger)
+                .fireTime(fireTime)
+                .startedAt(now)
+                .finishedAt(now)
+                .durationMs(0L)
+                .rowsProcessed(0L)
+                .status(JobExecution.Status.SKIPPED)
+                .node(jobLeaseService.getNodeId())
+                .build());
+        metrics.recordJobExecution(job.name(), JobExecution.Status.SKIPPED.name(), 0, 0);
+        logger.info("Job {} ({}) skipped - previous run still in progress", job.name(), fireTime);
+    }
+
+    /**
+     * Przy starcie: jeśli od ostatniego uruchomienia z crona minął co najmniej jeden zaplanowany czas,
+     * zadanie z polityką RUN_ONCE wykonuje się raz dla ostatniego z nich. Zadanie bez historii nie jest nadrabiane.
+     */
+    private void runMissedExecution(ScheduledJob job) {
+        ScheduleConfig config = scheduleConfigService.getJobConfig(job);
+        if (!Boolean.TRUE.equals(config.getEnabled()) || misfirePolicy(job, config) != MisfirePolicy.RUN_ONCE) {
+            return;
+        }
+        LocalDateTime last = jobExecutionRepository.findLastFireTime(job.name(), CRON_TRIGGERS);
+        if (last == null) {
+            return;
+        }
+        CronExpression cron = CronExpression.parse(config.getCronExpression());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime missed = null;
+        LocalDateTime next = cron.next(last);
+        for (int i = 0; next != null && !next.isAfter(now) && i < MAX_MISFIRE_SCAN; i++) {
+            missed = next;
+            next = cron.next(next);
+        }
+        if (missed != null) {
+            logger.info("Job {} missed its run at {}, running it once", job.name(), missed);
+            fire(job, missed, JobExecution.Trigger.MISFIRE);
+        }
+    }
+
+    private ScheduledJob getRegisteredJob(String name) {
+        ScheduledJob job = jobs.get(name);
+        if (job == null) {
+            throw new EntityNotFoundException("Job not found: " + name);
+        }
+        return job;
+    }
+
+    private static int maxConcurrent(ScheduleConfig config) {
+        return config.getMaxConcurrent() != null ? config.getMaxConcurrent() : 1;
+    }
+
+    private static MisfirePolicy misfirePolicy(ScheduledJob job, ScheduleConfig config) {
+        return config.getMisfirePolicy() != null ? config.getMisfirePolicy() : job.defaultMisfirePolicy();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private static String format(LocalDateTime time) {
+        return time != null ? time.format(FORMATTER) : null;
+    }
+
+    private static JobExecutionDTO toDTO(JobExecution execution) {
+        return JobExecutionDTO.builder()
+                .id(execution.getId())
+                .jobName(execution.getJobName())
+                .trigger(execution.getTrigger().name())
+                .fireTime(format(execution.getFireTime()))
+                .startedAt(format(execution.getStartedAt()))
+                .finishedAt(format(execution.getFinishedAt()))
+                .durationMs(execution.getDurationMs())
+                .rowsProcessed(execution.getRowsProcessed())
+                .status(execution.getStatus().name())
+                .node(execution.getNode())
+                .errorMessage(execution.getErrorMessage())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        states.values().forEach(state -> {
+            if (state.future != null) {
+                state.future.cancel(false);
+            }
+        });
+        executor.shutdown();
+    }
+
+    private static final class JobState {
+        private volatile ScheduledFuture<?> future;
+        private volatile CronExpression cron;
+        private final JobPermits permits = new JobPermits();
+        private final AtomicReference<LocalDateTime> pending = new AtomicReference<>();
+    }
+
+    /**
+     * Limit równoległych uruchomień zmieniany w miejscu - trwające uruchomienia oddają pozwolenia do tego
+     * samego semafora, więc po zmniejszeniu limitu nowe startują dopiero, gdy liczba trwających spadnie poniżej niego
+     */
+    private static final class JobPermits extends Semaphore {
+
+        private int limit = 1;
+
+        private JobPermits() {
+            super(1);
+        }
+
+        private synchronized void resize(int newLimit) {
+            if (newLimit > limit) {
+                release(newLimit - limit);
+            } else if (newLimit < limit) {
+                reducePermits(limit - newLimit);
+            }
+            limit = newLimit;
+        }
+
+        private synchronized int running() {
+            return limit - availablePermits();
+        }
     }
 }
@@ -2,6 +2,7 @@ package com.kozimor.wms.Database.Service.ServiceImpl;
 
 import com.kozimor.wms.Database.Model.Category;
 import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Service.EntityCounterService;
 import com.kozimor.wms.Database.Service.CategoryService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
@@ -16,10 +17,12 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final com.kozimor.wms.Database.Repository.ItemRepository itemRepository;
+    private final EntityCounterService entityCounterService;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository, com.kozimor.wms.Database.Repository.ItemRepository itemRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository, com.kozimor.wms.Database.Repository.ItemRepository itemRepository, EntityCounterService entityCounterService) {
         this.categoryRepository = categoryRepository;
         this.itemRepository = itemRepository;
+        this.entityCounterService = entityCounterService;
     }
 
     @Override
@@ -71,6 +74,6 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public long getCategoryCount() {
-        return categoryRepository.count();
+        return entityCounterService.count(Category.class);
     }
 }
\ No newline at end of file
@@ -1,23 +1,28 @@
 package com.kozimor.wms.Database.Service.ServiceImpl;
 
+import com.kozimor.wms.Config.WmsMetrics;
 import com.kozimor.wms.Database.Model.Item;
 import com.kozimor.wms.Database.Model.Keyword;
 import com.kozimor.wms.Database.Model.DTO.ItemDTO;
+import com.kozimor.wms.Database.Model.DTO.StockEventDTO;
 import com.kozimor.wms.Database.Model.ItemType;
 import com.kozimor.wms.Database.Model.UnitType;
 import com.kozimor.wms.Database.Model.InventoryLocation;
 import com.kozimor.wms.Database.Model.Location;
 import com.kozimor.wms.Database.Repository.ItemRepository;
 import com.kozimor.wms.Database.Repository.KeywordRepository;
+import com.kozimor.wms.Database.Service.EntityCounterService;
 import com.kozimor.wms.Database.Service.ItemService;
 import jakarta.persistence.EntityNotFoundException;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
@@ -32,12 +37,21 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
     private final KeywordRepository keywordRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityCounterService entityCounterService;
+    private final WmsMetrics wmsMetrics;
     @Value("${app.qr.base-url}")
     private String qrBaseUrl;
 
-    public ItemServiceImpl(ItemRepository itemRepository, KeywordRepository keywordRepository) {
+    public ItemServiceImpl(ItemRepository itemRepository, KeywordRepository keywordRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           EntityCounterService entityCounterService,
+                           WmsMetrics wmsMetrics) {
         this.itemRepository = itemRepository;
         this.keywordRepository = keywordRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityCounterService = entityCounterService;
+        this.wmsMetrics = wmsMetrics;
     }
 
     @Override
@@ -58,7 +72,9 @@ public class ItemServiceImpl implements ItemService {
         }
         Item saved = itemRepository.save(item);
         saved.setQrCode(buildQrUrl(saved));
-        return itemRepository.save(saved);
+        Item result = itemRepository.save(saved);
+        publishItemEvent(StockEventDTO.EventType.ITEM_CREATED, result.getId(), result.getCurrentQuantity());
+        return result;
     }
 
     @Override
@@ -107,7 +123,9 @@ public class ItemServiceImpl implements ItemService {
             item.setKeywords(resolved);
         }
 
-        return itemRepository.save(item);
+        Item result = itemRepository.save(item);
+        publishItemEvent(StockEventDTO.EventType.ITEM_UPDATED, id, result.getCurrentQuantity());
+        return result;
     }
 
     @Override
@@ -116,7 +134,9 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new EntityNotFoundException("Item not found with id: " + id));
 
         item.setCurrentQuantity(quantity);
-        return itemRepository.save(item);
+        Item result = itemRepository.save(item);
+        publishItemEvent(StockEventDTO.EventType.ITEM_UPDATED, id, quantity);
+        return result;
     }
 
     @Override
@@ -125,11 +145,22 @@ public class ItemServiceImpl implements ItemService {
             throw new EntityNotFoundException("Item not found with id: " + id);
         }
         itemRepository.deleteById(id);
+        publishItemEvent(StockEventDTO.EventType.ITEM_DELETED, id, null);
+    }
+
+    private void publishItemEvent(StockEventDTO.EventType type, Long itemId, Double currentQuantity) {
+        eventPublisher.publishEvent(StockEventDTO.builder()
+                .type(type)
+                .entityId(itemId)
+                .itemId(itemId)
+                .currentQuantity(currentQuantity)
+                .occurredAt(OffsetDateTime.now())
+                .build());
     }
 
     @Override
     public long getItemCount() {
-        return itemRepository.count();
+        return entityCounterService.count(Item.class);
     }
 
     public Page<ItemDTO> getItemsPaginated(int page, int size) {
@@ -213,6 +244,7 @@ public class ItemServiceImpl implements ItemService {
             int page,
             int size) {
         
+        long start = System.nanoTime();
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
         PageRequest pageable = PageRequest.of(page, size);
         
@@ -254,7 +286,7 @@ public class ItemServiceImpl implements ItemService {
         );
         
         // Convert to DTO
-        return results.map(item -> {
+        Page<ItemDTO> mapped = results.map(item -> {
             ItemDTO dto = new ItemDTO();
             dto.setId(item.getId());
             dto.setName(item.getName());
@@ -287,6 +319,23 @@ public class ItemServiceImpl implements ItemService {
             
             return dto;
         });
+        wmsMetrics.recordSearch(searchFilters(type, categoryId, unitEnum, minQuantity, maxQuantity, keywordsPattern),
+                System.nanoTime() - start);
+        return mapped;
+    }
+
+    /**
+     * Tag metryki - kombinacja podanych filtrów, np. "type+quantity"
+     */
+    private static String searchFilters(ItemType type, Long categoryId, UnitType unit,
+                                        Integer minQuantity, Integer maxQuantity, String keywords) {
+        java.util.StringJoiner filters = new java.util.StringJoiner("+");
+        if (type != null) filters.add("type");
+        if (categoryId != null) filters.add("category");
+        if (unit != null) filters.add("unit");
+        if (minQuantity != null || maxQuantity != null) filters.add("quantity");
+        if (keywords != null) filters.add("keywords");
+        return filters.length() == 0 ? "none" : filters.toString();
     }
 
     @Override
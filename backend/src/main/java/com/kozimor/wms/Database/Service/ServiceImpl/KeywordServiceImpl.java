@@ -3,6 +3,7 @@ package com.kozimor.wms.Database.Service.ServiceImpl;
 import com.kozimor.wms.Database.Model.Keyword;
 import com.kozimor.wms.Database.Repository.KeywordRepository;
 import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Service.EntityCounterService;
 import com.kozimor.wms.Database.Service.KeywordService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
@@ -17,10 +18,12 @@ public class KeywordServiceImpl implements KeywordService {
 
     private final KeywordRepository keywordRepository;
     private final ItemRepository itemRepository;
+    private final EntityCounterService entityCounterService;
 
-    public KeywordServiceImpl(KeywordRepository keywordRepository, ItemRepository itemRepository) {
+    public KeywordServiceImpl(KeywordRepository keywordRepository, ItemRepository itemRepository, EntityCounterService entityCounterService) {
         this.keywordRepository = keywordRepository;
         this.itemRepository = itemRepository;
+        this.entityCounterService = entityCounterService;
     }
 
     @Override
@@ -72,7 +75,7 @@ public class KeywordServiceImpl implements KeywordService {
     @Override
     @Transactional(readOnly = true)
     public long getKeywordCount() {
-        return keywordRepository.count();
+        return entityCounterService.count(Keyword.class);
     }
 
     @Override
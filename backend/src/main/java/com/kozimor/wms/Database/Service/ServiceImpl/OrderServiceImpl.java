@@ -1,15 +1,31 @@
 package com.kozimor.wms.Database.Service.ServiceImpl;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.kozimor.wms.Config.WmsMetrics;
+import com.kozimor.wms.Database.Model.AllocationPolicy;
+import com.kozimor.wms.Database.Model.EntityChangedEvent;
 import com.kozimor.wms.Database.Model.Order;
 import com.kozimor.wms.Database.Model.OrderLine;
 import com.kozimor.wms.Database.Model.OrderStatusHistory;
@@ -18,17 +34,24 @@ import com.kozimor.wms.Database.Model.User;
 import com.kozimor.wms.Database.Model.Item;
 import com.kozimor.wms.Database.Model.Transaction;
 import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Model.UnitType;
 import com.kozimor.wms.Database.Model.InventoryLocation;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.DTO.BulkOrderStatusResultDTO;
 import com.kozimor.wms.Database.Model.DTO.OrderDTO;
 import com.kozimor.wms.Database.Model.DTO.OrderLineDTO;
 import com.kozimor.wms.Database.Model.DTO.OrderStatusHistoryDTO;
+import com.kozimor.wms.Database.Model.DTO.StockEventDTO;
 import com.kozimor.wms.Database.Repository.OrderRepository;
 import com.kozimor.wms.Database.Repository.OrderLineRepository;
 import com.kozimor.wms.Database.Repository.OrderStatusHistoryRepository;
 import com.kozimor.wms.Database.Repository.UserRepository;
 import com.kozimor.wms.Database.Repository.ItemRepository;
 import com.kozimor.wms.Database.Repository.InventoryLocationRepository;
+import com.kozimor.wms.Database.Repository.TransactionRepository;
+import com.kozimor.wms.Database.Service.EntityCounterService;
 import com.kozimor.wms.Database.Service.OrderService;
+import com.kozimor.wms.Database.Service.StockAllocator;
 import com.kozimor.wms.Database.Service.TransactionService;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -37,6 +60,10 @@ import jakarta.persistence.EntityNotFoundException;
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    // Limit parametrów w klauzuli IN
+    private static final int ID_CHUNK = 1_000;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final OrderRepository orderRepository;
     private final OrderLineRepository orderLineRepository;
     private final OrderStatusHistoryRepository orderStatusHistoryRepository;
@@ -44,6 +71,12 @@ public class OrderServiceImpl implements OrderService {
     private final ItemRepository itemRepository;
     private final InventoryLocationRepository inventoryLocationRepository;
     private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final StockAllocator stockAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityCounterService entityCounterService;
+    private final WmsMetrics wmsMetrics;
+    private final JdbcTemplate jdbcTemplate;
 
     public OrderServiceImpl(OrderRepository orderRepository,
                           OrderLineRepository orderLineRepository,
@@ -51,7 +84,13 @@ public class OrderServiceImpl implements OrderService {
                           UserRepository userRepository,
                           ItemRepository itemRepository,
                           InventoryLocationRepository inventoryLocationRepository,
-                          TransactionService transactionService) {
+                          TransactionService transactionService,
+                          TransactionRepository transactionRepository,
+                          StockAllocator stockAllocator,
+                          ApplicationEventPublisher eventPublisher,
+                          EntityCounterService entityCounterService,
+                          WmsMetrics wmsMetrics,
+                          JdbcTemplate jdbcTemplate) {
         this.orderRepository = orderRepository;
         this.orderLineRepository = orderLineRepository;
         this.orderStatusHistoryRepository = orderStatusHistoryRepository;
@@ -59,10 +98,31 @@ public class OrderServiceImpl implements OrderService {
         this.itemRepository = itemRepository;
         this.inventoryLocationRepository = inventoryLocationRepository;
         this.transactionService = transactionService;
+        this.transactionRepository = transactionRepository;
+        this.stockAllocator = stockAllocator;
+        this.eventPublisher = eventPublisher;
+        this.entityCounterService = entityCounterService;
+        this.wmsMetrics = wmsMetrics;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
     public OrderDTO createOrder(OrderDTO orderDTO, Long userId) {
+        return createOrder(orderDTO, userId, null, false);
+    }
+
+    @Override
+    public OrderDTO createOrder(OrderDTO orderDTO, Long userId, AllocationPolicy allocationPolicy) {
+        return createOrder(orderDTO, userId, allocationPolicy, false);
+    }
+
+    /**
+     * @param allowBackorder brak w saldach lokacji zostaje na linii jako zaległość (fulfilBackorders);
+     *                       bez tego zamówienie z brakiem jest odrzucane w całości
+     */
+    @Override
+    public OrderDTO createOrder(OrderDTO orderDTO, Long userId, AllocationPolicy allocationPolicy, boolean allowBackorder) {
+        long start = System.nanoTime();
         // Walidacja
         if (orderDTO.getOrderLines() == null || orderDTO.getOrderLines().isEmpty()) {
             throw new IllegalArgumentException("Order must contain at least one order line");
@@ -80,44 +140,66 @@ public class OrderServiceImpl implements OrderService {
 
         Order savedOrder = orderRepository.save(order);
 
+        // Wszystkie itemy i ich lokacje dwoma zapytaniami IN zamiast kilku zapytań na linię
+        Set<Long> itemIds = orderDTO.getOrderLines().stream()
+                .map(OrderLineDTO::getItemId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Item> items = itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, Location> primaryLocations = new HashMap<>();
+        StockAllocator.Snapshot snapshot = loadAllocationSnapshot(itemIds, allocationPolicy, primaryLocations);
+
         // Tworzenie linii zamówienia i transakcji
+        List<OrderLine> orderLines = new ArrayList<>(orderDTO.getOrderLines().size());
+        List<Transaction> transactions = new ArrayList<>(orderDTO.getOrderLines().size());
         for (OrderLineDTO lineDTO : orderDTO.getOrderLines()) {
-            Item item = itemRepository.findById(lineDTO.getItemId())
-                    .orElseThrow(() -> new EntityNotFoundException("Item not found with id: " + lineDTO.getItemId()));
-
-            OrderLine orderLine = new OrderLine();
-            orderLine.setOrder(savedOrder);
-            orderLine.setItem(item);
-            orderLine.setQuantity(lineDTO.getQuantity());
-
-            OrderLine savedOrderLine = orderLineRepository.save(orderLine);
+            Item item = items.get(lineDTO.getItemId());
+            if (item == null) {
+                throw new EntityNotFoundException("Item not found with id: " + lineDTO.getItemId());
+            }
 
             // Pobierz lokację itemu (musi być przypisana)
-            java.util.List<InventoryLocation> itemLocations = inventoryLocationRepository.findAllByItem(item);
-            if (itemLocations.isEmpty()) {
+            Location location = primaryLocations.get(item.getId());
+            if (location == null) {
                 throw new IllegalArgumentException("Item '" + item.getName() + "' nie ma przypisanej lokacji. Nie można utworzyć zamówienia.");
             }
             
-            // Tworzenie transakcji do aktualizacji stanu produktu
-            Transaction transaction = new Transaction();
-            transaction.setTransactionType(TransactionType.ORDER);
-            transaction.setItem(item);
-            transaction.setQuantity(lineDTO.getQuantity());
-            transaction.setUser(user);
-            transaction.setTransactionStatus(TransactionStatus.PENDING);
-            transaction.setDescription("Order #" + savedOrder.getOrderNumber());
-            
-            // Ustaw lokację (wybierz pierwszą/główną lokację itemu)
-            transaction.setLocation(itemLocations.get(0).getLocation());
+            if (lineDTO.getQuantity() == null || lineDTO.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be greater than 0");
+            }
 
-            // Używamy TransactionService które automatycznie aktualizuje ilość
-            Transaction savedTransaction = transactionService.createTransaction(transaction);
+            // Jedna transakcja ORDER na każdą lokację, z której linia jest wydawana
+            List<Transaction> lineTransactions = new ArrayList<>();
+            StockAllocator.Result allocation = stockAllocator.allocate(snapshot, item.getId(), lineDTO.getQuantity());
+            if (allocation.isPartial() && !allowBackorder) {
+                wmsMetrics.recordInsufficientStock(TransactionType.ORDER);
+                throw new IllegalArgumentException("Insufficient quantity in locations of item '" + item.getName()
+                        + "'. Available: " + allocation.allocated() + ", Requested: " + lineDTO.getQuantity());
+            }
+            for (StockAllocator.Allocation allocated : allocation.allocations()) {
+                lineTransactions.add(orderTransaction(item, allocated.location(), allocated.quantity(), user, savedOrder));
+            }
+            transactions.addAll(lineTransactions);
 
-            // Powiązanie OrderLine z Transaction
-            savedOrderLine.setTransaction(savedTransaction);
-            orderLineRepository.save(savedOrderLine);
+            OrderLine orderLine = new OrderLine();
+            orderLine.setOrder(savedOrder);
+            orderLine.setItem(item);
+            orderLine.setQuantity(lineDTO.getQuantity());
+            // Zaległość (tylko przy allowBackorder) nie jest wydawana z żadnej lokacji - saldo nie zejdzie poniżej
+            // zera; realizuje ją fulfilBackorders po dostawie
+            orderLine.setBackorderedQuantity(allocation.isPartial() ? allocation.shortfall() : 0.0);
+            // transaction - pierwsza (główna) lokacja wydania, allocations - wszystkie lokacje (planowanie kompletacji)
+            orderLine.setTransaction(lineTransactions.isEmpty() ? null : lineTransactions.get(0));
+            orderLine.setAllocations(lineTransactions);
+            orderLines.add(orderLine);
         }
 
+        // Stany itemów aktualizowane zbiorczo (ilości z kilku linii tego samego itemu sumują się);
+        // linie zapisywane raz, już z powiązaną transakcją
+        transactionService.createTransactions(transactions);
+        orderLineRepository.saveAll(orderLines);
+        savedOrder.getOrderLines().addAll(orderLines);
+
         // Tworzenie historii statusu - dla nowego zamówienia oldStatus = PENDING (initial status)
         OrderStatusHistory statusHistory = new OrderStatusHistory();
         statusHistory.setOrder(savedOrder);
@@ -128,7 +210,95 @@ public class OrderServiceImpl implements OrderService {
 
         orderStatusHistoryRepository.save(statusHistory);
 
-        return convertToDTO(savedOrder);
+        OrderDTO result = convertToDTO(savedOrder);
+        wmsMetrics.recordOrderCreated(orderDTO.getOrderLines().size(), System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public OrderDTO fulfilBackorders(Long orderId, Long userId, AllocationPolicy allocationPolicy) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new EntityNotFoundException("Order not found with id: " + orderId));
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+        if (order.getOrderStatus() != TransactionStatus.PENDING) {
+            throw new IllegalArgumentException("Backorders can only be fulfilled for pending orders");
+        }
+
+        List<OrderLine> lines = orderLineRepository.findBackorderedByOrderId(orderId);
+        if (lines.isEmpty()) {
+            return convertToDTO(order);
+        }
+        Set<Long> itemIds = lines.stream()
+                .map(line -> line.getItem().getId())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        itemRepository.findAllByIdForUpdate(itemIds);
+        StockAllocator.Snapshot snapshot = loadAllocationSnapshot(itemIds, allocationPolicy, new HashMap<>());
+
+        // Wydawane jest tyle, ile pokrywają salda - reszta zostaje zaległością do kolejnej dostawy
+        List<Transaction> transactions = new ArrayList<>();
+        Map<OrderLine, StockAllocator.Result> allocations = new LinkedHashMap<>();
+        for (OrderLine line : lines) {
+            StockAllocator.Result allocation = stockAllocator.allocate(snapshot, line.getItem().getId(),
+                    line.getBackorderedQuantity());
+            for (StockAllocator.Allocation allocated : allocation.allocations()) {
+                transactions.add(orderTransaction(line.getItem(), allocated.location(), allocated.quantity(), user, order));
+            }
+            allocations.put(line, allocation);
+        }
+        // Linie zmieniane dopiero po zapisie transakcji - flush przed zapytaniami createTransactions
+        // nie może trafić na linię wskazującą niezapisaną transakcję
+        List<Transaction> saved = transactionService.createTransactions(transactions);
+        int next = 0;
+        for (Map.Entry<OrderLine, StockAllocator.Result> entry : allocations.entrySet()) {
+            OrderLine line = entry.getKey();
+            List<Transaction> lineTransactions = saved.subList(next, next + entry.getValue().allocations().size());
+            next += lineTransactions.size();
+            if (line.getTransaction() == null && !lineTransactions.isEmpty()) {
+                line.setTransaction(lineTransactions.get(0));
+            }
+            line.getAllocations().addAll(lineTransactions);
+            line.setBackorderedQuantity(entry.getValue().isPartial() ? entry.getValue().shortfall() : 0.0);
+        }
+        return convertToDTO(order);
+    }
+
+    /**
+     * Lokacje itemów zamówienia z saldami - dwa zapytania niezależnie od liczby linii.
+     * Przy okazji wypełnia primaryLocations pierwszą przypisaną lokacją każdego itemu.
+     *
+     * Wywoływane po zablokowaniu wierszy itemów (findAllByIdForUpdate): równoległe zamówienie tych samych itemów
+     * czeka na commit tego, a jego salda liczone są dopiero po nim - dwa zamówienia nie rozdysponują tej samej ilości.
+     */
+    private StockAllocator.Snapshot loadAllocationSnapshot(Set<Long> itemIds, AllocationPolicy policy,
+                                                           Map<Long, Location> primaryLocations) {
+        Map<Long, Map<Long, Double>> balances = new HashMap<>();
+        for (Object[] row : transactionRepository.sumBalancesByItemAndLocation(itemIds)) {
+            balances.computeIfAbsent((Long) row[0], id -> new HashMap<>())
+                    .put((Long) row[1], ((Number) row[2]).doubleValue());
+        }
+
+        StockAllocator.Snapshot snapshot = stockAllocator.snapshot(policy);
+        for (InventoryLocation inventoryLocation : inventoryLocationRepository.findAllByItemIdIn(itemIds)) {
+            Long itemId = inventoryLocation.getItem().getId();
+            Location location = inventoryLocation.getLocation();
+            primaryLocations.putIfAbsent(itemId, location);
+            double balance = balances.getOrDefault(itemId, Map.of()).getOrDefault(location.getId(), 0.0);
+            snapshot.addBin(itemId, location, inventoryLocation.getCreatedAt(), balance);
+        }
+        return snapshot;
+    }
+
+    private Transaction orderTransaction(Item item, Location location, double quantity, User user, Order order) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.ORDER);
+        transaction.setItem(item);
+        transaction.setQuantity(quantity);
+        transaction.setUser(user);
+        transaction.setTransactionStatus(TransactionStatus.PENDING);
+        transaction.setDescription("Order #" + order.getOrderNumber());
+        transaction.setLocation(location);
+        return transaction;
     }
 
     @Override
@@ -149,7 +319,7 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public Page<OrderDTO> getOrdersPaginated(int page, int size) {
         PageRequest pageable = PageRequest.of(page, size);
-        return orderRepository.findAll(pageable).map(this::convertToDTO);
+        return convertToDTOPage(orderRepository.findAll(pageable));
     }
 
     @Override
@@ -158,7 +328,7 @@ public class OrderServiceImpl implements OrderService {
         PageRequest pageable = PageRequest.of(page, size);
         try {
             TransactionStatus transactionStatus = TransactionStatus.valueOf(status.toUpperCase());
-            return orderRepository.findByOrderStatus(transactionStatus, pageable).map(this::convertToDTO);
+            return convertToDTOPage(orderRepository.findByOrderStatus(transactionStatus, pageable));
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid order status: " + status);
         }
@@ -168,7 +338,7 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public Page<OrderDTO> getOrdersByUser(Long userId, int page, int size) {
         PageRequest pageable = PageRequest.of(page, size);
-        return orderRepository.findByCreatedById(userId, pageable).map(this::convertToDTO);
+        return convertToDTOPage(orderRepository.findByCreatedById(userId, pageable));
     }
 
     @Override
@@ -180,13 +350,7 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
 
         TransactionStatus oldStatus = order.getOrderStatus();
-        TransactionStatus newTransactionStatus;
-
-        try {
-            newTransactionStatus = TransactionStatus.valueOf(newStatus.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid order status: " + newStatus);
-        }
+        TransactionStatus newTransactionStatus = parseStatus(newStatus);
 
         order.setOrderStatus(newTransactionStatus);
         Order savedOrder = orderRepository.save(order);
@@ -201,9 +365,103 @@ public class OrderServiceImpl implements OrderService {
 
         orderStatusHistoryRepository.save(statusHistory);
 
+        eventPublisher.publishEvent(StockEventDTO.builder()
+                .type(StockEventDTO.EventType.ORDER_STATUS_CHANGED)
+                .entityId(savedOrder.getId())
+                .status(newTransactionStatus.name())
+                .occurredAt(OffsetDateTime.now())
+                .build());
+
         return convertToDTO(savedOrder);
     }
 
+    @Override
+    public BulkOrderStatusResultDTO updateOrderStatuses(List<Long> orderIds, String newStatus, String changeReason,
+                                                        Long userId, boolean idsOnly) {
+        TransactionStatus status = parseStatus(newStatus);
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("User not found with id: " + userId);
+        }
+
+        List<Long> ids = orderIds.stream().distinct().toList();
+        Map<Long, TransactionStatus> oldStatuses = new LinkedHashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            for (Object[] row : orderRepository.findStatusesByIdIn(chunk)) {
+                oldStatuses.put((Long) row[0], (TransactionStatus) row[1]);
+            }
+        }
+        List<Long> updatedIds = ids.stream().filter(oldStatuses::containsKey).toList();
+        List<Long> notFoundIds = ids.stream().filter(id -> !oldStatuses.containsKey(id)).toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (List<Long> chunk : chunks(updatedIds)) {
+            orderRepository.updateStatusByIdIn(chunk, status, now);
+        }
+        String reason = changeReason != null ? changeReason : "Status zmieniony na: " + newStatus;
+        insertStatusHistory(updatedIds, oldStatuses, status, userId, reason, now);
+
+        // UPDATE omija EntityChangeListener - jedno zdarzenie wystarczy do unieważnienia ETagów zamówień
+        if (!updatedIds.isEmpty()) {
+            eventPublisher.publishEvent(new EntityChangedEvent(Order.class, null, EntityChangedEvent.ChangeType.UPDATED));
+        }
+        OffsetDateTime occurredAt = OffsetDateTime.now();
+        for (Long id : updatedIds) {
+            eventPublisher.publishEvent(StockEventDTO.builder()
+                    .type(StockEventDTO.EventType.ORDER_STATUS_CHANGED)
+                    .entityId(id)
+                    .status(status.name())
+                    .occurredAt(occurredAt)
+                    .build());
+        }
+
+        List<OrderDTO> orders = null;
+        if (!idsOnly) {
+            // Paczkami jak przy UPDATE, createdBy w tym samym zapytaniu; kolejność jak w żądaniu
+            Map<Long, Order> updated = new HashMap<>();
+            for (List<Long> chunk : chunks(updatedIds)) {
+                orderRepository.findByIdIn(chunk).forEach(order -> updated.put(order.getId(), order));
+            }
+            orders = convertToDTOs(updatedIds.stream().map(updated::get).toList());
+        }
+        return BulkOrderStatusResultDTO.builder()
+                .status(status.name())
+                .updatedCount(updatedIds.size())
+                .updatedIds(updatedIds)
+                .notFoundIds(notFoundIds)
+                .orders(orders)
+                .build();
+    }
+
+    /**
+     * Historia zmian zbiorczo przez JDBC batch - przy IDENTITY Hibernate wstawia wiersze pojedynczo
+     */
+    private void insertStatusHistory(List<Long> orderIds, Map<Long, TransactionStatus> oldStatuses,
+                                     TransactionStatus newStatus, Long userId, String reason, LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        List<Object[]> rows = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            rows.add(new Object[]{orderId, oldStatuses.get(orderId).name(), newStatus.name(), userId, reason, timestamp});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO order_status_history "
+                + "(order_id, old_status, new_status, changed_by, change_reason, created_at) VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+            chunks.add(ids.subList(from, Math.min(from + ID_CHUNK, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static TransactionStatus parseStatus(String status) {
+        try {
+            return TransactionStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid order status: " + status);
+        }
+    }
+
     @Override
     public void deleteOrder(Long id) {
         if (!orderRepository.existsById(id)) {
@@ -216,7 +474,7 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public long getOrderCount() {
-        return orderRepository.count();
+        return entityCounterService.count(Order.class);
     }
 
     @Override
@@ -238,31 +496,70 @@ public class OrderServiceImpl implements OrderService {
     }
 
     private OrderDTO convertToDTO(Order order) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        return convertToDTOs(List.of(order)).get(0);
+    }
 
-        List<OrderLineDTO> orderLineDTOs = order.getOrderLines().stream()
-                .map(ol -> new OrderLineDTO(
-                        ol.getId(),
-                        ol.getItem().getId(),
-                        ol.getItem().getName(),
-                        ol.getItem().getCategory() != null ? ol.getItem().getCategory().getName() : null,
-                        ol.getQuantity(),
-                        ol.getItem().getUnit().name(),
-                        ol.getTransaction() != null ? ol.getTransaction().getId() : null
-                ))
-                .collect(Collectors.toList());
+    private Page<OrderDTO> convertToDTOPage(Page<Order> orders) {
+        return new PageImpl<>(convertToDTOs(orders.getContent()), orders.getPageable(), orders.getTotalElements());
+    }
 
-        return new OrderDTO(
-                order.getId(),
-                order.getOrderNumber(),
-                order.getOrderStatus().name(),
-                order.getCreatedBy().getUsername(),
-                order.getDescription(),
-                order.getItemCount(),
-                order.getTotalQuantity() != null ? order.getTotalQuantity().intValue() : 0,
-                orderLineDTOs,
-                order.getCreatedAt() != null ? order.getCreatedAt().format(formatter) : null,
-                order.getUpdatedAt() != null ? order.getUpdatedAt().format(formatter) : null
-        );
+    /**
+     * Linie wszystkich zamówień jednym zapytaniem IN (wiersze skalarne z itemem, kategorią i transakcją),
+     * liczba pozycji i suma ilości z agregacji w bazie - bez leniwego ładowania per zamówienie.
+     * createdBy powinien być już załadowany (EntityGraph w zapytaniach stronicowanych i findByIdIn).
+     */
+    private List<OrderDTO> convertToDTOs(List<Order> orders) {
+        Map<Long, List<OrderLineDTO>> linesByOrder = new HashMap<>();
+        Map<Long, Object[]> totals = new HashMap<>();
+        for (List<Long> chunk : chunks(orders.stream().map(Order::getId).toList())) {
+            for (Object[] row : orderLineRepository.sumByOrderIdIn(chunk)) {
+                totals.put((Long) row[0], row);
+            }
+            OrderLineDTO line = null;
+            for (Object[] row : orderLineRepository.findDtoRowsByOrderIdIn(chunk)) {
+                // Kolejne wiersze tej samej linii (posortowane po id linii) niosą tylko kolejne alokacje
+                if (line == null || !line.getId().equals(row[1])) {
+                    line = new OrderLineDTO(
+                            (Long) row[1],
+                            (Long) row[2],
+                            (String) row[3],
+                            (String) row[4],
+                            ((Number) row[5]).doubleValue(),
+                            row[6] != null ? ((UnitType) row[6]).name() : null,
+                            (Long) row[7],
+                            new ArrayList<>(),
+                            row[9] != null ? ((Number) row[9]).doubleValue() : 0.0
+                    );
+                    linesByOrder.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(line);
+                }
+                if (row[8] != null) {
+                    line.getTransactionIds().add((Long) row[8]);
+                } else if (row[7] != null && line.getTransactionIds().isEmpty()) {
+                    // Linie sprzed alokacji na wiele lokacji mają tylko transaction
+                    line.getTransactionIds().add((Long) row[7]);
+                }
+            }
+        }
+
+        List<OrderDTO> result = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            List<OrderLineDTO> orderLineDTOs = linesByOrder.getOrDefault(order.getId(), new ArrayList<>());
+            Object[] orderTotals = totals.get(order.getId());
+            int itemCount = orderTotals != null ? ((Number) orderTotals[1]).intValue() : 0;
+            int totalQuantity = orderTotals != null && orderTotals[2] != null ? ((Number) orderTotals[2]).intValue() : 0;
+            result.add(new OrderDTO(
+                    order.getId(),
+                    order.getOrderNumber(),
+                    order.getOrderStatus().name(),
+                    order.getCreatedBy().getUsername(),
+                    order.getDescription(),
+                    itemCount,
+                    totalQuantity,
+                    orderLineDTOs,
+                    order.getCreatedAt() != null ? order.getCreatedAt().format(FORMATTER) : null,
+                    order.getUpdatedAt() != null ? order.getUpdatedAt().format(FORMATTER) : null
+            ));
+        }
+        return result;
     }
 }
@@ -1,9 +1,15 @@
 package com.kozimor.wms.Database.Service.ServiceImpl;
 
+import com.kozimor.wms.Config.WmsMetrics;
 import com.kozimor.wms.Database.Model.*;
 import com.kozimor.wms.Database.Repository.*;
+import com.kozimor.wms.Database.Service.ParallelSnapshotService;
 import com.kozimor.wms.Database.Service.ReportService;
+import com.kozimor.wms.Database.Service.StatusRuleService;
+import com.kozimor.wms.Database.Service.StatusRules;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,17 +28,32 @@ public class ReportServiceImpl implements ReportService {
     private final ReportItemRepository reportItemRepository;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
+    private final StatusRuleService statusRuleService;
+    private final ParallelSnapshotService parallelSnapshotService;
+    private final WmsMetrics wmsMetrics;
+    private final boolean incremental;
+    private final int maxDeltaChain;
 
     public ReportServiceImpl(ReportRepository reportRepository,
             ItemRepository itemRepository,
             ReportItemRepository reportItemRepository,
             TransactionRepository transactionRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            StatusRuleService statusRuleService,
+            ParallelSnapshotService parallelSnapshotService,
+            WmsMetrics wmsMetrics,
+            @Value("${wms.reports.incremental:false}") boolean incremental,
+            @Value("${wms.reports.max-delta-chain:7}") int maxDeltaChain) {
         this.reportRepository = reportRepository;
         this.itemRepository = itemRepository;
         this.reportItemRepository = reportItemRepository;
         this.transactionRepository = transactionRepository;
         this.userRepository = userRepository;
+        this.statusRuleService = statusRuleService;
+        this.parallelSnapshotService = parallelSnapshotService;
+        this.wmsMetrics = wmsMetrics;
+        this.incremental = incremental;
+        this.maxDeltaChain = maxDeltaChain;
     }
 
     @Override
@@ -88,29 +109,119 @@ public class ReportServiceImpl implements ReportService {
     public void deleteReport(Long id) {
         Report report = reportRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Report not found with id: " + id));
+        detachDependents(report);
         reportRepository.delete(report);
     }
 
+    /**
+     * Usuwany raport może być częścią łańcucha delt. Jego pozycje, których nie nadpisuje następny raport
+     * łańcucha, przechodzą do tego raportu - pełny stan pozostałych raportów się nie zmienia.
+     * Pierwsza delta usuwanej bazy staje się nową bazą.
+     */
+    private void detachDependents(Report report) {
+        Long baseId = report.isDelta() ? report.getBaseReportId() : report.getId();
+        Optional<Report> next = baseId == null ? Optional.empty()
+                : reportRepository.findFirstByBaseReportIdAndIdGreaterThanOrderByIdAsc(baseId, report.getId());
+        if (next.isEmpty()) {
+            return;
+        }
+        Report successor = next.get();
+        reportItemRepository.moveMissingItems(report.getId(), successor);
+        if (!report.isDelta()) {
+            successor.setSnapshotType(Report.SnapshotType.FULL);
+            successor.setBaseReportId(null);
+            reportRepository.save(successor);
+            reportRepository.rebase(report.getId(), successor.getId());
+        }
+    }
+
     @Override
     public long getReportCount() {
         return reportRepository.count();
     }
 
+    @Override
+    public List<ReportItem> getReportItems(Report report) {
+        if (!report.isDelta()) {
+            return new ArrayList<>(report.getReportItems());
+        }
+        return new ArrayList<>(loadItems(report).values());
+    }
+
+    /**
+     * Pełny stan raportu: itemId -> pozycja. Dla delty pozycje bazy i kolejnych delt są nakładane
+     * w kolejności id; pozycje przejęte z wcześniejszych raportów są kopiami (bez zmiany od poprzedniego
+     * raportu, więc różnica 0) - nie są zarządzane i nie mogą być zapisywane.
+     */
+    private Map<Long, ReportItem> loadItems(Report report) {
+        Map<Long, ReportItem> items = new LinkedHashMap<>();
+        if (!report.isDelta()) {
+            for (ReportItem reportItem : reportItemRepository.findAllByReport_Id(report.getId())) {
+                items.put(reportItem.getItem().getId(), reportItem);
+            }
+            return items;
+        }
+        for (ReportItem reportItem : reportItemRepository.findAllByReportIds(chainIds(report))) {
+            items.put(reportItem.getItem().getId(), reportItem);
+        }
+        items.replaceAll((itemId, reportItem) -> reportItem.getReport().getId().equals(report.getId())
+                ? reportItem : inherited(reportItem));
+        return items;
+    }
+
+    @Override
+    public List<ReportItem> getReportItemsAfter(Report report, Long afterItemId, int size) {
+        List<ReportItem> page = reportItemRepository.findPageAfter(chainIds(report),
+                afterItemId != null ? afterItemId : 0L, Limit.of(size));
+        if (!report.isDelta()) {
+            return page;
+        }
+        List<ReportItem> items = new ArrayList<>(page.size());
+        for (ReportItem reportItem : page) {
+            items.add(reportItem.getReport().getId().equals(report.getId()) ? reportItem : inherited(reportItem));
+        }
+        return items;
+    }
+
+    /**
+     * Raporty, z których składa się pełny stan raportu - od najstarszego
+     */
+    private List<Long> chainIds(Report report) {
+        if (!report.isDelta()) {
+            return List.of(report.getId());
+        }
+        List<Long> reportIds = new ArrayList<>();
+        reportIds.add(report.getBaseReportId());
+        reportIds.addAll(reportRepository.findDeltaIds(report.getBaseReportId(), report.getId()));
+        return reportIds;
+    }
+
+    private static ReportItem inherited(ReportItem reportItem) {
+        return ReportItem.builder()
+                .id(reportItem.getId())
+                .report(reportItem.getReport())
+                .item(reportItem.getItem())
+                .itemName(reportItem.getItemName())
+                .status(reportItem.getStatus())
+                .lastReceiptDate(reportItem.getLastReceiptDate())
+                .lastIssueDate(reportItem.getLastIssueDate())
+                .warehouseValue(reportItem.getWarehouseValue())
+                .differenceFromPrevious(0)
+                .unit(reportItem.getUnit())
+                .qrCode(reportItem.getQrCode())
+                .createdAt(reportItem.getCreatedAt())
+                .build();
+    }
+
     @Override
     public Report createSnapshot() {
+        long start = System.nanoTime();
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User currentUser = userRepository.findByUsername(username)
                 .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
 
-        List<Item> allItems = itemRepository.findAll();
-
-        int totalItemsCount = allItems.size();
-        int lowStockCount = 0;
-        int criticalStockCount = 0;
-        int okCount = 0;
-
         Report report = Report.builder()
-                .totalItemsCount(totalItemsCount)
+                .totalItemsCount(0)
                 .lowStockCount(0)
                 .criticalStockCount(0)
                 .okCount(0)
@@ -119,12 +230,54 @@ public class ReportServiceImpl implements ReportService {
 
         Report savedReport = reportRepository.save(report);
 
-        Report previousReport = getPreviousReport(savedReport.getId());
+        Report previousReport = reportRepository.findFirstByIdLessThanOrderByIdDesc(savedReport.getId()).orElse(null);
+        Map<Long, ReportItem> previousItems = previousReport != null ? loadItems(previousReport) : Map.of();
+        // Delta tylko na istniejącym łańcuchu nie dłuższym niż max-delta-chain - potem nowa pełna baza
+        Long baseId = null;
+        if (incremental && previousReport != null) {
+            Long candidate = previousReport.isDelta() ? previousReport.getBaseReportId() : previousReport.getId();
+            if (reportRepository.countByBaseReportId(candidate) < maxDeltaChain) {
+                baseId = candidate;
+            }
+        }
+        if (baseId != null) {
+            report.setSnapshotType(Report.SnapshotType.DELTA);
+            report.setBaseReportId(baseId);
+        }
+
+        // Reguły pobierane raz na cały snapshot
+        StatusRules statusRules = statusRuleService.getRules();
+
+        int rows;
+        if (parallelSnapshotService.isEnabled()) {
+            ParallelSnapshotService.Result result = parallelSnapshotService.populate(savedReport.getId(), statusRules,
+                    previousItems, baseId != null);
+            report.setTotalItemsCount(result.total());
+            report.setLowStockCount(result.low());
+            report.setCriticalStockCount(result.critical());
+            report.setOkCount(result.ok());
+            rows = result.rows();
+        } else {
+            rows = createItems(report, savedReport, statusRules, previousItems, baseId != null);
+        }
+
+        Report result = reportRepository.save(report);
+        wmsMetrics.recordSnapshot(rows, System.nanoTime() - start);
+        return result;
+    }
+
+    private int createItems(Report report, Report savedReport, StatusRules statusRules,
+                            Map<Long, ReportItem> previousItems, boolean changedOnly) {
+        List<Item> allItems = itemRepository.findAll();
+
+        int lowStockCount = 0;
+        int criticalStockCount = 0;
+        int okCount = 0;
 
         List<ReportItem> reportItems = new ArrayList<>();
 
         for (Item item : allItems) {
-            String status = calculateStatus(item);
+            String status = statusRules.evaluate(item).name();
 
             switch (status) {
                 case "LOW" -> lowStockCount++;
@@ -132,9 +285,16 @@ public class ReportServiceImpl implements ReportService {
                 case "OK" -> okCount++;
             }
 
+            double warehouseValue = item.getCurrentQuantity() != null ? (double) item.getCurrentQuantity() : 0.0;
+            ReportItem previousItem = previousItems.get(item.getId());
+            if (changedOnly && previousItem != null && status.equals(previousItem.getStatus())
+                    && previousItem.getWarehouseValue() != null && previousItem.getWarehouseValue() == warehouseValue) {
+                continue;
+            }
+
             LocalDateTime lastReceiptDate = getLastReceiptDate(item);
             LocalDateTime lastIssueDate = getLastIssueDate(item);
-            Integer differenceFromPrevious = calculateDifference(previousReport, item);
+            Integer differenceFromPrevious = calculateDifference(previousItem, item);
 
             ReportItem reportItem = ReportItem.builder()
                     .report(savedReport)
@@ -143,7 +303,7 @@ public class ReportServiceImpl implements ReportService {
                     .status(status)
                     .lastReceiptDate(lastReceiptDate)
                     .lastIssueDate(lastIssueDate)
-                    .warehouseValue(item.getCurrentQuantity() != null ? (double) item.getCurrentQuantity() : 0.0)
+                    .warehouseValue(warehouseValue)
                     .unit(item.getUnit())
                     .qrCode(item.getQrCode())
                     .differenceFromPrevious(differenceFromPrevious)
@@ -154,65 +314,25 @@ public class ReportServiceImpl implements ReportService {
 
         reportItemRepository.saveAll(reportItems);
 
+        report.setTotalItemsCount(allItems.size());
         report.setLowStockCount(lowStockCount);
         report.setCriticalStockCount(criticalStockCount);
         report.setOkCount(okCount);
-
-        return reportRepository.save(report);
+        return reportItems.size();
     }
 
-    private Report getPreviousReport(Long currentReportId) {
-        try {
-            return reportRepository.findAllWithDetails(Pageable.unpaged())
-                    .stream()
-                    .filter(r -> r.getId() < currentReportId)
-                    .sorted(Comparator.comparing(Report::getId).reversed())
-                    .findFirst()
-                    .orElse(null);
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private Integer calculateDifference(Report previousReport, Item item) {
-        if (previousReport == null) {
+    private Integer calculateDifference(ReportItem previousReportItem, Item item) {
+        if (previousReportItem == null) {
             return 0;
         }
 
         try {
-            ReportItem previousReportItem = previousReport.getReportItems()
-                    .stream()
-                    .filter(ri -> ri.getItem().getId().equals(item.getId()))
-                    .findFirst()
-                    .orElse(null);
-
-            if (previousReportItem == null) {
-                return 0;
-            }
-
             return (int) (item.getCurrentQuantity() - previousReportItem.getWarehouseValue());
         } catch (Exception e) {
             return 0;
         }
     }
 
-    private String calculateStatus(Item item) {
-        // Status based on current quantity only (thresholds now managed at Location level)
-        if (item.getCurrentQuantity() == null) {
-            return "OK";
-        }
-
-        double currentQty = item.getCurrentQuantity();
-
-        if (currentQty <= 0) {
-            return "CRITICAL";
-        } else if (currentQty <= 10) {
-            return "LOW";
-        }
-
-        return "OK";
-    }
-
     private LocalDateTime getLastReceiptDate(Item item) {
         try {
             return transactionRepository.findByItemId(item.getId())
@@ -2,21 +2,32 @@ package com.kozimor.wms.Database.Service.ServiceImpl;
 
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.kozimor.wms.Config.WmsMetrics;
 import com.kozimor.wms.Database.Model.Transaction;
 import com.kozimor.wms.Database.Model.TransactionType;
 import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.DTO.StockEventDTO;
 import com.kozimor.wms.Database.Model.DTO.TransactionDTO;
 import com.kozimor.wms.Database.Model.DTO.TransactionForOrderDTO;
 import com.kozimor.wms.Database.Repository.TransactionRepository;
 import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Service.EntityCounterService;
 import com.kozimor.wms.Database.Service.TransactionService;
 import com.kozimor.wms.Database.Model.Item;
 
@@ -28,14 +39,89 @@ public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityCounterService entityCounterService;
+    private final WmsMetrics wmsMetrics;
 
-    public TransactionServiceImpl(TransactionRepository transactionRepository, ItemRepository itemRepository) {
+    public TransactionServiceImpl(TransactionRepository transactionRepository, ItemRepository itemRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  EntityCounterService entityCounterService,
+                                  WmsMetrics wmsMetrics) {
         this.transactionRepository = transactionRepository;
         this.itemRepository = itemRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityCounterService = entityCounterService;
+        this.wmsMetrics = wmsMetrics;
     }
 
     @Override
     public Transaction createTransaction(Transaction transaction) {
+        long start = System.nanoTime();
+        validate(transaction);
+        
+        Transaction saved = transactionRepository.save(transaction);
+        Item item = itemRepository.findById(transaction.getItem().getId())
+                .orElseThrow(() -> new EntityNotFoundException("Item not found with id: " + transaction.getItem().getId()));
+        
+        Double currentQuantity = item.getCurrentQuantity() != null ? item.getCurrentQuantity() : 0.0;
+        Double newQuantity = applyQuantity(transaction, currentQuantity);
+        
+        item.setCurrentQuantity(newQuantity);
+        itemRepository.save(item);
+
+        publishPosted(saved, newQuantity);
+        wmsMetrics.recordTransactionPosted(transaction.getTransactionType(), transaction.getQuantity(),
+                System.nanoTime() - start);
+        return saved;
+    }
+
+    @Override
+    public List<Transaction> createTransactions(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        transactions.forEach(this::validate);
+
+        // Jedno zapytanie IN zamiast findById dla każdej transakcji
+        Set<Long> itemIds = transactions.stream()
+                .map(t -> t.getItem().getId())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        for (Long itemId : itemIds) {
+            if (!items.containsKey(itemId)) {
+                throw new EntityNotFoundException("Item not found with id: " + itemId);
+            }
+        }
+
+        // Stan po każdej transakcji liczony w pamięci, kolejno - kilka linii tego samego itemu sumuje się
+        Map<Long, Double> quantities = new HashMap<>();
+        List<Double> quantitiesAfter = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            Item item = items.get(transaction.getItem().getId());
+            Double current = quantities.getOrDefault(item.getId(),
+                    item.getCurrentQuantity() != null ? item.getCurrentQuantity() : 0.0);
+            Double after = applyQuantity(transaction, current);
+            quantities.put(item.getId(), after);
+            quantitiesAfter.add(after);
+        }
+
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        // Jeden UPDATE na item niezależnie od liczby transakcji
+        quantities.forEach((itemId, quantity) -> items.get(itemId).setCurrentQuantity(quantity));
+        itemRepository.saveAll(items.values());
+
+        long perTransaction = (System.nanoTime() - start) / saved.size();
+        for (int i = 0; i < saved.size(); i++) {
+            Transaction transaction = saved.get(i);
+            publishPosted(transaction, quantitiesAfter.get(i));
+            wmsMetrics.recordTransactionPosted(transaction.getTransactionType(), transaction.getQuantity(), perTransaction);
+        }
+        return saved;
+    }
+
+    private void validate(Transaction transaction) {
         if (transaction.getQuantity() == null || transaction.getQuantity() <= 0) {
             throw new IllegalArgumentException("Quantity must be greater than 0");
         }
@@ -49,12 +135,12 @@ public class TransactionServiceImpl implements TransactionService {
         if (transaction.getLocation() == null || transaction.getLocation().getId() == null) {
             throw new IllegalArgumentException("Location is required");
         }
-        
-        Transaction saved = transactionRepository.save(transaction);
-        Item item = itemRepository.findById(transaction.getItem().getId())
-                .orElseThrow(() -> new EntityNotFoundException("Item not found with id: " + transaction.getItem().getId()));
-        
-        Double currentQuantity = item.getCurrentQuantity() != null ? item.getCurrentQuantity() : 0.0;
+    }
+
+    /**
+     * Stan itemu po zaksięgowaniu transakcji
+     */
+    private Double applyQuantity(Transaction transaction, Double currentQuantity) {
         Double newQuantity = currentQuantity;
         
         switch (transaction.getTransactionType()) {
@@ -65,6 +151,7 @@ public class TransactionServiceImpl implements TransactionService {
             case ISSUE_TO_PRODUCTION:
             case ISSUE_TO_SALES:
                 if (currentQuantity < transaction.getQuantity()) {
+                    wmsMetrics.recordInsufficientStock(transaction.getTransactionType());
                     throw new IllegalArgumentException("Insufficient quantity. Available: " + currentQuantity + ", Requested: " + transaction.getQuantity());
                 }
                 newQuantity = currentQuantity - transaction.getQuantity();
@@ -78,11 +165,24 @@ public class TransactionServiceImpl implements TransactionService {
         if (newQuantity < 0) {
             newQuantity = 0.0;
         }
-        
-        item.setCurrentQuantity(newQuantity);
-        itemRepository.save(item);
-        
-        return saved;
+        return newQuantity;
+    }
+
+    /**
+     * Rozsyłane do klientów SSE dopiero po commicie
+     */
+    private void publishPosted(Transaction saved, Double currentQuantity) {
+        eventPublisher.publishEvent(StockEventDTO.builder()
+                .type(StockEventDTO.EventType.TRANSACTION_POSTED)
+                .entityId(saved.getId())
+                .itemId(saved.getItem().getId())
+                .locationId(saved.getLocation().getId())
+                .quantity(saved.getQuantity())
+                .currentQuantity(currentQuantity)
+                .transactionType(saved.getTransactionType().name())
+                .status(saved.getTransactionStatus() != null ? saved.getTransactionStatus().name() : null)
+                .occurredAt(OffsetDateTime.now())
+                .build());
     }
 
     @Override
@@ -147,7 +247,7 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     public long getTransactionCount() {
-        return transactionRepository.count();
+        return entityCounterService.count(Transaction.class);
     }
 
     @Override
@@ -6,6 +6,7 @@ import com.kozimor.wms.Database.Model.DTO.UserDTO;
 import com.kozimor.wms.Database.Model.DTO.PageResponse;
 import com.kozimor.wms.Database.Repository.UserRepository;
 import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Service.EntityCounterService;
 import com.kozimor.wms.Database.Service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
@@ -23,10 +24,12 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final EntityCounterService entityCounterService;
 
-    public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository) {
+    public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository, EntityCounterService entityCounterService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.entityCounterService = entityCounterService;
     }
 
 
@@ -121,7 +124,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public long getUserCount() {
-        return userRepository.count();
+        return entityCounterService.count(User.class);
     }
 
     private UserDTO convertToDTO(User user) {
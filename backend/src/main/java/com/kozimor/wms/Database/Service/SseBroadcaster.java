@@ -0,0 +1,178 @@
+package com.kozimor.wms.Database.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rozsyłanie zdarzeń do klientów SSE.
+ *
+ * Każdy klient ma własny ograniczony bufor. Producent nigdy nie czeka na wolnego klienta:
+ * przy przepełnieniu bufor jest czyszczony, a klient dostaje zdarzenie "resync",
+ * po którym powinien raz odświeżyć dane przez REST.
+ *
+ * Limit klientów pilnuje semafor: miejsce jest zajmowane przed rejestracją i zwalniane raz, przy usunięciu
+ * klienta - równoległe subskrypcje nie przekroczą limitu.
+ */
+public class SseBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseBroadcaster.class);
+
+    public static final String RESYNC_EVENT = "resync";
+
+    private final String name;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final Executor sendExecutor;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Semaphore slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SseBroadcaster(String name, int bufferSize, int maxSubscribers, long timeoutMs, Executor sendExecutor) {
+        this.name = name;
+        this.bufferSize = bufferSize;
+        this.slots = new Semaphore(maxSubscribers);
+        this.timeoutMs = timeoutMs;
+        this.sendExecutor = sendExecutor;
+    }
+
+    /**
+     * Zarejestruj nowego klienta
+     * @throws IllegalStateException gdy osiągnięto limit klientów
+     */
+    public SseEmitter subscribe() {
+        if (!slots.tryAcquire()) {
+            throw new IllegalStateException("Too many subscribers for stream '" + name + "'");
+        }
+        SseEmitter emitter;
+        try {
+            emitter = createEmitter(timeoutMs);
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> {
+            remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    // Zakończenie, timeout i błąd wysyłki mogą przyjść dla tego samego klienta - miejsce zwalnia tylko pierwsze
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            slots.release();
+        }
+    }
+
+    protected SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    public void broadcast(String eventName, Object payload) {
+        Message message = new Message(sequence.incrementAndGet(), eventName, payload);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(message);
+        }
+    }
+
+    /**
+     * Komentarz SSE podtrzymujący połączenie - pozwala też wykryć rozłączonych klientów
+     */
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueueHeartbeat();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private record Message(long id, String eventName, Object payload) {
+    }
+
+    private static final Message HEARTBEAT = new Message(0, null, null);
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(Message message) {
+            if (!queue.offer(message)) {
+                queue.clear();
+                overflowed = true;
+            }
+            scheduleDrain();
+        }
+
+        private void enqueueHeartbeat() {
+            // Pełny bufor i tak zostanie wysłany, heartbeat nie jest wtedy potrzebny
+            if (queue.offer(HEARTBEAT)) {
+                scheduleDrain();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sendExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                if (overflowed) {
+                    overflowed = false;
+                    emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(Map.of("lastEventId", sequence.get())));
+                }
+                Message message;
+                while ((message = queue.poll()) != null) {
+                    if (message == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(message.id()))
+                                .name(message.eventName())
+                                .data(message.payload()));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("SSE client of stream '{}' disconnected: {}", name, e.getMessage());
+                remove(this);
+                queue.clear();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty() || overflowed) {
+                scheduleDrain();
+            }
+        }
+    }
+}
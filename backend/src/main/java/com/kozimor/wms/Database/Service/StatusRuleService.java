@@ -0,0 +1,183 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.DTO.StatusRuleDTO;
+import com.kozimor.wms.Database.Model.EntityChangedEvent;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.StatusRule;
+import com.kozimor.wms.Database.Model.StockStatus;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.StatusRuleRepository;
+import com.kozimor.wms.Database.Repository.TransactionRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reguły statusów stanu (OK / LOW / CRITICAL) - zarządzanie i ocena.
+ *
+ * Reguły są kompilowane raz do {@link StatusRules} i współdzielone; zmiana reguły na tej instancji
+ * unieważnia skompilowaną wersję po commicie, zmiany z innych instancji są widoczne najpóźniej
+ * po wms.status.rules-ttl-seconds. Snapshot pobiera reguły raz i ocenia nimi wszystkie itemy.
+ */
+@Service
+public class StatusRuleService {
+
+    private final StatusRuleRepository statusRuleRepository;
+    private final ItemRepository itemRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionRepository transactionRepository;
+    private final double defaultCritical;
+    private final double defaultLow;
+    private final long ttlNanos;
+    // Podbijana przy każdej zmianie - kompilacja sprzed zmiany nie nadpisuje unieważnienia
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Compiled compiled;
+
+    public StatusRuleService(StatusRuleRepository statusRuleRepository,
+                             ItemRepository itemRepository,
+                             CategoryRepository categoryRepository,
+                             TransactionRepository transactionRepository,
+                             @Value("${wms.status.default-critical:0}") double defaultCritical,
+                             @Value("${wms.status.default-low:10}") double defaultLow,
+                             @Value("${wms.status.rules-ttl-seconds:60}") long ttlSeconds) {
+        this.statusRuleRepository = statusRuleRepository;
+        this.itemRepository = itemRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionRepository = transactionRepository;
+        this.defaultCritical = defaultCritical;
+        this.defaultLow = defaultLow;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /**
+     * Aktualne skompilowane reguły. Przy ocenie wielu itemów należy pobrać je raz, poza pętlą.
+     */
+    public StatusRules getRules() {
+        Compiled current = compiled;
+        if (current != null && System.nanoTime() - current.compiledAt < ttlNanos) {
+            return current.rules;
+        }
+        long expected = generation.get();
+        StatusRules rules = StatusRules.compile(statusRuleRepository.findAll(), defaultCritical, defaultLow);
+        if (generation.get() == expected) {
+            compiled = new Compiled(rules, System.nanoTime());
+        }
+        return rules;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.entityType() == StatusRule.class) {
+            generation.incrementAndGet();
+            compiled = null;
+        }
+    }
+
+    /**
+     * Status na żywo - stan całkowity itemu albo, gdy podano lokację, jego saldo w tej lokacji (progi itemu i kategorii)
+     */
+    @Transactional(readOnly = true)
+    public StatusEvaluation evaluate(Long itemId, Long locationId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException("Item not found with id: " + itemId));
+        StatusRules rules = getRules();
+        if (locationId == null) {
+            double quantity = item.getCurrentQuantity() != null ? item.getCurrentQuantity() : 0.0;
+            return new StatusEvaluation(itemId, null, quantity, rules.evaluate(item));
+        }
+        double quantity = 0.0;
+        for (Object[] row : transactionRepository.sumBalancesByItemAndLocation(List.of(itemId))) {
+            if (locationId.equals(row[1])) {
+                quantity = ((Number) row[2]).doubleValue();
+            }
+        }
+        long categoryId = item.getCategory() != null ? item.getCategory().getId() : 0L;
+        return new StatusEvaluation(itemId, locationId, quantity, rules.evaluate(itemId, categoryId, quantity));
+    }
+
+    public List<StatusRuleDTO> getAll() {
+        return statusRuleRepository.findAllByOrderByScopeAscTargetIdAsc().stream()
+                .map(StatusRuleService::toDTO)
+                .toList();
+    }
+
+    @Transactional
+    public StatusRuleDTO create(StatusRuleDTO request) {
+        validate(request);
+        if (statusRuleRepository.findByScopeAndTargetId(request.getScope(), request.getTargetId()).isPresent()) {
+            throw new IllegalArgumentException("Rule for " + request.getScope() + " " + request.getTargetId() + " already exists");
+        }
+        StatusRule rule = StatusRule.builder()
+                .scope(request.getScope())
+                .targetId(request.getTargetId())
+                .criticalThreshold(request.getCriticalThreshold())
+                .lowThreshold(request.getLowThreshold())
+                .build();
+        return toDTO(statusRuleRepository.save(rule));
+    }
+
+    /**
+     * Zmiana progów - zakres i cel reguły są stałe
+     */
+    @Transactional
+    public StatusRuleDTO update(Long id, StatusRuleDTO request) {
+        StatusRule rule = statusRuleRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Status rule not found with id: " + id));
+        request.setScope(rule.getScope());
+        request.setTargetId(rule.getTargetId());
+        validateThresholds(request);
+        rule.setCriticalThreshold(request.getCriticalThreshold());
+        rule.setLowThreshold(request.getLowThreshold());
+        return toDTO(statusRuleRepository.save(rule));
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        StatusRule rule = statusRuleRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Status rule not found with id: " + id));
+        statusRuleRepository.delete(rule);
+    }
+
+    private void validate(StatusRuleDTO request) {
+        validateThresholds(request);
+        boolean exists = switch (request.getScope()) {
+            case ITEM -> itemRepository.existsById(request.getTargetId());
+            case CATEGORY -> categoryRepository.existsById(request.getTargetId());
+        };
+        if (!exists) {
+            throw new IllegalArgumentException(request.getScope() + " not found with id: " + request.getTargetId());
+        }
+    }
+
+    private static void validateThresholds(StatusRuleDTO request) {
+        if (request.getCriticalThreshold() == null || request.getLowThreshold() == null) {
+            throw new IllegalArgumentException("Both thresholds are required");
+        }
+        if (request.getCriticalThreshold() > request.getLowThreshold()) {
+            throw new IllegalArgumentException("Critical threshold must not be greater than low threshold");
+        }
+    }
+
+    private static StatusRuleDTO toDTO(StatusRule rule) {
+        return StatusRuleDTO.builder()
+                .id(rule.getId())
+                .scope(rule.getScope())
+                .targetId(rule.getTargetId())
+                .criticalThreshold(rule.getCriticalThreshold())
+                .lowThreshold(rule.getLowThreshold())
+                .build();
+    }
+
+    public record StatusEvaluation(Long itemId, Long locationId, double quantity, StockStatus status) {
+    }
+
+    private record Compiled(StatusRules rules, long compiledAt) {
+    }
+}
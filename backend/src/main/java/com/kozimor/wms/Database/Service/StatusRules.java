@@ -0,0 +1,176 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.StatusRule;
+import com.kozimor.wms.Database.Model.StockStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reguły statusów skompilowane do tablic - niezmienne, bezpieczne do współdzielenia między wątkami.
+ *
+ * Ocena to co najwyżej dwa odczyty tablic (item, kategoria) i dwa porównania, bez alokacji
+ * i bez boxingu. Tablica indeksowana jest wprost id, gdy id są gęste; przy rzadkich id (np. nadpisania
+ * dla kilku itemów z milionów) używana jest mapa long -> próg z adresowaniem otwartym.
+ */
+public final class StatusRules {
+
+    // Tablica gęsta, gdy największe id nie przekracza liczby reguł * DENSE_FACTOR + DENSE_SLACK
+    private static final int DENSE_FACTOR = 4;
+    private static final int DENSE_SLACK = 1024;
+
+    private final double defaultCritical;
+    private final double defaultLow;
+    private final Table items;
+    private final Table categories;
+
+    private StatusRules(double defaultCritical, double defaultLow, Table items, Table categories) {
+        this.defaultCritical = defaultCritical;
+        this.defaultLow = defaultLow;
+        this.items = items;
+        this.categories = categories;
+    }
+
+    public static StatusRules compile(Collection<StatusRule> rules, double defaultCritical, double defaultLow) {
+        Map<StatusRule.Scope, List<StatusRule>> byScope = new EnumMap<>(StatusRule.Scope.class);
+        for (StatusRule.Scope scope : StatusRule.Scope.values()) {
+            byScope.put(scope, new ArrayList<>());
+        }
+        for (StatusRule rule : rules) {
+            if (rule.getTargetId() != null && rule.getTargetId() > 0) {
+                byScope.get(rule.getScope()).add(rule);
+            }
+        }
+        return new StatusRules(defaultCritical, defaultLow,
+                Table.of(byScope.get(StatusRule.Scope.ITEM)),
+                Table.of(byScope.get(StatusRule.Scope.CATEGORY)));
+    }
+
+    /**
+     * @param itemId     id itemu albo 0
+     * @param categoryId id kategorii itemu albo 0
+     * @param quantity   stan całkowity itemu albo jego saldo w jednej lokacji - progi są te same
+     */
+    public StockStatus evaluate(long itemId, long categoryId, double quantity) {
+        int slot = items.slot(itemId);
+        if (slot >= 0) {
+            return classify(quantity, items.critical[slot], items.low[slot]);
+        }
+        slot = categories.slot(categoryId);
+        if (slot >= 0) {
+            return classify(quantity, categories.critical[slot], categories.low[slot]);
+        }
+        return classify(quantity, defaultCritical, defaultLow);
+    }
+
+    /**
+     * Status stanu całkowitego itemu (snapshot). Brak ilości oznacza OK - jak dotychczas.
+     */
+    public StockStatus evaluate(Item item) {
+        if (item.getCurrentQuantity() == null) {
+            return StockStatus.OK;
+        }
+        return evaluate(id(item.getId()), item.getCategory() != null ? id(item.getCategory().getId()) : 0L,
+                item.getCurrentQuantity());
+    }
+
+    public int size() {
+        return items.size + categories.size;
+    }
+
+    private static StockStatus classify(double quantity, double critical, double low) {
+        if (quantity <= critical) {
+            return StockStatus.CRITICAL;
+        }
+        return quantity <= low ? StockStatus.LOW : StockStatus.OK;
+    }
+
+    private static long id(Long id) {
+        return id != null ? id : 0L;
+    }
+
+    /**
+     * Progi jednego zakresu. slot(id) zwraca indeks w critical/low albo -1.
+     */
+    private static final class Table {
+        private final boolean dense;
+        private final long[] keys;      // tylko rzadka; 0 = wolne miejsce (id są dodatnie)
+        private final double[] critical;
+        private final double[] low;
+        private final int mask;
+        private final int size;
+
+        private Table(boolean dense, long[] keys, double[] critical, double[] low, int mask, int size) {
+            this.dense = dense;
+            this.keys = keys;
+            this.critical = critical;
+            this.low = low;
+            this.mask = mask;
+            this.size = size;
+        }
+
+        private static Table of(List<StatusRule> rules) {
+            long maxId = 0;
+            for (StatusRule rule : rules) {
+                maxId = Math.max(maxId, rule.getTargetId());
+            }
+            if (maxId <= (long) rules.size() * DENSE_FACTOR + DENSE_SLACK) {
+                int length = rules.isEmpty() ? 0 : (int) maxId + 1;
+                double[] critical = new double[length];
+                double[] low = new double[length];
+                Arrays.fill(critical, Double.NaN);
+                for (StatusRule rule : rules) {
+                    int index = rule.getTargetId().intValue();
+                    critical[index] = rule.getCriticalThreshold();
+                    low[index] = rule.getLowThreshold();
+                }
+                return new Table(true, null, critical, low, 0, rules.size());
+            }
+            // Wypełnienie najwyżej 50%
+            int capacity = Integer.highestOneBit(Math.max(rules.size() * 2 - 1, 1)) << 1;
+            long[] keys = new long[capacity];
+            double[] critical = new double[capacity];
+            double[] low = new double[capacity];
+            int mask = capacity - 1;
+            for (StatusRule rule : rules) {
+                long key = rule.getTargetId();
+                int index = hash(key) & mask;
+                while (keys[index] != 0 && keys[index] != key) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                critical[index] = rule.getCriticalThreshold();
+                low[index] = rule.getLowThreshold();
+            }
+            return new Table(false, keys, critical, low, mask, rules.size());
+        }
+
+        private int slot(long id) {
+            if (id <= 0) {
+                return -1;
+            }
+            if (dense) {
+                return id < critical.length && !Double.isNaN(critical[(int) id]) ? (int) id : -1;
+            }
+            int index = hash(id) & mask;
+            long key;
+            while ((key = keys[index]) != 0) {
+                if (key == id) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
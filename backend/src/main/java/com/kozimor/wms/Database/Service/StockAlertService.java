@@ -0,0 +1,464 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Config.ResourceVersionRegistry;
+import com.kozimor.wms.Config.WmsMetrics;
+import com.kozimor.wms.Database.Model.DTO.StockAlertDTO;
+import com.kozimor.wms.Database.Model.DTO.StockEventDTO;
+import com.kozimor.wms.Database.Model.EntityChangedEvent;
+import com.kozimor.wms.Database.Model.LocationThreshold;
+import com.kozimor.wms.Database.Model.StockAlert;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Repository.LocationThresholdRepository;
+import com.kozimor.wms.Database.Repository.StockAlertRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Alerty progów lokacji (LocationThreshold) liczone przyrostowo przy każdej zaksięgowanej transakcji.
+ *
+ * Po commicie transakcji sprawdzane są tylko progi jej lokacji, a saldo (suma po itemach, zasady jak przy
+ * alokacji) pochodzi z tabeli location_balances, aktualizowanej przyrostowo w transakcji księgowania
+ * (LocationBalanceService) - odczyt po kluczu, obejmujący też księgowania z innych instancji. Księgowania,
+ * które napłyną w trakcie oceny, są sklejane: kolejna ocena czyta salda wszystkich zmienionych lokacji naraz.
+ *
+ * Progi lokacji trzymane są w pamięci instancji. Zmiana progu na innej instancji podbija wersję LocationThreshold
+ * w resource_versions - sprawdzana co wms.alerts.threshold-check-ms, po zmianie progi są wczytywane od nowa.
+ *
+ * Jeden aktywny alert danego typu w lokacji gwarantuje unikalny active_key - gdy dwie instancje podniosą
+ * alert jednocześnie, druga przejmuje zapisany wcześniej bez ponownego powiadomienia.
+ *
+ * Histereza: LOW_STOCK podnoszony poniżej minThreshold, czyszczony dopiero od minThreshold + pasmo;
+ * OVERSTOCK powyżej maxThreshold, czyszczony od maxThreshold - pasmo. Pasmo to wms.alerts.hysteresis-percent
+ * progu, nie mniej niż wms.alerts.hysteresis-min - saldo krążące wokół progu nie generuje serii alertów.
+ *
+ * Cały stan zmienia jeden wątek (wms-alerts), więc zdarzenia jednej lokacji są przetwarzane po kolei.
+ * Zmiany omijające księgowanie (anulowanie transakcji, usunięcie, zapisy bez JPA) koryguje przeliczenie
+ * lokacji albo zadanie alert_reconciliation, które przelicza też salda lokacji z progiem.
+ */
+@Service
+public class StockAlertService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockAlertService.class);
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public static final String RAISED_EVENT = "ALERT_RAISED";
+    public static final String CLEARED_EVENT = "ALERT_CLEARED";
+
+    private final StockAlertRepository stockAlertRepository;
+    private final LocationThresholdRepository locationThresholdRepository;
+    private final LocationBalanceService locationBalanceService;
+    private final ResourceVersionRegistry versionRegistry;
+    private final WmsMetrics metrics;
+    private final double hysteresisPercent;
+    private final double hysteresisMin;
+    private final ExecutorService evaluator;
+    private final ExecutorService sendExecutor;
+    private final SseBroadcaster broadcaster;
+    // Lokacje z progiem - mapę czytają wątki żądań, stan lokacji zmienia wyłącznie wątek wms-alerts
+    private final Map<Long, LocationState> locations = new ConcurrentHashMap<>();
+    private final Set<Long> postedLocations = ConcurrentHashMap.newKeySet();
+    // Wersja LocationThreshold z ostatniego wczytania progów - tylko wątek wms-alerts
+    private long thresholdVersion = -1;
+
+    public StockAlertService(StockAlertRepository stockAlertRepository,
+                             LocationThresholdRepository locationThresholdRepository,
+                             LocationBalanceService locationBalanceService,
+                             ResourceVersionRegistry versionRegistry,
+                             WmsMetrics metrics,
+                             @Value("${wms.alerts.hysteresis-percent:10}") double hysteresisPercent,
+                             @Value("${wms.alerts.hysteresis-min:1}") double hysteresisMin,
+                             @Value("${wms.events.buffer-size:256}") int bufferSize,
+                             @Value("${wms.events.max-subscribers:500}") int maxSubscribers,
+                             @Value("${wms.events.timeout-ms:1800000}") long timeoutMs) {
+        this.stockAlertRepository = stockAlertRepository;
+        this.locationThresholdRepository = locationThresholdRepository;
+        this.locationBalanceService = locationBalanceService;
+        this.versionRegistry = versionRegistry;
+        this.metrics = metrics;
+        this.hysteresisPercent = hysteresisPercent;
+        this.hysteresisMin = hysteresisMin;
+        this.evaluator = metrics.monitorExecutor(Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("wms-alerts").daemon(true).factory()), "wms.alerts");
+        this.sendExecutor = Executors.newFixedThreadPool(2,
+                Thread.ofPlatform().name("wms-alerts-sse-", 1).daemon(true).factory());
+        this.broadcaster = new SseBroadcaster("alerts", bufferSize, maxSubscribers, timeoutMs, sendExecutor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        submit("initial load", () -> reload(true));
+    }
+
+    /**
+     * Progi zmienione na innej instancji - lokalne zmiany obsługuje onEntityChanged, ale podbijają tę samą wersję
+     */
+    @Scheduled(fixedDelayString = "${wms.alerts.threshold-check-ms:5000}")
+    public void checkThresholds() {
+        submit("threshold check", () -> {
+            if (currentThresholdVersion() != thresholdVersion) {
+                reload(false);
+            }
+        });
+    }
+
+    /**
+     * Wywoływane cyklicznie przez zadanie alert_reconciliation - przelicza salda i progi wszystkich lokacji
+     *
+     * @return liczba lokacji z progiem
+     */
+    public int reconcile() {
+        try {
+            return evaluator.submit(() -> reload(true)).get(5, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Alert reconciliation interrupted", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Alert reconciliation failed", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockEvent(StockEventDTO event) {
+        Long locationId = event.getLocationId();
+        if (event.getType() != StockEventDTO.EventType.TRANSACTION_POSTED || locationId == null
+                || event.getQuantity() == null || "CANCELLED".equals(event.getStatus())
+                || !locations.containsKey(locationId)) {
+            return;
+        }
+        if (postedLocations.add(locationId)) {
+            submit("posting", this::evaluatePostings);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.entity() instanceof LocationThreshold threshold && threshold.getLocation() != null) {
+            Long locationId = threshold.getLocation().getId();
+            if (event.changeType() == EntityChangedEvent.ChangeType.DELETED) {
+                submit("threshold removal", () -> removeLocation(locationId));
+            } else {
+                submit("threshold change", () -> refreshLocation(locationId));
+            }
+        } else if (event.entity() instanceof Transaction transaction
+                && event.changeType() != EntityChangedEvent.ChangeType.CREATED
+                && transaction.getLocation() != null
+                && locations.containsKey(transaction.getLocation().getId())) {
+            // Zmiana statusu lub ilości istniejącej transakcji - różnicy nie znamy, lokacja jest przeliczana
+            Long locationId = transaction.getLocation().getId();
+            submit("transaction change", () -> refreshLocation(locationId));
+        }
+    }
+
+    public Page<StockAlertDTO> getAlerts(String status, int page, int size) {
+        if (page < 0 || size < 1 || size > 500) {
+            throw new IllegalArgumentException("Invalid page or size");
+        }
+        PageRequest pageable = PageRequest.of(page, size);
+        if (status == null || status.isBlank()) {
+            status = StockAlert.Status.ACTIVE.name();
+        }
+        if ("ALL".equalsIgnoreCase(status)) {
+            return stockAlertRepository.findAllByOrderByRaisedAtDesc(pageable).map(StockAlertService::toDTO);
+        }
+        StockAlert.Status parsed;
+        try {
+            parsed = StockAlert.Status.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown alert status: " + status);
+        }
+        return stockAlertRepository.findByStatusOrderByRaisedAtDesc(parsed, pageable).map(StockAlertService::toDTO);
+    }
+
+    public SseEmitter subscribe() {
+        return broadcaster.subscribe();
+    }
+
+    @Scheduled(fixedRateString = "${wms.events.heartbeat-ms:20000}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    /**
+     * Czeka na przetworzenie zdarzeń zakolejkowanych do tej chwili (testy, zamknięcie)
+     */
+    public void flush() {
+        try {
+            evaluator.submit(() -> { }).get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Alert queue flush failed: {}", e.getMessage());
+        }
+    }
+
+    private void submit(String what, Runnable task) {
+        evaluator.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.error("Alert evaluation ({}) failed", what, e);
+            }
+        });
+    }
+
+    private void evaluatePostings() {
+        List<Long> locationIds = new ArrayList<>();
+        for (Long locationId : postedLocations) {
+            // Usunięte przed odczytem salda - księgowanie zgłoszone później zleci kolejną ocenę
+            postedLocations.remove(locationId);
+            if (locations.containsKey(locationId)) {
+                locationIds.add(locationId);
+            }
+        }
+        if (locationIds.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<Long, Double> balances = loadBalances(locationIds);
+        for (Long locationId : locationIds) {
+            LocationState state = locations.get(locationId);
+            if (state != null) {
+                state.balance = balances.getOrDefault(locationId, 0.0);
+                evaluate(state);
+            }
+        }
+        metrics.recordAlertEvaluation(System.nanoTime() - start);
+    }
+
+    /**
+     * @param reconcile przeliczyć salda lokacji z progiem od zera (start, alert_reconciliation)
+     */
+    private int reload(boolean reconcile) {
+        // Wersja przed odczytem - zmiana zatwierdzona w trakcie wymusi kolejne wczytanie
+        thresholdVersion = currentThresholdVersion();
+        List<LocationThreshold> thresholds = locationThresholdRepository.findAllWithLocation();
+        Set<Long> locationIds = new HashSet<>();
+        thresholds.forEach(threshold -> locationIds.add(threshold.getLocation().getId()));
+        if (reconcile) {
+            locationBalanceService.reconcile(locationIds);
+        }
+        Map<Long, Double> balances = loadBalances(locationIds);
+        Map<Long, List<StockAlert>> active = new HashMap<>();
+        stockAlertRepository.findByStatus(StockAlert.Status.ACTIVE)
+                .forEach(alert -> active.computeIfAbsent(alert.getLocationId(), id -> new ArrayList<>()).add(alert));
+
+        for (LocationThreshold threshold : thresholds) {
+            Long locationId = threshold.getLocation().getId();
+            LocationState state = locations.computeIfAbsent(locationId, LocationState::new);
+            state.update(threshold);
+            // Księgowanie zatwierdzone w trakcie odczytu sald zleca własną ocenę lokacji
+            state.balance = balances.getOrDefault(locationId, 0.0);
+            state.lowAlertId = null;
+            state.highAlertId = null;
+            for (StockAlert alert : active.getOrDefault(locationId, List.of())) {
+                state.setAlertId(alert.getType(), alert.getId());
+            }
+            evaluate(state);
+        }
+        // Lokacje, których próg usunięto z pominięciem JPA albo na innej instancji
+        locations.keySet().removeIf(locationId -> !locationIds.contains(locationId));
+        active.keySet().stream()
+                .filter(locationId -> !locationIds.contains(locationId))
+                .forEach(this::removeLocation);
+        return thresholds.size();
+    }
+
+    private void refreshLocation(Long locationId) {
+        LocationThreshold threshold = locationThresholdRepository.findByLocationIdWithLocation(locationId).orElse(null);
+        if (threshold == null) {
+            removeLocation(locationId);
+            return;
+        }
+        LocationState state = locations.get(locationId);
+        if (state == null) {
+            state = new LocationState(locationId);
+            for (StockAlert.Type type : StockAlert.Type.values()) {
+                LocationState created = state;
+                stockAlertRepository.findFirstByLocationIdAndTypeAndStatus(locationId, type, StockAlert.Status.ACTIVE)
+                        .ifPresent(alert -> created.setAlertId(type, alert.getId()));
+            }
+            locations.put(locationId, state);
+        }
+        state.update(threshold);
+        state.balance = loadBalances(List.of(locationId)).getOrDefault(locationId, 0.0);
+        evaluate(state);
+    }
+
+    /**
+     * Lokacja bez progu nie ma alertów - aktywne są czyszczone
+     */
+    private void removeLocation(Long locationId) {
+        LocationState state = locations.remove(locationId);
+        double balance = state != null ? state.balance : loadBalances(List.of(locationId)).getOrDefault(locationId, 0.0);
+        for (StockAlert.Type type : StockAlert.Type.values()) {
+            Long alertId = state != null ? state.getAlertId(type)
+                    : stockAlertRepository.findFirstByLocationIdAndTypeAndStatus(locationId, type, StockAlert.Status.ACTIVE)
+                            .map(StockAlert::getId).orElse(null);
+            if (alertId != null) {
+                clear(locationId, type, alertId, balance);
+            }
+        }
+    }
+
+    private void evaluate(LocationState state) {
+        for (StockAlert.Type type : StockAlert.Type.values()) {
+            if (shouldRaise(state, type)) {
+                raise(state, type);
+            } else if (shouldClear(state, type)) {
+                clear(state.locationId, type, state.getAlertId(type), state.balance);
+                state.setAlertId(type, null);
+            }
+        }
+    }
+
+    private boolean shouldRaise(LocationState state, StockAlert.Type type) {
+        return switch (type) {
+            case LOW_STOCK -> state.lowAlertId == null && state.balance < state.min;
+            // maxThreshold 0 oznacza brak limitu pojemności
+            case OVERSTOCK -> state.highAlertId == null && state.max > 0 && state.balance > state.max;
+        };
+    }
+
+    private boolean shouldClear(LocationState state, StockAlert.Type type) {
+        return switch (type) {
+            case LOW_STOCK -> state.lowAlertId != null && state.balance >= state.min + band(state.min);
+            case OVERSTOCK -> state.highAlertId != null && (state.max <= 0 || state.balance <= state.max - band(state.max));
+        };
+    }
+
+    private double band(double threshold) {
+        return Math.max(Math.abs(threshold) * hysteresisPercent / 100.0, hysteresisMin);
+    }
+
+    private void raise(LocationState state, StockAlert.Type type) {
+        // Alert mogła już podnieść inna instancja - przejmujemy go bez ponownego powiadomienia
+        StockAlert existing = stockAlertRepository
+                .findFirstByLocationIdAndTypeAndStatus(state.locationId, type, StockAlert.Status.ACTIVE)
+                .orElse(null);
+        if (existing != null) {
+            state.setAlertId(type, existing.getId());
+            return;
+        }
+        StockAlert alert;
+        try {
+            alert = stockAlertRepository.save(StockAlert.builder()
+                    .locationId(state.locationId)
+                    .locationCode(state.code)
+                    .type(type)
+                    .status(StockAlert.Status.ACTIVE)
+                    .threshold(type == StockAlert.Type.LOW_STOCK ? state.min : state.max)
+                    .quantity(state.balance)
+                    .raisedAt(LocalDateTime.now())
+                    .activeKey(StockAlert.activeKey(state.locationId, type))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Inna instancja zapisała alert między sprawdzeniem a zapisem
+            stockAlertRepository.findFirstByLocationIdAndTypeAndStatus(state.locationId, type, StockAlert.Status.ACTIVE)
+                    .ifPresent(concurrent -> state.setAlertId(type, concurrent.getId()));
+            return;
+        }
+        state.setAlertId(type, alert.getId());
+        metrics.recordAlert(type.name(), "raised");
+        broadcaster.broadcast(RAISED_EVENT, toDTO(alert));
+        logger.info("{} alert raised for location {} (balance {})", type, state.code, state.balance);
+    }
+
+    private void clear(Long locationId, StockAlert.Type type, Long alertId, double balance) {
+        int cleared = stockAlertRepository.clear(locationId, type, balance, LocalDateTime.now(),
+                StockAlert.Status.ACTIVE, StockAlert.Status.CLEARED);
+        if (cleared == 0) {
+            return;
+        }
+        metrics.recordAlert(type.name(), "cleared");
+        stockAlertRepository.findById(alertId).ifPresent(alert -> broadcaster.broadcast(CLEARED_EVENT, toDTO(alert)));
+        logger.info("{} alert cleared for location {} (balance {})", type, locationId, balance);
+    }
+
+    private Map<Long, Double> loadBalances(Collection<Long> locationIds) {
+        return locationBalanceService.getBalances(locationIds);
+    }
+
+    private long currentThresholdVersion() {
+        return versionRegistry.getVersions(List.of(LocationThreshold.class))[0];
+    }
+
+    private static StockAlertDTO toDTO(StockAlert alert) {
+        return StockAlertDTO.builder()
+                .id(alert.getId())
+                .locationId(alert.getLocationId())
+                .locationCode(alert.getLocationCode())
+                .type(alert.getType().name())
+                .status(alert.getStatus().name())
+                .threshold(alert.getThreshold())
+                .quantity(alert.getQuantity())
+                .raisedAt(alert.getRaisedAt() != null ? alert.getRaisedAt().format(FORMATTER) : null)
+                .clearedQuantity(alert.getClearedQuantity())
+                .clearedAt(alert.getClearedAt() != null ? alert.getClearedAt().format(FORMATTER) : null)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evaluator.shutdownNow();
+        sendExecutor.shutdownNow();
+    }
+
+    private static final class LocationState {
+        private final Long locationId;
+        private String code;
+        private double min;
+        private double max;
+        private double balance;
+        private Long lowAlertId;
+        private Long highAlertId;
+
+        private LocationState(Long locationId) {
+            this.locationId = locationId;
+        }
+
+        private void update(LocationThreshold threshold) {
+            this.code = threshold.getLocation().getCode();
+            this.min = threshold.getMinThreshold();
+            this.max = threshold.getMaxThreshold();
+        }
+
+        private Long getAlertId(StockAlert.Type type) {
+            return type == StockAlert.Type.LOW_STOCK ? lowAlertId : highAlertId;
+        }
+
+        private void setAlertId(StockAlert.Type type, Long alertId) {
+            if (type == StockAlert.Type.LOW_STOCK) {
+                lowAlertId = alertId;
+            } else {
+                highAlertId = alertId;
+            }
+        }
+    }
+}
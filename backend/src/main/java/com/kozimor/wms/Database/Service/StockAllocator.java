@@ -0,0 +1,159 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.AllocationPolicy;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.LocationCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alokacja linii zamówień na lokacje według sald per lokacja.
+ *
+ * Działa wyłącznie w pamięci na wcześniej załadowanym {@link Snapshot} - serwis ładuje salda
+ * wszystkich itemów zamówienia jednym zapytaniem, a alokacja kolejnych linii tylko zmniejsza salda w snapshocie.
+ * Dzięki temu kilka linii tego samego itemu nie rozdysponuje dwa razy tej samej ilości.
+ */
+@Service
+public class StockAllocator {
+
+    private final AllocationPolicy defaultPolicy;
+    private final LocationCode origin;
+
+    public StockAllocator(@Value("${wms.allocation.default-policy:FIFO}") AllocationPolicy defaultPolicy,
+                          @Value("${wms.allocation.origin:A1-S1-R1}") String origin) {
+        this.defaultPolicy = defaultPolicy;
+        this.origin = LocationCode.parse(origin)
+                .orElseThrow(() -> new IllegalArgumentException("Nieprawidłowy kod lokacji startowej: " + origin));
+    }
+
+    public AllocationPolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    /**
+     * @param policy null oznacza politykę domyślną (wms.allocation.default-policy)
+     */
+    public Snapshot snapshot(AllocationPolicy policy) {
+        return new Snapshot(policy != null ? policy : defaultPolicy);
+    }
+
+    /**
+     * Rozdziela ilość na lokacje z dodatnim saldem w kolejności polityki snapshotu.
+     * Gdy salda nie wystarczają, wynik jest częściowy - decyzja co z brakiem należy do wywołującego.
+     */
+    public Result allocate(Snapshot snapshot, Long itemId, double quantity) {
+        List<Bin> bins = snapshot.sortedBins(itemId, comparator(snapshot.policy));
+        List<Allocation> allocations = new ArrayList<>();
+        double remaining = quantity;
+        for (Bin bin : bins) {
+            if (remaining <= 0) {
+                break;
+            }
+            if (bin.available <= 0) {
+                continue;
+            }
+            double taken = Math.min(bin.available, remaining);
+            bin.available -= taken;
+            remaining -= taken;
+            allocations.add(new Allocation(bin.location, taken));
+        }
+        return new Result(quantity, allocations);
+    }
+
+    private Comparator<Bin> comparator(AllocationPolicy policy) {
+        Comparator<Bin> byCreatedAt = Comparator.comparing(bin -> bin.createdAt,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        Comparator<Bin> primary = switch (policy) {
+            case FIFO -> byCreatedAt;
+            // Kody spoza formatu A1-S1-R1 na końcu
+            case NEAREST -> Comparator.comparingInt(bin -> bin.code != null ? bin.code.distanceTo(origin) : Integer.MAX_VALUE);
+            case EMPTY_NEAR_EMPTY_FIRST -> Comparator.comparingDouble(bin -> bin.available);
+        };
+        // Stabilna kolejność przy remisach - najpierw starsze przypisanie
+        return primary.thenComparing(byCreatedAt);
+    }
+
+    /**
+     * Kandydujące lokacje itemów jednego zamówienia wraz z saldami
+     */
+    public static final class Snapshot {
+
+        private final AllocationPolicy policy;
+        private final Map<Long, List<Bin>> bins = new HashMap<>();
+        private final Map<Long, Boolean> sorted = new HashMap<>();
+
+        private Snapshot(AllocationPolicy policy) {
+            this.policy = policy;
+        }
+
+        public AllocationPolicy getPolicy() {
+            return policy;
+        }
+
+        public Snapshot addBin(Long itemId, Location location, LocalDateTime assignedAt, double available) {
+            bins.computeIfAbsent(itemId, id -> new ArrayList<>()).add(new Bin(location, assignedAt, available));
+            sorted.remove(itemId);
+            return this;
+        }
+
+        public double getAvailable(Long itemId) {
+            return bins.getOrDefault(itemId, List.of()).stream()
+                    .mapToDouble(bin -> Math.max(bin.available, 0))
+                    .sum();
+        }
+
+        // Sortowanie raz na item - kolejne linie tego samego itemu korzystają z tej samej kolejności
+        private List<Bin> sortedBins(Long itemId, Comparator<Bin> comparator) {
+            List<Bin> itemBins = bins.get(itemId);
+            if (itemBins == null) {
+                return List.of();
+            }
+            if (sorted.putIfAbsent(itemId, Boolean.TRUE) == null) {
+                itemBins.sort(comparator);
+            }
+            return itemBins;
+        }
+    }
+
+    private static final class Bin {
+        private final Location location;
+        private final LocalDateTime createdAt;
+        private final LocationCode code;
+        private double available;
+
+        private Bin(Location location, LocalDateTime createdAt, double available) {
+            this.location = location;
+            this.createdAt = createdAt;
+            this.code = LocationCode.parse(location.getCode()).orElse(null);
+            this.available = available;
+        }
+    }
+
+    public record Allocation(Location location, double quantity) {
+    }
+
+    public record Result(double requested, List<Allocation> allocations) {
+
+        // Reszty z odejmowania ilości ułamkowych nie są brakiem
+        private static final double EPSILON = 1e-9;
+
+        public double allocated() {
+            return allocations.stream().mapToDouble(Allocation::quantity).sum();
+        }
+
+        public double shortfall() {
+            return Math.max(requested - allocated(), 0);
+        }
+
+        public boolean isPartial() {
+            return shortfall() > EPSILON;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.DTO.StockEventDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Strumień zmian stanu magazynu dla dashboardów (zamiast cyklicznego odpytywania list i liczników).
+ * Zdarzenia publikowane w serwisach trafiają do klientów dopiero po commicie transakcji.
+ */
+@Service
+public class StockEventService {
+
+    private final ExecutorService sendExecutor;
+    private final SseBroadcaster broadcaster;
+
+    public StockEventService(@Value("${wms.events.buffer-size:256}") int bufferSize,
+                             @Value("${wms.events.max-subscribers:500}") int maxSubscribers,
+                             @Value("${wms.events.timeout-ms:1800000}") long timeoutMs,
+                             @Value("${wms.events.send-threads:4}") int sendThreads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "wms-sse-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.sendExecutor = Executors.newFixedThreadPool(sendThreads, threadFactory);
+        this.broadcaster = new SseBroadcaster("stock", bufferSize, maxSubscribers, timeoutMs, sendExecutor);
+    }
+
+    public SseEmitter subscribe() {
+        return broadcaster.subscribe();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockEvent(StockEventDTO event) {
+        broadcaster.broadcast(event.getType().name(), event);
+    }
+
+    @Scheduled(fixedRateString = "${wms.events.heartbeat-ms:20000}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    public int getSubscriberCount() {
+        return broadcaster.getSubscriberCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+    }
+}
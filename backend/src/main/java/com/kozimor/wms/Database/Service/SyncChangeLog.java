@@ -0,0 +1,134 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.EntityChangedEvent;
+import com.kozimor.wms.Database.Model.InventoryLocation;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.Keyword;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.SyncChange;
+import com.kozimor.wms.Database.Repository.SyncChangeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zapis dziennika zmian katalogu (item, lokacja, przypisanie, słowo kluczowe) dla synchronizacji skanerów.
+ *
+ * Wpis powstaje w transakcji zmiany - zatwierdza się razem z nią albo wcale, więc awaria między zapisem
+ * encji a zapisem dziennika nie gubi zmiany. Kolejność wyznacza id z sekwencji (IDENTITY), bez wspólnej
+ * blokady - transakcje piszące do dziennika nie czekają na siebie. Id nadawane jest przy wstawieniu, a wpisy
+ * wstawiane są dopiero po ostatnim flush przy commicie, więc od nadania id do commitu mija tylko sam commit.
+ * Wpis z mniejszym id może jednak zatwierdzić się później niż z większym - dlatego SyncService wydaje
+ * urządzeniom tylko wpisy starsze niż wms.sync.visibility-lag-seconds (changed_at to chwila wstawienia).
+ */
+@Component
+public class SyncChangeLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncChangeLog.class);
+
+    private static final Map<Class<?>, SyncChange.EntityType> TRACKED_TYPES = Map.of(
+            Item.class, SyncChange.EntityType.ITEM,
+            Location.class, SyncChange.EntityType.LOCATION,
+            InventoryLocation.class, SyncChange.EntityType.INVENTORY_LOCATION,
+            Keyword.class, SyncChange.EntityType.KEYWORD);
+
+    private final SyncChangeRepository syncChangeRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final PersistenceUnitUtil persistenceUnitUtil;
+    private final long retentionDays;
+
+    public SyncChangeLog(SyncChangeRepository syncChangeRepository,
+                         EntityManager entityManager,
+                         JdbcTemplate jdbcTemplate,
+                         EntityManagerFactory entityManagerFactory,
+                         @Value("${wms.sync.retention-days:30}") long retentionDays) {
+        this.syncChangeRepository = syncChangeRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Zwykły @EventListener - zdarzenie przychodzi w transakcji zmiany (także w trakcie flush Hibernate),
+     * dlatego wpis idzie przez JDBC, a nie przez repozytorium
+     */
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        SyncChange.EntityType entityType = TRACKED_TYPES.get(event.entityType());
+        if (entityType == null || event.entity() == null) {
+            return;
+        }
+        Object id = persistenceUnitUtil.getIdentifier(event.entity());
+        if (!(id instanceof Long entityId)) {
+            return;
+        }
+        Object[] entry = {entityType.name(), entityId, event.changeType().name()};
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            insert(List.<Object[]>of(entry));
+            return;
+        }
+        // Synchronizacje są per transakcja - jak w ResourceVersionRegistry
+        PendingEntries pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(PendingEntries.class::isInstance)
+                .map(PendingEntries.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    PendingEntries created = new PendingEntries();
+                    TransactionSynchronizationManager.registerSynchronization(created);
+                    entityManager.unwrap(SessionImplementor.class).getActionQueue().registerProcess(created);
+                    return created;
+                });
+        pending.entries.add(entry);
+    }
+
+    private void insert(List<Object[]> entries) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO sync_changes (entity_type, entity_id, change_type, changed_at) VALUES (?, ?, ?, ?)",
+                entries.stream().map(entry -> new Object[]{entry[0], entry[1], entry[2], now}).toList());
+    }
+
+    /**
+     * Wywoływane przez zadanie sync_log_cleanup
+     *
+     * @return liczba usuniętych wpisów
+     */
+    public int cleanup() {
+        int removed = syncChangeRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        if (removed > 0) {
+            logger.info("Removed {} sync change log entries older than {} days", removed, retentionDays);
+        }
+        return removed;
+    }
+
+    /**
+     * Wpisy jednej transakcji - synchronizacja Springa służy tylko do ich odnalezienia, wstawia je Hibernate
+     * po ostatnim flush przy commicie
+     */
+    private class PendingEntries implements TransactionSynchronization, BeforeTransactionCompletionProcess {
+
+        private final List<Object[]> entries = new ArrayList<>();
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            insert(entries);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.EntityChangedEvent;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.SyncChange;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Model.DTO.OfflineTransactionDTO;
+import com.kozimor.wms.Database.Model.DTO.SyncDeltaDTO;
+import com.kozimor.wms.Database.Model.DTO.SyncUploadRequest;
+import com.kozimor.wms.Database.Model.DTO.SyncUploadResultDTO;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.LocationRepository;
+import com.kozimor.wms.Database.Repository.SyncChangeRepository;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Synchronizacja skanerów pracujących offline (mroźnia bez zasięgu).
+ *
+ * GET zwraca zmiany katalogu po tokenie urządzenia - każda zmieniona encja raz, w aktualnym stanie.
+ * Bez tokenu, albo gdy token jest starszy niż przechowywany dziennik, urządzenie dostaje pełny stan.
+ * Wpisy dziennika mogą zatwierdzać się poza kolejnością id (SyncChangeLog), więc odpowiedź kończy się przed
+ * pierwszym wpisem młodszym niż wms.sync.visibility-lag-seconds - token nie przeskoczy wpisu, którego commit
+ * jeszcze trwa. Zmiana dociera do skanera z tym opóźnieniem; zegary instancji muszą być zsynchronizowane (NTP).
+ * POST przyjmuje transakcje z kolejki urządzenia; każda księgowana jest osobno, a wynik raportowany per clientId.
+ */
+@Service
+public class SyncService {
+
+    public static final int MAX_PAGE_SIZE = 5000;
+
+    private static final int ID_CHUNK = 1000;
+    private static final Set<TransactionType> OUTBOUND_TYPES = Set.of(
+            TransactionType.ORDER, TransactionType.ISSUE_TO_PRODUCTION, TransactionType.ISSUE_TO_SALES);
+
+    private final SyncChangeRepository syncChangeRepository;
+    private final ItemRepository itemRepository;
+    private final LocationRepository locationRepository;
+    private final UserRepository userRepository;
+    private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
+    private final int defaultPageSize;
+    private final Duration visibilityLag;
+
+    public SyncService(SyncChangeRepository syncChangeRepository,
+                       ItemRepository itemRepository,
+                       LocationRepository locationRepository,
+                       UserRepository userRepository,
+                       TransactionService transactionService,
+                       IdempotencyService idempotencyService,
+                       @Value("${wms.sync.page-size:1000}") int defaultPageSize,
+                       @Value("${wms.sync.visibility-lag-seconds:5}") long visibilityLagSeconds) {
+        this.syncChangeRepository = syncChangeRepository;
+        this.itemRepository = itemRepository;
+        this.locationRepository = locationRepository;
+        this.userRepository = userRepository;
+        this.transactionService = transactionService;
+        this.idempotencyService = idempotencyService;
+        this.defaultPageSize = defaultPageSize;
+        this.visibilityLag = Duration.ofSeconds(visibilityLagSeconds);
+    }
+
+    /**
+     * @param since ostatni token urządzenia; null = pierwsza synchronizacja
+     * @param limit maksymalna liczba wpisów dziennika w odpowiedzi; null = wms.sync.page-size
+     */
+    @Transactional(readOnly = true)
+    public SyncDeltaDTO getChanges(Long since, Integer limit) {
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (since == null || since < 0 || !isRetained(since)) {
+            return snapshot();
+        }
+
+        List<SyncChange> changes = syncChangeRepository.findByIdGreaterThanAndIdLessThanOrderByIdAsc(
+                since, visibleBefore(since), PageRequest.of(0, pageSize + 1));
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        // Kilka zmian tej samej encji w porcji - liczy się ostatnia
+        Map<SyncChange.EntityType, Map<Long, EntityChangedEvent.ChangeType>> latest = new EnumMap<>(SyncChange.EntityType.class);
+        for (SyncChange change : changes) {
+            latest.computeIfAbsent(change.getEntityType(), type -> new LinkedHashMap<>())
+                    .put(change.getEntityId(), change.getChangeType());
+        }
+
+        SyncDeltaDTO delta = emptyDelta(changes.isEmpty() ? since : changes.get(changes.size() - 1).getId());
+        delta.setHasMore(hasMore);
+        latest.forEach((type, byId) -> {
+            List<Long> upserted = new ArrayList<>();
+            List<Long> deleted = new ArrayList<>();
+            byId.forEach((id, changeType) -> (changeType == EntityChangedEvent.ChangeType.DELETED ? deleted : upserted).add(id));
+            // Encja usunięta po wpisie z tej porcji (usunięcie przyjdzie w następnej) - od razu jako usunięta
+            Set<Long> found = loadRows(type, upserted, delta);
+            upserted.stream().filter(id -> !found.contains(id)).forEach(deleted::add);
+            if (!deleted.isEmpty()) {
+                delta.getDeleted().put(type.name(), deleted);
+            }
+        });
+        return delta;
+    }
+
+    /**
+     * Transakcje z kolejki urządzenia. Każda w osobnej transakcji bazy - konflikt jednej nie cofa pozostałych.
+     */
+    public SyncUploadResultDTO uploadTransactions(SyncUploadRequest request, Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+        List<OfflineTransactionDTO> operations = request.getTransactions();
+        Map<Long, Item> items = itemRepository.findAllById(
+                        operations.stream().map(OfflineTransactionDTO::getItemId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, Location> locations = locationRepository.findAllById(
+                        operations.stream().map(OfflineTransactionDTO::getLocationId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Location::getId, Function.identity()));
+
+        List<SyncUploadResultDTO.Entry> results = new ArrayList<>(operations.size());
+        Map<SyncUploadResultDTO.Status, Integer> counts = new EnumMap<>(SyncUploadResultDTO.Status.class);
+        for (OfflineTransactionDTO operation : operations) {
+            SyncUploadResultDTO.Entry entry = apply(operation, user, items, locations, request.getDeviceId());
+            counts.merge(entry.getStatus(), 1, Integer::sum);
+            results.add(entry);
+        }
+
+        return SyncUploadResultDTO.builder()
+                .appliedCount(counts.getOrDefault(SyncUploadResultDTO.Status.APPLIED, 0))
+                .duplicateCount(counts.getOrDefault(SyncUploadResultDTO.Status.DUPLICATE, 0))
+                .conflictCount(counts.getOrDefault(SyncUploadResultDTO.Status.CONFLICT, 0))
+                .rejectedCount(counts.getOrDefault(SyncUploadResultDTO.Status.REJECTED, 0))
+                .results(results)
+                .build();
+    }
+
+    private SyncUploadResultDTO.Entry apply(OfflineTransactionDTO operation, User user, Map<Long, Item> items,
+                                            Map<Long, Location> locations, String deviceId) {
+        String key = user.getId() + "|SYNC|" + operation.getClientId();
+        SyncUploadResultDTO.Entry.EntryBuilder entry = SyncUploadResultDTO.Entry.builder().clientId(operation.getClientId());
+
+        var stored = idempotencyService.findCompleted(key);
+        if (stored.isPresent()) {
+            return entry.status(SyncUploadResultDTO.Status.DUPLICATE).transactionId(Long.valueOf(stored.get().body())).build();
+        }
+        Optional<IdempotencyService.Reservation> reservation = idempotencyService.tryReserve(key);
+        if (reservation.isEmpty()) {
+            return entry.status(SyncUploadResultDTO.Status.DUPLICATE).message("Transaction is being processed").build();
+        }
+
+        Item item = items.get(operation.getItemId());
+        Location location = locations.get(operation.getLocationId());
+        String rejection = item == null ? "Item not found with id: " + operation.getItemId()
+                : location == null ? "Location not found with id: " + operation.getLocationId()
+                : !location.isActive() ? "Location is inactive: " + location.getCode()
+                : null;
+        if (rejection != null) {
+            idempotencyService.release(reservation.get());
+            return entry.status(SyncUploadResultDTO.Status.REJECTED).message(rejection).build();
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(operation.getTransactionType());
+        transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+        transaction.setItem(item);
+        transaction.setLocation(location);
+        transaction.setQuantity(operation.getQuantity());
+        transaction.setUser(user);
+        transaction.setDescription(describe(operation, deviceId));
+        try {
+            // Księgowanie i zapis klucza w jednej transakcji bazy - awaria między nimi nie zaksięguje ponowienia drugi raz
+            var applied = idempotencyService.executeOnce(reservation.get(), () -> new IdempotencyService.Response(
+                    201, "text/plain", String.valueOf(transactionService.createTransaction(transaction).getId())));
+            return entry.status(SyncUploadResultDTO.Status.APPLIED).transactionId(Long.valueOf(applied.orElseThrow().body())).build();
+        } catch (IdempotencyService.ReservationLostException e) {
+            return entry.status(SyncUploadResultDTO.Status.DUPLICATE).message("Transaction is being processed").build();
+        } catch (IllegalArgumentException e) {
+            idempotencyService.release(reservation.get());
+            // Dane są już sprawdzone, więc dla wydań jedyny powód to brak ilości
+            boolean conflict = OUTBOUND_TYPES.contains(operation.getTransactionType());
+            return entry.status(conflict ? SyncUploadResultDTO.Status.CONFLICT : SyncUploadResultDTO.Status.REJECTED)
+                    .currentQuantity(conflict ? itemRepository.findById(item.getId()).map(Item::getCurrentQuantity).orElse(null) : null)
+                    .message(e.getMessage())
+                    .build();
+        } catch (RuntimeException e) {
+            idempotencyService.release(reservation.get());
+            throw e;
+        }
+    }
+
+    private static String describe(OfflineTransactionDTO operation, String deviceId) {
+        StringBuilder description = new StringBuilder();
+        if (operation.getDescription() != null && !operation.getDescription().isBlank()) {
+            description.append(operation.getDescription()).append(' ');
+        }
+        description.append("[offline");
+        if (deviceId != null && !deviceId.isBlank()) {
+            description.append(", ").append(deviceId);
+        }
+        if (operation.getOccurredAt() != null) {
+            description.append(", ").append(operation.getOccurredAt());
+        }
+        return description.append(']').toString();
+    }
+
+    /**
+     * Czy dziennik zawiera wszystko po tokenie - po czyszczeniu starych wpisów stary token wymaga pełnego stanu
+     */
+    private boolean isRetained(long since) {
+        Long maxId = syncChangeRepository.findMaxId();
+        if (maxId == null) {
+            return since == 0;
+        }
+        Long minId = syncChangeRepository.findMinId();
+        return since <= maxId && since >= minId - 1;
+    }
+
+    /**
+     * Granica wpisów do wydania: pierwszy wpis po tokenie młodszy niż visibility-lag. Wpisy przed nim są
+     * zatwierdzone - wyjątkiem byłby commit trwający dłużej niż visibility-lag od wstawienia wpisu.
+     */
+    private long visibleBefore(long since) {
+        Long firstRecent = syncChangeRepository.findFirstIdChangedSince(since, LocalDateTime.now().minus(visibilityLag));
+        return firstRecent != null ? firstRecent : Long.MAX_VALUE;
+    }
+
+    private SyncDeltaDTO snapshot() {
+        // Token przed odczytem - zmiany zatwierdzone w trakcie przyjdą jeszcze raz przy następnej synchronizacji
+        Long maxId = syncChangeRepository.findMaxId();
+        long before = visibleBefore(0L);
+        SyncDeltaDTO delta = emptyDelta(before != Long.MAX_VALUE ? before - 1 : maxId != null ? maxId : 0L);
+        delta.setSnapshot(true);
+        loadRows(SyncChange.EntityType.ITEM, syncChangeRepository.findAllItemIds(), delta);
+        loadRows(SyncChange.EntityType.LOCATION, syncChangeRepository.findAllLocationIds(), delta);
+        loadRows(SyncChange.EntityType.INVENTORY_LOCATION, syncChangeRepository.findAllInventoryLocationIds(), delta);
+        loadRows(SyncChange.EntityType.KEYWORD, syncChangeRepository.findAllKeywordIds(), delta);
+        return delta;
+    }
+
+    // Puste listy nie trafiają do JSON (NON_EMPTY)
+    private static SyncDeltaDTO emptyDelta(Long token) {
+        return SyncDeltaDTO.builder()
+                .token(token)
+                .items(new ArrayList<>())
+                .locations(new ArrayList<>())
+                .inventoryLocations(new ArrayList<>())
+                .keywords(new ArrayList<>())
+                .deleted(new LinkedHashMap<>())
+                .build();
+    }
+
+    /**
+     * Dokłada wiersze do odpowiedzi
+     * @return id znalezionych wierszy
+     */
+    private Set<Long> loadRows(SyncChange.EntityType type, List<Long> ids, SyncDeltaDTO delta) {
+        Set<Long> found = new HashSet<>();
+        for (List<Long> chunk : chunks(ids)) {
+            switch (type) {
+                case ITEM -> {
+                    Map<Long, List<Long>> keywordIds = new HashMap<>();
+                    for (Object[] row : syncChangeRepository.findItemKeywordRows(chunk)) {
+                        keywordIds.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+                    }
+                    for (Object[] row : syncChangeRepository.findItemRows(chunk)) {
+                        Long id = (Long) row[0];
+                        found.add(id);
+                        delta.getItems().add(new SyncDeltaDTO.ItemRow(id, (String) row[1], (Long) row[2],
+                                name(row[3]), name(row[4]), (Double) row[5], (String) row[6],
+                                row[7] != null ? row[7].toString() : null, keywordIds.getOrDefault(id, List.of())));
+                    }
+                }
+                case LOCATION -> {
+                    for (Object[] row : syncChangeRepository.findLocationRows(chunk)) {
+                        found.add((Long) row[0]);
+                        delta.getLocations().add(new SyncDeltaDTO.LocationRow((Long) row[0],
+                                (String) row[1], (String) row[2], (String) row[3], name(row[4]), (Boolean) row[5]));
+                    }
+                }
+                case INVENTORY_LOCATION -> {
+                    for (Object[] row : syncChangeRepository.findInventoryLocationRows(chunk)) {
+                        found.add((Long) row[0]);
+                        delta.getInventoryLocations().add(new SyncDeltaDTO.InventoryLocationRow((Long) row[0], (Long) row[1], (Long) row[2]));
+                    }
+                }
+                case KEYWORD -> {
+                    for (Object[] row : syncChangeRepository.findKeywordRows(chunk)) {
+                        found.add((Long) row[0]);
+                        delta.getKeywords().add(new SyncDeltaDTO.KeywordRow((Long) row[0], (String) row[1]));
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static String name(Object value) {
+        return value instanceof Enum<?> e ? e.name() : null;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> list = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += ID_CHUNK) {
+            chunks.add(list.subList(from, Math.min(from + ID_CHUNK, list.size())));
+        }
+        return chunks;
+    }
+}
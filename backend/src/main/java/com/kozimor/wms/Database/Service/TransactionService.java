@@ -22,6 +22,14 @@ public interface TransactionService {
      */
     Transaction createTransaction(Transaction transaction);
 
+    /**
+     * Create many transactions in one call - items are loaded with a single IN query
+     * and stock changes are aggregated per item (one update per item)
+     * @param transactions The transactions to create, applied in list order
+     * @return The created transactions in the same order
+     */
+    List<Transaction> createTransactions(List<Transaction> transactions);
+
     /**
      * Get all transactions
      * @return List of all transactions
@@ -0,0 +1,182 @@
+package com.kozimor.wms.Database.Service;
+
+import com.kozimor.wms.Database.Model.LocationCode;
+import com.kozimor.wms.Database.Model.Order;
+import com.kozimor.wms.Database.Model.PickPathStrategy;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.UnitType;
+import com.kozimor.wms.Database.Model.DTO.PickLineDTO;
+import com.kozimor.wms.Database.Model.DTO.PickListDTO;
+import com.kozimor.wms.Database.Model.DTO.WavePlanDTO;
+import com.kozimor.wms.Database.Repository.OrderLineRepository;
+import com.kozimor.wms.Database.Repository.OrderRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Planowanie fali kompletacji: linie wielu zamówień PENDING grupowane po lokacji wydania,
+ * żeby każdą lokację odwiedzić w fali tylko raz. Listy pobrań są posortowane w kolejności
+ * przejścia po magazynie wg kodu lokacji (sektor, półka, rząd).
+ */
+@Service
+@Transactional(readOnly = true)
+public class WavePlanningService {
+
+    public static final int MAX_WAVE_ORDERS = 10_000;
+    // Limit parametrów w klauzuli IN
+    private static final int ORDER_ID_CHUNK = 1_000;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final OrderRepository orderRepository;
+    private final OrderLineRepository orderLineRepository;
+    private final PickPathOptimizer pickPathOptimizer;
+
+    public WavePlanningService(OrderRepository orderRepository, OrderLineRepository orderLineRepository,
+                               PickPathOptimizer pickPathOptimizer) {
+        this.orderRepository = orderRepository;
+        this.orderLineRepository = orderLineRepository;
+        this.pickPathOptimizer = pickPathOptimizer;
+    }
+
+    /**
+     * Plan fali dla najstarszych zamówień PENDING
+     *
+     * @param maxOrders ile zamówień objąć falą (1..MAX_WAVE_ORDERS)
+     * @param strategy kolejność odwiedzania lokacji; null = WALK_ORDER
+     */
+    public WavePlanDTO planWave(int maxOrders, PickPathStrategy strategy) {
+        if (maxOrders < 1 || maxOrders > MAX_WAVE_ORDERS) {
+            throw new IllegalArgumentException("maxOrders musi być w zakresie 1.." + MAX_WAVE_ORDERS);
+        }
+        List<Order> orders = orderRepository.findByOrderStatus(TransactionStatus.PENDING,
+                PageRequest.of(0, maxOrders, Sort.by("createdAt", "id"))).getContent();
+        return plan(orders.stream().map(Order::getId).toList(), strategy);
+    }
+
+    /**
+     * Lista pobrań jednego zamówienia (niezależnie od statusu)
+     */
+    public WavePlanDTO planOrder(Long orderId, PickPathStrategy strategy) {
+        if (!orderRepository.existsById(orderId)) {
+            throw new EntityNotFoundException("Order not found with id: " + orderId);
+        }
+        return plan(List.of(orderId), strategy);
+    }
+
+    private WavePlanDTO plan(List<Long> orderIds, PickPathStrategy strategy) {
+        Map<Long, PickListBuilder> byLocation = new HashMap<>();
+        Set<Long> lineIds = new HashSet<>();
+        Set<Long> unassigned = new LinkedHashSet<>();
+        for (int from = 0; from < orderIds.size(); from += ORDER_ID_CHUNK) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + ORDER_ID_CHUNK, orderIds.size()));
+            for (Object[] row : orderLineRepository.findPickRowsByOrderIdIn(chunk)) {
+                Long lineId = (Long) row[0];
+                lineIds.add(lineId);
+                Long locationId;
+                String locationCode;
+                double quantity;
+                if (row[8] != null) {
+                    locationId = (Long) row[8];
+                    locationCode = (String) row[9];
+                    quantity = ((Number) row[7]).doubleValue();
+                } else if (row[10] != null) {
+                    // Zamówienia sprzed alokacji na wiele lokacji - jedna transakcja, ilość z linii
+                    locationId = (Long) row[10];
+                    locationCode = (String) row[11];
+                    quantity = ((Number) row[6]).doubleValue();
+                } else {
+                    unassigned.add(lineId);
+                    continue;
+                }
+                byLocation.computeIfAbsent(locationId, id -> new PickListBuilder(id, locationCode))
+                        .add(row, quantity);
+            }
+        }
+
+        List<PickListBuilder> builders = new ArrayList<>(byLocation.values());
+        builders.sort(PickListBuilder.WALK_ORDER);
+        Integer pathDistance = null;
+        if (strategy != null && strategy != PickPathStrategy.WALK_ORDER && !builders.isEmpty()) {
+            PickPathOptimizer.PickPath path = pickPathOptimizer.optimize(
+                    builders.stream().map(builder -> builder.locationCode).toList(), strategy);
+            Map<String, Integer> position = new HashMap<>();
+            for (int i = 0; i < path.codes().size(); i++) {
+                position.put(path.codes().get(i), i);
+            }
+            builders.sort(Comparator.comparing(builder -> position.get(builder.locationCode)));
+            pathDistance = path.distance();
+        }
+        List<PickListDTO> pickLists = new ArrayList<>(builders.size());
+        for (int i = 0; i < builders.size(); i++) {
+            pickLists.add(builders.get(i).build(i + 1));
+        }
+
+        return WavePlanDTO.builder()
+                .orderCount(orderIds.size())
+                .lineCount(lineIds.size())
+                .locationCount(pickLists.size())
+                .unassignedOrderLineIds(new ArrayList<>(unassigned))
+                .pickLists(pickLists)
+                .pathStrategy((strategy != null ? strategy : PickPathStrategy.WALK_ORDER).name())
+                .pathDistance(pathDistance)
+                .generatedAt(LocalDateTime.now().format(FORMATTER))
+                .build();
+    }
+
+    private static final class PickListBuilder {
+
+        // Kody zgodne z formatem A1-S1-R1 w kolejności przejścia, pozostałe na końcu alfabetycznie
+        private static final Comparator<PickListBuilder> WALK_ORDER = Comparator
+                .comparing((PickListBuilder builder) -> builder.code, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(builder -> builder.locationCode, Comparator.nullsLast(Comparator.naturalOrder()));
+
+        private final Long locationId;
+        private final String locationCode;
+        private final LocationCode code;
+        private final List<PickLineDTO> lines = new ArrayList<>();
+        private double totalQuantity;
+
+        private PickListBuilder(Long locationId, String locationCode) {
+            this.locationId = locationId;
+            this.locationCode = locationCode;
+            this.code = LocationCode.parse(locationCode).orElse(null);
+        }
+
+        private void add(Object[] row, double quantity) {
+            lines.add(PickLineDTO.builder()
+                    .orderLineId((Long) row[0])
+                    .orderId((Long) row[1])
+                    .orderNumber((String) row[2])
+                    .itemId((Long) row[3])
+                    .itemName((String) row[4])
+                    .unit(row[5] != null ? ((UnitType) row[5]).name() : null)
+                    .quantity(quantity)
+                    .build());
+            totalQuantity += quantity;
+        }
+
+        private PickListDTO build(int sequence) {
+            return PickListDTO.builder()
+                    .sequence(sequence)
+                    .locationId(locationId)
+                    .locationCode(locationCode)
+                    .totalQuantity(totalQuantity)
+                    .lines(lines)
+                    .build();
+        }
+    }
+}
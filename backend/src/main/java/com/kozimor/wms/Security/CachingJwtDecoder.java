@@ -0,0 +1,62 @@
+package com.kozimor.wms.Security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dekoder zapamiętujący zweryfikowane tokeny.
+ *
+ * Klient wysyła ten sam access token z każdym żądaniem aż do jego wygaśnięcia, więc podpis HMAC
+ * i parsowanie claimów wystarczy wykonać raz. Kluczem jest sam token - porównanie jest dokładne,
+ * a zmieniony choćby jeden znak (np. podpis) to chybienie i pełna weryfikacja.
+ * Wpis jest ważny do exp tokenu; tokeny bez exp nie są zapamiętywane.
+ *
+ * Cache nie wymaga unieważniania między instancjami: wynik weryfikacji zależy tylko od tokenu i klucza,
+ * a bez cache token też jest przyjmowany do exp na każdej instancji (tokeny nie są odwoływane).
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final int maxEntries;
+    private final Map<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Jwt> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (maxEntries <= 0) {
+            return delegate.decode(token);
+        }
+        Jwt cached = cache.get(token);
+        if (cached != null) {
+            if (cached.getExpiresAt().isAfter(Instant.now())) {
+                return cached;
+            }
+            cache.remove(token);
+        }
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            cache.put(token, jwt);
+        }
+        return jwt;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
@@ -1,6 +1,4 @@
 package com.kozimor.wms.Security;
-import com.kozimor.wms.Database.Model.User;
-import com.kozimor.wms.Database.Repository.UserRepository;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -8,20 +6,20 @@ import java.util.List;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
-    private final UserRepository userRepository;
-    public CustomUserDetailsService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    public CustomUserDetailsService(UserPrincipalCache userPrincipalCache) {
+        this.userPrincipalCache = userPrincipalCache;
     }
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User u = userRepository.findByUsername(username)
+        UserPrincipalCache.CachedUser u = userPrincipalCache.findByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        List<SimpleGrantedAuthority> authorities = u.getRole() != null
-            ? List.of(new SimpleGrantedAuthority(u.getRole().getRoleName()))
+        List<SimpleGrantedAuthority> authorities = u.roleName() != null
+            ? List.of(new SimpleGrantedAuthority(u.roleName()))
             : List.of();
         return org.springframework.security.core.userdetails.User
-            .withUsername(u.getUsername())
-            .password(u.getPassword())
+            .withUsername(u.username())
+            .password(u.password())
             .authorities(authorities)
             .accountExpired(false)
             .accountLocked(false)
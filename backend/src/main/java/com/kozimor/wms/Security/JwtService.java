@@ -2,9 +2,6 @@ package com.kozimor.wms.Security;
 
 import org.springframework.stereotype.Service;
 
-import com.kozimor.wms.Database.Model.User;
-import com.kozimor.wms.Database.Repository.UserRepository;
-
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.security.core.Authentication;
@@ -21,20 +18,20 @@ public class JwtService {
     private final long expirationMs;
     private final long refreshExpirationMs;
     private final String issuer;
-    private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
 
     public JwtService(JwtEncoder jwtEncoder,
                       JwtDecoder jwtDecoder,
                       @Value("${jwt.expiration-ms}") long expirationMs,
                       @Value("${jwt.refresh-expiration-ms}") long refreshExpirationMs,
                       @Value("${jwt.issuer}") String issuer,
-                      UserRepository userRepository) {
+                      UserPrincipalCache userPrincipalCache) {
         this.jwtEncoder = jwtEncoder;
         this.jwtDecoder = jwtDecoder;
         this.expirationMs = expirationMs;
         this.refreshExpirationMs = refreshExpirationMs;
         this.issuer = issuer;
-        this.userRepository = userRepository;
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     public String generateToken(Authentication authentication) {
@@ -50,14 +47,14 @@ public class JwtService {
         long expiration = isRefreshToken ? refreshExpirationMs : expirationMs;
         Instant exp = now.plusMillis(expiration);
 
-        User user = userRepository.findByUsername(authentication.getName()).orElseThrow();
+        UserPrincipalCache.CachedUser user = userPrincipalCache.findByUsername(authentication.getName()).orElseThrow();
 
         JwtClaimsSet.Builder claimsBuilder = JwtClaimsSet.builder()
                 .issuer(issuer)
                 .issuedAt(now)
                 .expiresAt(exp)
                 .subject(authentication.getName())
-                .claim("userId", user.getId())
+                .claim("userId", user.id())
                 .claim("tokenType", isRefreshToken ? "refresh" : "access");
 
         if (!isRefreshToken) {
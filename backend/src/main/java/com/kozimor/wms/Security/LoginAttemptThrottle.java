@@ -0,0 +1,129 @@
+package com.kozimor.wms.Security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ograniczenie prób logowania per użytkownik i per adres IP.
+ *
+ * Użytkownik dostaje kilka darmowych prób, potem każda kolejna wymaga odczekania rosnącego wykładniczo
+ * (do wms.security.login.max-backoff-seconds). Klucz użytkownika nie zawiera adresu - adres pochodzi
+ * z X-Forwarded-For, więc zmieniając go przy każdej próbie można by ominąć odczekanie. Obcy znający login
+ * może najwyżej spowolnić właściciela do jednej próby na max-backoff, nie zablokować go. Limit per IP
+ * dodatkowo ogranicza zgadywanie haseł wielu użytkowników z jednego adresu.
+ * Odrzucenie następuje przed BCryptem, więc zgadywanie nie zajmuje puli hashującej.
+ *
+ * Próba jest liczona z góry ({@link #tryAcquire}): sprawdzenie i zwiększenie licznika to jedno compute,
+ * więc równoległe żądania nie przejdą razem przez ostatnią wolną próbę. Udane logowanie zeruje licznik
+ * użytkownika i oddaje próbę adresu IP (jeden terminal przy wejściu obsługuje wiele osób).
+ */
+@Component
+public class LoginAttemptThrottle {
+
+    private static final int MAX_TRACKED_KEYS = 10_000;
+
+    private final int freeAttemptsPerUser;
+    private final long maxBackoffNanos;
+    private final int maxAttemptsPerIp;
+    private final long windowNanos;
+    private final Map<String, Window> attempts = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+            return size() > MAX_TRACKED_KEYS;
+        }
+    });
+
+    public LoginAttemptThrottle(@Value("${wms.security.login.max-failures-per-user:5}") int freeAttemptsPerUser,
+                                @Value("${wms.security.login.max-backoff-seconds:60}") long maxBackoffSeconds,
+                                @Value("${wms.security.login.max-failures-per-ip:50}") int maxAttemptsPerIp,
+                                @Value("${wms.security.login.window-seconds:300}") long windowSeconds) {
+        this.freeAttemptsPerUser = freeAttemptsPerUser;
+        this.maxBackoffNanos = Duration.ofSeconds(maxBackoffSeconds).toNanos();
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.windowNanos = Duration.ofSeconds(windowSeconds).toNanos();
+    }
+
+    /**
+     * Rezerwuje próbę logowania - do czasu {@link #recordSuccess} albo {@link #cancel} liczona jest jak nieudana
+     *
+     * @return liczba sekund do następnej dozwolonej próby, 0 gdy próba jest dozwolona (i zarezerwowana)
+     */
+    public long tryAcquire(String username, String ip) {
+        long now = System.nanoTime();
+        long[] retryAfter = new long[1];
+        attempts.compute(ipKey(ip), (key, window) -> {
+            Window current = window == null || now - window.start >= windowNanos ? new Window(now, 0, now) : window;
+            if (current.count >= maxAttemptsPerIp) {
+                retryAfter[0] = seconds(windowNanos - (now - current.start));
+                return current;
+            }
+            return new Window(current.start, current.count + 1, now);
+        });
+        if (retryAfter[0] > 0) {
+            return retryAfter[0];
+        }
+        attempts.compute(userKey(username), (key, window) -> {
+            Window current = window == null || now - window.last >= windowNanos ? new Window(now, 0, now) : window;
+            long wait = backoffNanos(current.count) - (now - current.last);
+            if (wait > 0) {
+                retryAfter[0] = seconds(wait);
+                return current;
+            }
+            return new Window(current.start, current.count + 1, now);
+        });
+        return retryAfter[0];
+    }
+
+    public void recordSuccess(String username, String ip) {
+        attempts.remove(userKey(username));
+        release(ipKey(ip));
+    }
+
+    /**
+     * Zarezerwowana próba nie doszła do sprawdzenia hasła (np. przeciążona pula hashująca)
+     */
+    public void cancel(String username, String ip) {
+        release(userKey(username));
+        release(ipKey(ip));
+    }
+
+    public void clear() {
+        attempts.clear();
+    }
+
+    private void release(String key) {
+        attempts.computeIfPresent(key, (k, window) -> window.count > 1
+                ? new Window(window.start, window.count - 1, window.last)
+                : null);
+    }
+
+    // Po darmowych próbach: 1 s, 2 s, 4 s... do maxBackoff
+    private long backoffNanos(int count) {
+        if (count < freeAttemptsPerUser) {
+            return 0;
+        }
+        int exponent = Math.min(count - freeAttemptsPerUser, 30);
+        return Math.min(Duration.ofSeconds(1L << exponent).toNanos(), maxBackoffNanos);
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, Duration.ofNanos(nanos).toSeconds());
+    }
+
+    private static String userKey(String username) {
+        return "u:" + (username != null ? username.toLowerCase() : "");
+    }
+
+    private static String ipKey(String ip) {
+        return "ip:" + ip;
+    }
+
+    // Okno per IP stałe od pierwszej próby; dla użytkownika last to czas ostatniej próby, od którego liczy się odczekanie
+    private record Window(long start, int count, long last) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.kozimor.wms.Security;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Osobna, ograniczona pula dla BCrypt (logowanie, rejestracja).
+ *
+ * Przy zmianie zmiany loguje się kilkaset osób naraz; bez tej puli każdy wątek Tomcata liczyłby hash
+ * i księgowanie transakcji czekałoby w kolejce. Tu liczy się najwyżej wms.security.hash-threads hashy
+ * jednocześnie, czeka najwyżej wms.security.hash-queue kolejnych, a nadmiar od razu dostaje odmowę (429).
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    public PasswordHashingExecutor(@Value("${wms.security.hash-threads:0}") int threads,
+                                   @Value("${wms.security.hash-queue:50}") int queueSize,
+                                   @Value("${wms.security.hash-timeout-ms:10000}") long timeoutMs) {
+        // 0 = połowa rdzeni, reszta CPU zostaje dla API
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "wms-password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Wykonuje zadanie w puli i czeka na wynik. Wyjątki zadania są przekazywane bez opakowania.
+     *
+     * @throws RejectedExecutionException pula i kolejka pełne albo przekroczony czas oczekiwania
+     */
+    public <T> T execute(Supplier<T> task) {
+        Future<T> future = executor.submit(task::get);
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RejectedExecutionException("Password hashing timed out after " + timeoutMs + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for password hashing");
+        }
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
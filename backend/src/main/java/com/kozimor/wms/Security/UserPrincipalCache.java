@@ -0,0 +1,106 @@
+package com.kozimor.wms.Security;
+
+import com.kozimor.wms.Config.ResourceVersionRegistry;
+import com.kozimor.wms.Database.Model.EntityChangedEvent;
+import com.kozimor.wms.Database.Model.Role;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Dane użytkownika potrzebne przy logowaniu i wystawianiu tokenów (id, hasło, rola), bez zapytania przy każdym tokenie.
+ *
+ * Zmiana dowolnego użytkownika lub roli czyści cały cache po commicie - takie zmiany są rzadkie.
+ * Zmiany z innych instancji widać po wersjach User i Role w resource_versions (ResourceVersionRegistry),
+ * sprawdzanych najwyżej raz na wms.security.user-cache-version-check-ms - o tyle najdłużej cache jest
+ * nieaktualny po zapisie na innej instancji. TTL ogranicza nieaktualność po zapisach z pominięciem JPA.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private static final List<Class<?>> VERSIONED_TYPES = List.of(User.class, Role.class);
+
+    private final UserRepository userRepository;
+    private final ResourceVersionRegistry versionRegistry;
+    private final long ttlNanos;
+    private final long versionCheckNanos;
+    private final Map<String, CachedUser> cache;
+    private volatile long versionCheckedAt;
+    private volatile long seenVersion = -1;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              ResourceVersionRegistry versionRegistry,
+                              @Value("${wms.security.user-cache-size:1000}") int cacheSize,
+                              @Value("${wms.security.user-cache-ttl-seconds:300}") long ttlSeconds,
+                              @Value("${wms.security.user-cache-version-check-ms:1000}") long versionCheckMs) {
+        this.userRepository = userRepository;
+        this.versionRegistry = versionRegistry;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.versionCheckNanos = Duration.ofMillis(versionCheckMs).toNanos();
+        this.versionCheckedAt = System.nanoTime() - versionCheckNanos;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Nieistniejący użytkownik nie jest zapamiętywany - zaraz po rejestracji od razu jest widoczny
+     */
+    public Optional<CachedUser> findByUsername(String username) {
+        long now = System.nanoTime();
+        // Wersja odczytana przed użytkownikiem - wpis wczytany przed zmianą z innej instancji ma starszą wersję
+        long version = currentVersion(now);
+        CachedUser cached = cache.get(username);
+        if (cached != null && now - cached.loadedAt() < ttlNanos && cached.version() == version) {
+            return Optional.of(cached);
+        }
+        return userRepository.findByUsername(username).map(user -> {
+            Role role = user.getRole();
+            CachedUser loaded = new CachedUser(user.getId(), user.getUsername(), user.getPassword(),
+                    role != null ? role.getRoleName() : null, now, version);
+            cache.put(username, loaded);
+            return loaded;
+        });
+    }
+
+    private long currentVersion(long now) {
+        if (now - versionCheckedAt < versionCheckNanos) {
+            return seenVersion;
+        }
+        // Wersje tylko rosną, więc suma zmienia się przy każdej zmianie którejkolwiek z nich
+        long[] versions = versionRegistry.getVersions(VERSIONED_TYPES);
+        long version = versions[0] + versions[1];
+        if (version != seenVersion) {
+            seenVersion = version;
+            clear();
+        }
+        versionCheckedAt = now;
+        return version;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.entityType() == User.class || event.entityType() == Role.class) {
+            clear();
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public record CachedUser(Long id, String username, String password, String roleName, long loadedAt, long version) {
+    }
+}
@@ -0,0 +1,245 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.IdempotencyKey;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.ItemType;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.Role;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Model.UnitType;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Repository.IdempotencyKeyRepository;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.LocationRepository;
+import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Repository.TransactionRepository;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.IdempotencyService;
+import com.kozimor.wms.Database.Service.TransactionService;
+
+// Bez @Transactional - rezerwacja musi się zatwierdzić, żeby drugi INSERT trafił na klucz główny
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("IdempotencyService - Integration Tests")
+class IdempotencyServiceIntegrationTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyKeyRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Category category;
+    private Item item;
+    private Location location;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(Role.builder().roleName("ROLE_IDEMPOTENCY_TEST").build());
+        user = userRepository.save(User.builder()
+                .username("idempotency")
+                .password("{noop}idempotency")
+                .email("idempotency@wms.local")
+                .firstName("Idem")
+                .lastName("Potent")
+                .role(role)
+                .build());
+        category = categoryRepository.save(Category.builder().name("Idempotency").description("Idempotency test").build());
+
+        item = new Item();
+        item.setName("Pallet wrap");
+        item.setCategory(category);
+        item.setCurrentQuantity(0.0);
+        item.setUnit(UnitType.PCS);
+        item.setType(ItemType.COMPONENT);
+        item = itemRepository.save(item);
+
+        location = new Location();
+        location.setCode("I1-S1-R1");
+        location.setName("Idempotency bin");
+        location.setType("BIN");
+        location = locationRepository.save(location);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+        transactionRepository.deleteAll(transactionRepository.findByItemId(item.getId()));
+        itemRepository.deleteById(item.getId());
+        locationRepository.deleteById(location.getId());
+        categoryRepository.deleteById(category.getId());
+        userRepository.deleteById(user.getId());
+        roleRepository.deleteById(user.getRole().getId());
+    }
+
+    @Test
+    @DisplayName("Should reserve key once and return stored response after completion")
+    void testReserveAndComplete() {
+        String key = "user|POST /api/transactions|k1";
+
+        IdempotencyService.Reservation reservation = idempotencyService.tryReserve(key).orElseThrow();
+        assertTrue(idempotencyService.tryReserve(key).isEmpty());
+        assertTrue(idempotencyService.findCompleted(key).isEmpty());
+
+        idempotencyService.executeOnce(reservation, () -> new IdempotencyService.Response(201, "application/json", "{\"id\":1}"));
+
+        IdempotencyService.StoredResponse stored = idempotencyService.findCompleted(key).orElseThrow();
+        assertEquals(201, stored.status());
+        assertEquals("{\"id\":1}", stored.body());
+        assertEquals(IdempotencyKey.Status.COMPLETED, repository.findById(key).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should free released key and remove expired keys")
+    void testReleaseAndCleanup() {
+        String released = "user|POST /api/orders|k2";
+        idempotencyService.release(idempotencyService.tryReserve(released).orElseThrow());
+        assertTrue(idempotencyService.tryReserve(released).isPresent());
+
+        LocalDateTime past = LocalDateTime.now().minusDays(2);
+        repository.reserve("user|POST /api/orders|old", "old", past, past.plusHours(24), past.plusMinutes(5));
+
+        idempotencyService.cleanupExpired();
+
+        assertFalse(repository.existsById("user|POST /api/orders|old"));
+        assertTrue(repository.existsById(released));
+    }
+
+    @Test
+    @DisplayName("Should take over an abandoned reservation and an expired key")
+    void testTakeOverStaleKeys() {
+        LocalDateTime past = LocalDateTime.now().minusMinutes(10);
+        String abandoned = "user|POST /api/transactions|crashed";
+        repository.reserve(abandoned, "crashed", past, past.plusHours(24), past.plusMinutes(5));
+        String running = "user|POST /api/transactions|running";
+        assertTrue(idempotencyService.tryReserve(running).isPresent());
+
+        assertTrue(idempotencyService.tryReserve(abandoned).isPresent());
+        assertTrue(idempotencyService.tryReserve(abandoned).isEmpty());
+        assertTrue(idempotencyService.tryReserve(running).isEmpty());
+
+        String expired = "user|POST /api/orders|expired";
+        LocalDateTime dayAgo = LocalDateTime.now().minusDays(2);
+        repository.reserve(expired, "expired", dayAgo, dayAgo.plusHours(24), dayAgo.plusMinutes(5));
+        repository.complete(expired, "expired", 201, "application/json", "{\"id\":2}", dayAgo.plusHours(24));
+
+        assertTrue(idempotencyService.findCompleted(expired).isEmpty());
+        assertTrue(idempotencyService.tryReserve(expired).isPresent());
+        assertEquals(IdempotencyKey.Status.IN_PROGRESS, repository.findById(expired).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should not post a retry again when the instance dies right after the commit")
+    void testCrashAfterCommitIsNotReposted() {
+        String key = "user|POST /api/transactions|after-commit";
+        IdempotencyService crashing = instance(0);
+        crashing.executeOnce(crashing.tryReserve(key).orElseThrow(), this::post);
+
+        // Instancja pada po commicie, zanim klient dostał odpowiedź - ponowienie trafia na nową instancję
+        // (pusty cache), a czas rezerwacji już minął
+        IdempotencyService restarted = instance(300);
+        Optional<IdempotencyService.StoredResponse> replayed = restarted.findCompleted(key);
+
+        assertTrue(replayed.isPresent());
+        assertTrue(restarted.tryReserve(key).isEmpty());
+        assertEquals(1, transactionRepository.findByItemId(item.getId()).size());
+        assertEquals(5.0, itemRepository.findById(item.getId()).orElseThrow().getCurrentQuantity());
+    }
+
+    @Test
+    @DisplayName("Should roll back the posting together with the key when the request dies before the commit")
+    void testCrashBeforeCommitIsPostedOnce() {
+        String key = "user|POST /api/transactions|before-commit";
+        IdempotencyService crashing = instance(0);
+        IdempotencyService.Reservation reservation = crashing.tryReserve(key).orElseThrow();
+        assertThrows(IllegalStateException.class, () -> crashing.executeOnce(reservation, () -> {
+            post();
+            throw new IllegalStateException("Instance stopped");
+        }));
+        assertEquals(0, transactionRepository.findByItemId(item.getId()).size());
+
+        // Rezerwacja zostaje IN_PROGRESS - po jej czasie ponowienie wykonuje żądanie, tym razem jedyny raz
+        IdempotencyService restarted = instance(300);
+        restarted.executeOnce(restarted.tryReserve(key).orElseThrow(), this::post);
+
+        assertEquals(1, transactionRepository.findByItemId(item.getId()).size());
+        assertTrue(restarted.findCompleted(key).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should roll back a request that outlived its reservation and was taken over by a retry")
+    void testTakenOverRequestIsRolledBack() {
+        String key = "user|POST /api/transactions|slow";
+        IdempotencyService slowInstance = instance(0);
+        IdempotencyService.Reservation slow = slowInstance.tryReserve(key).orElseThrow();
+
+        idempotencyService.executeOnce(idempotencyService.tryReserve(key).orElseThrow(), this::post);
+
+        assertThrows(IdempotencyService.ReservationLostException.class, () -> slowInstance.executeOnce(slow, this::post));
+        slowInstance.release(slow);
+
+        assertEquals(1, transactionRepository.findByItemId(item.getId()).size());
+        assertEquals(5.0, itemRepository.findById(item.getId()).orElseThrow().getCurrentQuantity());
+        assertEquals(IdempotencyKey.Status.COMPLETED, repository.findById(key).orElseThrow().getStatus());
+    }
+
+    private IdempotencyService.Response post() {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.RECEIPT);
+        transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+        transaction.setItem(item);
+        transaction.setLocation(location);
+        transaction.setQuantity(5.0);
+        transaction.setUser(user);
+        Transaction saved = transactionService.createTransaction(transaction);
+        return new IdempotencyService.Response(201, "text/plain", String.valueOf(saved.getId()));
+    }
+
+    // Osobna instancja z własnym cache; przy 0 s jej rezerwacje są od razu do przejęcia
+    private IdempotencyService instance(long inProgressTimeoutSeconds) {
+        return new IdempotencyService(repository, transactionManager, 24, 100, inProgressTimeoutSeconds);
+    }
+}
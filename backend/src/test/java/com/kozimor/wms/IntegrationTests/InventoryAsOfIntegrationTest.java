@@ -0,0 +1,204 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.ItemType;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.Role;
+import com.kozimor.wms.Database.Model.StockCheckpoint;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.UnitType;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Model.DTO.InventoryAsOfDTO;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.LocationRepository;
+import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Repository.TransactionRepository;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.InventoryAsOfService;
+
+import jakarta.persistence.EntityNotFoundException;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("InventoryAsOfService - Integration Tests")
+class InventoryAsOfIntegrationTest {
+
+    private static final OffsetDateTime DAY_1 = OffsetDateTime.parse("2025-01-01T08:00:00Z");
+
+    @Autowired
+    private InventoryAsOfService inventoryAsOfService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Item bolt;
+    private Item nut;
+    private Location shelf;
+    private Location bin;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(Role.builder().roleName("ROLE_AS_OF_TEST").build());
+        user = userRepository.save(User.builder()
+                .username("as-of")
+                .password("{noop}as-of")
+                .email("as-of@wms.local")
+                .firstName("AsOf")
+                .lastName("Test")
+                .role(role)
+                .build());
+        Category category = categoryRepository.save(Category.builder().name("AsOf").description("As-of test").build());
+        bolt = saveItem("Bolt", category);
+        nut = saveItem("Nut", category);
+        shelf = saveLocation("C1-S1-R1");
+        bin = saveLocation("C1-S1-R2");
+
+        // Historia z przeszłości - daty ustawiane wprost, @CreationTimestamp dałby datę bieżącą
+        insert(DAY_1, "RECEIPT", bolt, shelf, 100, "COMPLETED");
+        insert(DAY_1.plusHours(1), "RECEIPT", nut, shelf, 40, "COMPLETED");
+        insert(DAY_1.plusDays(1), "ISSUE_TO_SALES", bolt, shelf, 30, "COMPLETED");
+        insert(DAY_1.plusDays(1), "RECEIPT", bolt, bin, 5, "PENDING");
+        insert(DAY_1.plusDays(2), "ORDER", nut, shelf, 40, "COMPLETED");
+        insert(DAY_1.plusDays(3), "RETURN", bolt, shelf, 2, "COMPLETED");
+        insert(DAY_1.plusDays(3), "ISSUE_TO_PRODUCTION", bolt, shelf, 50, "CANCELLED");
+    }
+
+    @Test
+    @DisplayName("Should give the same balances from checkpoints as from the full history")
+    void testCheckpointMatchesFullHistory() {
+        List<OffsetDateTime> dates = List.of(DAY_1.minusDays(1), DAY_1, DAY_1.plusHours(12), DAY_1.plusDays(1),
+                DAY_1.plusDays(2).plusMinutes(1), DAY_1.plusDays(5));
+        List<Map<Long, Double>> expected = dates.stream().map(date -> balances(date, shelf.getId())).toList();
+
+        inventoryAsOfService.createCheckpoint(DAY_1.plusDays(1));
+        inventoryAsOfService.createCheckpoint(DAY_1.plusDays(3));
+
+        for (int i = 0; i < dates.size(); i++) {
+            assertEquals(expected.get(i), balances(dates.get(i), shelf.getId()), "as of " + dates.get(i));
+        }
+        InventoryAsOfDTO result = inventoryAsOfService.getStockAsOf(DAY_1.plusDays(5), shelf.getId());
+        assertEquals(DAY_1.plusDays(3).toInstant(), result.getCheckpointAsOf().toInstant());
+        // Pierwszy punkt - transakcje z datą dokładnie na granicy należą do zakresu po punkcie
+        assertEquals(Map.of(bolt.getId(), 70.0, nut.getId(), 40.0), balances(DAY_1.plusDays(1), shelf.getId()));
+        assertEquals(Map.of(bolt.getId(), 72.0), balances(DAY_1.plusDays(5), shelf.getId()));
+        assertEquals("Bolt", result.getBalances().get(0).getItemName());
+    }
+
+    @Test
+    @DisplayName("Should return every location when no location is given")
+    void testAllLocations() {
+        inventoryAsOfService.createCheckpoint(DAY_1.plusDays(2));
+
+        InventoryAsOfDTO result = inventoryAsOfService.getStockAsOf(DAY_1.plusDays(5), null);
+
+        Map<String, Double> byLocationAndItem = result.getBalances().stream()
+                .filter(b -> b.getLocationId().equals(shelf.getId()) || b.getLocationId().equals(bin.getId()))
+                .collect(Collectors.toMap(b -> b.getLocationId() + "/" + b.getItemId(), InventoryAsOfDTO.Balance::getQuantity));
+        assertEquals(Map.of(shelf.getId() + "/" + bolt.getId(), 72.0, bin.getId() + "/" + bolt.getId(), 5.0),
+                byLocationAndItem);
+    }
+
+    @Test
+    @DisplayName("Should skip and rebuild checkpoints invalidated by a change to an older transaction")
+    void testStaleCheckpointRebuild() {
+        StockCheckpoint checkpoint = inventoryAsOfService.createCheckpoint(DAY_1.plusDays(2));
+        assertEquals(Map.of(bolt.getId(), 70.0), balances(DAY_1.plusDays(2), shelf.getId()));
+
+        Transaction issue = transactionRepository.findByItemId(bolt.getId()).stream()
+                .filter(t -> t.getQuantity() == 30.0).findFirst().orElseThrow();
+        issue.setTransactionStatus(TransactionStatus.CANCELLED);
+        transactionRepository.saveAndFlush(issue);
+
+        assertTrue(isStale(checkpoint));
+        InventoryAsOfDTO result = inventoryAsOfService.getStockAsOf(DAY_1.plusDays(2), shelf.getId());
+        assertNull(result.getCheckpointAsOf());
+        assertEquals(Map.of(bolt.getId(), 100.0), balances(DAY_1.plusDays(2), shelf.getId()));
+
+        inventoryAsOfService.refreshCheckpoints();
+
+        assertFalse(isStale(checkpoint));
+        result = inventoryAsOfService.getStockAsOf(DAY_1.plusDays(2), shelf.getId());
+        assertNotNull(result.getCheckpointAsOf());
+        assertEquals(Map.of(bolt.getId(), 100.0), balances(DAY_1.plusDays(2), shelf.getId()));
+    }
+
+    @Test
+    @DisplayName("Should throw for unknown location")
+    void testUnknownLocation() {
+        assertThrows(EntityNotFoundException.class, () -> inventoryAsOfService.getStockAsOf(DAY_1, 999_999L));
+    }
+
+    private Map<Long, Double> balances(OffsetDateTime asOf, Long locationId) {
+        return inventoryAsOfService.getStockAsOf(asOf, locationId).getBalances().stream()
+                .collect(Collectors.toMap(InventoryAsOfDTO.Balance::getItemId, InventoryAsOfDTO.Balance::getQuantity));
+    }
+
+    // Odczyt z bazy - oznaczenie idzie przez JDBC, encja w kontekście persystencji go nie widzi
+    private boolean isStale(StockCheckpoint checkpoint) {
+        return jdbcTemplate.queryForObject("SELECT stale FROM stock_checkpoints WHERE checkpoint_id = ?",
+                Boolean.class, checkpoint.getId());
+    }
+
+    private void insert(OffsetDateTime date, String type, Item item, Location location, double quantity, String status) {
+        jdbcTemplate.update("INSERT INTO transactions (transaction_date, transaction_type, item_id, location_id, "
+                        + "quantity, user_id, transaction_status, description) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                date, type, item.getId(), location.getId(), quantity, user.getId(), status, "As-of test");
+    }
+
+    private Item saveItem(String name, Category category) {
+        Item item = new Item();
+        item.setName(name);
+        item.setCategory(category);
+        item.setCurrentQuantity(0.0);
+        item.setUnit(UnitType.PCS);
+        item.setType(ItemType.COMPONENT);
+        return itemRepository.save(item);
+    }
+
+    private Location saveLocation(String code) {
+        Location location = new Location();
+        location.setCode(code);
+        location.setName("As-of " + code);
+        location.setType("BIN");
+        return locationRepository.save(location);
+    }
+}
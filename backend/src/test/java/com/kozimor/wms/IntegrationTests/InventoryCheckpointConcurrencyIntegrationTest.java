@@ -0,0 +1,220 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.ItemType;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.Role;
+import com.kozimor.wms.Database.Model.StockCheckpoint;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Model.UnitType;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Model.DTO.InventoryAsOfDTO;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.LocationRepository;
+import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Repository.TransactionRepository;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.InventoryAsOfService;
+
+// Bez @Transactional - punkt kontrolny i transakcja magazynowa commitują się w osobnych transakcjach bazy.
+// Krótki checkpoint-lag - zapis sprzed ponad sekundy (połowa opóźnienia) commitowany jest już jako późny
+@SpringBootTest(properties = "wms.inventory.checkpoint-lag-seconds=" + InventoryCheckpointConcurrencyIntegrationTest.LAG_SECONDS)
+@ActiveProfiles("test")
+@DisplayName("InventoryAsOfService - Checkpoint and late commit Integration Tests")
+class InventoryCheckpointConcurrencyIntegrationTest {
+
+    static final int LAG_SECONDS = 2;
+
+    @Autowired
+    private InventoryAsOfService inventoryAsOfService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Category category;
+    private Item item;
+    private Location location;
+    private final List<Long> checkpointIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(Role.builder().roleName("ROLE_CHECKPOINT_TEST").build());
+        user = userRepository.save(User.builder()
+                .username("checkpoint")
+                .password("{noop}checkpoint")
+                .email("checkpoint@wms.local")
+                .firstName("Checkpoint")
+                .lastName("Test")
+                .role(role)
+                .build());
+        category = categoryRepository.save(Category.builder().name("Checkpoint").description("Checkpoint test").build());
+
+        item = new Item();
+        item.setName("Stretch film");
+        item.setCategory(category);
+        item.setCurrentQuantity(0.0);
+        item.setUnit(UnitType.PCS);
+        item.setType(ItemType.COMPONENT);
+        item = itemRepository.save(item);
+
+        location = new Location();
+        location.setCode("D1-S1-R1");
+        location.setName("Checkpoint bin");
+        location.setType("BIN");
+        location = locationRepository.save(location);
+
+        transactionRepository.save(receipt(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Long checkpointId : checkpointIds) {
+            jdbcTemplate.update("DELETE FROM stock_checkpoint_balances WHERE checkpoint_id = ?", checkpointId);
+            jdbcTemplate.update("DELETE FROM stock_checkpoints WHERE checkpoint_id = ?", checkpointId);
+        }
+        transactionRepository.deleteAll(transactionRepository.findByItemId(item.getId()));
+        itemRepository.deleteById(item.getId());
+        locationRepository.deleteById(location.getId());
+        categoryRepository.deleteById(category.getId());
+        userRepository.deleteById(user.getId());
+        roleRepository.deleteById(user.getRole().getId());
+    }
+
+    @Test
+    @DisplayName("Should invalidate a checkpoint built past a transaction that commits after it")
+    void testLateCommitInvalidatesCheckpoint() throws Exception {
+        CountDownLatch saved = new CountDownLatch(1);
+        CountDownLatch checkpointBuilt = new CountDownLatch(1);
+        // Data transakcji z chwili zapisu, commit dopiero po zbudowaniu punktu z późniejszym asOf
+        CompletableFuture<Void> lateCommit = lateReceipt(saved, checkpointBuilt);
+        assertTrue(saved.await(10, TimeUnit.SECONDS));
+        Thread.sleep(TimeUnit.SECONDS.toMillis(LAG_SECONDS) + 500);
+
+        StockCheckpoint checkpoint = inventoryAsOfService.createCheckpoint(OffsetDateTime.now().minusSeconds(LAG_SECONDS));
+        checkpointIds.add(checkpoint.getId());
+        assertFalse(checkpoint.isStale());
+        assertEquals(20.0, balance(checkpoint.getAsOf()));
+
+        checkpointBuilt.countDown();
+        lateCommit.get(10, TimeUnit.SECONDS);
+
+        assertTrue(isStale(checkpoint));
+        InventoryAsOfDTO result = inventoryAsOfService.getStockAsOf(checkpoint.getAsOf(), location.getId());
+        assertNull(result.getCheckpointAsOf());
+        assertEquals(25.0, balance(checkpoint.getAsOf()));
+    }
+
+    @Test
+    @DisplayName("Should make a late commit wait for the checkpoint being confirmed and then invalidate it")
+    void testLateCommitDuringCheckpointBuild() throws Exception {
+        CountDownLatch saved = new CountDownLatch(1);
+        CountDownLatch checkpointBuilt = new CountDownLatch(1);
+        CompletableFuture<Void> lateCommit = lateReceipt(saved, checkpointBuilt);
+        assertTrue(saved.await(10, TimeUnit.SECONDS));
+        Thread.sleep(TimeUnit.SECONDS.toMillis(LAG_SECONDS) + 500);
+
+        StockCheckpoint checkpoint = transactionTemplate.execute(status -> {
+            StockCheckpoint built = inventoryAsOfService.createCheckpoint(OffsetDateTime.now().minusSeconds(LAG_SECONDS));
+            // Budowa trzyma wiersz generacji do commitu - późny zapis czeka na nią przy swoim commicie
+            checkpointBuilt.countDown();
+            assertThrows(TimeoutException.class, () -> lateCommit.get(500, TimeUnit.MILLISECONDS));
+            return built;
+        });
+        checkpointIds.add(checkpoint.getId());
+        lateCommit.get(10, TimeUnit.SECONDS);
+
+        assertTrue(isStale(checkpoint));
+        assertEquals(25.0, balance(checkpoint.getAsOf()));
+    }
+
+    @Test
+    @DisplayName("Should reject a checkpoint newer than the checkpoint lag")
+    void testRecentCheckpointRejected() {
+        assertThrows(IllegalArgumentException.class, () -> inventoryAsOfService.createCheckpoint(OffsetDateTime.now()));
+    }
+
+    private CompletableFuture<Void> lateReceipt(CountDownLatch saved, CountDownLatch release) {
+        return CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            transactionRepository.saveAndFlush(receipt(5));
+            saved.countDown();
+            await(release);
+        }));
+    }
+
+    private boolean isStale(StockCheckpoint checkpoint) {
+        return jdbcTemplate.queryForObject("SELECT stale FROM stock_checkpoints WHERE checkpoint_id = ?",
+                Boolean.class, checkpoint.getId());
+    }
+
+    private double balance(OffsetDateTime asOf) {
+        return inventoryAsOfService.getStockAsOf(asOf, location.getId()).getBalances().stream()
+                .mapToDouble(InventoryAsOfDTO.Balance::getQuantity)
+                .sum();
+    }
+
+    private Transaction receipt(double quantity) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.RECEIPT);
+        transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+        transaction.setItem(item);
+        transaction.setLocation(location);
+        transaction.setQuantity(quantity);
+        transaction.setUser(user);
+        return transaction;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.kozimor.wms.Database.Repository.JobLeaseRepository;
+import com.kozimor.wms.Database.Service.JobLeaseService;
+
+// Bez @Transactional - dzierżawa jest przejmowana we własnych transakcjach, jak na osobnych instancjach
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("JobLeaseService - Integration Tests")
+class JobLeaseServiceIntegrationTest {
+
+    private static final String JOB = "lease-test";
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private JobLeaseService nodeA;
+    private JobLeaseService nodeB;
+    private final LocalDateTime fireTime = LocalDateTime.of(2025, 1, 6, 2, 0);
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new JobLeaseService(jobLeaseRepository, transactionManager, taskScheduler, "node-a", 1);
+        nodeB = new JobLeaseService(jobLeaseRepository, transactionManager, taskScheduler, "node-b", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobLeaseRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should run each scheduled fire time on one node only")
+    void testSingleRunPerFireTime() {
+        AtomicInteger runs = new AtomicInteger();
+
+        nodeA.runExclusive(JOB, fireTime, lease -> runs.incrementAndGet());
+        nodeB.runExclusive(JOB, fireTime, lease -> runs.incrementAndGet());
+
+        assertEquals(1, runs.get());
+        assertEquals(fireTime, jobLeaseRepository.findById(JOB).orElseThrow().getCompletedFireTime());
+        assertTrue(nodeB.tryAcquire(JOB, fireTime.plusWeeks(1)).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should let another node take over an expired lease and fence out the old owner")
+    void testTakeoverAfterExpiry() throws Exception {
+        JobLeaseService.Lease stale = nodeA.tryAcquire(JOB, fireTime).orElseThrow();
+        assertTrue(nodeB.tryAcquire(JOB, fireTime).isEmpty());
+
+        // node-a nie przedłuża dzierżawy (np. proces padł)
+        Thread.sleep(1_200);
+        JobLeaseService.Lease current = nodeB.tryAcquire(JOB, fireTime).orElseThrow();
+
+        assertTrue(current.fencingToken() > stale.fencingToken());
+        assertThrows(JobLeaseService.LeaseLostException.class, () -> nodeA.complete(stale));
+        nodeB.complete(current);
+        assertTrue(nodeA.tryAcquire(JOB, fireTime).isEmpty());
+    }
+}
@@ -0,0 +1,137 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.kozimor.wms.Database.Model.JobExecution;
+import com.kozimor.wms.Database.Model.JobLease;
+import com.kozimor.wms.Database.Model.DTO.JobConfigRequest;
+import com.kozimor.wms.Database.Model.DTO.JobDTO;
+import com.kozimor.wms.Database.Model.DTO.JobExecutionDTO;
+import com.kozimor.wms.Database.Repository.JobExecutionRepository;
+import com.kozimor.wms.Database.Repository.JobLeaseRepository;
+import com.kozimor.wms.Database.Service.SchedulerService;
+
+import jakarta.persistence.EntityNotFoundException;
+
+// Bez @Transactional - zadanie wykonuje się na puli zadań we własnych transakcjach
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("SchedulerService - Job registry Integration Tests")
+class JobSchedulerIntegrationTest {
+
+    private static final String JOB = "idempotency_cleanup";
+
+    @Autowired
+    private SchedulerService schedulerService;
+
+    @Autowired
+    private JobExecutionRepository jobExecutionRepository;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @AfterEach
+    void tearDown() {
+        jobExecutionRepository.deleteAll();
+        jobLeaseRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should list registered jobs with their defaults")
+    void testListJobs() {
+        List<JobDTO> jobs = schedulerService.getJobs();
+
+        assertTrue(jobs.stream().anyMatch(j -> "snapshot_schedule".equals(j.getName())
+                && "RUN_ONCE".equals(j.getMisfirePolicy())));
+        JobDTO counters = jobs.stream().filter(j -> "counter_reconciliation".equals(j.getName())).findFirst().orElseThrow();
+        assertFalse(counters.isClusterExclusive());
+        assertEquals(1, counters.getMaxConcurrent());
+    }
+
+    @Test
+    @DisplayName("Should record a manual run in the execution history")
+    void testManualTrigger() throws InterruptedException {
+        schedulerService.trigger(JOB);
+
+        JobExecution execution = awaitManualRun();
+
+        assertNotNull(execution);
+        assertEquals(JobExecution.Status.SUCCEEDED, execution.getStatus());
+        assertEquals(0L, execution.getRowsProcessed());
+        assertNotNull(execution.getFinishedAt());
+        // Cron zadania (co godzinę) mógł odpalić w trakcie testu - liczymy tylko ręczne uruchomienia
+        assertEquals(1, manualRuns(schedulerService.getExecutions(JOB, 0, 10).getContent().stream()
+                .map(JobExecutionDTO::getTrigger).toList()));
+        assertEquals(1, manualRuns(jobExecutionRepository.findByJobNameOrderByStartedAtDesc(JOB, PageRequest.of(0, 10))
+                .getContent().stream().map(e -> e.getTrigger().name()).toList()));
+    }
+
+    @Test
+    @DisplayName("Manual run should not mark a scheduled run as completed")
+    void testManualTriggerKeepsScheduledRun() throws InterruptedException {
+        schedulerService.trigger(JOB);
+
+        assertNotNull(awaitManualRun());
+        JobLease lease = jobLeaseRepository.findById(JOB).orElseThrow();
+        assertNull(lease.getCompletedFireTime());
+        assertFalse(lease.getLeaseUntil().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    @DisplayName("Manual run should be rejected while another node holds the lease")
+    void testManualTriggerConflictsWithOtherNode() {
+        jobLeaseRepository.save(JobLease.builder()
+                .jobName(JOB)
+                .owner("other-node")
+                .fencingToken(7)
+                .leaseUntil(LocalDateTime.now().plusMinutes(2))
+                .build());
+
+        assertThrows(IllegalStateException.class, () -> schedulerService.trigger(JOB));
+        assertEquals(0, schedulerService.getJob(JOB).getRunning());
+        assertEquals("other-node", jobLeaseRepository.findById(JOB).orElseThrow().getOwner());
+    }
+
+    private JobExecution awaitManualRun() throws InterruptedException {
+        JobExecution execution = null;
+        for (int i = 0; i < 100 && (execution == null || execution.getStatus() == JobExecution.Status.RUNNING); i++) {
+            Thread.sleep(50);
+            execution = jobExecutionRepository.findByJobNameOrderByStartedAtDesc(JOB, PageRequest.of(0, 10))
+                    .getContent().stream()
+                    .filter(e -> e.getTrigger() == JobExecution.Trigger.MANUAL)
+                    .findFirst()
+                    .orElse(null);
+        }
+        return execution;
+    }
+
+    private static long manualRuns(List<String> triggers) {
+        return triggers.stream().filter(JobExecution.Trigger.MANUAL.name()::equals).count();
+    }
+
+    @Test
+    @DisplayName("Should validate job configuration changes")
+    void testUpdateJob() {
+        assertThrows(IllegalArgumentException.class, () -> schedulerService.updateJob(JOB,
+                JobConfigRequest.builder().cronExpression("every hour").build()));
+        assertThrows(EntityNotFoundException.class, () -> schedulerService.updateJob("unknown",
+                JobConfigRequest.builder().enabled(false).build()));
+
+        JobDTO updated = schedulerService.updateJob(JOB, JobConfigRequest.builder().maxConcurrent(2).build());
+        assertEquals(2, updated.getMaxConcurrent());
+        assertEquals("0 0 * * * *", updated.getCronExpression());
+
+        schedulerService.updateJob(JOB, JobConfigRequest.builder().maxConcurrent(1).build());
+    }
+}
@@ -0,0 +1,231 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.InventoryLocation;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.ItemType;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.Role;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Model.UnitType;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Model.DTO.OrderDTO;
+import com.kozimor.wms.Database.Model.DTO.OrderLineDTO;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Repository.InventoryLocationRepository;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.LocationRepository;
+import com.kozimor.wms.Database.Repository.OrderRepository;
+import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Repository.TransactionRepository;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.OrderService;
+import com.kozimor.wms.Database.Service.TransactionService;
+
+// Bez @Transactional - zamówienia zatwierdzają się w osobnych transakcjach, jak równoległe żądania
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Order allocation - Concurrency Integration Tests")
+class OrderAllocationConcurrencyIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private InventoryLocationRepository inventoryLocationRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Category category;
+    private Item item;
+    private Location bin;
+    private InventoryLocation assignment;
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(Role.builder().roleName("ROLE_ALLOCATION_TEST").build());
+        user = userRepository.save(User.builder()
+                .username("allocator")
+                .password("{noop}allocator")
+                .email("allocator@wms.local")
+                .firstName("Allo")
+                .lastName("Cator")
+                .role(role)
+                .build());
+        category = categoryRepository.save(Category.builder().name("Allocation").description("Allocation test").build());
+
+        item = new Item();
+        item.setName("Hex nut");
+        item.setCategory(category);
+        item.setCurrentQuantity(0.0);
+        item.setUnit(UnitType.PCS);
+        item.setType(ItemType.COMPONENT);
+        item = itemRepository.save(item);
+
+        bin = new Location();
+        bin.setCode("C1-S1-R1");
+        bin.setName("Allocation bin");
+        bin.setType("BIN");
+        bin = locationRepository.save(bin);
+
+        assignment = new InventoryLocation();
+        assignment.setItem(item);
+        assignment.setLocation(bin);
+        assignment = inventoryLocationRepository.save(assignment);
+
+        Transaction receipt = new Transaction();
+        receipt.setTransactionType(TransactionType.RECEIPT);
+        receipt.setTransactionStatus(TransactionStatus.COMPLETED);
+        receipt.setItem(item);
+        receipt.setLocation(bin);
+        receipt.setQuantity(10.0);
+        receipt.setUser(user);
+        transactionService.createTransaction(receipt);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderIds.forEach(orderService::deleteOrder);
+        transactionRepository.deleteAll(transactionRepository.findByItemId(item.getId()));
+        inventoryLocationRepository.deleteById(assignment.getId());
+        itemRepository.deleteById(item.getId());
+        locationRepository.deleteById(bin.getId());
+        categoryRepository.deleteById(category.getId());
+        userRepository.deleteById(user.getId());
+        roleRepository.deleteById(user.getRole().getId());
+    }
+
+    @Test
+    @DisplayName("Should not allocate the same bin balance to two concurrent orders")
+    void testConcurrentOrdersDoNotOverAllocate() throws Exception {
+        CountDownLatch allocated = new CountDownLatch(1);
+        CompletableFuture<OrderDTO> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            OrderDTO created = orderService.createOrder(order("CONC-1", 7.0), user.getId());
+            allocated.countDown();
+            // Pierwsze zamówienie trzyma blokady itemu jeszcze chwilę po alokacji
+            sleep(300);
+            return created;
+        }));
+        assertTrue(allocated.await(10, TimeUnit.SECONDS));
+
+        // Drugie zamówienie czeka na commit pierwszego i widzi saldo 3, nie 10
+        CompletableFuture<OrderDTO> second = CompletableFuture.supplyAsync(
+                () -> orderService.createOrder(order("CONC-2", 7.0), user.getId()));
+        orderIds.add(first.get(10, TimeUnit.SECONDS).getId());
+        Exception rejected = assertThrows(Exception.class, () -> second.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, rejected.getCause());
+
+        assertEquals(3.0, itemRepository.findById(item.getId()).orElseThrow().getCurrentQuantity());
+        assertTrue(orderRepository.findByOrderNumber("CONC-2").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should block a concurrent order on the item lock until the first one commits")
+    void testConcurrentOrderWaitsForItemLock() throws Exception {
+        CountDownLatch allocated = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<OrderDTO> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            OrderDTO created = orderService.createOrder(order("LOCK-1", 6.0), user.getId());
+            allocated.countDown();
+            await(release);
+            return created;
+        }));
+        assertTrue(allocated.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<OrderDTO> second = CompletableFuture.supplyAsync(
+                () -> orderService.createOrder(order("LOCK-2", 4.0), user.getId()));
+        sleep(200);
+        // Bez blokady drugie zamówienie policzyłoby salda bez niezatwierdzonej alokacji pierwszego
+        assertFalse(second.isDone());
+
+        release.countDown();
+        orderIds.add(first.get(10, TimeUnit.SECONDS).getId());
+        orderIds.add(second.get(10, TimeUnit.SECONDS).getId());
+        assertEquals(0.0, itemRepository.findById(item.getId()).orElseThrow().getCurrentQuantity());
+    }
+
+    @Test
+    @DisplayName("Should reject a shortfall unless backorders are allowed")
+    void testShortfallRejectedWithoutBackorder() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(order("SHORT-1", 15.0), user.getId()));
+        assertTrue(orderRepository.findByOrderNumber("SHORT-1").isEmpty());
+        assertEquals(10.0, itemRepository.findById(item.getId()).orElseThrow().getCurrentQuantity());
+
+        OrderDTO backordered = orderService.createOrder(order("SHORT-2", 15.0), user.getId(), null, true);
+        orderIds.add(backordered.getId());
+        assertEquals(5.0, backordered.getOrderLines().get(0).getBackorderedQuantity());
+        assertEquals(0.0, itemRepository.findById(item.getId()).orElseThrow().getCurrentQuantity());
+    }
+
+    private OrderDTO order(String number, double quantity) {
+        OrderLineDTO line = new OrderLineDTO();
+        line.setItemId(item.getId());
+        line.setQuantity(quantity);
+        OrderDTO order = new OrderDTO();
+        order.setOrderNumber(number);
+        order.setOrderLines(List.of(line));
+        return order;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.InventoryLocation;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.ItemType;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.PickPathStrategy;
+import com.kozimor.wms.Database.Model.Role;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Model.UnitType;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Model.DTO.OrderDTO;
+import com.kozimor.wms.Database.Model.DTO.OrderLineDTO;
+import com.kozimor.wms.Database.Model.DTO.PickListDTO;
+import com.kozimor.wms.Database.Model.DTO.WavePlanDTO;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Repository.InventoryLocationRepository;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.LocationRepository;
+import com.kozimor.wms.Database.Repository.OrderLineRepository;
+import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.OrderService;
+import com.kozimor.wms.Database.Service.TransactionService;
+import com.kozimor.wms.Database.Service.WavePlanningService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Order allocation and wave planning - Integration Tests")
+class OrderPickingIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private WavePlanningService wavePlanningService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private OrderLineRepository orderLineRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private InventoryLocationRepository inventoryLocationRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Item bolt;
+    private Item screw;
+    private Location oldBin;
+    private Location nearBin;
+    private Location otherSector;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(Role.builder().roleName("ROLE_PICKING_TEST").build());
+        user = userRepository.save(User.builder()
+                .username("picker")
+                .password("{noop}picker")
+                .email("picker@wms.local")
+                .firstName("Pick")
+                .lastName("Er")
+                .role(role)
+                .build());
+        Category category = categoryRepository.save(Category.builder().name("Picking").description("Picking test").build());
+
+        bolt = item("Bolt", category);
+        screw = item("Screw", category);
+        oldBin = location("A1-S2-R1");
+        nearBin = location("A1-S1-R1");
+        otherSector = location("B1-S1-R1");
+
+        // bolt: starsze przypisanie z małym saldem, nowsze z dużym
+        assign(bolt, oldBin);
+        assign(bolt, nearBin);
+        assign(screw, otherSector);
+        receipt(bolt, oldBin, 10);
+        receipt(bolt, nearBin, 50);
+        receipt(screw, otherSector, 100);
+    }
+
+    @Test
+    @DisplayName("Should split an order line across locations using FIFO balances")
+    void testCreateOrderSplitsLineAcrossLocations() {
+        OrderDTO created = orderService.createOrder(order("PICK-1", line(bolt, 30.0)), user.getId());
+
+        assertEquals(1, created.getOrderLines().size());
+        List<Transaction> allocations = orderLineRepository.findById(created.getOrderLines().get(0).getId())
+                .orElseThrow().getAllocations();
+        assertEquals(2, allocations.size());
+        assertEquals(oldBin.getId(), allocations.get(0).getLocation().getId());
+        assertEquals(10.0, allocations.get(0).getQuantity());
+        assertEquals(nearBin.getId(), allocations.get(1).getLocation().getId());
+        assertEquals(20.0, allocations.get(1).getQuantity());
+        assertEquals(30.0, itemRepository.findById(bolt.getId()).orElseThrow().getCurrentQuantity());
+    }
+
+    @Test
+    @DisplayName("Should backorder the part of a line not covered by location balances")
+    void testCreateOrderBackordersShortfall() {
+        itemRepository.findById(bolt.getId()).ifPresent(item -> {
+            // Stan ustawiony ponad salda lokacji (bez transakcji przyjęcia)
+            item.setCurrentQuantity(200.0);
+            itemRepository.save(item);
+        });
+
+        OrderDTO created = orderService.createOrder(order("PICK-4", line(bolt, 100.0)), user.getId(), null, true);
+
+        OrderLineDTO line = created.getOrderLines().get(0);
+        assertEquals(40.0, line.getBackorderedQuantity());
+        assertEquals(2, line.getTransactionIds().size());
+        assertEquals(line.getTransactionId(), line.getTransactionIds().get(0));
+        List<Transaction> allocations = orderLineRepository.findById(line.getId()).orElseThrow().getAllocations();
+        assertEquals(60.0, allocations.stream().mapToDouble(Transaction::getQuantity).sum());
+        assertEquals(140.0, itemRepository.findById(bolt.getId()).orElseThrow().getCurrentQuantity());
+    }
+
+    @Test
+    @DisplayName("Should fulfil backordered quantity from later receipts")
+    void testFulfilBackorders() {
+        OrderDTO created = orderService.createOrder(order("PICK-5", line(bolt, 100.0)), user.getId(), null, true);
+        Long lineId = created.getOrderLines().get(0).getId();
+
+        // Dostawa pokrywa część zaległości - reszta czeka dalej
+        receipt(bolt, nearBin, 25);
+        OrderLineDTO partial = orderService.fulfilBackorders(created.getId(), user.getId(), null).getOrderLines().get(0);
+        assertEquals(15.0, partial.getBackorderedQuantity());
+        assertEquals(3, partial.getTransactionIds().size());
+
+        receipt(bolt, oldBin, 20);
+        OrderLineDTO fulfilled = orderService.fulfilBackorders(created.getId(), user.getId(), null).getOrderLines().get(0);
+        assertEquals(0.0, fulfilled.getBackorderedQuantity());
+        List<Transaction> allocations = orderLineRepository.findById(lineId).orElseThrow().getAllocations();
+        assertEquals(100.0, allocations.stream().mapToDouble(Transaction::getQuantity).sum());
+        assertEquals(5.0, itemRepository.findById(bolt.getId()).orElseThrow().getCurrentQuantity());
+
+        orderService.updateOrderStatus(created.getId(), "CANCELLED", null, user.getId());
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.fulfilBackorders(created.getId(), user.getId(), null));
+    }
+
+    @Test
+    @DisplayName("Should group pending order lines by location in walk order")
+    void testPlanWaveGroupsByLocation() {
+        orderService.createOrder(order("PICK-1", line(bolt, 30.0)), user.getId());
+        orderService.createOrder(order("PICK-2", line(bolt, 5.0), line(screw, 7.0)), user.getId());
+
+        WavePlanDTO plan = wavePlanningService.planWave(100, null);
+
+        assertEquals(2, plan.getOrderCount());
+        assertEquals(3, plan.getLineCount());
+        assertTrue(plan.getUnassignedOrderLineIds().isEmpty());
+        List<String> codes = plan.getPickLists().stream().map(PickListDTO::getLocationCode).toList();
+        assertEquals(List.of("A1-S1-R1", "A1-S2-R1", "B1-S1-R1"), codes);
+
+        PickListDTO first = plan.getPickLists().get(0);
+        assertEquals(1, first.getSequence());
+        assertEquals(25.0, first.getTotalQuantity());
+        assertEquals(List.of("PICK-1", "PICK-2"), first.getLines().stream().map(l -> l.getOrderNumber()).toList());
+        assertEquals(10.0, plan.getPickLists().get(1).getTotalQuantity());
+        assertEquals(7.0, plan.getPickLists().get(2).getTotalQuantity());
+    }
+
+    @Test
+    @DisplayName("Should order a single order's pick list with the requested strategy")
+    void testPlanOrderWithStrategy() {
+        OrderDTO created = orderService.createOrder(order("PICK-3", line(screw, 2.0), line(bolt, 30.0)), user.getId());
+
+        WavePlanDTO plan = wavePlanningService.planOrder(created.getId(), PickPathStrategy.S_SHAPE);
+
+        assertEquals("S_SHAPE", plan.getPathStrategy());
+        assertNotNull(plan.getPathDistance());
+        // Alejka A w górę (S1, S2), potem alejka B w dół
+        assertEquals(List.of("A1-S1-R1", "A1-S2-R1", "B1-S1-R1"),
+                plan.getPickLists().stream().map(PickListDTO::getLocationCode).toList());
+    }
+
+    @Test
+    @DisplayName("Should reject wave size outside allowed range")
+    void testPlanWaveRejectsInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> wavePlanningService.planWave(0, null));
+    }
+
+    private Item item(String name, Category category) {
+        Item item = new Item();
+        item.setName(name);
+        item.setCategory(category);
+        item.setCurrentQuantity(0.0);
+        item.setUnit(UnitType.PCS);
+        item.setType(ItemType.COMPONENT);
+        return itemRepository.save(item);
+    }
+
+    private Location location(String code) {
+        Location location = new Location();
+        location.setCode(code);
+        location.setName(code);
+        location.setType("BIN");
+        return locationRepository.save(location);
+    }
+
+    private void assign(Item item, Location location) {
+        InventoryLocation inventoryLocation = new InventoryLocation();
+        inventoryLocation.setItem(item);
+        inventoryLocation.setLocation(location);
+        inventoryLocationRepository.save(inventoryLocation);
+    }
+
+    private void receipt(Item item, Location location, double quantity) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.RECEIPT);
+        transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+        transaction.setItem(item);
+        transaction.setLocation(location);
+        transaction.setQuantity(quantity);
+        transaction.setUser(user);
+        transactionService.createTransaction(transaction);
+    }
+
+    private static OrderLineDTO line(Item item, Double quantity) {
+        OrderLineDTO line = new OrderLineDTO();
+        line.setItemId(item.getId());
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    private static OrderDTO order(String number, OrderLineDTO... lines) {
+        OrderDTO order = new OrderDTO();
+        order.setOrderNumber(number);
+        order.setOrderLines(List.of(lines));
+        return order;
+    }
+}
@@ -0,0 +1,206 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.InventoryLocation;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.ItemType;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.Role;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Model.UnitType;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Model.DTO.BulkOrderStatusResultDTO;
+import com.kozimor.wms.Database.Model.DTO.OrderDTO;
+import com.kozimor.wms.Database.Model.DTO.OrderLineDTO;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Repository.InventoryLocationRepository;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.LocationRepository;
+import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Repository.TransactionRepository;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.OrderService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("OrderServiceImpl - Query count per page Integration Tests")
+class OrderQueryCountIntegrationTest {
+
+    private static final int ORDERS = 25;
+
+    // Strona zamówień + COUNT + sumy linii (agregacja w bazie) + linie wszystkich zamówień strony
+    private static final long MAX_STATEMENTS_PER_PAGE = 4;
+    // Użytkownik + statusy + UPDATE + historia + zamówienia + sumy + linie
+    private static final long MAX_STATEMENTS_PER_BULK_UPDATE = 7;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private InventoryLocationRepository inventoryLocationRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User firstUser;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(Role.builder().roleName("ROLE_QUERY_TEST").build());
+        firstUser = user("first", role);
+        User secondUser = user("second", role);
+
+        Location location = new Location();
+        location.setCode("A1-S1-R1");
+        location.setName("Query bin");
+        location.setType("BIN");
+        location = locationRepository.save(location);
+
+        Item[] items = new Item[4];
+        for (int i = 0; i < items.length; i++) {
+            Category category = categoryRepository.save(
+                    Category.builder().name("Query category " + i).description("Query test").build());
+            Item item = new Item();
+            item.setName("Query item " + i);
+            item.setCategory(category);
+            item.setCurrentQuantity(1000.0);
+            item.setUnit(UnitType.PCS);
+            item.setType(ItemType.PRODUCT);
+            items[i] = itemRepository.save(item);
+
+            InventoryLocation inventoryLocation = new InventoryLocation();
+            inventoryLocation.setItem(items[i]);
+            inventoryLocation.setLocation(location);
+            inventoryLocationRepository.save(inventoryLocation);
+
+            // Saldo lokacji - linie są alokowane na lokację i dostają transakcję
+            Transaction receipt = new Transaction();
+            receipt.setTransactionType(TransactionType.RECEIPT);
+            receipt.setTransactionStatus(TransactionStatus.COMPLETED);
+            receipt.setItem(items[i]);
+            receipt.setLocation(location);
+            receipt.setQuantity(1000.0);
+            receipt.setUser(firstUser);
+            transactionRepository.save(receipt);
+        }
+
+        for (int n = 0; n < ORDERS; n++) {
+            OrderDTO order = new OrderDTO();
+            order.setOrderNumber("QUERY-" + n);
+            order.setOrderLines(List.of(
+                    new OrderLineDTO(null, items[n % 4].getId(), null, null, 1.0, null, null, null, null),
+                    new OrderLineDTO(null, items[(n + 1) % 4].getId(), null, null, 2.0, null, null, null, null),
+                    new OrderLineDTO(null, items[(n + 2) % 4].getId(), null, null, 3.0, null, null, null, null)));
+            orderService.createOrder(order, (n % 2 == 0 ? firstUser : secondUser).getId());
+        }
+
+        // Pusty kontekst - każde leniwe odwołanie do linii, itemu, kategorii czy użytkownika byłoby osobnym zapytaniem
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Paginated orders should use a constant number of queries")
+    void testGetOrdersPaginatedQueryCount() {
+        Page<OrderDTO> page = orderService.getOrdersPaginated(0, 20);
+
+        assertEquals(20, page.getContent().size());
+        assertEquals(ORDERS, page.getTotalElements());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Statements: " + statistics.getPrepareStatementCount());
+
+        OrderDTO first = page.getContent().get(0);
+        assertEquals(3, first.getItemCount());
+        assertEquals(6, first.getTotalQuantity());
+        assertEquals(3, first.getOrderLines().size());
+        assertNotNull(first.getOrderLines().get(0).getItemCategory());
+        assertNotNull(first.getOrderLines().get(0).getTransactionId());
+        assertNotNull(first.getCreatedBy());
+    }
+
+    @Test
+    @DisplayName("Orders by status and by user should use a constant number of queries")
+    void testFilteredPagesQueryCount() {
+        Page<OrderDTO> byStatus = orderService.getOrdersByStatus("PENDING", 0, 10);
+        long afterStatus = statistics.getPrepareStatementCount();
+        Page<OrderDTO> byUser = orderService.getOrdersByUser(firstUser.getId(), 0, 10);
+        long afterUser = statistics.getPrepareStatementCount() - afterStatus;
+
+        assertEquals(10, byStatus.getContent().size());
+        assertEquals(10, byUser.getContent().size());
+        assertTrue(byUser.getContent().stream().allMatch(o -> "first".equals(o.getCreatedBy())));
+        assertTrue(afterStatus <= MAX_STATEMENTS_PER_PAGE, "Statements by status: " + afterStatus);
+        assertTrue(afterUser <= MAX_STATEMENTS_PER_PAGE, "Statements by user: " + afterUser);
+    }
+
+    @Test
+    @DisplayName("Bulk status update returning orders should use a constant number of queries")
+    void testBulkStatusUpdateQueryCount() {
+        List<Long> ids = orderService.getOrdersPaginated(0, ORDERS).getContent().stream().map(OrderDTO::getId).toList();
+        statistics.clear();
+
+        BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(ids, "COMPLETED", null, firstUser.getId(), false);
+
+        assertEquals(ORDERS, result.getOrders().size());
+        assertEquals(ids, result.getOrders().stream().map(OrderDTO::getId).toList());
+        assertTrue(result.getOrders().stream().allMatch(o -> o.getCreatedBy() != null && o.getItemCount() == 3));
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_BULK_UPDATE,
+                "Statements: " + statistics.getPrepareStatementCount());
+    }
+
+    private User user(String username, Role role) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .password("{noop}" + username)
+                .email(username + "@wms.local")
+                .firstName(username)
+                .lastName("Query")
+                .role(role)
+                .build());
+    }
+}
@@ -0,0 +1,165 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.InventoryLocation;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.ItemType;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.Role;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Model.UnitType;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Model.DTO.BulkOrderStatusResultDTO;
+import com.kozimor.wms.Database.Model.DTO.OrderDTO;
+import com.kozimor.wms.Database.Model.DTO.OrderLineDTO;
+import com.kozimor.wms.Database.Model.DTO.OrderStatusHistoryDTO;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Repository.InventoryLocationRepository;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.LocationRepository;
+import com.kozimor.wms.Database.Repository.OrderRepository;
+import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.OrderService;
+import com.kozimor.wms.Database.Service.TransactionService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("OrderServiceImpl - Bulk status update Integration Tests")
+class OrderStatusIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private InventoryLocationRepository inventoryLocationRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private User user;
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(Role.builder().roleName("ROLE_STATUS_TEST").build());
+        user = userRepository.save(User.builder()
+                .username("shift")
+                .password("{noop}shift")
+                .email("shift@wms.local")
+                .firstName("Shift")
+                .lastName("Lead")
+                .role(role)
+                .build());
+        Category category = categoryRepository.save(Category.builder().name("Status").description("Status test").build());
+
+        Item item = new Item();
+        item.setName("Crate");
+        item.setCategory(category);
+        item.setCurrentQuantity(0.0);
+        item.setUnit(UnitType.PCS);
+        item.setType(ItemType.PRODUCT);
+        item = itemRepository.save(item);
+
+        Location location = new Location();
+        location.setCode("A1-S1-R1");
+        location.setName("Status bin");
+        location.setType("BIN");
+        location = locationRepository.save(location);
+
+        InventoryLocation inventoryLocation = new InventoryLocation();
+        inventoryLocation.setItem(item);
+        inventoryLocation.setLocation(location);
+        inventoryLocationRepository.save(inventoryLocation);
+
+        // Saldo lokacji pokrywające zamówienia - bez niego zamówienie z brakiem jest odrzucane
+        Transaction receipt = new Transaction();
+        receipt.setTransactionType(TransactionType.RECEIPT);
+        receipt.setTransactionStatus(TransactionStatus.COMPLETED);
+        receipt.setItem(item);
+        receipt.setLocation(location);
+        receipt.setQuantity(100.0);
+        receipt.setUser(user);
+        transactionService.createTransaction(receipt);
+
+        for (int i = 0; i < 3; i++) {
+            OrderDTO order = new OrderDTO();
+            order.setOrderNumber("SHIFT-" + i);
+            order.setOrderLines(List.of(new OrderLineDTO(null, item.getId(), null, null, 2.0, null, null, null, null)));
+            orderIds.add(orderService.createOrder(order, user.getId()).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should update statuses in bulk and write history for each order")
+    void testBulkStatusUpdate() {
+        List<Long> requested = List.of(orderIds.get(0), orderIds.get(1), 999_999L);
+
+        BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(requested, "completed", null, user.getId(), false);
+
+        assertEquals("COMPLETED", result.getStatus());
+        assertEquals(2, result.getUpdatedCount());
+        assertEquals(List.of(orderIds.get(0), orderIds.get(1)), result.getUpdatedIds());
+        assertEquals(List.of(999_999L), result.getNotFoundIds());
+        assertEquals(2, result.getOrders().size());
+        assertTrue(result.getOrders().stream().allMatch(o -> "COMPLETED".equals(o.getOrderStatus())));
+
+        assertEquals(TransactionStatus.COMPLETED, orderRepository.findById(orderIds.get(0)).orElseThrow().getOrderStatus());
+        assertEquals(TransactionStatus.PENDING, orderRepository.findById(orderIds.get(2)).orElseThrow().getOrderStatus());
+
+        List<OrderStatusHistoryDTO> history = orderService.getOrderStatusHistory(orderIds.get(1));
+        assertEquals(2, history.size());
+        assertTrue(history.stream().anyMatch(h -> "PENDING".equals(h.getOldStatus()) && "COMPLETED".equals(h.getNewStatus())));
+    }
+
+    @Test
+    @DisplayName("Should return only ids when requested")
+    void testBulkStatusUpdateIdsOnly() {
+        BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(orderIds, "CANCELLED", "Koniec zmiany", user.getId(), true);
+
+        assertEquals(3, result.getUpdatedCount());
+        assertNull(result.getOrders());
+        assertTrue(result.getNotFoundIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown status")
+    void testBulkStatusUpdateInvalidStatus() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.updateOrderStatuses(orderIds, "SHIPPED", null, user.getId(), true));
+    }
+}
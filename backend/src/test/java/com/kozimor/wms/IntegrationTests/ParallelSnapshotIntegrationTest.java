@@ -0,0 +1,201 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.kozimor.wms.Config.WmsMetrics;
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.ItemType;
+import com.kozimor.wms.Database.Model.Report;
+import com.kozimor.wms.Database.Model.ReportItem;
+import com.kozimor.wms.Database.Model.Role;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Model.UnitType;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.ReportItemRepository;
+import com.kozimor.wms.Database.Repository.ReportRepository;
+import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Repository.TransactionRepository;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.ParallelSnapshotService;
+import com.kozimor.wms.Database.Service.ReportService;
+import com.kozimor.wms.Database.Service.StatusRuleService;
+import com.kozimor.wms.Database.Service.ServiceImpl.ReportServiceImpl;
+
+// Bez @Transactional - partycje czytane są na osobnych połączeniach i widzą tylko zatwierdzone dane
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("ParallelSnapshotService - Integration Tests")
+class ParallelSnapshotIntegrationTest {
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private ReportItemRepository reportItemRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private StatusRuleService statusRuleService;
+
+    @Autowired
+    private WmsMetrics wmsMetrics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ParallelSnapshotService parallelSnapshotService;
+    private User user;
+    private Category category;
+    private final List<Item> items = new ArrayList<>();
+    private final List<Long> reportIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        parallelSnapshotService = new ParallelSnapshotService(jdbcTemplate, transactionManager, wmsMetrics, 3, 10);
+        Role role = roleRepository.save(Role.builder().roleName("ROLE_SNAPSHOT_TEST").build());
+        user = userRepository.save(User.builder()
+                .username("parallel-snapshot")
+                .password("{noop}snapshot")
+                .email("parallel-snapshot@wms.local")
+                .firstName("Snapshot")
+                .lastName("Test")
+                .role(role)
+                .build());
+        category = categoryRepository.save(Category.builder().name("Parallel").description("Snapshot test").build());
+        for (int i = 0; i < 40; i++) {
+            Item item = new Item();
+            item.setName("Parallel item " + i);
+            item.setCategory(category);
+            item.setCurrentQuantity((double) (i % 15));
+            item.setUnit(UnitType.PCS);
+            item.setType(ItemType.PRODUCT);
+            items.add(itemRepository.save(item));
+        }
+        for (TransactionType type : List.of(TransactionType.RECEIPT, TransactionType.ISSUE_TO_SALES)) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionType(type);
+            transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+            transaction.setItem(items.get(7));
+            transaction.setQuantity(1.0);
+            transaction.setUser(user);
+            transactionRepository.save(transaction);
+        }
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user.getUsername(), null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        parallelSnapshotService.shutdown();
+        reportIds.forEach(reportRepository::deleteById);
+        transactionRepository.deleteAll(transactionRepository.findByItemId(items.get(7).getId()));
+        itemRepository.deleteAll(items);
+        categoryRepository.deleteById(category.getId());
+        userRepository.deleteById(user.getId());
+        roleRepository.deleteById(user.getRole().getId());
+    }
+
+    @Test
+    @DisplayName("Should cap workers to the connection pool size")
+    void testWorkersCappedToConnectionPool() {
+        ParallelSnapshotService capped = new ParallelSnapshotService(jdbcTemplate, transactionManager, wmsMetrics, 8, 5);
+        ParallelSnapshotService disabled = new ParallelSnapshotService(jdbcTemplate, transactionManager, wmsMetrics, 4, 3);
+        try {
+            assertTrue(capped.isEnabled());
+            assertEquals(3, capped.getWorkers());
+            assertFalse(disabled.isEnabled());
+            assertEquals(3, parallelSnapshotService.getWorkers());
+        } finally {
+            capped.shutdown();
+            disabled.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should produce the same report as the sequential snapshot")
+    void testParallelMatchesSequential() {
+        Report sequential = snapshot(service(null));
+        Report parallel = snapshot(service(parallelSnapshotService));
+
+        assertEquals(sequential.getTotalItemsCount(), parallel.getTotalItemsCount());
+        assertEquals(sequential.getOkCount(), parallel.getOkCount());
+        assertEquals(sequential.getLowStockCount(), parallel.getLowStockCount());
+        assertEquals(sequential.getCriticalStockCount(), parallel.getCriticalStockCount());
+
+        Map<Long, ReportItem> expected = itemsOf(sequential);
+        Map<Long, ReportItem> actual = itemsOf(parallel);
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Item item : items) {
+            ReportItem want = expected.get(item.getId());
+            ReportItem got = actual.get(item.getId());
+            assertEquals(want.getStatus(), got.getStatus());
+            assertEquals(want.getWarehouseValue(), got.getWarehouseValue());
+            assertEquals(want.getUnit(), got.getUnit());
+            assertEquals(0, got.getDifferenceFromPrevious());
+        }
+        ReportItem withDates = actual.get(items.get(7).getId());
+        assertNotNull(withDates.getLastReceiptDate());
+        assertNotNull(withDates.getLastIssueDate());
+        assertEquals(expected.get(items.get(7).getId()).getLastReceiptDate().withNano(0),
+                withDates.getLastReceiptDate().withNano(0));
+    }
+
+    private ReportService service(ParallelSnapshotService parallel) {
+        return new ReportServiceImpl(reportRepository, itemRepository, reportItemRepository, transactionRepository,
+                userRepository, statusRuleService,
+                parallel != null ? parallel : new ParallelSnapshotService(jdbcTemplate, transactionManager, wmsMetrics, 0, 10),
+                wmsMetrics, false, 7);
+    }
+
+    private Report snapshot(ReportService service) {
+        Report report = new TransactionTemplate(transactionManager).execute(status -> service.createSnapshot());
+        reportIds.add(report.getId());
+        return report;
+    }
+
+    private Map<Long, ReportItem> itemsOf(Report report) {
+        return reportItemRepository.findAllByReport_Id(report.getId()).stream()
+                .collect(Collectors.toMap(ri -> ri.getItem().getId(), Function.identity()));
+    }
+}
@@ -3,8 +3,14 @@ package com.kozimor.wms.IntegrationTests;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,24 +19,36 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.DTO.ReportItemDiffDTO;
 import com.kozimor.wms.Database.Model.Item;
 import com.kozimor.wms.Database.Model.ItemType;
+import com.kozimor.wms.Config.WmsMetrics;
 import com.kozimor.wms.Database.Model.Report;
+import com.kozimor.wms.Database.Model.ReportItem;
 import com.kozimor.wms.Database.Model.Role;
 import com.kozimor.wms.Database.Model.UnitType;
 import com.kozimor.wms.Database.Model.User;
 import com.kozimor.wms.Database.Repository.CategoryRepository;
 import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.ReportItemRepository;
 import com.kozimor.wms.Database.Repository.ReportRepository;
 import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Repository.TransactionRepository;
 import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.ParallelSnapshotService;
+import com.kozimor.wms.Database.Service.ReportDiffService;
 import com.kozimor.wms.Database.Service.ReportService;
+import com.kozimor.wms.Database.Service.StatusRuleService;
+import com.kozimor.wms.Database.Service.ServiceImpl.ReportServiceImpl;
+
+import jakarta.persistence.EntityManager;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -56,6 +74,27 @@ class ReportServiceIntegrationTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ReportItemRepository reportItemRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private StatusRuleService statusRuleService;
+
+    @Autowired
+    private WmsMetrics wmsMetrics;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReportDiffService reportDiffService;
+
+    @Autowired
+    private ParallelSnapshotService parallelSnapshotService;
+
     private User testUser;
     private Role adminRole;
     private Item testItem;
@@ -383,8 +422,183 @@ class ReportServiceIntegrationTest {
         // Database will be restored to original state
     }
 
+    // ========== INCREMENTAL SNAPSHOT TESTS ==========
+
+    @Test
+    @DisplayName("Should store only changed items in incremental snapshots and compact into a new base")
+    void testIncrementalSnapshots() {
+        ReportService incremental = incrementalReportService(2);
+        Item lowItem = saveItem("Delta Low Item", 5.0);
+
+        Report base = incremental.createSnapshot();
+        testItem.setCurrentQuantity(120.0);
+        itemRepository.save(testItem);
+        Report delta = incremental.createSnapshot();
+        Report emptyDelta = incremental.createSnapshot();
+        Report compacted = incremental.createSnapshot();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(Report.SnapshotType.FULL, base.getSnapshotType());
+        assertEquals(Report.SnapshotType.DELTA, delta.getSnapshotType());
+        assertEquals(base.getId(), delta.getBaseReportId());
+        assertEquals(base.getId(), emptyDelta.getBaseReportId());
+        // Łańcuch osiągnął max-delta-chain - kolejny snapshot jest nową bazą
+        assertEquals(Report.SnapshotType.FULL, compacted.getSnapshotType());
+
+        List<ReportItem> stored = reportItemRepository.findAllByReport_Id(delta.getId());
+        assertEquals(1, stored.size());
+        assertEquals(testItem.getId(), stored.get(0).getItem().getId());
+        assertTrue(reportItemRepository.findAllByReport_Id(emptyDelta.getId()).isEmpty());
+
+        Map<Long, ReportItem> view = itemsOf(incremental, emptyDelta.getId());
+        assertEquals(120.0, view.get(testItem.getId()).getWarehouseValue());
+        assertEquals(5.0, view.get(lowItem.getId()).getWarehouseValue());
+        assertEquals("LOW", view.get(lowItem.getId()).getStatus());
+        assertEquals(view.size(), itemsOf(incremental, base.getId()).size());
+        assertEquals(20, itemsOf(incremental, delta.getId()).get(testItem.getId()).getDifferenceFromPrevious());
+    }
+
+    @Test
+    @DisplayName("Should keep incremental snapshots readable after deleting their base")
+    void testDeleteIncrementalBase() {
+        ReportService incremental = incrementalReportService(5);
+        Report base = incremental.createSnapshot();
+        testItem.setCurrentQuantity(80.0);
+        itemRepository.save(testItem);
+        Report first = incremental.createSnapshot();
+        Item newItem = saveItem("Delta New Item", 30.0);
+        Report second = incremental.createSnapshot();
+        entityManager.flush();
+        entityManager.clear();
+        int fullSize = itemsOf(incremental, second.getId()).size();
+
+        incremental.deleteReport(base.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        Report newBase = reportRepository.findById(first.getId()).orElseThrow();
+        assertEquals(Report.SnapshotType.FULL, newBase.getSnapshotType());
+        assertEquals(first.getId(), reportRepository.findById(second.getId()).orElseThrow().getBaseReportId());
+        Map<Long, ReportItem> view = itemsOf(incremental, second.getId());
+        assertEquals(fullSize, view.size());
+        assertEquals(80.0, view.get(testItem.getId()).getWarehouseValue());
+        assertEquals(30.0, view.get(newItem.getId()).getWarehouseValue());
+    }
+
+    @Test
+    @DisplayName("Should page report items by item id across an incremental snapshot")
+    void testReportItemsKeysetPage() {
+        ReportService incremental = incrementalReportService(5);
+        incremental.createSnapshot();
+        testItem.setCurrentQuantity(70.0);
+        itemRepository.save(testItem);
+        saveItem("Keyset Item", 15.0);
+        Report delta = incremental.createSnapshot();
+        entityManager.flush();
+        entityManager.clear();
+        Report report = reportRepository.findById(delta.getId()).orElseThrow();
+        Map<Long, ReportItem> expected = itemsOf(incremental, delta.getId());
+
+        List<ReportItem> pagedItems = new ArrayList<>();
+        long after = 0;
+        List<ReportItem> page;
+        while (!(page = incremental.getReportItemsAfter(report, after, 2)).isEmpty()) {
+            pagedItems.addAll(page);
+            after = page.get(page.size() - 1).getItem().getId();
+        }
+
+        assertEquals(expected.size(), pagedItems.size());
+        for (int i = 1; i < pagedItems.size(); i++) {
+            assertTrue(pagedItems.get(i - 1).getItem().getId() < pagedItems.get(i).getItem().getId());
+        }
+        ReportItem changed = pagedItems.stream()
+                .filter(ri -> ri.getItem().getId().equals(testItem.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(70.0, changed.getWarehouseValue());
+        assertEquals(-30, changed.getDifferenceFromPrevious());
+    }
+
+    @Test
+    @DisplayName("Should list reports without loading report items")
+    void testListingWithoutReportItems() {
+        reportService.createSnapshot();
+        entityManager.flush();
+        entityManager.clear();
+
+        Page<Report> reports = reportService.getAllReports(pageable);
+
+        assertFalse(reports.isEmpty());
+        Report first = reports.getContent().get(0);
+        assertTrue(Hibernate.isInitialized(first.getCreatedBy()));
+        assertFalse(Hibernate.isInitialized(first.getReportItems()));
+    }
+
+    // ========== REPORT DIFF TESTS ==========
+
+    @Test
+    @DisplayName("Should diff two reports with changes, new items and status transitions sorted by absolute delta")
+    void testDiffReports() {
+        ReportService incremental = incrementalReportService(5);
+        Report before = incremental.createSnapshot();
+        testItem.setCurrentQuantity(5.0);
+        itemRepository.save(testItem);
+        Item newItem = saveItem("Diff New Item", 20.0);
+        Report after = incremental.createSnapshot();
+        entityManager.flush();
+
+        List<ReportItemDiffDTO> rows = new ArrayList<>();
+        int count = reportDiffService.diff(before.getId(), after.getId(), "absDelta", Sort.Direction.DESC, false, rows::add);
+
+        assertEquals(2, count);
+        ReportItemDiffDTO changed = rows.get(0);
+        assertEquals(testItem.getId(), changed.getItemId());
+        assertEquals("CHANGED", changed.getChange());
+        assertEquals(-95.0, changed.getDelta());
+        assertEquals("OK", changed.getStatusA());
+        assertEquals("LOW", changed.getStatusB());
+        assertTrue(changed.isStatusChanged());
+        ReportItemDiffDTO added = rows.get(1);
+        assertEquals(newItem.getId(), added.getItemId());
+        assertEquals("ADDED", added.getChange());
+        assertNull(added.getQuantityA());
+        assertEquals(20.0, added.getDelta());
+
+        List<ReportItemDiffDTO> reversed = new ArrayList<>();
+        reportDiffService.diff(after.getId(), before.getId(), "absDelta", Sort.Direction.ASC, false, reversed::add);
+        assertEquals("REMOVED", reversed.get(0).getChange());
+        assertEquals(newItem.getId(), reversed.get(0).getItemId());
+
+        List<ReportItemDiffDTO> all = new ArrayList<>();
+        reportDiffService.diff(before.getId(), after.getId(), "itemId", Sort.Direction.ASC, true, all::add);
+        assertEquals(itemsOf(incremental, after.getId()).size(), all.size());
+        assertThrows(IllegalArgumentException.class,
+                () -> reportDiffService.validate(before.getId(), after.getId(), "warehouse_value; DROP TABLE reports"));
+    }
+
     // ========== HELPER METHODS ==========
 
+    private ReportService incrementalReportService(int maxDeltaChain) {
+        return new ReportServiceImpl(reportRepository, itemRepository, reportItemRepository, transactionRepository,
+                userRepository, statusRuleService, parallelSnapshotService, wmsMetrics, true, maxDeltaChain);
+    }
+
+    private Map<Long, ReportItem> itemsOf(ReportService service, Long reportId) {
+        Report report = reportRepository.findById(reportId).orElseThrow();
+        return service.getReportItems(report).stream()
+                .collect(Collectors.toMap(ri -> ri.getItem().getId(), Function.identity()));
+    }
+
+    private Item saveItem(String name, double quantity) {
+        Item item = new Item();
+        item.setName(name);
+        item.setCategory(testCategory);
+        item.setCurrentQuantity(quantity);
+        item.setUnit(UnitType.PCS);
+        item.setType(ItemType.PRODUCT);
+        return itemRepository.save(item);
+    }
+
     private void setupSecurityContext(String username) {
         TestingAuthenticationToken auth = new TestingAuthenticationToken(username, null);
         SecurityContextHolder.getContext().setAuthentication(auth);
@@ -0,0 +1,107 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.kozimor.wms.Config.ResourceVersionRegistry;
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+
+// Bez @Transactional - wersja jest podbijana przy commicie
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("ResourceVersionRegistry - Integration Tests")
+class ResourceVersionIntegrationTest {
+
+    @Autowired
+    private ResourceVersionRegistry versionRegistry;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Should bump the version once per committed transaction")
+    void testBumpOnCommit() {
+        long before = version(Category.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Category category = categoryRepository.save(Category.builder().name("Versioned").description("v1").build());
+            category.setDescription("v2");
+        });
+
+        assertEquals(before + 1, version(Category.class));
+    }
+
+    @Test
+    @DisplayName("Should bump the version for a change found only by the flush at commit")
+    void testBumpOnCommitFlush() {
+        Category category = categoryRepository.save(Category.builder().name("Dirty").description("v1").build());
+        long before = version(Category.class);
+
+        transactionTemplate.executeWithoutResult(status ->
+                categoryRepository.findById(category.getId()).orElseThrow().setDescription("v2"));
+
+        assertEquals(before + 1, version(Category.class));
+    }
+
+    @Test
+    @DisplayName("Should not bump the version of a rolled back change")
+    void testNoBumpOnRollback() {
+        long before = version(Category.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            categoryRepository.save(Category.builder().name("Rolled back").description("-").build());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, version(Category.class));
+    }
+
+    @Test
+    @DisplayName("Should see versions bumped by another instance once the cached version expires")
+    void testSharedVersion() throws InterruptedException {
+        ResourceVersionRegistry cached = new ResourceVersionRegistry(jdbcTemplate, entityManagerFactory, 300);
+        long before = cached.getVersions(List.of(Item.class))[0];
+
+        jdbcTemplate.update("UPDATE resource_versions SET version = version + 1 WHERE resource_type = 'Item'");
+
+        assertEquals(before, cached.getVersions(List.of(Item.class))[0]);
+        Thread.sleep(400);
+        assertEquals(before + 1, cached.getVersions(List.of(Item.class))[0]);
+    }
+
+    @Test
+    @DisplayName("Should drop the cached version on a local bump")
+    void testLocalBumpInvalidatesCache() {
+        long before = version(Category.class);
+
+        categoryRepository.save(Category.builder().name("Cached").description("-").build());
+
+        assertEquals(before + 1, version(Category.class));
+    }
+
+    private long version(Class<?> type) {
+        return versionRegistry.getVersions(List.of(type))[0];
+    }
+}
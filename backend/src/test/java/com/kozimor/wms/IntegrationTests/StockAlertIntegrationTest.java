@@ -0,0 +1,262 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.kozimor.wms.Config.ResourceVersionRegistry;
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.ItemType;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.LocationThreshold;
+import com.kozimor.wms.Database.Model.Role;
+import com.kozimor.wms.Database.Model.StockAlert;
+import com.kozimor.wms.Database.Model.Transaction;
+import com.kozimor.wms.Database.Model.TransactionStatus;
+import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Model.UnitType;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Model.DTO.StockAlertDTO;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.LocationRepository;
+import com.kozimor.wms.Database.Repository.LocationThresholdRepository;
+import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Repository.StockAlertRepository;
+import com.kozimor.wms.Database.Repository.TransactionRepository;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.LocationBalanceService;
+import com.kozimor.wms.Database.Service.StockAlertService;
+import com.kozimor.wms.Database.Service.TransactionService;
+
+// Bez @Transactional - progi sprawdzane są po commicie, na wątku alertów
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("StockAlertService - Threshold alerts Integration Tests")
+class StockAlertIntegrationTest {
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @Autowired
+    private StockAlertRepository stockAlertRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LocationThresholdRepository locationThresholdRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LocationBalanceService locationBalanceService;
+
+    @Autowired
+    private ResourceVersionRegistry versionRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Category category;
+    private Item item;
+    private Location location;
+    private LocationThreshold threshold;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(Role.builder().roleName("ROLE_ALERT_TEST").build());
+        user = userRepository.save(User.builder()
+                .username("alerts")
+                .password("{noop}alerts")
+                .email("alerts@wms.local")
+                .firstName("Alert")
+                .lastName("Test")
+                .role(role)
+                .build());
+        category = categoryRepository.save(Category.builder().name("Alerts").description("Alert test").build());
+
+        item = new Item();
+        item.setName("Pallet wrap");
+        item.setCategory(category);
+        item.setCurrentQuantity(0.0);
+        item.setUnit(UnitType.PCS);
+        item.setType(ItemType.PRODUCT);
+        item = itemRepository.save(item);
+
+        location = new Location();
+        location.setCode("B2-S1-R1");
+        location.setName("Alert bin");
+        location.setType("BIN");
+        location = locationRepository.save(location);
+
+        threshold = new LocationThreshold();
+        threshold.setLocation(location);
+        threshold.setMinThreshold(10);
+        threshold.setMaxThreshold(100);
+        threshold = locationThresholdRepository.save(threshold);
+        stockAlertService.flush();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll(transactionRepository.findAll().stream()
+                .filter(t -> t.getItem().getId().equals(item.getId())).toList());
+        locationThresholdRepository.deleteById(threshold.getId());
+        stockAlertService.flush();
+        stockAlertRepository.deleteAll();
+        itemRepository.deleteById(item.getId());
+        locationRepository.deleteById(location.getId());
+        categoryRepository.deleteById(category.getId());
+        userRepository.deleteById(user.getId());
+        roleRepository.deleteById(user.getRole().getId());
+    }
+
+    @Test
+    @DisplayName("Should raise and clear low stock alert with hysteresis")
+    void testLowStockHysteresis() {
+        // Pusta lokacja z progiem minimalnym jest od razu poniżej minimum
+        assertEquals(List.of("LOW_STOCK"), activeTypes());
+
+        post(TransactionType.RECEIPT, 10);
+        // Saldo równe minimum - jeszcze w paśmie histerezy (10 + 1)
+        assertEquals(List.of("LOW_STOCK"), activeTypes());
+
+        post(TransactionType.RECEIPT, 1);
+        assertTrue(activeTypes().isEmpty());
+
+        post(TransactionType.ISSUE_TO_SALES, 1);
+        // 10 nie jest poniżej minimum - brak ponownego alertu
+        assertTrue(activeTypes().isEmpty());
+
+        post(TransactionType.ISSUE_TO_SALES, 2);
+        assertEquals(List.of("LOW_STOCK"), activeTypes());
+        assertEquals(2, stockAlertService.getAlerts("ALL", 0, 10).getTotalElements());
+
+        StockAlertDTO cleared = stockAlertService.getAlerts("CLEARED", 0, 10).getContent().get(0);
+        assertEquals(11.0, cleared.getClearedQuantity());
+        assertEquals("B2-S1-R1", cleared.getLocationCode());
+    }
+
+    @Test
+    @DisplayName("Should raise overstock alert and clear it when the threshold is raised")
+    void testOverstockAndThresholdChange() {
+        post(TransactionType.RECEIPT, 120);
+        assertEquals(List.of("OVERSTOCK"), activeTypes());
+        StockAlertDTO overstock = stockAlertService.getAlerts(null, 0, 10).getContent().get(0);
+        assertEquals(100.0, overstock.getThreshold());
+        assertEquals(120.0, overstock.getQuantity());
+
+        threshold.setMaxThreshold(200);
+        threshold = locationThresholdRepository.save(threshold);
+        stockAlertService.flush();
+        assertTrue(activeTypes().isEmpty());
+
+        assertEquals(1, stockAlertService.reconcile());
+        assertThrows(IllegalArgumentException.class, () -> stockAlertService.getAlerts("OPEN", 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should evaluate postings against balances including other instances and keep one active alert")
+    void testPostingsFromOtherInstances() {
+        assertEquals(List.of("LOW_STOCK"), activeTypes());
+        StockAlert active = stockAlertRepository.findFirstByLocationIdAndTypeAndStatus(
+                location.getId(), StockAlert.Type.LOW_STOCK, StockAlert.Status.ACTIVE).orElseThrow();
+
+        // Drugi aktywny alert tego samego typu w lokacji odrzuca baza
+        assertThrows(DataIntegrityViolationException.class, () -> stockAlertRepository.save(StockAlert.builder()
+                .locationId(location.getId())
+                .locationCode(location.getCode())
+                .type(StockAlert.Type.LOW_STOCK)
+                .status(StockAlert.Status.ACTIVE)
+                .threshold(10.0)
+                .quantity(0.0)
+                .raisedAt(LocalDateTime.now())
+                .activeKey(StockAlert.activeKey(location.getId(), StockAlert.Type.LOW_STOCK))
+                .build()));
+
+        // Księgowanie innej instancji - zapis bez zdarzenia na tej instancji
+        transactionRepository.save(transaction(TransactionType.RECEIPT, 100));
+        stockAlertService.flush();
+        assertEquals(List.of("LOW_STOCK"), activeTypes());
+
+        // Lokalne księgowanie ocenia saldo z bazy: 100 + 5 > maxThreshold
+        post(TransactionType.RECEIPT, 5);
+        assertEquals(List.of("OVERSTOCK"), activeTypes());
+        StockAlertDTO cleared = stockAlertService.getAlerts("CLEARED", 0, 10).getContent().get(0);
+        assertEquals(active.getId(), cleared.getId());
+        assertEquals(105.0, cleared.getClearedQuantity());
+    }
+
+    @Test
+    @DisplayName("Should reload thresholds changed on another instance and reconcile drifted balances")
+    void testThresholdVersionAndBalanceReconciliation() {
+        post(TransactionType.RECEIPT, 50);
+        assertTrue(activeTypes().isEmpty());
+        assertEquals(50.0, locationBalanceService.getBalances(List.of(location.getId())).get(location.getId()));
+
+        // Próg zmieniony na innej instancji - bez zdarzenia tutaj, widać tylko podbitą wersję
+        jdbcTemplate.update("UPDATE location_thresholds SET min_threshold = 60 WHERE id = ?", threshold.getId());
+        versionRegistry.bump(LocationThreshold.class);
+        stockAlertService.checkThresholds();
+        stockAlertService.flush();
+        assertEquals(List.of("LOW_STOCK"), activeTypes());
+
+        // Saldo rozjechane zapisem z pominięciem JPA - uzgodnienie przelicza je z transakcji
+        jdbcTemplate.update("UPDATE location_balances SET quantity = 0 WHERE location_id = ?", location.getId());
+        assertEquals(1, stockAlertService.reconcile());
+        assertEquals(50.0, locationBalanceService.getBalances(List.of(location.getId())).get(location.getId()));
+    }
+
+    private void post(TransactionType type, double quantity) {
+        transactionService.createTransaction(transaction(type, quantity));
+        stockAlertService.flush();
+    }
+
+    private Transaction transaction(TransactionType type, double quantity) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(type);
+        transaction.setTransactionStatus(TransactionStatus.COMPLETED);
+        transaction.setItem(item);
+        transaction.setLocation(location);
+        transaction.setQuantity(quantity);
+        transaction.setUser(user);
+        return transaction;
+    }
+
+    private List<String> activeTypes() {
+        return stockAlertService.getAlerts("ACTIVE", 0, 10).getContent().stream()
+                .map(StockAlertDTO::getType)
+                .sorted()
+                .toList();
+    }
+}
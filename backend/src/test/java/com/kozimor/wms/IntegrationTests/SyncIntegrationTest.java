@@ -0,0 +1,267 @@
+package com.kozimor.wms.IntegrationTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.InventoryLocation;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.ItemType;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Model.Role;
+import com.kozimor.wms.Database.Model.TransactionType;
+import com.kozimor.wms.Database.Model.UnitType;
+import com.kozimor.wms.Database.Model.User;
+import com.kozimor.wms.Database.Model.DTO.OfflineTransactionDTO;
+import com.kozimor.wms.Database.Model.DTO.SyncDeltaDTO;
+import com.kozimor.wms.Database.Model.DTO.SyncUploadRequest;
+import com.kozimor.wms.Database.Model.DTO.SyncUploadResultDTO;
+import com.kozimor.wms.Database.Repository.CategoryRepository;
+import com.kozimor.wms.Database.Repository.IdempotencyKeyRepository;
+import com.kozimor.wms.Database.Repository.InventoryLocationRepository;
+import com.kozimor.wms.Database.Repository.ItemRepository;
+import com.kozimor.wms.Database.Repository.LocationRepository;
+import com.kozimor.wms.Database.Repository.RoleRepository;
+import com.kozimor.wms.Database.Repository.SyncChangeRepository;
+import com.kozimor.wms.Database.Repository.TransactionRepository;
+import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.SyncService;
+
+// Bez @Transactional - dziennik zmian zapisywany jest przy commicie zmiany.
+// Bez opóźnienia widoczności - wpis "w trakcie commitu" test symuluje datą z przyszłości
+@SpringBootTest(properties = "wms.sync.visibility-lag-seconds=0")
+@ActiveProfiles("test")
+@DisplayName("SyncService - Offline scanner sync Integration Tests")
+class SyncIntegrationTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private SyncChangeRepository syncChangeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private InventoryLocationRepository inventoryLocationRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Category category;
+    private Item item;
+    private Location location;
+    private InventoryLocation inventoryLocation;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(Role.builder().roleName("ROLE_SYNC_TEST").build());
+        user = userRepository.save(User.builder()
+                .username("scanner")
+                .password("{noop}scanner")
+                .email("scanner@wms.local")
+                .firstName("Scan")
+                .lastName("Ner")
+                .role(role)
+                .build());
+        category = categoryRepository.save(Category.builder().name("Sync").description("Sync test").build());
+
+        item = new Item();
+        item.setName("Frozen peas");
+        item.setCategory(category);
+        item.setCurrentQuantity(10.0);
+        item.setUnit(UnitType.KG);
+        item.setType(ItemType.PRODUCT);
+        item = itemRepository.save(item);
+
+        location = new Location();
+        location.setCode("F1-S1-R1");
+        location.setName("Mroźnia");
+        location.setType("BIN");
+        location = locationRepository.save(location);
+
+        inventoryLocation = new InventoryLocation();
+        inventoryLocation.setItem(item);
+        inventoryLocation.setLocation(location);
+        inventoryLocation = inventoryLocationRepository.save(inventoryLocation);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll(transactionRepository.findAll().stream()
+                .filter(t -> t.getItem().getId().equals(item.getId())).toList());
+        inventoryLocationRepository.findById(inventoryLocation.getId()).ifPresent(inventoryLocationRepository::delete);
+        itemRepository.deleteById(item.getId());
+        locationRepository.deleteById(location.getId());
+        categoryRepository.deleteById(category.getId());
+        userRepository.deleteById(user.getId());
+        roleRepository.deleteById(user.getRole().getId());
+        idempotencyKeyRepository.deleteAll();
+        syncChangeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should return snapshot first and then only changes after the token")
+    void testSnapshotThenDelta() {
+        SyncDeltaDTO snapshot = syncService.getChanges(null, null);
+
+        assertTrue(snapshot.isSnapshot());
+        assertTrue(snapshot.getItems().stream().anyMatch(i -> i.getId().equals(item.getId()) && "KG".equals(i.getUnit())));
+        assertTrue(snapshot.getLocations().stream().anyMatch(l -> "F1-S1-R1".equals(l.getCode())));
+        assertEquals(syncChangeRepository.findMaxId(), snapshot.getToken());
+
+        item.setName("Frozen peas 1kg");
+        itemRepository.save(item);
+        inventoryLocationRepository.deleteById(inventoryLocation.getId());
+
+        SyncDeltaDTO delta = syncService.getChanges(snapshot.getToken(), null);
+
+        assertFalse(delta.isSnapshot());
+        assertEquals(1, delta.getItems().size());
+        assertEquals("Frozen peas 1kg", delta.getItems().get(0).getName());
+        assertTrue(delta.getLocations().isEmpty());
+        assertEquals(List.of(inventoryLocation.getId()), delta.getDeleted().get("INVENTORY_LOCATION"));
+
+        SyncDeltaDTO empty = syncService.getChanges(delta.getToken(), null);
+        assertEquals(delta.getToken(), empty.getToken());
+        assertTrue(empty.getItems().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should page the change log and fall back to snapshot for unknown token")
+    void testPagingAndUnknownToken() {
+        long start = syncChangeRepository.findMaxId();
+        for (int i = 0; i < 3; i++) {
+            item.setDescription("v" + i);
+            item = itemRepository.save(item);
+        }
+
+        SyncDeltaDTO first = syncService.getChanges(start, 2);
+        assertTrue(first.isHasMore());
+        assertEquals(1, first.getItems().size());
+        SyncDeltaDTO second = syncService.getChanges(first.getToken(), 2);
+        assertFalse(second.isHasMore());
+        assertEquals("v2", itemRepository.findById(second.getItems().get(0).getId()).orElseThrow().getDescription());
+
+        assertTrue(syncService.getChanges(second.getToken() + 100, null).isSnapshot());
+    }
+
+    @Test
+    @DisplayName("Should write the change log entry in the transaction of the change")
+    void testChangeLogCommitsWithChange() {
+        long start = syncChangeRepository.findMaxId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemRepository.findById(item.getId()).orElseThrow().setName("Rolled back");
+            status.setRollbackOnly();
+        });
+        assertEquals(start, syncChangeRepository.findMaxId());
+
+        // Zmiana wykryta dopiero przy flush w trakcie commitu
+        transactionTemplate.executeWithoutResult(status ->
+                itemRepository.findById(item.getId()).orElseThrow().setName("Committed"));
+
+        SyncDeltaDTO delta = syncService.getChanges(start, null);
+        assertEquals(1, delta.getItems().size());
+        assertEquals("Committed", delta.getItems().get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should stop the delta before an entry younger than the visibility lag")
+    void testDeltaStopsBeforeRecentEntry() {
+        long start = syncChangeRepository.findMaxId();
+        item.setName("Frozen peas 2kg");
+        itemRepository.save(item);
+        // Wpis, którego commit wciąż mieści się w opóźnieniu widoczności, a za nim już zatwierdzona zmiana
+        jdbcTemplate.update("INSERT INTO sync_changes (entity_type, entity_id, change_type, changed_at) VALUES (?, ?, ?, ?)",
+                "LOCATION", location.getId(), "UPDATED", LocalDateTime.now().plusMinutes(1));
+        location.setName("Mroźnia 2");
+        locationRepository.save(location);
+
+        SyncDeltaDTO delta = syncService.getChanges(start, null);
+        assertEquals(1, delta.getItems().size());
+        assertTrue(delta.getLocations().isEmpty());
+        assertEquals(start + 1, delta.getToken());
+        assertEquals(start + 1, syncService.getChanges(null, null).getToken());
+
+        jdbcTemplate.update("UPDATE sync_changes SET changed_at = ? WHERE id > ?", LocalDateTime.now().minusMinutes(1), start);
+        SyncDeltaDTO rest = syncService.getChanges(delta.getToken(), null);
+        assertEquals(1, rest.getLocations().size());
+        assertEquals("Mroźnia 2", rest.getLocations().get(0).getName());
+        assertEquals(syncChangeRepository.findMaxId(), rest.getToken());
+    }
+
+    @Test
+    @DisplayName("Should apply offline transactions once and report conflicts")
+    void testUploadTransactions() {
+        SyncUploadRequest request = SyncUploadRequest.builder()
+                .deviceId("HH-07")
+                .transactions(List.of(
+                        operation("a-1", TransactionType.RECEIPT, item.getId(), 5.0),
+                        operation("a-2", TransactionType.ISSUE_TO_SALES, item.getId(), 100.0),
+                        operation("a-3", TransactionType.RECEIPT, 999_999L, 1.0)))
+                .build();
+
+        SyncUploadResultDTO result = syncService.uploadTransactions(request, user.getId());
+
+        assertEquals(1, result.getAppliedCount());
+        assertEquals(1, result.getConflictCount());
+        assertEquals(1, result.getRejectedCount());
+        assertEquals(SyncUploadResultDTO.Status.CONFLICT, result.getResults().get(1).getStatus());
+        assertEquals(15.0, result.getResults().get(1).getCurrentQuantity());
+        assertEquals(15.0, itemRepository.findById(item.getId()).orElseThrow().getCurrentQuantity());
+
+        // Urządzenie nie dostało odpowiedzi i wysyła kolejkę jeszcze raz
+        SyncUploadResultDTO retry = syncService.uploadTransactions(request, user.getId());
+
+        assertEquals(0, retry.getAppliedCount());
+        assertEquals(1, retry.getDuplicateCount());
+        assertEquals(result.getResults().get(0).getTransactionId(), retry.getResults().get(0).getTransactionId());
+        assertEquals(15.0, itemRepository.findById(item.getId()).orElseThrow().getCurrentQuantity());
+    }
+
+    private OfflineTransactionDTO operation(String clientId, TransactionType type, Long itemId, Double quantity) {
+        return OfflineTransactionDTO.builder()
+                .clientId(clientId)
+                .transactionType(type)
+                .itemId(itemId)
+                .locationId(location.getId())
+                .quantity(quantity)
+                .build();
+    }
+}
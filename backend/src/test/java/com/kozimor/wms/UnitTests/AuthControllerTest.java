@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -19,20 +20,27 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import com.kozimor.wms.Config.ResourceVersionRegistry;
 import com.kozimor.wms.Config.SecurityConfig;
 import com.kozimor.wms.Database.Controller.AuthController;
 import com.kozimor.wms.Database.Model.Role;
 import com.kozimor.wms.Database.Model.User;
 import com.kozimor.wms.Database.Repository.RoleRepository;
 import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.IdempotencyService;
 import com.kozimor.wms.Database.Service.UserIDGenerator;
 import com.kozimor.wms.Security.JwtService;
+import com.kozimor.wms.Security.LoginAttemptThrottle;
+import com.kozimor.wms.Security.PasswordHashingExecutor;
+import com.kozimor.wms.Security.UserPrincipalCache;
 
 import java.util.Optional;
 
 @WebMvcTest(AuthController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, UserPrincipalCache.class,
+        PasswordHashingExecutor.class, LoginAttemptThrottle.class})
 @DisplayName("AuthController - Security & API Tests")
 class AuthControllerTest {
 
@@ -42,6 +50,9 @@ class AuthControllerTest {
     @MockitoBean
     private AuthenticationManager authenticationManager;
 
+    @MockitoBean
+    private ResourceVersionRegistry resourceVersionRegistry;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -57,6 +68,15 @@ class AuthControllerTest {
     @MockitoBean
     private UserIDGenerator userIDGenerator;
 
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private LoginAttemptThrottle loginAttemptThrottle;
+
 
     private User testUser;
     private Role adminRole;
@@ -65,6 +85,11 @@ class AuthControllerTest {
 
     @BeforeEach
     void setUp() {
+        // Kontekst (i cache) jest współdzielony między testami, mocki repozytorium nie
+        userPrincipalCache.clear();
+        loginAttemptThrottle.clear();
+        when(resourceVersionRegistry.getVersions(anyList())).thenReturn(new long[] {0, 0});
+
         adminRole = new Role();
         adminRole.setId(1L);
         adminRole.setRoleName("ROLE_ADMIN");
@@ -129,6 +154,53 @@ class AuthControllerTest {
         verify(jwtService, never()).generateToken(any());
     }
 
+    @Test
+    @DisplayName("POST /api/auth/login - Should throttle user after repeated failures")
+    void testLoginThrottledAfterRepeatedFailures() throws Exception {
+        when(authenticationManager.authenticate(any()))
+                .thenThrow(new BadCredentialsException("Invalid credentials"));
+        String loginRequest = "{\"username\":\"testuser\",\"password\":\"wrongpassword\"}";
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(loginRequest))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(loginRequest))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        verify(authenticationManager, times(5)).authenticate(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/auth/login - Should keep throttling the user from another address")
+    void testLoginThrottleIgnoresAddress() throws Exception {
+        when(authenticationManager.authenticate(any()))
+                .thenThrow(new BadCredentialsException("Invalid credentials"));
+        String loginRequest = "{\"username\":\"testuser\",\"password\":\"wrongpassword\"}";
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/auth/login")
+                    .with(remoteAddr("10.0.0." + (60 + i)))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(loginRequest))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(post("/api/auth/login")
+                .with(remoteAddr("10.0.0.7"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(loginRequest))
+                .andExpect(status().isTooManyRequests());
+
+        verify(authenticationManager, times(5)).authenticate(any());
+    }
+
     @Test
     @DisplayName("POST /api/auth/login - Should reject empty username")
     void testLoginWithEmptyUsername() throws Exception {
@@ -283,6 +355,23 @@ class AuthControllerTest {
 
     // ========== SECURITY AUTHORIZATION TESTS ==========
 
+    @Test
+    @DisplayName("GET /actuator/prometheus - Should require authentication for metrics")
+    void testMetricsRequireAuthentication() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ROLE_USER")
+    @DisplayName("GET /actuator/metrics - Should forbid metrics for non-admin users")
+    void testMetricsForbiddenForNonAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @DisplayName("POST /api/auth/login - Should preserve user role in authentication")
     void testLoginPreservesUserRole() throws Exception {
@@ -446,4 +535,11 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.expiresInMs").isNumber())
                 .andExpect(jsonPath("$.refreshToken").doesNotExist());
     }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
 }
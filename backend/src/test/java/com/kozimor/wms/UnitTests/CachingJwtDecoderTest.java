@@ -0,0 +1,77 @@
+package com.kozimor.wms.UnitTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import com.kozimor.wms.Security.CachingJwtDecoder;
+
+@DisplayName("CachingJwtDecoder - Unit Tests")
+class CachingJwtDecoderTest {
+
+    private JwtDecoder delegate;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(JwtDecoder.class);
+        decoder = new CachingJwtDecoder(delegate, 2);
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and serve repeats from cache")
+    void testRepeatedTokenIsCached() {
+        Jwt jwt = jwt("a", Instant.now().plusSeconds(600));
+        when(delegate.decode("a")).thenReturn(jwt);
+
+        assertSame(jwt, decoder.decode("a"));
+        assertSame(jwt, decoder.decode("a"));
+
+        verify(delegate, times(1)).decode("a");
+    }
+
+    @Test
+    @DisplayName("Should verify again after exp and never cache rejected tokens")
+    void testExpiredAndInvalidTokens() {
+        when(delegate.decode("old")).thenReturn(jwt("old", Instant.now().minusSeconds(1)));
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("bad signature"));
+
+        decoder.decode("old");
+        decoder.decode("old");
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+
+        verify(delegate, times(2)).decode("old");
+        verify(delegate, times(2)).decode("bad");
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used tokens above the limit")
+    void testBoundedSize() {
+        for (String token : new String[] {"a", "b", "c"}) {
+            when(delegate.decode(token)).thenReturn(jwt(token, Instant.now().plusSeconds(600)));
+            decoder.decode(token);
+        }
+
+        assertEquals(2, decoder.size());
+        decoder.decode("a");
+        verify(delegate, times(2)).decode("a");
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "HS256")
+                .subject("testuser")
+                .issuedAt(expiresAt.minusSeconds(3600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.kozimor.wms.UnitTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.kozimor.wms.Config.ConditionalGetInterceptor;
+import com.kozimor.wms.Config.ResourceVersionRegistry;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.Transaction;
+
+@DisplayName("ConditionalGetInterceptor - ETag / 304 Tests")
+class ConditionalGetInterceptorTest {
+
+    // Zawartość tabeli resource_versions
+    private final Map<Class<?>, Long> versions = new HashMap<>();
+    private ConditionalGetInterceptor interceptor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ResourceVersionRegistry versionRegistry = mock(ResourceVersionRegistry.class);
+        when(versionRegistry.getVersions(anyList())).thenAnswer(invocation -> ((List<Class<?>>) invocation.getArgument(0))
+                .stream().mapToLong(type -> versions.getOrDefault(type, 0L)).toArray());
+        interceptor = new ConditionalGetInterceptor(versionRegistry, Item.class);
+    }
+
+    private MockHttpServletRequest pageRequest(String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items/getAllPaginated");
+        request.setQueryString(query);
+        return request;
+    }
+
+    private String firstEtag(String query) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(pageRequest(query), response, new Object()));
+        return response.getHeader(HttpHeaders.ETAG);
+    }
+
+    @Test
+    @DisplayName("Should issue weak ETag and continue on first request")
+    void testFirstRequestGetsWeakEtag() {
+        String etag = firstEtag("page=0&size=10");
+
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("W/\""));
+    }
+
+    @Test
+    @DisplayName("Should return 304 and skip handler when ETag matches")
+    void testNotModifiedWhenEtagMatches() {
+        String etag = firstEtag("page=0&size=10");
+
+        MockHttpServletRequest request = pageRequest("page=0&size=10");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(interceptor.preHandle(request, response, new Object()));
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should invalidate ETag after committed change of dependent entity")
+    void testEtagChangesAfterEntityChange() {
+        String etag = firstEtag("page=0&size=10");
+
+        versions.put(Item.class, 1L);
+
+        MockHttpServletRequest request = pageRequest("page=0&size=10");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+        assertNotEquals(etag, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("Should ignore changes of unrelated entities")
+    void testEtagStableForUnrelatedEntity() {
+        String etag = firstEtag("page=0&size=10");
+
+        versions.put(Transaction.class, 1L);
+
+        assertEquals(etag, firstEtag("page=0&size=10"));
+    }
+
+    @Test
+    @DisplayName("Should produce different ETags for different pages")
+    void testEtagDependsOnQuery() {
+        assertNotEquals(firstEtag("page=0&size=10"), firstEtag("page=1&size=10"));
+    }
+
+    @Test
+    @DisplayName("Should not touch non-GET requests")
+    void testSkipsWriteRequests() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/items/getAllPaginated");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+}
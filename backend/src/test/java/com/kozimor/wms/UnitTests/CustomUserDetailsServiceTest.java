@@ -9,17 +9,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import com.kozimor.wms.Config.ResourceVersionRegistry;
+import com.kozimor.wms.Database.Model.EntityChangedEvent;
 import com.kozimor.wms.Database.Model.Role;
 import com.kozimor.wms.Database.Model.User;
 import com.kozimor.wms.Database.Repository.UserRepository;
 import com.kozimor.wms.Security.CustomUserDetailsService;
+import com.kozimor.wms.Security.UserPrincipalCache;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("CustomUserDetailsService - Unit Tests")
@@ -28,7 +30,9 @@ class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private ResourceVersionRegistry versionRegistry;
+
     private CustomUserDetailsService userDetailsService;
 
     private User testUser;
@@ -38,6 +42,9 @@ class CustomUserDetailsServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(versionRegistry.getVersions(anyList())).thenReturn(new long[] {0, 0});
+        userDetailsService = new CustomUserDetailsService(new UserPrincipalCache(userRepository, versionRegistry, 100, 300, 1000));
+
         adminRole = new Role();
         adminRole.setId(1L);
         adminRole.setRoleName("ROLE_ADMIN");
@@ -349,4 +356,38 @@ class CustomUserDetailsServiceTest {
         assertFalse(exception.getMessage().isBlank());
     }
 
+    @Test
+    @DisplayName("Should serve repeated lookups from cache until a user changes")
+    void testRepeatedLookupUsesCache() {
+        UserPrincipalCache cache = new UserPrincipalCache(userRepository, versionRegistry, 100, 300, 1000);
+        userDetailsService = new CustomUserDetailsService(cache);
+        when(userRepository.findByUsername("testuser"))
+                .thenReturn(Optional.of(testUser));
+
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.loadUserByUsername("testuser");
+        verify(userRepository, times(1)).findByUsername("testuser");
+
+        cache.onEntityChanged(new EntityChangedEvent(User.class, testUser, EntityChangedEvent.ChangeType.UPDATED));
+        userDetailsService.loadUserByUsername("testuser");
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("Should reload a cached user after a change on another instance")
+    void testVersionChangeFromAnotherInstance() {
+        UserPrincipalCache cache = new UserPrincipalCache(userRepository, versionRegistry, 100, 300, 0);
+        userDetailsService = new CustomUserDetailsService(cache);
+        when(userRepository.findByUsername("testuser"))
+                .thenReturn(Optional.of(testUser));
+
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.loadUserByUsername("testuser");
+        verify(userRepository, times(1)).findByUsername("testuser");
+
+        // Inna instancja zmieniła rolę - wersja Role w resource_versions wzrosła
+        when(versionRegistry.getVersions(anyList())).thenReturn(new long[] {0, 1});
+        userDetailsService.loadUserByUsername("testuser");
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
 }
@@ -0,0 +1,109 @@
+package com.kozimor.wms.UnitTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.kozimor.wms.Database.Model.EntityChangedEvent;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Service.EntityCounterService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EntityCounterService - In-memory Counter Tests")
+class EntityCounterServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private EntityCounterService counterService;
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM"), eq(Long.class))).thenReturn(5L);
+        counterService = new EntityCounterService(jdbcTemplate, true, 1_000_000L);
+        counterService.seed();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private EntityChangedEvent itemEvent(EntityChangedEvent.ChangeType type) {
+        return new EntityChangedEvent(Item.class, new Item(), type);
+    }
+
+    @Test
+    @DisplayName("Should serve seeded count without further queries")
+    void testSeededCount() {
+        clearInvocations(jdbcTemplate);
+
+        assertEquals(5L, counterService.count(Item.class));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should adjust on create and delete, ignoring updates")
+    void testAdjustsOnChanges() {
+        counterService.onEntityChanged(itemEvent(EntityChangedEvent.ChangeType.CREATED));
+        counterService.onEntityChanged(itemEvent(EntityChangedEvent.ChangeType.CREATED));
+        counterService.onEntityChanged(itemEvent(EntityChangedEvent.ChangeType.UPDATED));
+        counterService.onEntityChanged(itemEvent(EntityChangedEvent.ChangeType.DELETED));
+
+        assertEquals(6L, counterService.count(Item.class));
+    }
+
+    @Test
+    @DisplayName("Should see own uncommitted changes and drop them on rollback")
+    void testTransactionLocalDelta() {
+        TransactionSynchronizationManager.initSynchronization();
+        counterService.onEntityChanged(itemEvent(EntityChangedEvent.ChangeType.CREATED));
+
+        assertEquals(6L, counterService.count(Item.class));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(5L, counterService.count(Item.class));
+    }
+
+    @Test
+    @DisplayName("Should apply transaction delta after commit")
+    void testTransactionCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        counterService.onEntityChanged(itemEvent(EntityChangedEvent.ChangeType.DELETED));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(4L, counterService.count(Item.class));
+    }
+
+    @Test
+    @DisplayName("Should correct drift on resync")
+    void testResyncCorrectsDrift() {
+        counterService.onEntityChanged(itemEvent(EntityChangedEvent.ChangeType.CREATED));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM"), eq(Long.class))).thenReturn(42L);
+
+        counterService.resync();
+
+        assertEquals(42L, counterService.count(Item.class));
+    }
+}
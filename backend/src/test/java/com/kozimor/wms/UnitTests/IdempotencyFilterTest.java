@@ -0,0 +1,138 @@
+package com.kozimor.wms.UnitTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.kozimor.wms.Config.IdempotencyFilter;
+import com.kozimor.wms.Database.Service.IdempotencyService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+
+@DisplayName("IdempotencyFilter - Unit Tests")
+class IdempotencyFilterTest {
+
+    private static final String KEY = "user|POST /api/orders|abc-1";
+    private static final IdempotencyService.Reservation RESERVATION = new IdempotencyService.Reservation(KEY, "owner-1");
+
+    private IdempotencyService idempotencyService;
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = mock(IdempotencyService.class);
+        filter = new IdempotencyFilter(idempotencyService);
+        // Bez transakcji - handler wykonywany od razu, odpowiedź 2xx "zapisana"
+        when(idempotencyService.executeOnce(any(), any())).thenAnswer(invocation -> {
+            IdempotencyService.Handler<?> handler = invocation.getArgument(1);
+            return Optional.ofNullable(handler.handle()).map(response ->
+                    new IdempotencyService.StoredResponse(response.status(), response.contentType(), response.body(), null));
+        });
+    }
+
+    @Test
+    @DisplayName("Should execute first request and store its response")
+    void testFirstRequestStoresResponse() throws Exception {
+        when(idempotencyService.findCompleted(KEY)).thenReturn(Optional.empty());
+        when(idempotencyService.tryReserve(KEY)).thenReturn(Optional.of(RESERVATION));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, (req, res) -> {
+            ((HttpServletResponse) res).setStatus(201);
+            res.setContentType("application/json");
+            res.getWriter().write("{\"id\":7}");
+        });
+
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"id\":7}", response.getContentAsString());
+        verify(idempotencyService).executeOnce(eq(RESERVATION), any());
+        verify(idempotencyService, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("Should replay stored response without executing the request again")
+    void testDuplicateIsReplayed() throws Exception {
+        when(idempotencyService.findCompleted(KEY)).thenReturn(Optional.of(
+                new IdempotencyService.StoredResponse(201, "application/json", "{\"id\":7}", null)));
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, chain);
+
+        verifyNoInteractions(chain);
+        verify(idempotencyService, never()).tryReserve(any());
+        assertEquals(201, response.getStatus());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("{\"id\":7}", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Should release key when request fails and reject concurrent duplicate")
+    void testFailureReleasesAndInProgressConflicts() throws Exception {
+        when(idempotencyService.findCompleted(KEY)).thenReturn(Optional.empty());
+        when(idempotencyService.tryReserve(KEY)).thenReturn(Optional.of(RESERVATION), Optional.empty());
+
+        MockHttpServletResponse failed = new MockHttpServletResponse();
+        filter.doFilter(request(), failed, (req, res) -> ((HttpServletResponse) res).setStatus(400));
+        assertEquals(400, failed.getStatus());
+        verify(idempotencyService).release(RESERVATION);
+
+        MockHttpServletResponse conflict = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+        filter.doFilter(request(), conflict, chain);
+        assertEquals(409, conflict.getStatus());
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    @DisplayName("Should answer 409 without the rolled back body when a retry took the key over")
+    void testTakenOverRequestConflicts() throws Exception {
+        when(idempotencyService.findCompleted(KEY)).thenReturn(Optional.empty());
+        when(idempotencyService.tryReserve(KEY)).thenReturn(Optional.of(RESERVATION));
+        doAnswer(invocation -> {
+            IdempotencyService.Handler<?> handler = invocation.getArgument(1);
+            handler.handle();
+            throw new IdempotencyService.ReservationLostException(RESERVATION);
+        }).when(idempotencyService).executeOnce(any(), any());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, (req, res) -> {
+            ((HttpServletResponse) res).setStatus(201);
+            res.getWriter().write("{\"id\":7}");
+        });
+
+        assertEquals(409, response.getStatus());
+        assertFalse(response.getContentAsString().contains("\"id\""));
+        verify(idempotencyService).release(RESERVATION);
+    }
+
+    @Test
+    @DisplayName("Should pass through requests without header or on other paths")
+    void testPassThrough() throws Exception {
+        MockHttpServletRequest noHeader = new MockHttpServletRequest("POST", "/api/orders");
+        MockHttpServletRequest otherPath = request();
+        otherPath.setRequestURI("/api/items");
+
+        filter.doFilter(noHeader, new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(otherPath, new MockHttpServletResponse(), new MockFilterChain());
+
+        verifyNoInteractions(idempotencyService);
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        request.addHeader(IdempotencyFilter.HEADER, "abc-1");
+        request.setUserPrincipal(() -> "user");
+        return request;
+    }
+}
@@ -18,11 +18,13 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kozimor.wms.Config.ResourceVersionRegistry;
 import com.kozimor.wms.Database.Controller.ItemController;
 import com.kozimor.wms.Database.Model.Category;
 import com.kozimor.wms.Database.Model.Item;
 import com.kozimor.wms.Database.Model.ItemType;
 import com.kozimor.wms.Database.Model.UnitType;
+import com.kozimor.wms.Database.Service.IdempotencyService;
 import com.kozimor.wms.Database.Service.ItemService;
 import com.kozimor.wms.Database.Model.DTO.ItemDTO;
 import org.springframework.data.domain.Page;
@@ -38,6 +40,12 @@ class ItemControllerTest {
     @MockitoBean
     private ItemService itemService;
 
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @MockitoBean
+    private ResourceVersionRegistry resourceVersionRegistry;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -69,6 +77,7 @@ class ItemControllerTest {
         // Mock for pagination - return empty page
         Page<ItemDTO> emptyPage = new PageImpl<>(java.util.Collections.emptyList());
         when(itemService.getItemsPaginated(anyInt(), anyInt())).thenReturn(emptyPage);
+        when(resourceVersionRegistry.getVersions(anyList())).thenReturn(new long[0]);
     }
 
     // ========== GET ENDPOINTS TESTS ==========
@@ -21,10 +21,12 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 
+import com.kozimor.wms.Config.ResourceVersionRegistry;
 import com.kozimor.wms.Database.Model.Role;
 import com.kozimor.wms.Database.Model.User;
 import com.kozimor.wms.Database.Repository.UserRepository;
 import com.kozimor.wms.Security.JwtService;
+import com.kozimor.wms.Security.UserPrincipalCache;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -40,6 +42,9 @@ class JwtServiceSecurityTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ResourceVersionRegistry versionRegistry;
+
     private JwtService jwtService;
 
     @Mock
@@ -53,7 +58,9 @@ class JwtServiceSecurityTest {
     @BeforeEach
     void setUp() {
         // Initialize JwtService with mocked dependencies
-        jwtService = new JwtService(jwtEncoder, jwtDecoder, 3600000, 604800000, "wms", userRepository);
+        when(versionRegistry.getVersions(anyList())).thenReturn(new long[] {0, 0});
+        jwtService = new JwtService(jwtEncoder, jwtDecoder, 3600000, 604800000, "wms",
+                new UserPrincipalCache(userRepository, versionRegistry, 100, 300, 1000));
         
         // Initialize test data
         adminRole = new Role();
@@ -0,0 +1,74 @@
+package com.kozimor.wms.UnitTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.kozimor.wms.Security.LoginAttemptThrottle;
+
+@DisplayName("LoginAttemptThrottle - Unit Tests")
+class LoginAttemptThrottleTest {
+
+    @Test
+    @DisplayName("Should let only the free attempts through when requests race")
+    void testConcurrentAttemptsAreCountedAtomically() throws Exception {
+        LoginAttemptThrottle throttle = new LoginAttemptThrottle(5, 60, 1000, 300);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return throttle.tryAcquire("victim", "10.0.0.66");
+                }));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Long> result : results) {
+                if (result.get() == 0) {
+                    allowed++;
+                }
+            }
+            assertEquals(5, allowed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should back off per user regardless of the address and reset after a successful login")
+    void testBackoffPerUser() {
+        LoginAttemptThrottle throttle = new LoginAttemptThrottle(2, 60, 1000, 300);
+
+        assertEquals(0, throttle.tryAcquire("user", "10.0.0.66"));
+        assertEquals(0, throttle.tryAcquire("user", "10.0.0.67"));
+        // Zmiana adresu (np. podrobiony X-Forwarded-For) nie omija odczekania
+        assertTrue(throttle.tryAcquire("user", "10.0.0.68") > 0);
+        assertTrue(throttle.tryAcquire("USER", "10.0.0.7") > 0);
+        assertEquals(0, throttle.tryAcquire("other", "10.0.0.66"));
+
+        throttle.recordSuccess("user", "10.0.0.7");
+        assertEquals(0, throttle.tryAcquire("user", "10.0.0.7"));
+    }
+
+    @Test
+    @DisplayName("Should limit attempts per address across users")
+    void testLimitPerAddress() {
+        LoginAttemptThrottle throttle = new LoginAttemptThrottle(5, 60, 3, 300);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.tryAcquire("user" + i, "10.0.0.66"));
+        }
+        assertTrue(throttle.tryAcquire("other", "10.0.0.66") > 0);
+    }
+}
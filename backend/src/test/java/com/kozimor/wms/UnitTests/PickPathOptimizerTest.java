@@ -0,0 +1,80 @@
+package com.kozimor.wms.UnitTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.kozimor.wms.Database.Model.PickPathStrategy;
+import com.kozimor.wms.Database.Service.PickPathOptimizer;
+
+@DisplayName("PickPathOptimizer - Unit Tests")
+class PickPathOptimizerTest {
+
+    // 4 alejki (A..D), głębokość 10
+    private static final List<String> CODES = List.of(
+            "C1-S9-R1", "A1-S8-R1", "D1-S3-R1", "A1-S2-R1", "B1-S5-R1", "C1-S1-R1");
+
+    private PickPathOptimizer optimizer;
+
+    @BeforeEach
+    void setUp() {
+        optimizer = new PickPathOptimizer(10, 20);
+    }
+
+    @Test
+    @DisplayName("S-shape should traverse aisles alternately up and down")
+    void testSShape() {
+        PickPathOptimizer.PickPath path = optimizer.optimize(CODES, PickPathStrategy.S_SHAPE);
+
+        assertEquals(List.of("A1-S2-R1", "A1-S8-R1", "B1-S5-R1", "C1-S1-R1", "C1-S9-R1", "D1-S3-R1"), path.codes());
+    }
+
+    @Test
+    @DisplayName("Largest gap should collect middle aisle fronts on the way back")
+    void testLargestGap() {
+        PickPathOptimizer.PickPath path = optimizer.optimize(CODES, PickPathStrategy.LARGEST_GAP);
+
+        assertEquals(List.of("A1-S2-R1", "A1-S8-R1", "B1-S5-R1", "C1-S9-R1", "D1-S3-R1", "C1-S1-R1"), path.codes());
+    }
+
+    @Test
+    @DisplayName("2-opt should visit every stop and not be longer than S-shape on random lists")
+    void testTwoOptOnRandomList() {
+        Random random = new Random(42);
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            codes.add(String.format("%c%d-S%d-R%d", 'A' + random.nextInt(4), 1 + random.nextInt(3),
+                    1 + random.nextInt(40), 1 + random.nextInt(5)));
+        }
+
+        PickPathOptimizer.PickPath twoOpt = optimizer.optimize(codes, PickPathStrategy.TWO_OPT);
+        PickPathOptimizer.PickPath sShape = optimizer.optimize(codes, PickPathStrategy.S_SHAPE);
+
+        assertEquals(new HashSet<>(codes), new HashSet<>(twoOpt.codes()));
+        assertEquals(twoOpt.codes().size(), new HashSet<>(twoOpt.codes()).size());
+        assertTrue(twoOpt.distance() <= sShape.distance(),
+                "2-opt " + twoOpt.distance() + " vs S-shape " + sShape.distance());
+    }
+
+    @Test
+    @DisplayName("Should put unparseable codes at the end and cache per location set")
+    void testUnparseableCodesAndCache() {
+        List<String> codes = new ArrayList<>(CODES);
+        codes.add("RAMPA");
+        codes.add("BUFOR-PRZYJĘĆ");
+
+        PickPathOptimizer.PickPath first = optimizer.optimize(codes, PickPathStrategy.S_SHAPE);
+        PickPathOptimizer.PickPath second = optimizer.optimize(codes.reversed(), PickPathStrategy.S_SHAPE);
+
+        assertEquals(List.of("BUFOR-PRZYJĘĆ", "RAMPA"), first.codes().subList(6, 8));
+        assertSame(first, second);
+        assertNotSame(first, optimizer.optimize(codes, PickPathStrategy.LARGEST_GAP));
+    }
+}
@@ -9,7 +9,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -27,9 +26,13 @@ import com.kozimor.wms.Database.Model.UnitType;
 import com.kozimor.wms.Database.Model.User;
 import com.kozimor.wms.Database.Repository.ItemRepository;
 import com.kozimor.wms.Database.Repository.ReportItemRepository;
+import com.kozimor.wms.Config.WmsMetrics;
 import com.kozimor.wms.Database.Repository.ReportRepository;
 import com.kozimor.wms.Database.Repository.TransactionRepository;
 import com.kozimor.wms.Database.Repository.UserRepository;
+import com.kozimor.wms.Database.Service.ParallelSnapshotService;
+import com.kozimor.wms.Database.Service.StatusRuleService;
+import com.kozimor.wms.Database.Service.StatusRules;
 import com.kozimor.wms.Database.Service.ServiceImpl.ReportServiceImpl;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -53,7 +56,15 @@ class ReportServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private StatusRuleService statusRuleService;
+
+    @Mock
+    private ParallelSnapshotService parallelSnapshotService;
+
+    @Mock
+    private WmsMetrics wmsMetrics;
+
     private ReportServiceImpl reportService;
 
     private Report report;
@@ -64,6 +75,8 @@ class ReportServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        reportService = new ReportServiceImpl(reportRepository, itemRepository, reportItemRepository,
+                transactionRepository, userRepository, statusRuleService, parallelSnapshotService, wmsMetrics, false, 7);
         pageable = PageRequest.of(0, 10);
 
         category = new Category();
@@ -91,6 +104,9 @@ class ReportServiceImplTest {
                 .okCount(1)
                 .createdBy(user)
                 .build();
+
+        // Bez reguł - progi domyślne (CRITICAL <= 0, LOW <= 10)
+        lenient().when(statusRuleService.getRules()).thenReturn(StatusRules.compile(List.of(), 0, 10));
     }
 
     // ========== CRITICAL CRUD OPERATIONS ==========
@@ -198,7 +214,7 @@ class ReportServiceImplTest {
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
         when(itemRepository.findAll()).thenReturn(Arrays.asList(item));
         when(reportRepository.save(any(Report.class))).thenReturn(report, reportWithCounts);
-        when(reportRepository.findAllWithDetails(any())).thenReturn(new PageImpl<>(new ArrayList<>(), pageable, 0));
+        when(reportRepository.findFirstByIdLessThanOrderByIdDesc(any())).thenReturn(Optional.empty());
         when(transactionRepository.findByItemId(1L)).thenReturn(new ArrayList<>());
         when(reportItemRepository.saveAll(any())).thenReturn(new ArrayList<>());
 
@@ -226,7 +242,7 @@ class ReportServiceImplTest {
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
         when(itemRepository.findAll()).thenReturn(Arrays.asList(item));
         when(reportRepository.save(any(Report.class))).thenReturn(report, reportWithCounts);
-        when(reportRepository.findAllWithDetails(any())).thenReturn(new PageImpl<>(new ArrayList<>(), pageable, 0));
+        when(reportRepository.findFirstByIdLessThanOrderByIdDesc(any())).thenReturn(Optional.empty());
         when(transactionRepository.findByItemId(1L)).thenReturn(new ArrayList<>());
         when(reportItemRepository.saveAll(any())).thenReturn(new ArrayList<>());
 
@@ -267,7 +283,7 @@ class ReportServiceImplTest {
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
         when(itemRepository.findAll()).thenReturn(Arrays.asList(item, item2, item3));
         when(reportRepository.save(any(Report.class))).thenReturn(report, reportWithCounts);
-        when(reportRepository.findAllWithDetails(any())).thenReturn(new PageImpl<>(new ArrayList<>(), pageable, 0));
+        when(reportRepository.findFirstByIdLessThanOrderByIdDesc(any())).thenReturn(Optional.empty());
         when(transactionRepository.findByItemId(anyLong())).thenReturn(new ArrayList<>());
         when(reportItemRepository.saveAll(any())).thenReturn(new ArrayList<>());
 
@@ -307,7 +323,7 @@ class ReportServiceImplTest {
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
         when(itemRepository.findAll()).thenReturn(new ArrayList<>());
         when(reportRepository.save(any(Report.class))).thenReturn(report, emptyReport);
-        when(reportRepository.findAllWithDetails(any())).thenReturn(new PageImpl<>(new ArrayList<>(), pageable, 0));
+        when(reportRepository.findFirstByIdLessThanOrderByIdDesc(any())).thenReturn(Optional.empty());
 
         Report result = reportService.createSnapshot();
 
@@ -0,0 +1,78 @@
+package com.kozimor.wms.UnitTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.kozimor.wms.Config.RequestConcurrencyFilter;
+
+@DisplayName("RequestConcurrencyFilter - Unit Tests")
+class RequestConcurrencyFilterTest {
+
+    private RequestConcurrencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RequestConcurrencyFilter(1, 10, 50);
+    }
+
+    @Test
+    @DisplayName("Should reject request with 503 when all permits are taken")
+    void testRejectsWhenSaturated() throws Exception {
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/items/1"), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            inside.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/items/2"), rejected, new MockFilterChain());
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+
+        release.countDown();
+        holder.join(5000);
+        assertEquals(1, filter.getAvailablePermits());
+    }
+
+    @Test
+    @DisplayName("Should not limit event streams and non-API paths")
+    void testSkipsEventStreams() throws Exception {
+        filter = new RequestConcurrencyFilter(1, 10, 0);
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/items/1"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    MockHttpServletResponse events = new MockHttpServletResponse();
+                    MockHttpServletResponse actuator = new MockHttpServletResponse();
+                    try {
+                        filter.doFilter(new MockHttpServletRequest("GET", "/api/events/stock"), events, new MockFilterChain());
+                        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), actuator, new MockFilterChain());
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    assertEquals(200, events.getStatus());
+                    assertEquals(200, actuator.getStatus());
+                });
+    }
+}
@@ -0,0 +1,95 @@
+package com.kozimor.wms.UnitTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+
+import com.kozimor.wms.Config.WmsMetrics;
+import com.kozimor.wms.Database.Model.JobExecution;
+import com.kozimor.wms.Database.Model.ScheduleConfig;
+import com.kozimor.wms.Database.Repository.JobExecutionRepository;
+import com.kozimor.wms.Database.Service.JobLeaseService;
+import com.kozimor.wms.Database.Service.ScheduleConfigService;
+import com.kozimor.wms.Database.Service.ScheduledJob;
+import com.kozimor.wms.Database.Service.SchedulerService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("SchedulerService - Unit Tests")
+class SchedulerServiceTest {
+
+    private static final int RUNS = 3;
+
+    private final List<LocalDateTime[]> runs = new CopyOnWriteArrayList<>();
+    private final CountDownLatch finished = new CountDownLatch(RUNS);
+
+    private SimpleAsyncTaskScheduler taskScheduler;
+    private SchedulerService schedulerService;
+
+    @BeforeEach
+    void setUp() {
+        ScheduledJob job = mock(ScheduledJob.class);
+        when(job.name()).thenReturn("every_second");
+        when(job.clusterExclusive()).thenReturn(false);
+        when(job.run(any())).thenAnswer(invocation -> {
+            ScheduledJob.Context context = invocation.getArgument(0);
+            runs.add(new LocalDateTime[] {context.fireTime(), LocalDateTime.now()});
+            finished.countDown();
+            return 0L;
+        });
+
+        ScheduleConfigService scheduleConfigService = mock(ScheduleConfigService.class);
+        when(scheduleConfigService.getJobConfig(job)).thenReturn(ScheduleConfig.builder()
+                .configKey("every_second")
+                .cronExpression("* * * * * *")
+                .enabled(true)
+                .maxConcurrent(1)
+                .build());
+        JobExecutionRepository jobExecutionRepository = mock(JobExecutionRepository.class);
+        when(jobExecutionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Harmonogram jak w trybie wątków wirtualnych - zadanie startuje asynchronicznie po wyliczeniu kolejnego czasu
+        taskScheduler = new SimpleAsyncTaskScheduler();
+        taskScheduler.setVirtualThreads(true);
+        schedulerService = new SchedulerService(List.of(job), scheduleConfigService, taskScheduler,
+                mock(JobLeaseService.class), jobExecutionRepository, new WmsMetrics(new SimpleMeterRegistry()), true, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        schedulerService.shutdown();
+        taskScheduler.close();
+    }
+
+    @Test
+    @DisplayName("Should pass each run its own fire time on the virtual-thread scheduler")
+    void testFireTimeOnVirtualThreadScheduler() throws InterruptedException {
+        schedulerService.reschedule("every_second");
+
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        LocalDateTime previous = null;
+        for (LocalDateTime[] run : runs.subList(0, RUNS)) {
+            LocalDateTime fireTime = run[0];
+            LocalDateTime startedAt = run[1];
+            assertEquals(0, fireTime.getNano());
+            assertFalse(fireTime.isAfter(startedAt), "Fire time " + fireTime + " after start " + startedAt);
+            assertTrue(fireTime.isAfter(startedAt.minusSeconds(1)), "Fire time " + fireTime + " of an earlier run");
+            if (previous != null) {
+                assertTrue(fireTime.isAfter(previous));
+            }
+            previous = fireTime;
+        }
+    }
+}
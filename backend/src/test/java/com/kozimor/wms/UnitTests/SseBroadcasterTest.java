@@ -0,0 +1,157 @@
+package com.kozimor.wms.UnitTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.kozimor.wms.Database.Service.SseBroadcaster;
+
+@DisplayName("SseBroadcaster - Backpressure Tests")
+class SseBroadcasterTest {
+
+    private final Deque<Runnable> pendingSends = new ArrayDeque<>();
+    private final List<String> sent = new ArrayList<>();
+    private boolean clientBroken;
+    private SseBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new SseBroadcaster("test", 2, 2, 60_000L, pendingSends::add) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMs) {
+                return new SseEmitter(timeoutMs) {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        if (clientBroken) {
+                            throw new IOException("Broken pipe");
+                        }
+                        sent.add(builder.build().stream()
+                                .map(part -> String.valueOf(part.getData()))
+                                .collect(Collectors.joining()));
+                    }
+                };
+            }
+        };
+    }
+
+    private void runPendingSends() {
+        Runnable task;
+        while ((task = pendingSends.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver events in order when client keeps up")
+    void testDeliversInOrder() {
+        broadcaster.subscribe();
+
+        broadcaster.broadcast("ITEM_CREATED", "first");
+        broadcaster.broadcast("ITEM_UPDATED", "second");
+        runPendingSends();
+
+        assertEquals(2, sent.size());
+        assertTrue(sent.get(0).contains("event:ITEM_CREATED") && sent.get(0).contains("first"));
+        assertTrue(sent.get(1).contains("event:ITEM_UPDATED") && sent.get(1).contains("second"));
+    }
+
+    @Test
+    @DisplayName("Should drop buffer and send resync when client falls behind")
+    void testOverflowSendsResync() {
+        broadcaster.subscribe();
+
+        broadcaster.broadcast("ITEM_UPDATED", "a");
+        broadcaster.broadcast("ITEM_UPDATED", "b");
+        broadcaster.broadcast("ITEM_UPDATED", "c");
+        runPendingSends();
+
+        assertEquals(1, sent.size());
+        assertTrue(sent.get(0).contains("event:" + SseBroadcaster.RESYNC_EVENT));
+    }
+
+    @Test
+    @DisplayName("Should reject subscribers above the limit")
+    void testSubscriberLimit() {
+        broadcaster.subscribe();
+        broadcaster.subscribe();
+
+        assertThrows(IllegalStateException.class, broadcaster::subscribe);
+    }
+
+    @Test
+    @DisplayName("Should not exceed the subscriber limit when clients subscribe concurrently")
+    void testSubscriberLimitUnderConcurrency() throws Exception {
+        SseBroadcaster shared = new SseBroadcaster("concurrent", 2, 5, 60_000L, Runnable::run);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        shared.subscribe();
+                        return true;
+                    } catch (IllegalStateException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    accepted++;
+                }
+            }
+            assertEquals(5, accepted);
+            assertEquals(5, shared.getSubscriberCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should free the slot of a removed client once")
+    void testRemovedClientFreesSlot() {
+        broadcaster.subscribe();
+        broadcaster.subscribe();
+        clientBroken = true;
+
+        broadcaster.broadcast("ITEM_DELETED", "x");
+        runPendingSends();
+        broadcaster.broadcast("ITEM_DELETED", "y");
+        runPendingSends();
+
+        broadcaster.subscribe();
+        broadcaster.subscribe();
+        assertThrows(IllegalStateException.class, broadcaster::subscribe);
+    }
+
+    @Test
+    @DisplayName("Should remove client whose connection is broken")
+    void testRemovesBrokenClient() {
+        broadcaster.subscribe();
+        clientBroken = true;
+
+        broadcaster.broadcast("ITEM_DELETED", "x");
+        runPendingSends();
+
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+}
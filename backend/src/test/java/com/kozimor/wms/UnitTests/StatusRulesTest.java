@@ -0,0 +1,79 @@
+package com.kozimor.wms.UnitTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.kozimor.wms.Database.Model.Category;
+import com.kozimor.wms.Database.Model.Item;
+import com.kozimor.wms.Database.Model.StatusRule;
+import com.kozimor.wms.Database.Model.StockStatus;
+import com.kozimor.wms.Database.Service.StatusRules;
+
+@DisplayName("StatusRules - Unit Tests")
+class StatusRulesTest {
+
+    @Test
+    @DisplayName("Should fall back to default thresholds without rules")
+    void testDefaults() {
+        StatusRules rules = StatusRules.compile(List.of(), 0, 10);
+
+        assertEquals(StockStatus.CRITICAL, rules.evaluate(1, 1, 0));
+        assertEquals(StockStatus.LOW, rules.evaluate(1, 1, 10));
+        assertEquals(StockStatus.OK, rules.evaluate(1, 1, 10.5));
+    }
+
+    @Test
+    @DisplayName("Should apply item, then category rules")
+    void testPrecedence() {
+        StatusRules rules = StatusRules.compile(List.of(
+                rule(StatusRule.Scope.CATEGORY, 3L, 50, 100),
+                rule(StatusRule.Scope.ITEM, 42L, 1, 2)), 0, 10);
+
+        // Kategoria 3: 80 to LOW mimo progów domyślnych
+        assertEquals(StockStatus.LOW, rules.evaluate(1, 3, 80));
+        // Item przed kategorią
+        assertEquals(StockStatus.OK, rules.evaluate(42, 3, 3));
+        assertEquals(StockStatus.CRITICAL, rules.evaluate(42, 3, 1));
+        // Kategoria bez reguły
+        assertEquals(StockStatus.OK, rules.evaluate(1, 4, 80));
+        assertEquals(2, rules.size());
+    }
+
+    @Test
+    @DisplayName("Should look up sparse item ids")
+    void testSparseIds() {
+        List<StatusRule> overrides = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            overrides.add(rule(StatusRule.Scope.ITEM, id * 1_000_003L, 100, 200));
+        }
+        StatusRules rules = StatusRules.compile(overrides, 0, 10);
+
+        assertEquals(StockStatus.LOW, rules.evaluate(500 * 1_000_003L, 0, 150));
+        assertEquals(StockStatus.OK, rules.evaluate(500 * 1_000_003L + 1, 0, 150));
+        assertEquals(StockStatus.CRITICAL, rules.evaluate(1_000_003L, 0, 100));
+    }
+
+    @Test
+    @DisplayName("Should evaluate item total quantity with its category")
+    void testEvaluateItem() {
+        StatusRules rules = StatusRules.compile(List.of(rule(StatusRule.Scope.CATEGORY, 3L, 50, 100)), 0, 10);
+        Category category = new Category();
+        category.setId(3L);
+        Item item = new Item();
+        item.setId(9L);
+        item.setCategory(category);
+
+        assertEquals(StockStatus.OK, rules.evaluate(item));
+        item.setCurrentQuantity(40.0);
+        assertEquals(StockStatus.CRITICAL, rules.evaluate(item));
+    }
+
+    private static StatusRule rule(StatusRule.Scope scope, Long targetId, double critical, double low) {
+        return StatusRule.builder().scope(scope).targetId(targetId).criticalThreshold(critical).lowThreshold(low).build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.kozimor.wms.UnitTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.kozimor.wms.Database.Model.AllocationPolicy;
+import com.kozimor.wms.Database.Model.Location;
+import com.kozimor.wms.Database.Service.StockAllocator;
+
+@DisplayName("StockAllocator - Unit Tests")
+class StockAllocatorTest {
+
+    private static final Long ITEM_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 10, 12, 0);
+
+    private StockAllocator allocator;
+    private Location near;
+    private Location middle;
+    private Location far;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new StockAllocator(AllocationPolicy.FIFO, "A1-S1-R1");
+        near = location(1L, "A1-S1-R2");
+        middle = location(2L, "A1-S3-R1");
+        far = location(3L, "B2-S1-R1");
+    }
+
+    private StockAllocator.Snapshot snapshot(AllocationPolicy policy) {
+        // far przypisana najwcześniej, near najpóźniej
+        return allocator.snapshot(policy)
+                .addBin(ITEM_ID, near, NOW, 30)
+                .addBin(ITEM_ID, middle, NOW.minusDays(1), 5)
+                .addBin(ITEM_ID, far, NOW.minusDays(2), 20);
+    }
+
+    @Test
+    @DisplayName("FIFO should take the oldest assignment first and split across locations")
+    void testFifoSplitsAcrossLocations() {
+        StockAllocator.Result result = allocator.allocate(snapshot(AllocationPolicy.FIFO), ITEM_ID, 30);
+
+        assertFalse(result.isPartial());
+        assertEquals(List.of(far, middle, near), locations(result));
+        assertEquals(20, result.allocations().get(0).quantity());
+        assertEquals(5, result.allocations().get(1).quantity());
+        assertEquals(5, result.allocations().get(2).quantity());
+    }
+
+    @Test
+    @DisplayName("NEAREST should prefer locations closest to the origin")
+    void testNearestPolicy() {
+        StockAllocator.Result result = allocator.allocate(snapshot(AllocationPolicy.NEAREST), ITEM_ID, 33);
+
+        assertEquals(List.of(near, middle), locations(result));
+        assertEquals(30, result.allocations().get(0).quantity());
+        assertEquals(3, result.allocations().get(1).quantity());
+    }
+
+    @Test
+    @DisplayName("EMPTY_NEAR_EMPTY_FIRST should drain the smallest balances first")
+    void testEmptyNearEmptyFirstPolicy() {
+        StockAllocator.Result result = allocator.allocate(snapshot(AllocationPolicy.EMPTY_NEAR_EMPTY_FIRST), ITEM_ID, 10);
+
+        assertEquals(List.of(middle, far), locations(result));
+        assertEquals(5, result.allocations().get(0).quantity());
+        assertEquals(5, result.allocations().get(1).quantity());
+    }
+
+    @Test
+    @DisplayName("Should return partial fill with shortfall when balances are insufficient")
+    void testPartialFill() {
+        StockAllocator.Result result = allocator.allocate(snapshot(AllocationPolicy.FIFO), ITEM_ID, 80);
+
+        assertTrue(result.isPartial());
+        assertEquals(55, result.allocated());
+        assertEquals(25, result.shortfall());
+        assertEquals(3, result.allocations().size());
+    }
+
+    @Test
+    @DisplayName("Subsequent lines of the same item should not reuse allocated quantity")
+    void testSnapshotIsConsumedAcrossLines() {
+        StockAllocator.Snapshot snapshot = snapshot(AllocationPolicy.FIFO);
+
+        StockAllocator.Result first = allocator.allocate(snapshot, ITEM_ID, 50);
+        StockAllocator.Result second = allocator.allocate(snapshot, ITEM_ID, 10);
+
+        assertFalse(first.isPartial());
+        assertEquals(List.of(near), locations(second));
+        assertEquals(5, second.allocated());
+        assertEquals(5, second.shortfall());
+        assertEquals(0, snapshot.getAvailable(ITEM_ID));
+    }
+
+    @Test
+    @DisplayName("Should skip locations with zero or negative balance")
+    void testSkipsEmptyLocations() {
+        StockAllocator.Snapshot snapshot = allocator.snapshot(AllocationPolicy.EMPTY_NEAR_EMPTY_FIRST)
+                .addBin(ITEM_ID, near, NOW, -4)
+                .addBin(ITEM_ID, middle, NOW, 0)
+                .addBin(ITEM_ID, far, NOW, 7);
+
+        StockAllocator.Result result = allocator.allocate(snapshot, ITEM_ID, 7);
+
+        assertEquals(List.of(far), locations(result));
+        assertFalse(result.isPartial());
+    }
+
+    @Test
+    @DisplayName("Item without candidate locations should be entirely short")
+    void testUnknownItem() {
+        StockAllocator.Result result = allocator.allocate(snapshot(AllocationPolicy.FIFO), 99L, 4);
+
+        assertTrue(result.allocations().isEmpty());
+        assertEquals(4, result.shortfall());
+    }
+
+    private static List<Location> locations(StockAllocator.Result result) {
+        return result.allocations().stream().map(StockAllocator.Allocation::location).toList();
+    }
+
+    private static Location location(Long id, String code) {
+        Location location = new Location();
+        location.setId(id);
+        location.setCode(code);
+        return location;
+    }
+}
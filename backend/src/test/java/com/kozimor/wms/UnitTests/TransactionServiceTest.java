@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,7 +15,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.kozimor.wms.Config.WmsMetrics;
 import com.kozimor.wms.Database.Model.Category;
 import com.kozimor.wms.Database.Model.Item;
 import com.kozimor.wms.Database.Model.Location;
@@ -24,6 +27,7 @@ import com.kozimor.wms.Database.Model.TransactionType;
 import com.kozimor.wms.Database.Model.User;
 import com.kozimor.wms.Database.Repository.ItemRepository;
 import com.kozimor.wms.Database.Repository.TransactionRepository;
+import com.kozimor.wms.Database.Service.EntityCounterService;
 import com.kozimor.wms.Database.Service.ServiceImpl.TransactionServiceImpl;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -38,6 +42,15 @@ class TransactionServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityCounterService entityCounterService;
+
+    @Mock
+    private WmsMetrics wmsMetrics;
+
     @InjectMocks
     private TransactionServiceImpl transactionService;
 
@@ -226,6 +239,7 @@ class TransactionServiceImplTest {
 
         assertThrows(IllegalArgumentException.class, 
             () -> transactionService.createTransaction(transaction));
+        verify(wmsMetrics).recordInsufficientStock(TransactionType.ORDER);
     }
 
     @Test
@@ -309,10 +323,51 @@ class TransactionServiceImplTest {
             () -> transactionService.deleteTransaction(999L));
     }
 
+    // ========== BULK TRANSACTION TESTS ==========
+
+    private Transaction orderLineTransaction(double quantity) {
+        Transaction t = new Transaction();
+        t.setItem(item);
+        t.setUser(user);
+        t.setLocation(location);
+        t.setQuantity(quantity);
+        t.setTransactionType(TransactionType.ORDER);
+        t.setTransactionStatus(TransactionStatus.PENDING);
+        return t;
+    }
+
+    @Test
+    @DisplayName("Should load items once and aggregate quantities per item in bulk")
+    void testCreateTransactionsAggregatesPerItem() {
+        List<Transaction> batch = List.of(orderLineTransaction(30.0), orderLineTransaction(50.0));
+        when(itemRepository.findAllById(any())).thenReturn(List.of(item));
+        when(transactionRepository.saveAll(batch)).thenReturn(batch);
+
+        List<Transaction> result = transactionService.createTransactions(batch);
+
+        assertEquals(2, result.size());
+        assertEquals(20.0, item.getCurrentQuantity());
+        verify(itemRepository, times(1)).findAllById(any());
+        verify(itemRepository, never()).findById(any());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject bulk when aggregated quantity exceeds stock")
+    void testCreateTransactionsInsufficientAggregatedStock() {
+        List<Transaction> batch = List.of(orderLineTransaction(60.0), orderLineTransaction(60.0));
+        when(itemRepository.findAllById(any())).thenReturn(List.of(item));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> transactionService.createTransactions(batch));
+        verify(transactionRepository, never()).saveAll(any());
+        assertEquals(100.0, item.getCurrentQuantity());
+    }
+
     @Test
     @DisplayName("Should get transaction count")
     void testGetTransactionCount() {
-        when(transactionRepository.count()).thenReturn(5L);
+        when(entityCounterService.count(Transaction.class)).thenReturn(5L);
 
         long count = transactionService.getTransactionCount();
 
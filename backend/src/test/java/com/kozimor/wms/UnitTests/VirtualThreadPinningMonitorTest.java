@@ -0,0 +1,49 @@
+package com.kozimor.wms.UnitTests;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.kozimor.wms.Config.VirtualThreadPinningMonitor;
+import com.kozimor.wms.Config.WmsMetrics;
+
+@DisplayName("VirtualThreadPinningMonitor - Unit Tests")
+class VirtualThreadPinningMonitorTest {
+
+    private final Object monitor = new Object();
+
+    private WmsMetrics metrics;
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @BeforeEach
+    void setUp() {
+        metrics = mock(WmsMetrics.class);
+        pinningMonitor = new VirtualThreadPinningMonitor(metrics, 10);
+        pinningMonitor.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pinningMonitor.destroy();
+    }
+
+    @Test
+    @DisplayName("Should record virtual thread blocking inside synchronized")
+    void testRecordsPinnedThread() throws Exception {
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        verify(metrics, timeout(10_000).atLeastOnce()).recordVirtualThreadPinned(longThat(nanos -> nanos >= 10_000_000L));
+    }
+}
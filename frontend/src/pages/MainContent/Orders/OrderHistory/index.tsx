@@ -441,9 +441,14 @@ const OrdersHistory: FC = () => {
                             <p className="text-xs text-secondary">{line.unit || 'szt.'}</p>
                           </span>
                         </div>
-                        {line.transactionId && (
+                        {line.transactionIds && line.transactionIds.length > 0 ? (
+                          <p className="text-xs text-muted">ID transakcji: {line.transactionIds.join(', ')}</p>
+                        ) : line.transactionId && (
                           <p className="text-xs text-muted">ID transakcji: {line.transactionId}</p>
                         )}
+                        {!!line.backorderedQuantity && (
+                          <p className="text-xs text-warning">Zaległe (brak w lokacjach): {line.backorderedQuantity}</p>
+                        )}
                       </div>
                     ))}
                   </div>
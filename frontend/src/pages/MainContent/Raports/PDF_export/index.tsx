@@ -6,6 +6,7 @@ import { pdf } from '@react-pdf/renderer'
 // Backend Response Types
 type ReportItemDTO = {
   id: number
+  itemId: number
   itemName: string
   status: 'OK' | 'LOW' | 'CRITICAL'
   currentQuantity: number
@@ -33,12 +34,19 @@ type BackendReportDTO = {
   lowStockCount: number
   criticalStockCount: number
   okCount: number
-  reportItems: ReportItemDTO[]
+  snapshotType?: 'FULL' | 'DELTA'
   createdBy: UserDTO
   createdAt: string
   updatedAt?: string
 }
 
+// Keyset page of report items - next page: afterItemId = nextAfterItemId
+type ReportItemPageDTO = {
+  items: ReportItemDTO[]
+  nextAfterItemId: number
+  hasMore: boolean
+}
+
 type PageResponseDTO = {
   content: BackendReportDTO[]
   pageNumber: number
@@ -58,7 +66,6 @@ type Report = {
   lowStockCount: number
   criticalStockCount: number
   okCount: number
-  reportItems: ReportItemDTO[]
   createdBy: UserDTO
   createdAt: string
 }
@@ -97,11 +104,14 @@ const PDFExport: FC = () => {
   const [error, setError] = useState<string | null>(null)
   const [currentPage, setCurrentPage] = useState(0)
   const [itemsPage, setItemsPage] = useState(0)
+  const [reportItems, setReportItems] = useState<ReportItemDTO[]>([])
+  const [itemsLoading, setItemsLoading] = useState(false)
   const [totalPages, setTotalPages] = useState(0)
   const [hasNext, setHasNext] = useState(false)
   const [hasPrevious, setHasPrevious] = useState(false)
   const pageSize = 10
   const itemsPageSize = 5
+  const itemsFetchSize = 500
 
   // Fetch reports with pagination
   useEffect(() => {
@@ -141,17 +151,61 @@ const PDFExport: FC = () => {
   }, [currentPage])
 
 
+  // Report list is summary-only - items of the selected report are fetched page by page (keyset)
+  useEffect(() => {
+    if (!selectedReport) {
+      setReportItems([])
+      return
+    }
+    let cancelled = false
+    const fetchReportItems = async () => {
+      try {
+        setItemsLoading(true)
+        setReportItems([])
+        const authToken = localStorage.getItem('authToken')
+        if (!authToken) return
+
+        const items: ReportItemDTO[] = []
+        let afterItemId = 0
+        let hasMore = true
+        while (hasMore && !cancelled) {
+          const res = await fetch(
+            `/api/reports/${selectedReport.id}/items?afterItemId=${afterItemId}&size=${itemsFetchSize}`,
+            {
+              headers: { Authorization: `Bearer ${authToken}` },
+            }
+          )
+          if (!res.ok) throw new Error(`HTTP ${res.status}`)
+
+          const data: ReportItemPageDTO = await res.json()
+          items.push(...data.items)
+          afterItemId = data.nextAfterItemId
+          hasMore = data.hasMore
+        }
+        if (!cancelled) setReportItems(items)
+      } catch (err) {
+        console.error('Error fetching report items:', err)
+        if (!cancelled) setError('Błąd podczas pobierania pozycji raportu')
+      } finally {
+        if (!cancelled) setItemsLoading(false)
+      }
+    }
+
+    fetchReportItems()
+    return () => {
+      cancelled = true
+    }
+  }, [selectedReport])
+
   // Paginate selected report items
   const paginatedLocations = useMemo(() => {
-    if (!selectedReport?.reportItems) return []
     const start = itemsPage * itemsPageSize
-    return selectedReport.reportItems.slice(start, start + itemsPageSize)
-  }, [selectedReport, itemsPage])
+    return reportItems.slice(start, start + itemsPageSize)
+  }, [reportItems, itemsPage])
 
   const totalLocationPages = useMemo(() => {
-    if (!selectedReport?.reportItems) return 0
-    return Math.ceil(selectedReport.reportItems.length / itemsPageSize)
-  }, [selectedReport])
+    return Math.ceil(reportItems.length / itemsPageSize)
+  }, [reportItems])
 
   const handleDownloadReport = async () => {
     if (!selectedReport) return
@@ -179,7 +233,7 @@ const PDFExport: FC = () => {
             {/* Items Table Header */}
             <View style={{ marginBottom: 10 }}>
               <Text style={{ fontSize: 12, fontWeight: 'bold', marginBottom: 10 }}>
-                {sanitizePolishText(`Pozycje (${selectedReport.reportItems.length})`)}
+                {sanitizePolishText(`Pozycje (${reportItems.length})`)}
               </Text>
             </View>
 
@@ -193,7 +247,7 @@ const PDFExport: FC = () => {
               </View>
 
               {/* Data Rows */}
-              {selectedReport.reportItems.map((item) => {
+              {reportItems.map((item) => {
                 return (
                   <View key={item.id} style={{ display: 'flex', flexDirection: 'row', paddingBottom: 4, marginBottom: 4, borderBottom: '1px solid #eee' }}>
                     
@@ -500,10 +554,14 @@ const PDFExport: FC = () => {
               {/* Items Table */}
               <div>
                 <h3 style={{ color: 'var(--color-text)' }} className="text-base sm:text-lg font-semibold mb-3">
-                  Pozycje ({selectedReport.reportItems.length})
+                  Pozycje ({reportItems.length})
                 </h3>
 
-                {selectedReport.reportItems.length === 0 ? (
+                {itemsLoading ? (
+                  <div style={{ color: 'var(--color-text-secondary)' }} className="p-4 text-center text-sm">
+                    <Loader className="w-5 h-5 animate-spin mx-auto" style={{ color: 'currentColor' }} />
+                  </div>
+                ) : reportItems.length === 0 ? (
                   <div style={{ color: 'var(--color-text-secondary)' }} className="p-4 text-center text-sm">
                     Brak pozycji w raporcie
                   </div>
@@ -634,11 +692,12 @@ const PDFExport: FC = () => {
               </button>
               <button
                 onClick={handleDownloadReport}
+                disabled={itemsLoading}
                 style={{
                   backgroundColor: 'var(--color-primary)',
                   color: 'var(--color-surface)',
                 }}
-                className="px-3 sm:px-4 py-2 rounded-lg font-medium text-sm hover:opacity-80 transition-opacity inline-flex items-center gap-2"
+                className="px-3 sm:px-4 py-2 rounded-lg font-medium text-sm hover:opacity-80 transition-opacity inline-flex items-center gap-2 disabled:opacity-50"
               >
                 <Download className="w-4 h-4" />
                 Pobierz
@@ -8,6 +8,8 @@ export interface OrderLine {
   itemCategory?: string;
   unit?: string;
   transactionId?: number;
+  transactionIds?: number[];
+  backorderedQuantity?: number;
 }
 
 export interface OrderDTO {
@@ -30,7 +30,31 @@ export interface Report {
   okCount: number;
   createdAt: string;
   createdBy: ReportCreatedBy;
-  reportItems: ReportItem[];
+  snapshotType?: 'FULL' | 'DELTA';
+  // Only in single-report responses - list endpoints are summary-only, use getReportItems
+  reportItems?: ReportItem[];
+}
+
+export interface ReportItemRow {
+  id: number;
+  itemId: number;
+  itemName: string;
+  status: 'OK' | 'LOW' | 'CRITICAL';
+  currentQuantity: number;
+  unit?: string;
+  lastReceiptDate?: string;
+  lastIssueDate?: string;
+  warehouseValue?: number;
+  differenceFromPrevious?: number;
+  qrCode?: string;
+  createdAt?: string;
+}
+
+// Keyset page - next page: afterItemId = nextAfterItemId
+export interface ReportItemsPage {
+  items: ReportItemRow[];
+  nextAfterItemId: number;
+  hasMore: boolean;
 }
 
 export interface ReportsPageResponse {
@@ -52,6 +76,9 @@ export const ReportService = {
   getReportById: (id: number) =>
     fetchApi<Report>(`/reports/${id}`),
 
+  getReportItems: (id: number, afterItemId: number = 0, size: number = 100) =>
+    fetchApi<ReportItemsPage>(`/reports/${id}/items?afterItemId=${afterItemId}&size=${size}`),
+
   getReportsByDateRange: (startDate: string, endDate: string, page: number = 0, size: number = 10) =>
     fetchApi<ReportsPageResponse>(`/reports/daterange?startDate=${encodeURIComponent(startDate)}&endDate=${encodeURIComponent(endDate)}&page=${page}&size=${size}`),
 